@@ -17,9 +17,12 @@
 **/
 package com.jayway.android.robotium.remotecontrol.client;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Vector;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.safs.android.messenger.MessageUtil;
 import org.safs.android.messenger.MultipleParcelsHandler;
@@ -28,6 +31,7 @@ import org.safs.android.messenger.client.MessageResult;
 import org.safs.android.messenger.client.MessengerRunner;
 import org.safs.sockets.DebugListener;
 
+import android.app.Activity;
 import android.content.ComponentName;
 import android.content.Context;
 import android.content.Intent;
@@ -40,6 +44,7 @@ import android.os.Messenger;
 import android.test.InstrumentationTestRunner;
 import android.util.Log;
 
+import com.jayway.android.robotium.remotecontrol.client.processor.AbstractProcessor;
 import com.jayway.android.robotium.remotecontrol.client.processor.ProcessorInterface;
 
 /**
@@ -56,6 +61,8 @@ import com.jayway.android.robotium.remotecontrol.client.processor.ProcessorInter
  * @author Carl Nagle, SAS Institute, Inc.
  * @since   FEB 04, 2012	(CarlNagle)	Initial version
  *   <br>	APR 25, 2013	(LeiWang)	Handle message of big size. 
+ *   <br>	OCT 18, 2026	(agent)	Dispatch through an immutable routing table of processor chains, rebuilt only when processors change.
+ *   <br>	OCT 18, 2026	(agent)	Time the dispatched commands in {@link CommandMetrics}.
  */
 public abstract class AbstractTestRunner extends InstrumentationTestRunner implements CommandListener, DebugListener
 {
@@ -66,6 +73,25 @@ public abstract class AbstractTestRunner extends InstrumentationTestRunner imple
     public static final String resource_service_release ="SAFS TCP Messenger Release";
     public static final String resource_bind_service ="SAFS TCP Messenger Binding";
 
+	/** 
+	 * Instrumentation argument to set the maximum size of the bounded object caches of all processors.
+	 * @see #setMaxCacheSize(int) 
+	 */
+	public static final String ARG_CACHE_MAX_SIZE = "cachemaxsize";
+	/** 
+	 * Instrumentation argument to set the debug level: OFF, ERROR, INFO, DEBUG or TRACE.
+	 * @see DebugChannel#parseLevel(String) 
+	 */
+	public static final String ARG_DEBUG_LEVEL = "debuglevel";
+	/** 
+	 * Instrumentation argument "true" to drop the debug and per-node trace messages entirely.
+	 * @see DebugChannel#setProductionMode(boolean) 
+	 */
+	public static final String ARG_PRODUCTION_MODE = "productionmode";
+
+	/** 2000 milliseconds to wait for pending debug messages before shutting down. */
+	public static final long DEBUG_FLUSH_TIMEOUT = 2000;
+
 	protected MessengerRunner messageRunner = null;
 	
 	Object lock = new Object(); 
@@ -76,6 +102,20 @@ public abstract class AbstractTestRunner extends InstrumentationTestRunner imple
 	 */
 	HashMap<String, Vector<ProcessorInterface>> processorsMap = new HashMap<String, Vector<ProcessorInterface>>();
 	
+	/** An empty processor chain, returned for a target without processor. */
+	public static final ProcessorInterface[] NO_PROCESSORS = new ProcessorInterface[0];
+	
+	/**
+	 * The immutable routing table, target to processor chain, built from {@link #processorsMap} 
+	 * at the first lookup and discarded whenever a processor is added or removed.
+	 * @see #getProcessorChain(String)
+	 */
+	private volatile Map<String, ProcessorInterface[]> routingTable = null;
+	/** Incremented each time the processors change, so that caches of resolved routes can be discarded. */
+	private volatile int routingVersion = 0;
+	private final AtomicLong routingLookups = new AtomicLong();
+	private final AtomicLong routingBuilds = new AtomicLong();
+	
 	/** 
 	 * true if we are successfully bound to the TCP Messenger Service. 
 	 * false if we have disconnected ourselves from the service.
@@ -130,8 +170,56 @@ public abstract class AbstractTestRunner extends InstrumentationTestRunner imple
 	private boolean debugEnabled = true;
 	public void setDebugEnabled(boolean enable){ debugEnabled = enable; }
 	public boolean isDebugEnabled(){ return debugEnabled;}
+	
+	/**
+	 * The asynchronous channel carrying our debug messages to {@link #sendDebugBatch(String)}.
+	 */
+	protected DebugChannel debugChannel = new DebugChannel(new DebugChannel.Sink(){
+		public void send(String batch){ sendDebugBatch(batch); }
+	});
+	public DebugChannel getDebugChannel(){ return debugChannel; }
+	
+	/** Log a debug message at {@link DebugChannel#LEVEL_DEBUG}. */
 	public void debug(String message){
-		if (debugEnabled) Log.d(getListenerName(), message);		
+		debug(DebugChannel.LEVEL_DEBUG, message);
+	}
+	
+	/**
+	 * Log a debug message at the given level, if debug is enabled and the level passes the filter 
+	 * of our {@link DebugChannel}. The message will be sent asynchronously.
+	 * @param level int, such as {@link DebugChannel#LEVEL_TRACE}
+	 */
+	public void debug(int level, String message){
+		if (debugEnabled) debugChannel.log(level, message);
+	}
+	
+	/**
+	 * @return true if the per-node trace messages of the component search would be kept.<br>
+	 * Callers should check this before building such messages.
+	 */
+	public boolean isTraceEnabled(){
+		return debugEnabled && debugChannel.isTraceEnabled();
+	}
+	
+	/**
+	 * Called by the background thread of our {@link DebugChannel} with one or more messages 
+	 * separated by '\n'. Here we write them to the Android debug Log.d.<br>
+	 * Subclasses can override to send them elsewhere.
+	 */
+	protected void sendDebugBatch(String batch){
+		logBatch(getListenerName(), batch);
+	}
+	
+	/** Write each message of a batch separated by '\n' to the Android debug Log.d. */
+	protected static void logBatch(String tag, String batch){
+		int start = 0;
+		int end = batch.indexOf('\n');
+		while(end > -1){
+			Log.d(tag, batch.substring(start, end));
+			start = end+1;
+			end = batch.indexOf('\n', start);
+		}
+		Log.d(tag, batch.substring(start));
 	}
 	
 	/**
@@ -157,6 +245,7 @@ public abstract class AbstractTestRunner extends InstrumentationTestRunner imple
     @Override
     public void onCreate(Bundle savedInstanceState)
     {
+		applyArguments(savedInstanceState);
 		if(!doBindService()){
 			debug("doBindService Fail! Can't continue.");
 			return;
@@ -167,6 +256,37 @@ public abstract class AbstractTestRunner extends InstrumentationTestRunner imple
 		}
     }
 
+    /**
+     * Apply the optional instrumentation arguments given by "am instrument -e name value".<br>
+     * Supported arguments:<br>
+     * {@link #ARG_CACHE_MAX_SIZE}<br>
+     * {@link #ARG_DEBUG_LEVEL}<br>
+     * {@link #ARG_PRODUCTION_MODE}<br>
+     * @param arguments Bundle, the instrumentation arguments, can be null.
+     */
+    protected void applyArguments(Bundle arguments){
+    	if(arguments==null) return;
+    	String production = arguments.getString(ARG_PRODUCTION_MODE);
+    	if(production!=null){
+    		debugChannel.setProductionMode(Boolean.parseBoolean(production.trim()));
+    	}
+    	String level = arguments.getString(ARG_DEBUG_LEVEL);
+    	if(level!=null){
+    		int lvl = DebugChannel.parseLevel(level);
+    		if(lvl > -1) debugChannel.setLevel(lvl);
+    		else debug("Ignoring invalid instrumentation argument "+ARG_DEBUG_LEVEL+"="+level);
+    	}
+    	String maxsize = arguments.getString(ARG_CACHE_MAX_SIZE);
+    	if(maxsize!=null){
+    		try{
+    			setMaxCacheSize(Integer.parseInt(maxsize.trim()));
+    			debug("Set the maximum cache size to "+maxsize);
+    		}catch(NumberFormatException x){
+    			debug("Ignoring invalid instrumentation argument "+ARG_CACHE_MAX_SIZE+"="+maxsize);
+    		}
+    	}
+    }
+    
     /**
      * Called as part of the {@link #onCreate(Bundle)} initialization after {@link #doBindService()}
      * immediately before {@link #start()}.
@@ -203,6 +323,7 @@ public abstract class AbstractTestRunner extends InstrumentationTestRunner imple
     }
 
     public void finishInstrumentation(){
+    	debugChannel.flush(DEBUG_FLUSH_TIMEOUT);
 		//This will terminate the Instrumentation of application
 		try{finish(0, new Bundle());}catch(Throwable x){}
     }
@@ -265,6 +386,7 @@ public abstract class AbstractTestRunner extends InstrumentationTestRunner imple
 
 	public MessageResult handleEngineShutdown(){
 		MessageResult result = null;		
+		debugChannel.flush(DEBUG_FLUSH_TIMEOUT);
 		if(doUnbindService()){
 			result = MessageResult.getSuccessTestResult(result);
 			result.setStatusinfo("Success: "+resource_service_release+":MessengerService");
@@ -290,19 +412,26 @@ public abstract class AbstractTestRunner extends InstrumentationTestRunner imple
 	public void addProcessor(String target, ProcessorInterface processor){
 		Vector<ProcessorInterface> processors = null;
 		
-		if(processorsMap.containsKey(target)){
-			processors = processorsMap.get(target);
-			processors.add(processor);
-		}else{
-			processors = new Vector<ProcessorInterface>();
-			processors.add(processor);
-			processorsMap.put(target, processors);
+		synchronized(processorsMap){
+			if(processorsMap.containsKey(target)){
+				processors = processorsMap.get(target);
+				processors.add(processor);
+			}else{
+				processors = new Vector<ProcessorInterface>();
+				processors.add(processor);
+				processorsMap.put(target, processors);
+			}
+			invalidateRoutingTable();
 		}
 	}
 	
 	/**
 	 * According to the target, get the processors from a cache
 	 * 
+	 * The returned Vector is the one stored in cache, it should not be modified directly: 
+	 * use {@link #addProcessor(String, ProcessorInterface)} and {@link #removeProcessor(String, ProcessorInterface)} 
+	 * so that the routing table is rebuilt. To dispatch a command, prefer {@link #getProcessorChain(String)}.
+	 * 
 	 * @param target		The key with which the processors are stored in cache
 	 * @return a Vector containing 0 or more ProcessorInterface objects.
 	 */
@@ -318,11 +447,133 @@ public abstract class AbstractTestRunner extends InstrumentationTestRunner imple
 		return processors;
 	}
 	
+	/**
+	 * According to the target, get the processor chain from the immutable routing table.<br>
+	 * The routing table is built once from the cache, at the first lookup after a processor
+	 * has been added or removed, so a lookup is a single hash access without any copy or lock.<br>
+	 * 
+	 * @param target		The key with which the processors are stored in cache
+	 * @return an array of 0 or more ProcessorInterface objects, in the order they were added. 
+	 *         It is shared and must not be modified.
+	 * @see #getRoutingStatistics()
+	 */
+	public ProcessorInterface[] getProcessorChain(String target){
+		routingLookups.incrementAndGet();
+		Map<String, ProcessorInterface[]> table = routingTable;
+		if(table==null) table = buildRoutingTable();
+		ProcessorInterface[] chain = target==null ? null:table.get(target);
+		return chain==null ? NO_PROCESSORS:chain;
+	}
+	
+	private Map<String, ProcessorInterface[]> buildRoutingTable(){
+		synchronized(processorsMap){
+			Map<String, ProcessorInterface[]> table = routingTable;
+			if(table!=null) return table;
+			HashMap<String, ProcessorInterface[]> chains = new HashMap<String, ProcessorInterface[]>(processorsMap.size()*2);
+			for(Map.Entry<String, Vector<ProcessorInterface>> entry: processorsMap.entrySet()){
+				if(!entry.getValue().isEmpty()){
+					chains.put(entry.getKey(), entry.getValue().toArray(NO_PROCESSORS));
+				}
+			}
+			table = Collections.unmodifiableMap(chains);
+			routingBuilds.incrementAndGet();
+			routingTable = table;
+			return table;
+		}
+	}
+	
+	/**
+	 * Discard the routing table, it will be rebuilt at the next lookup.<br>
+	 * Called whenever a processor is added or removed.
+	 * @see #getRoutingVersion()
+	 */
+	protected void invalidateRoutingTable(){
+		synchronized(processorsMap){
+			routingTable = null;
+			routingVersion++;
+		}
+	}
+	
+	/**
+	 * @return int, a number changing each time a processor is added or removed. Callers caching
+	 *         processor chains resolved from {@link #getProcessorChain(String)} compare it to know 
+	 *         when their cache is out of date.
+	 */
+	public int getRoutingVersion(){
+		return routingVersion;
+	}
+	
+	/**
+	 * @return String, the counters of the routing table like "lookups=200,builds=1,hitrate=99.5%",
+	 *         a lookup is a hit if the routing table did not have to be rebuilt.
+	 */
+	public String getRoutingStatistics(){
+		long lookups = routingLookups.get();
+		long builds = routingBuilds.get();
+		long permille = lookups==0 ? 0:(lookups-builds)*1000/lookups;
+		return "lookups="+lookups+",builds="+builds+",hitrate="+(permille/10)+"."+(permille%10)+"%";
+	}
+	
+	/**
+	 * Get all the distinct processors from the cache, whatever their target.
+	 * 
+	 * @return a Vector containing 0 or more ProcessorInterface objects.
+	 */
+	public Vector<ProcessorInterface> getAllProcessors(){
+		Vector<ProcessorInterface> all = new Vector<ProcessorInterface>();
+		
+		synchronized(processorsMap){
+			for(Vector<ProcessorInterface> processors: processorsMap.values()){
+				for(ProcessorInterface processor: processors){
+					if(!all.contains(processor)) all.add(processor);
+				}
+			}
+		}
+		
+		return all;
+	}
+	
+	/**
+	 * Set the maximum size of the bounded object caches of all processors.
+	 * 
+	 * @param maxSize	int, the maximum number of objects of each bounded cache, 0 or negative for unbounded caches.
+	 * @see AbstractProcessor#setMaxCacheSize(int)
+	 */
+	public void setMaxCacheSize(int maxSize){
+		for(ProcessorInterface processor: getAllProcessors()){
+			if(processor instanceof AbstractProcessor){
+				((AbstractProcessor) processor).setMaxCacheSize(maxSize);
+			}
+		}
+	}
+	
+	/**
+	 * Notify all processors that an Activity of the application under test is being destroyed, 
+	 * so that they can release their cached references to the Activity and its Views.
+	 * 
+	 * @see AbstractProcessor#onActivityDestroyed(Activity)
+	 */
+	@Override
+	public void callActivityOnDestroy(Activity activity){
+		super.callActivityOnDestroy(activity);
+		for(ProcessorInterface processor: getAllProcessors()){
+			if(processor instanceof AbstractProcessor){
+				try{ ((AbstractProcessor) processor).onActivityDestroyed(activity); }
+				catch(Throwable x){
+					debug("callActivityOnDestroy ignoring "+ x.getClass().getSimpleName()+": "+x.getMessage());
+				}
+			}
+		}
+	}
+	
 	/**
 	 * Be careful when you call this method, which will remove all the processors from cache
 	 */
 	public void removeProcessors(){
-		processorsMap.clear();
+		synchronized(processorsMap){
+			processorsMap.clear();
+			invalidateRoutingTable();
+		}
 	}
 	
 	/**
@@ -334,11 +585,14 @@ public abstract class AbstractTestRunner extends InstrumentationTestRunner imple
 	public void removeProcessors(String target){
 		Vector<ProcessorInterface> processors = null;
 		
-		if(processorsMap.containsKey(target)){
-			processors = processorsMap.get(target);
-			processors.clear();
-		}else{
-			debug("The processors cache doesn't contain processors related to '"+target+"'");
+		synchronized(processorsMap){
+			if(processorsMap.containsKey(target)){
+				processors = processorsMap.get(target);
+				processors.clear();
+				invalidateRoutingTable();
+			}else{
+				debug("The processors cache doesn't contain processors related to '"+target+"'");
+			}
 		}
 	}
 
@@ -351,13 +605,16 @@ public abstract class AbstractTestRunner extends InstrumentationTestRunner imple
 	public void removeProcessor(String target, ProcessorInterface processor){
 		Vector<ProcessorInterface> processors = null;
 		
-		if(processorsMap.containsKey(target)){
-			processors = processorsMap.get(target);
-			if(processors.remove(processor)){
-				debug("Processor '"+processor.getClass().getSimpleName()+"' has been removed.");
+		synchronized(processorsMap){
+			if(processorsMap.containsKey(target)){
+				processors = processorsMap.get(target);
+				if(processors.remove(processor)){
+					invalidateRoutingTable();
+					debug("Processor '"+processor.getClass().getSimpleName()+"' has been removed.");
+				}
+			}else{
+				debug("The processors cache doesn't contain processors related to '"+target+"'");
 			}
-		}else{
-			debug("The processors cache doesn't contain processors related to '"+target+"'");
 		}
 	}
 	
@@ -383,7 +640,7 @@ public abstract class AbstractTestRunner extends InstrumentationTestRunner imple
 		String debugmsg = getClass().getName()+"handleDispatchProps(): ";
 		String command = null;
 		String target = null;
-		Vector<ProcessorInterface> processors = null;
+		ProcessorInterface[] processors = NO_PROCESSORS;
 		ProcessorInterface processor = null;
 		
 		if(props==null){
@@ -397,7 +654,7 @@ public abstract class AbstractTestRunner extends InstrumentationTestRunner imple
 		target = props.getProperty(SoloMessage.KEY_TARGET);
 		if(target!=null){
 			debug(debugmsg+" target is '"+target+"'");
-			processors = getProcessors(target);
+			processors = getProcessorChain(target);
 		}
 		
 		//the argument props will take back the result, we don't need the MessageResult
@@ -412,12 +669,18 @@ public abstract class AbstractTestRunner extends InstrumentationTestRunner imple
 			props.setProperty(SoloMessage.KEY_REMOTERESULTCODE, SoloMessage.STATUS_REMOTE_NOT_EXECUTED_STRING);
 			props.setProperty(SoloMessage.KEY_REMOTERESULTINFO, command+SoloMessage.RESULT_INFO_COMMAND_UNKNOWN);
 			boolean processed = false;
-			// cycle through chained target processors only until one of them handles the command
-			for(int i=0; i<processors.size()&& !processed;i++){
-				processor = processors.get(i);
-				processor.setRemoteCommand(command);
-				processor.processProperties(props);
-				try{processed = ! SoloMessage.STATUS_REMOTE_NOT_EXECUTED_STRING.equals(props.getProperty(SoloMessage.KEY_REMOTERESULTCODE));}catch(NullPointerException x){}
+			long start = CommandMetrics.begin(command);
+			try{
+				// cycle through chained target processors only until one of them handles the command
+				for(int i=0; i<processors.length&& !processed;i++){
+					processor = processors[i];
+					processor.setRemoteCommand(command);
+					processor.processProperties(props);
+					try{processed = ! SoloMessage.STATUS_REMOTE_NOT_EXECUTED_STRING.equals(props.getProperty(SoloMessage.KEY_REMOTERESULTCODE));}catch(NullPointerException x){}
+				}
+			}finally{
+				CommandMetrics.end(start, processed && 
+				                   SoloMessage.STATUS_REMOTERESULT_OK_STRING.equals(props.getProperty(SoloMessage.KEY_REMOTERESULTCODE)));
 			}
 		}
 	}
@@ -0,0 +1,38 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package com.jayway.android.robotium.remotecontrol.client;
+
+/**
+ * Strategy used to create the unique String keys of the objects stored in the processors' caches.<br>
+ * The keys are sent to the remote controller, which uses them to refer to the cached objects later.<br>
+ * An implementation MUST be thread-safe and MUST never return the same key twice, even across engine restarts.<br>
+ * 
+ * @see SoloMessage#makeUniqueCacheKey()
+ * @see SoloMessage#setCacheKeyGenerator(CacheKeyGenerator)
+ * @see SequentialKeyGenerator
+ * @see UUIDKeyGenerator
+ * @since  OCT 18, 2026 (agent)
+ */
+public interface CacheKeyGenerator {
+
+	/**
+	 * @param item Object, the object to be stored in cache, it can be null.
+	 * @return String, a new unique key.
+	 */
+	public String makeKey(Object item);
+}
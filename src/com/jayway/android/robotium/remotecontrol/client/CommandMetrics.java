@@ -0,0 +1,263 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package com.jayway.android.robotium.remotecontrol.client;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Low-overhead latency metrics of the remote commands, to tell where the time goes for a given keyword.<br>
+ * Each command dispatched by {@link AbstractTestRunner#handleDispatchProps(java.util.Properties)} is timed as a whole,
+ * and the processors time its phases: the window search, the component search, the routing, and the action itself.
+ * Every command and phase has a latency histogram with power-of-two buckets in microseconds, so
+ * recording is a few arithmetic operations and no allocation.<br>
+ * The nodes visited by the component searches and the reflective property reads are counted too,
+ * both in total and for each command.<br>
+ * <p>
+ * The commands are dispatched one at a time, the phases are recorded for the command in progress:
+ * <pre>
+ * long start = CommandMetrics.start();
+ * winobj = dgov.getMatchingParentObject(wintime);
+ * CommandMetrics.stop(CommandMetrics.PHASE_WINDOW, start);
+ * </pre>
+ * {@link #getSnapshot(boolean)} returns all the metrics as text, one line per command and phase.<br>
+ *
+ * @see #setEnabled(boolean)
+ * @since  OCT 18, 2026 (agent)
+ */
+public class CommandMetrics {
+
+	/** The whole handling of the command, from handleDispatchProps. */
+	public static final int PHASE_DISPATCH  = 0;
+	/** The search of the window. */
+	public static final int PHASE_WINDOW    = 1;
+	/** The search of the component in the window. */
+	public static final int PHASE_COMPONENT = 2;
+	/** The routing of the command to the processors of the component type. */
+	public static final int PHASE_ROUTING   = 3;
+	/** The execution of the command once its component has been found, including the routing. */
+	public static final int PHASE_ACTION    = 4;
+
+	/** "dispatch", "window", "component", "routing", "action", indexed by phase. */
+	public static final String[] PHASE_NAMES = {"dispatch", "window", "component", "routing", "action"};
+
+	/** Bucket i counts the latencies below 2^i microseconds, the last one all the longer latencies. */
+	static final int BUCKETS = 26;
+
+	/** The latency histogram of one phase. */
+	static final class Histogram{
+		final long[] buckets = new long[BUCKETS];
+		long count = 0;
+		long totalNanos = 0;
+		long maxNanos = 0;
+
+		void record(long nanos){
+			long micros = nanos / 1000;
+			int bucket = micros <= 0 ? 0 : 64 - Long.numberOfLeadingZeros(micros);
+			if(bucket >= BUCKETS) bucket = BUCKETS - 1;
+			buckets[bucket]++;
+			count++;
+			totalNanos += nanos;
+			if(nanos > maxNanos) maxNanos = nanos;
+		}
+
+		/** @return long, the upper bound in microseconds of the bucket holding the percentile, at most the maximum. */
+		long percentileMicros(int percent){
+			long rank = (count * percent + 99) / 100;
+			long max = maxNanos / 1000;
+			long seen = 0;
+			for(int i=0;i<BUCKETS-1;i++){
+				seen += buckets[i];
+				if(seen >= rank) return Math.min(1L << i, max);
+			}
+			return max;
+		}
+
+		void append(StringBuilder text){
+			text.append("count=").append(count);
+			text.append(",mean=").append(count == 0 ? 0 : totalNanos / count / 1000).append("us");
+			text.append(",p50<=").append(percentileMicros(50)).append("us");
+			text.append(",p90<=").append(percentileMicros(90)).append("us");
+			text.append(",p99<=").append(percentileMicros(99)).append("us");
+			text.append(",max=").append(maxNanos / 1000).append("us");
+		}
+	}
+
+	/** The metrics of one command. */
+	static final class Entry{
+		final Histogram[] phases = new Histogram[PHASE_NAMES.length];
+		long nodes = 0;
+		long reflections = 0;
+		long failures = 0;
+	}
+
+	private static final Object lock = new Object();
+	private static final HashMap<String, Entry> commands = new HashMap<String, Entry>();
+	private static volatile boolean enabled = true;
+	private static long sinceMillis = System.currentTimeMillis();
+
+	/* set by begin, for the phases of the command in progress */
+	private static Entry current = null;
+	private static long currentNodes = 0;
+	private static long currentReflections = 0;
+
+	private static final AtomicLong nodes = new AtomicLong();
+	private static final AtomicLong reflections = new AtomicLong();
+
+	/** @param enable boolean, false to stop recording, the counters are kept. true by default. */
+	public static void setEnabled(boolean enable){
+		enabled = enable;
+	}
+
+	public static boolean isEnabled(){
+		return enabled;
+	}
+
+	/** @return long, the start time of a phase to give to {@link #stop(int, long)}; 0 if the metrics are disabled. */
+	public static long start(){
+		return enabled ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Record the duration of a phase of the command in progress.
+	 * @param phase int, like {@link #PHASE_WINDOW}.
+	 * @param start long, from {@link #start()}.
+	 */
+	public static void stop(int phase, long start){
+		if(start == 0) return;
+		long nanos = System.nanoTime() - start;
+		synchronized(lock){
+			if(current != null) histogram(current, phase).record(nanos);
+		}
+	}
+
+	/**
+	 * Start the metrics of a command dispatched by {@link AbstractTestRunner#handleDispatchProps(java.util.Properties)}.
+	 * @param command String, the name of the command.
+	 * @return long, the start time to give to {@link #end(long, boolean)}; 0 if the metrics are disabled.
+	 */
+	public static long begin(String command){
+		if(!enabled || command == null) return 0;
+		String key = command.toLowerCase();
+		synchronized(lock){
+			Entry entry = commands.get(key);
+			if(entry == null){
+				entry = new Entry();
+				commands.put(key, entry);
+			}
+			current = entry;
+			currentNodes = nodes.get();
+			currentReflections = reflections.get();
+		}
+		return System.nanoTime();
+	}
+
+	/**
+	 * End the metrics of the command started by {@link #begin(String)}.
+	 * @param start long, from {@link #begin(String)}.
+	 * @param success boolean, false if the result of the command is not OK: it failed, warned, or was not executed.
+	 */
+	public static void end(long start, boolean success){
+		if(start == 0) return;
+		long nanos = System.nanoTime() - start;
+		synchronized(lock){
+			Entry entry = current;
+			if(entry == null) return;
+			histogram(entry, PHASE_DISPATCH).record(nanos);
+			entry.nodes += nodes.get() - currentNodes;
+			entry.reflections += reflections.get() - currentReflections;
+			if(!success) entry.failures++;
+			current = null;
+		}
+	}
+
+	private static Histogram histogram(Entry entry, int phase){
+		Histogram histogram = entry.phases[phase];
+		if(histogram == null){
+			histogram = new Histogram();
+			entry.phases[phase] = histogram;
+		}
+		return histogram;
+	}
+
+	/** @param count int, the number of nodes visited by a component search. */
+	public static void countNodes(int count){
+		if(enabled) nodes.addAndGet(count);
+	}
+
+	/** Count one reflective read or lookup of a property. */
+	public static void countReflection(){
+		if(enabled) reflections.incrementAndGet();
+	}
+
+	/** Clear all the metrics. */
+	public static void reset(){
+		synchronized(lock){
+			commands.clear();
+			current = null;
+			nodes.set(0);
+			reflections.set(0);
+			sinceMillis = System.currentTimeMillis();
+		}
+	}
+
+	/**
+	 * @param reset boolean, true to clear the metrics once they are read.
+	 * @return String, the metrics like:
+	 * <pre>
+	 * since=12034ms,commands=57,nodes=18230,reflections=940
+	 * click.dispatch:count=12,mean=8210us,p50&lt;=8192us,p90&lt;=16384us,p99&lt;=16384us,max=15022us,failures=0,nodes=2410,reflections=0
+	 * click.window:count=12,mean=...
+	 * </pre>
+	 * The lines of the commands are sorted by name, the percentiles are the upper bounds of their power-of-two buckets.
+	 */
+	public static String getSnapshot(boolean reset){
+		StringBuilder text = new StringBuilder(1024);
+		synchronized(lock){
+			long total = 0;
+			List<String> names = new ArrayList<String>(commands.keySet());
+			Collections.sort(names);
+			for(int i=0;i<names.size();i++){
+				Histogram dispatch = commands.get(names.get(i)).phases[PHASE_DISPATCH];
+				if(dispatch != null) total += dispatch.count;
+			}
+			text.append("since=").append(System.currentTimeMillis() - sinceMillis).append("ms");
+			text.append(",commands=").append(total);
+			text.append(",nodes=").append(nodes.get());
+			text.append(",reflections=").append(reflections.get());
+			for(int i=0;i<names.size();i++){
+				Entry entry = commands.get(names.get(i));
+				for(int phase=0;phase<PHASE_NAMES.length;phase++){
+					if(entry.phases[phase] == null) continue;
+					text.append('\n').append(names.get(i)).append('.').append(PHASE_NAMES[phase]).append(':');
+					entry.phases[phase].append(text);
+					if(phase == PHASE_DISPATCH){
+						text.append(",failures=").append(entry.failures);
+						text.append(",nodes=").append(entry.nodes);
+						text.append(",reflections=").append(entry.reflections);
+					}
+				}
+			}
+			if(reset) reset();
+		}
+		return text.toString();
+	}
+}
@@ -0,0 +1,301 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package com.jayway.android.robotium.remotecontrol.client;
+
+/**
+ * A level-filtered, asynchronous debug channel.<br>
+ * Messages passing the level filter are put into a bounded ring buffer and returned immediately;
+ * a background daemon thread drains the buffer and hands the messages to a {@link Sink} in batches,
+ * one batch being the messages joined by '\n'. So many debug messages cost one remote send,
+ * instead of one TCP round trip per message.<br>
+ * When the buffer is full, the oldest messages are discarded and counted by {@link #getDropped()}.<br>
+ * <p>
+ * Levels are {@link #LEVEL_ERROR}, {@link #LEVEL_INFO}, {@link #LEVEL_DEBUG} and {@link #LEVEL_TRACE}.
+ * {@link #LEVEL_TRACE} is meant for the per-node messages of the component search, which can be
+ * thousands for one search. In production mode, {@link #LEVEL_TRACE} and {@link #LEVEL_DEBUG}
+ * messages are dropped whatever the level is.<br>
+ * Callers can avoid building messages that will be dropped with {@link #isLoggable(int)},
+ * or by giving the parts of the message to {@link #log(int, Object[])}.<br>
+ *
+ * @see AbstractTestRunner#debug(int, String)
+ * @since  OCT 18, 2026 (agent)
+ */
+public class DebugChannel {
+
+	public static final int LEVEL_OFF   = 0;
+	public static final int LEVEL_ERROR = 1;
+	public static final int LEVEL_INFO  = 2;
+	public static final int LEVEL_DEBUG = 3;
+	public static final int LEVEL_TRACE = 4;
+
+	/** "OFF", "ERROR", "INFO", "DEBUG", "TRACE", indexed by level. */
+	public static final String[] LEVEL_NAMES = {"OFF", "ERROR", "INFO", "DEBUG", "TRACE"};
+
+	/** 4096 messages */
+	public static final int DEFAULT_CAPACITY = 4096;
+	/** 128 messages per batch */
+	public static final int DEFAULT_BATCH_SIZE = 128;
+	/** 100 milliseconds to wait for a partial batch to fill up */
+	public static final long DEFAULT_LINGER_MILLIS = 100;
+
+	/** The receiver of the batches of messages. */
+	public interface Sink{
+		/**
+		 * @param batch String, one or more messages separated by '\n'.
+		 */
+		public void send(String batch);
+	}
+
+	private final Sink sink;
+	private final Object lock = new Object();
+	private final String[] ring;
+	private int head = 0;
+	private int count = 0;
+
+	private volatile int level = LEVEL_DEBUG;
+	private volatile boolean productionMode = false;
+	private volatile boolean asynchronous = true;
+	private int batchSize = DEFAULT_BATCH_SIZE;
+	private long lingerMillis = DEFAULT_LINGER_MILLIS;
+
+	private Thread drainer = null;
+	private boolean sending = false;
+	private boolean flushRequested = false;
+
+	private long enqueued = 0;
+	private long dropped = 0;
+	private long batches = 0;
+
+	/** Create a channel with {@link #DEFAULT_CAPACITY}. */
+	public DebugChannel(Sink sink){
+		this(sink, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param sink Sink, the receiver of the batches of messages.
+	 * @param capacity int, the maximum number of messages waiting to be sent.
+	 */
+	public DebugChannel(Sink sink, int capacity){
+		if(sink==null) throw new IllegalArgumentException("sink is null.");
+		if(capacity<1) throw new IllegalArgumentException("capacity must be positive.");
+		this.sink = sink;
+		ring = new String[capacity];
+	}
+
+	/** @param level int, the most verbose level to keep, from {@link #LEVEL_OFF} to {@link #LEVEL_TRACE}. */
+	public void setLevel(int level){
+		this.level = level;
+	}
+	public int getLevel(){
+		return level;
+	}
+
+	/**
+	 * @param name String, one of {@link #LEVEL_NAMES}, case-insensitive.
+	 * @return int, the level, or -1 if the name is unknown.
+	 */
+	public static int parseLevel(String name){
+		if(name!=null){
+			name = name.trim();
+			for(int i=0;i<LEVEL_NAMES.length;i++){
+				if(LEVEL_NAMES[i].equalsIgnoreCase(name)) return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @param production boolean, if true only {@link #LEVEL_ERROR} and {@link #LEVEL_INFO} messages
+	 *                   are kept, the per-node trace of the component search is dropped entirely.
+	 */
+	public void setProductionMode(boolean production){
+		productionMode = production;
+	}
+	public boolean isProductionMode(){
+		return productionMode;
+	}
+
+	/**
+	 * @param async boolean, if false the messages are sent one by one by the calling thread,
+	 *              which keeps them in order with whatever the caller does next, but is slow.
+	 *              Pending messages are flushed first.
+	 */
+	public void setAsynchronous(boolean async){
+		if(!async) flush(0);
+		asynchronous = async;
+	}
+	public boolean isAsynchronous(){
+		return asynchronous;
+	}
+
+	/**
+	 * @param size int, the maximum number of messages in one batch.
+	 * @param lingerMillis long, how long the background thread waits for a partial batch to fill up.
+	 */
+	public void setBatching(int size, long lingerMillis){
+		synchronized(lock){
+			batchSize = size<1 ? 1:size;
+			this.lingerMillis = lingerMillis<0 ? 0:lingerMillis;
+		}
+	}
+
+	/** @return true if a message of this level would be kept. */
+	public boolean isLoggable(int msglevel){
+		if(msglevel > level || msglevel <= LEVEL_OFF) return false;
+		return !(productionMode && msglevel > LEVEL_INFO);
+	}
+
+	/** @return true if the per-node {@link #LEVEL_TRACE} messages would be kept. */
+	public boolean isTraceEnabled(){
+		return isLoggable(LEVEL_TRACE);
+	}
+
+	/** Log a message if its level passes the filter. */
+	public void log(int msglevel, String message){
+		if(!isLoggable(msglevel)) return;
+		if(asynchronous) enqueue(message);
+		else sink.send(message);
+	}
+
+	/**
+	 * Log a message built by concatenating the parts, which is done only if the level passes the filter.
+	 */
+	public void log(int msglevel, Object... parts){
+		if(!isLoggable(msglevel) || parts==null) return;
+		StringBuilder message = new StringBuilder();
+		for(int i=0;i<parts.length;i++) message.append(parts[i]);
+		log(msglevel, message.toString());
+	}
+
+	private void enqueue(String message){
+		synchronized(lock){
+			if(count==ring.length){
+				ring[head] = null;
+				head = (head+1) % ring.length;
+				count--;
+				dropped++;
+			}
+			ring[(head+count) % ring.length] = message;
+			count++;
+			enqueued++;
+			if(drainer==null) startDrainer();
+			if(count==1 || count>=batchSize) lock.notifyAll();
+		}
+	}
+
+	private void startDrainer(){
+		drainer = new Thread("DebugChannel"){
+			public void run(){ drain(); }
+		};
+		drainer.setDaemon(true);
+		drainer.start();
+	}
+
+	private void drain(){
+		StringBuilder batch = new StringBuilder();
+		while(true){
+			synchronized(lock){
+				try{
+					while(count==0) lock.wait();
+					if(count<batchSize && !flushRequested && lingerMillis>0) lock.wait(lingerMillis);
+				}catch(InterruptedException x){
+					drainer = null;
+					return;
+				}
+				batch.setLength(0);
+				int n = count<batchSize ? count:batchSize;
+				for(int i=0;i<n;i++){
+					if(i>0) batch.append('\n');
+					batch.append(ring[head]);
+					ring[head] = null;
+					head = (head+1) % ring.length;
+				}
+				count -= n;
+				batches++;
+				sending = true;
+			}
+			try{ sink.send(batch.toString()); }
+			catch(Throwable ignore){}
+			synchronized(lock){
+				sending = false;
+				if(count==0){
+					flushRequested = false;
+					lock.notifyAll();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Wait until all pending messages have been handed to the sink.
+	 * @param timeoutMillis long, the maximum time to wait, 0 to wait as long as needed.
+	 * @return true if everything has been sent, false on timeout or interruption.
+	 */
+	public boolean flush(long timeoutMillis){
+		long end = System.currentTimeMillis()+timeoutMillis;
+		synchronized(lock){
+			if(count==0 && !sending) return true;
+			if(drainer==null) startDrainer();
+			flushRequested = true;
+			lock.notifyAll();
+			try{
+				while(count > 0 || sending){
+					if(timeoutMillis<=0){
+						lock.wait();
+					}else{
+						long remaining = end-System.currentTimeMillis();
+						if(remaining<=0) return false;
+						lock.wait(remaining);
+					}
+				}
+			}catch(InterruptedException x){
+				return false;
+			}
+			return true;
+		}
+	}
+
+	/** @return the number of messages waiting to be sent. */
+	public int getPending(){
+		synchronized(lock){ return count;}
+	}
+	/** @return the number of messages accepted into the buffer. */
+	public long getEnqueued(){
+		synchronized(lock){ return enqueued;}
+	}
+	/** @return the number of messages discarded because the buffer was full. */
+	public long getDropped(){
+		synchronized(lock){ return dropped;}
+	}
+	/** @return the number of batches handed to the sink. */
+	public long getBatches(){
+		synchronized(lock){ return batches;}
+	}
+
+	/**
+	 * @return String, like "level=DEBUG,production=false,pending=0,enqueued=..,dropped=..,batches=.."
+	 */
+	public String getStatistics(){
+		int lvl = level;
+		String name = lvl>=0 && lvl<LEVEL_NAMES.length ? LEVEL_NAMES[lvl]:String.valueOf(lvl);
+		synchronized(lock){
+			return "level="+name+",production="+productionMode+",pending="+count+
+			       ",enqueued="+enqueued+",dropped="+dropped+",batches="+batches;
+		}
+	}
+}
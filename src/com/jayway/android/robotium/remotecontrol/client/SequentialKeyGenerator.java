@@ -0,0 +1,50 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package com.jayway.android.robotium.remotecontrol.client;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The default {@link CacheKeyGenerator}, which is lock-free and cheap.<br>
+ * A key is composed of a session prefix and a counter, like "3f2a9c1e-k9x2m1qe-1a".<br>
+ * The session prefix is generated once per instance from a random UUID and the creation time, 
+ * so the keys stay unique across engine restarts; the counter makes them unique within the session.<br>
+ * 
+ * @see UUIDKeyGenerator
+ * @since  OCT 18, 2026 (agent)
+ */
+public class SequentialKeyGenerator implements CacheKeyGenerator {
+
+	private final String prefix;
+	private final AtomicLong counter = new AtomicLong();
+	
+	public SequentialKeyGenerator(){
+		String random = UUID.randomUUID().toString();
+		prefix = random.substring(0, random.indexOf('-'))+"-"+Long.toString(System.currentTimeMillis(), 36)+"-";
+	}
+	
+	public String makeKey(Object item) {
+		return prefix + Long.toString(counter.incrementAndGet(), 36);
+	}
+	
+	/** @return String, the session prefix of all the keys generated by this instance. */
+	public String getPrefix(){
+		return prefix;
+	}
+}
@@ -20,7 +20,6 @@ package com.jayway.android.robotium.remotecontrol.client;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
-import java.util.UUID;
 
 import android.graphics.PointF;
 import android.util.Log;
@@ -189,21 +188,30 @@ public class SoloMessage extends Message {
 		return simpleClassName;
 	}
 	
-	private static String __last_unique_key = "";
+	private static volatile CacheKeyGenerator __key_generator = new SequentialKeyGenerator();
+	
 	/**
-	 * Routine is used to create a unique ID String key.
+	 * Set the strategy used by {@link #makeUniqueCacheKey()} to create unique keys.
+	 * @param generator CacheKeyGenerator, the key generation strategy. null to restore the default {@link SequentialKeyGenerator}.
+	 */
+	public static void setCacheKeyGenerator(CacheKeyGenerator generator){
+		__key_generator = generator!=null? generator: new SequentialKeyGenerator();
+	}
+	
+	/** @return CacheKeyGenerator, the strategy used by {@link #makeUniqueCacheKey()} to create unique keys. */
+	public static CacheKeyGenerator getCacheKeyGenerator(){
+		return __key_generator;
+	}
+	
+	/**
+	 * Routine is used to create a unique ID String key.<br>
+	 * This method is thread-safe, the key is created by the current {@link CacheKeyGenerator}.<br>
 	 * 
 	 * @return unique String
+	 * @see #setCacheKeyGenerator(CacheKeyGenerator)
 	 */
 	public static String makeUniqueCacheKey(){
-		
-		String uniquekey = "";
-		synchronized(__last_unique_key){
-			do{	uniquekey = UUID.randomUUID().toString();
-			}while(uniquekey.equals(__last_unique_key));
-			__last_unique_key = uniquekey;
-		}
-		return uniquekey;
+		return __key_generator.makeKey(null);
 	}
 	
 	/**
@@ -0,0 +1,35 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package com.jayway.android.robotium.remotecontrol.client;
+
+import java.util.UUID;
+
+/**
+ * Generate a random {@link UUID} as key.<br>
+ * This was the only strategy before {@link CacheKeyGenerator} was introduced. It calls SecureRandom 
+ * for each key, so it is much slower than {@link SequentialKeyGenerator}.<br>
+ * 
+ * @see SequentialKeyGenerator
+ * @since  OCT 18, 2026 (agent)
+ */
+public class UUIDKeyGenerator implements CacheKeyGenerator {
+
+	public String makeKey(Object item) {
+		return UUID.randomUUID().toString();
+	}
+}
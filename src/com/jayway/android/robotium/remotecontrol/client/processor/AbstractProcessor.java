@@ -17,16 +17,21 @@
 **/
 package com.jayway.android.robotium.remotecontrol.client.processor;
 
-import java.util.Enumeration;
-import java.util.Hashtable;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Properties;
-import java.util.UUID;
 import java.util.Vector;
 
 import org.safs.android.messenger.client.MessageResult;
 
+import android.app.Activity;
+import android.content.Context;
+import android.content.ContextWrapper;
+import android.view.View;
+
 import com.jayway.android.robotium.remotecontrol.client.AbstractTestRunner;
+import com.jayway.android.robotium.remotecontrol.client.CacheKeyGenerator;
 import com.jayway.android.robotium.remotecontrol.client.SoloMessage;
 
 /** 
@@ -34,6 +39,10 @@ import com.jayway.android.robotium.remotecontrol.client.SoloMessage;
  * @author Lei Wang, SAS Institute, Inc
  * @since
  * <br>May 17, 2013		(LeiWang)	Move some static methods to com.jayway.android.robotium.remotecontrol.solo.Message
+ * <br>OCT 18, 2026		(agent)	Keep the cached objects in bidirectional ObjectRegistries.
+ * <br>OCT 18, 2026		(agent)	Hold the cached objects by weak references in bounded registries, purged with their Activity.
+ * <br>OCT 18, 2026		(agent)	Generate the cache keys with a pluggable CacheKeyGenerator.
+ * <br>OCT 18, 2026		(agent)	Dispatch the commands through the registered CommandHandlers.
  */
 public abstract class AbstractProcessor implements ProcessorInterface {
 	public static String TAG = AbstractProcessor.class.getName();
@@ -49,8 +58,102 @@ public abstract class AbstractProcessor implements ProcessorInterface {
 	 */
 	protected AbstractTestRunner testRunner = null;
 	
+	/**
+	 * The registered {@link CommandHandler}s, keyed by the command name normalized by {@link #normalizeCommand(String)}.
+	 */
+	private final HashMap<String, CommandHandler> commandHandlers = new HashMap<String, CommandHandler>();
+	
 	public AbstractProcessor(AbstractTestRunner testRunner){
 		this.testRunner = testRunner;
+		registerCommandHandlers();
+	}
+	
+	/**
+	 * Called once by the constructor to fill the command table of this processor.<br>
+	 * Subclasses override it to register their {@link CommandHandler}s, calling super.registerCommandHandlers() 
+	 * first so that they can override the handlers of their superclass.<br>
+	 * <b>Note:</b> As it is called from the constructor, the fields of the subclass are not yet initialized; 
+	 * the handlers must not use them until they are called.<br>
+	 * @see #registerCommandHandler(String, CommandHandler)
+	 */
+	protected void registerCommandHandlers(){}
+	
+	/**
+	 * @return true if the commands of this processor are case-sensitive. The default is true.
+	 * @see #normalizeCommand(String)
+	 */
+	protected boolean isCommandCaseSensitive(){
+		return true;
+	}
+	
+	/**
+	 * @return String, the key of the command in the command table, lower-cased if the commands are not case-sensitive.
+	 * @see #isCommandCaseSensitive()
+	 */
+	protected String normalizeCommand(String command){
+		if(command==null || isCommandCaseSensitive()) return command;
+		return command.toLowerCase(Locale.US);
+	}
+	
+	/**
+	 * Register the handler of a command, replacing the handler already registered for it, if any.
+	 * @param command String, the command name.
+	 * @param handler CommandHandler, the handler of the command.
+	 * @return CommandHandler, the handler previously registered for the command, or null.
+	 * @throws IllegalArgumentException if command or handler is null.
+	 */
+	public CommandHandler registerCommandHandler(String command, CommandHandler handler){
+		if(command==null || handler==null) throw new IllegalArgumentException("command and handler can not be null.");
+		synchronized(commandHandlers){
+			return commandHandlers.put(normalizeCommand(command), handler);
+		}
+	}
+	
+	/**
+	 * Register one handler for several commands.
+	 * @see #registerCommandHandler(String, CommandHandler)
+	 */
+	public void registerCommandHandler(String[] commands, CommandHandler handler){
+		for(int i=0;i<commands.length;i++) registerCommandHandler(commands[i], handler);
+	}
+	
+	/**
+	 * @return CommandHandler, the handler that was registered for the command, or null.
+	 */
+	public CommandHandler unregisterCommandHandler(String command){
+		synchronized(commandHandlers){
+			return commandHandlers.remove(normalizeCommand(command));
+		}
+	}
+	
+	/**
+	 * @return CommandHandler, the handler registered for the command, or null if the command is unknown to this processor.
+	 */
+	public CommandHandler getCommandHandler(String command){
+		if(command==null) return null;
+		synchronized(commandHandlers){
+			return commandHandlers.get(normalizeCommand(command));
+		}
+	}
+	
+	/**
+	 * @return true if a handler is registered for the command.
+	 */
+	public boolean isCommandSupported(String command){
+		return getCommandHandler(command)!=null;
+	}
+	
+	/**
+	 * Execute the handler registered for the {@link #remoteCommand}.
+	 * @param props	The Properties object containing the in and out parameters
+	 * @return true if the handler was executed, false if the command is unknown to this processor.
+	 * @throws Exception thrown by the handler.
+	 */
+	protected boolean dispatchCommand(Properties props) throws Exception{
+		CommandHandler handler = getCommandHandler(remoteCommand);
+		if(handler==null) return false;
+		handler.handle(props);
+		return true;
 	}
 	
 	/**
@@ -267,133 +370,187 @@ public abstract class AbstractProcessor implements ProcessorInterface {
 	
 	
 	protected int INITIAL_CACHE_SIZE = 50;
+	
+	/**
+	 * The default maximum number of objects held by a bounded {@link ObjectRegistry} cache.<br>
+	 * When exceeded, the least recently used objects are evicted.<br>
+	 * @see #setMaxCacheSize(int)
+	 */
+	public static final int DEFAULT_MAX_CACHE_SIZE = 2000;
+	
+	/**
+	 * The maximum number of objects held by each bounded cache of this processor.
+	 * @see #setMaxCacheSize(int)
+	 */
+	protected int MAX_CACHE_SIZE = DEFAULT_MAX_CACHE_SIZE;
+	
+	/**
+	 * Set the maximum number of objects held by each bounded cache of this processor.<br>
+	 * Subclasses owning bounded caches should override to apply the new size to them.<br>
+	 * @param maxSize int, the maximum size, 0 or negative for unbounded caches.
+	 * @see ObjectRegistry#setMaxSize(int)
+	 */
+	public void setMaxCacheSize(int maxSize){
+		MAX_CACHE_SIZE = maxSize;
+	}
+	
+	/**
+	 * Subclasses owning caches should override to report the hit/miss/eviction counters of them.
+	 * @return String, the statistics of the caches of this processor, "" if there is no cache.
+	 * @see ObjectRegistry#getStatistics()
+	 */
+	public String getCacheStatistics(){
+		return "";
+	}
+	
+	/**
+	 * Called by the test runner when an Activity of the application under test is destroyed.<br>
+	 * Subclasses owning caches should override to purge the Activity and its Views from them, 
+	 * so that the destroyed Activity and its whole View tree can be garbage collected.<br>
+	 * @param activity Activity, the Activity being destroyed.
+	 * @see AbstractTestRunner#callActivityOnDestroy(Activity)
+	 * @see #isOwnedByActivity(Object, Activity)
+	 */
+	public void onActivityDestroyed(Activity activity){
+		
+	}
+	
+	/**
+	 * Test if an object is the Activity or one of its Views.
+	 * @param item Object, the cached object.
+	 * @param activity Activity, the Activity.
+	 * @return true if item is the Activity, or a View created with the Activity as its Context.
+	 */
+	public static boolean isOwnedByActivity(Object item, Activity activity){
+		if(item==null || activity==null) return false;
+		if(item==activity) return true;
+		if(!(item instanceof View)) return false;
+		
+		Context context = ((View) item).getContext();
+		while(context instanceof ContextWrapper){
+			if(context==activity) return true;
+			context = ((ContextWrapper) context).getBaseContext();
+		}
+		return false;
+	}
+	
+	/**
+	 * Purge the Activity and its Views from the cache.
+	 * @param cache ObjectRegistry, the cache to purge.
+	 * @param activity Activity, the destroyed Activity.
+	 * @return int, the number of objects removed from cache.
+	 * @see #isOwnedByActivity(Object, Activity)
+	 */
+	protected int purgeActivityFromCache(ObjectRegistry cache, final Activity activity){
+		if(cache==null || activity==null) return 0;
+		return cache.removeMatching(new ObjectRegistry.ItemFilter(){
+			public boolean accept(String key, Object item){
+				return isOwnedByActivity(item, activity);
+			}
+		});
+	}
+	
 	/**
 	 * Clear and\or reset the internal component cache used in non-typical modes 
 	 * of operation like MODE_EXTERNAL_PROCESSING (Process Container). 
-	 * @param cache  	Hashtable, MUST be an initialized object
+	 * @param cache  	ObjectRegistry, MUST be an initialized object
 	 * @see #makeUniqueCacheKey(Object)
-	 * @see #putCachedItem(Hashtable, Object, Object)
-	 * @see #getCachedItem(Hashtable, Object)
-	 * @see #removeCachedItem(Hashtable, Object)
+	 * @see #putCachedItem(ObjectRegistry, String, Object)
+	 * @see #getCachedItem(ObjectRegistry, String)
+	 * @see #removeCachedItem(ObjectRegistry, String)
 	 */
-	public void resetExternalModeCache(Hashtable cache){
+	public void resetExternalModeCache(ObjectRegistry cache){
 		if (cache != null) cache.clear();
 	}
 	
 	/**
 	 * Attempts to retrieve an item from cache using the provided key.
 	 * 
-	 * If not found will attempt to use key as-is.
-	 * If not found will return key as-is.
-	 * @param cache  	Hashtable, MUST be an initialized object
-	 * @param key Object to use as lookup reference into cache
+	 * @param cache  	ObjectRegistry, MUST be an initialized object
+	 * @param key String to use as lookup reference into cache
 	 * @return Object stored in cache or null.
 	 * @see #makeUniqueCacheKey(Object)
-	 * @see #putCachedItem(Hashtable, Object, Object)
-	 * @see #removeCachedItem(Hashtable, Object)
+	 * @see #putCachedItem(ObjectRegistry, String, Object)
+	 * @see #removeCachedItem(ObjectRegistry, String)
 	 */
-	protected Object getCachedItem(Hashtable cache, Object key){
-		Object item = null;
+	protected Object getCachedItem(ObjectRegistry cache, String key){
 		if (cache==null) return key;
 		if(key==null) return null;
-		if (key instanceof String) item = cache.get(key);		
-		if (item==null) item = cache.get(key);
-//		if (item==null) item = key;
-		return item;
+		return cache.get(key);
 	}
 	
 	/** 
 	 * Remove an item from cache.  
 	 * Will attempt to use key as-is.
 	 * 
-	 * @param cache  	Hashtable, MUST be an initialized object
-	 * @param key Object to use as lookup reference into cache
+	 * @param cache  	ObjectRegistry, MUST be an initialized object
+	 * @param key String to use as lookup reference into cache
 	 * @return the Object removed or null if not found.
 	 * @see #makeUniqueCacheKey(Object)
-	 * @see #getCachedItem(Hashtable, Object)
-	 * @see #putCachedItem(Hashtable, Object, Object)
+	 * @see #getCachedItem(ObjectRegistry, String)
+	 * @see #putCachedItem(ObjectRegistry, String, Object)
 	 */
-	protected Object removeCachedItem(Hashtable cache, Object key){
-		Object item = null;
+	protected Object removeCachedItem(ObjectRegistry cache, String key){
 		if ((cache==null)||(key==null)) return null;
-		item = cache.remove(key);
-		if ((item==null)&&(key instanceof String)) item = cache.remove(key);		
-		return item;
+		return cache.remove(key);
 	}
 
 	/**
 	 * Attempts to put an item in cache using the provided key.
 	 * 
-	 * @param cache  	Hashtable, MUST be an initialized object
-	 * @param key Object to use as lookup reference into cache.
+	 * @param cache  	ObjectRegistry, MUST be an initialized object
+	 * @param key String to use as lookup reference into cache.
 	 * @param item Item to store in the cache.
 	 * @throws IllegalArgumentException if either cache or key or item is null. 
 	 * @see #makeUniqueCacheKey(Object)
-	 * @see #getCachedItem(Hashtable, Object)
-	 * @see #removeCachedItem(Hashtable, Object)
+	 * @see #getCachedItem(ObjectRegistry, String)
+	 * @see #removeCachedItem(ObjectRegistry, String)
 	 */
-	protected void putCachedItem(Hashtable cache, Object key, Object item){
+	protected void putCachedItem(ObjectRegistry cache, String key, Object item){
 		if (cache==null){
 			throw new IllegalArgumentException("The cache CAN NOT be null!");
 		}
-		
-		try{
-			cache.put(key, item);
-			
-		}catch(NullPointerException np){
-			throw new IllegalArgumentException("Neither cache key nor item can be null.");
-		}
+		cache.put(key, item);
 	}
 	
 	/**
 	 * Test if the value is contained in the local cache.<br>
-	 * @param cache  	Hashtable, MUST be an initialized object
+	 * @param cache  	ObjectRegistry, MUST be an initialized object
 	 * @param value		Object to be checked if it is in the cache.
 	 */
-	boolean cacheContainValue(Hashtable cache, Object value){
+	boolean cacheContainValue(ObjectRegistry cache, Object value){
 		if(cache == null) return false;
 		
-		return cache.containsValue(value);
+		return cache.containsItem(value);
 	}
 	
 	/**
 	 * To check if the local cache contains the expectedValue.<br>
 	 * If found, return the corresponding key, otherwise return null.<br>
+	 * This is a constant time lookup, the cache is NOT scanned.<br>
 	 * 
-	 * @param cache  	Hashtable, MUST be an initialized object
+	 * @param cache  	ObjectRegistry, MUST be an initialized object
 	 * @param expectedValue		Object, the value to be checked
-	 * @return		Object, the key for the value found in cache.<br>
+	 * @return		String, the key for the value found in cache.<br>
 	 *              null,   if the value can't be found in cache.<br>
 	 */
-	Object getCacheKeyForValue(Hashtable cache, Object expectedValue){
-		Object key = null;
-		Object value = null;
-		
-		if(cacheContainValue(cache, expectedValue)){
-			Enumeration<Object> enumerator = cache.keys();
-			while(enumerator.hasMoreElements()){
-				key = enumerator.nextElement();
-				value = cache.get(key);
-				//As cache is a Hashtable, which doesn't permit null as key or value
-				//so all the values got from it will NOT be null.
-				if(value.equals(expectedValue)) break;
-			}
-		}
+	String getCacheKeyForValue(ObjectRegistry cache, Object expectedValue){
+		if(cache == null) return null;
 		
-		return key;
+		return cache.getKey(expectedValue);
 	}
 	
 	/**
 	 * Convert a list of engine-specific objects to an array of unique keys 
 	 * in the cache.  The items will be stored in the cache using the unique keys.
 	 * 
-	 * @param cache  	Hashtable, MUST be an initialized object
+	 * @param cache  	ObjectRegistry, MUST be an initialized object
 	 * @param itemsList List of objects to store in the cache.
 	 * @return an array of String keys used to retrieve the items from the cache.
-	 * @see #convertToKeys(Hashtable, Object[])
+	 * @see #convertToKeys(ObjectRegistry, Object[])
 	 * 
 	 */
-	protected String[] convertToKeys(Hashtable cache, List itemsList){
+	protected String[] convertToKeys(ObjectRegistry cache, List itemsList){
 		Object[] items = null;
 		
 		if(itemsList != null){
@@ -407,20 +564,20 @@ public abstract class AbstractProcessor implements ProcessorInterface {
 	 * Convert an array of engine-specific objects to an array of unique keys 
 	 * in the cache.  The items will be stored in the cache using the unique keys.
 	 * 
-	 * @param cache  	Hashtable, MUST be an initialized object
+	 * @param cache  	ObjectRegistry, MUST be an initialized object
 	 * @param items Array of objects to store in the cache.
 	 * @return an array of String keys used to retrieve the items from the cache.
 	 * 
-	 * @see #convertToKey(Hashtable, Object)
+	 * @see #convertToKey(ObjectRegistry, Object)
 	 * @see #makeUniqueCacheKey(Object)
-	 * @see #getCachedItem(Hashtable, Object)
-	 * @see #putCachedItem(Hashtable, Object, Object)
+	 * @see #getCachedItem(ObjectRegistry, String)
+	 * @see #putCachedItem(ObjectRegistry, String, Object)
 	 * 
 	 * @author CarlNagle APR 23,2010 handle case of null items in items array.
 	 * @author LeiWang MAR 01,2012 Return an array of String instead of Object, 
 	 *                            as makeUniqueCacheKey() return only String.
 	 */
-	protected String[] convertToKeys(Hashtable cache, Object[] items){
+	protected String[] convertToKeys(ObjectRegistry cache, Object[] items){
 		String[] keyarray = new String[0];
 		
 		if (items == null) return keyarray;
@@ -443,27 +600,22 @@ public abstract class AbstractProcessor implements ProcessorInterface {
 	 * Else, generate a new unique key and put the item into cache with that key<br>
 	 * then return the key.<br>
 	 * 
-	 * @param cache  	Hashtable, MUST be an initialized object
+	 * @param cache  	ObjectRegistry, MUST be an initialized object
 	 * @param items	 	Array of objects to store in the cache.
 	 * @return          String key used to retrieve the item from the cache.
 	 * 
 	 * @see #makeUniqueCacheKey(Object)
-	 * @see #getCachedItem(Hashtable, Object)
-	 * @see #putCachedItem(Hashtable, Object, Object)
+	 * @see #getCachedItem(ObjectRegistry, String)
+	 * @see #putCachedItem(ObjectRegistry, String, Object)
 	 * 
 	 */
-	protected String convertToKey(Hashtable cache, Object item){
+	protected String convertToKey(ObjectRegistry cache, Object item){
 		String debugPrefix = TAG+".convertToKey(): ";
 		String key = null;
 		
 		if (item != null) {
 			// check if item is in local cache
-			try {
-				key = (String) getCacheKeyForValue(cache, item);
-			} catch (ClassCastException e) {
-				// item exist in cache, but the key is not a String!!!
-				key = null;
-			}
+			key = getCacheKeyForValue(cache, item);
 			if (key == null) {
 				key = makeUniqueCacheKey(item);
 				try{
@@ -488,28 +640,22 @@ public abstract class AbstractProcessor implements ProcessorInterface {
 		return key;
 	}
 	
-	private static String __last_unique_key = "";
 	/**
 	 * Routine is used to create a unique ID String key that can be used by external 
 	 * processes like Process Container to identify an engine-specific item in the 
 	 * cache.<br>
 	 * This method is thread-safe: it guarantees that multiple threads can get unique ID.<br>
+	 * The key is created by the {@link CacheKeyGenerator} shared with {@link SoloMessage#makeUniqueCacheKey()}.<br>
 	 * 
 	 * @param item to be stored in cache.
 	 * @return unique String suitable to be the key for the item.
-	 * @see #putCachedItem(Hashtable, Object, Object)
-	 * @see #getCachedItem(Hashtable, Object)
-	 * @see #removeCachedItem(Hashtable, Object)
+	 * @see SoloMessage#setCacheKeyGenerator(CacheKeyGenerator)
+	 * @see #putCachedItem(ObjectRegistry, String, Object)
+	 * @see #getCachedItem(ObjectRegistry, String)
+	 * @see #removeCachedItem(ObjectRegistry, String)
 	 */
 	protected String makeUniqueCacheKey(Object item){
-		
-		String timestamp = "";
-		synchronized(__last_unique_key){
-			do{	timestamp = UUID.randomUUID().toString();
-			}while(timestamp.equals(__last_unique_key));
-			__last_unique_key = timestamp;
-		}
-		return timestamp;
+		return SoloMessage.getCacheKeyGenerator().makeKey(item);
 	}
 	
 	/**
@@ -0,0 +1,120 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package com.jayway.android.robotium.remotecontrol.client.processor;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Encode a file, like a screenshot image, to a Base64 String without copying it on the heap first.<br>
+ * The file is memory-mapped through its {@link FileChannel} and encoded chunk by chunk, straight into a char array
+ * of the exact size of the result. So the only full-size copies on the heap are that char array and the String.<br>
+ * The output is the same as android.util.Base64.encodeToString(bytes, Base64.DEFAULT): lines of 76 characters, 
+ * each one ended by '\n', the last one included.<br>
+ *
+ * @see SoloProcessor#getImageBase64EncodedString(String, StringBuffer, long)
+ * @since  OCT 18, 2026 (agent)
+ */
+public class Base64FileEncoder {
+
+	private static final char[] ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+
+	/** 57 bytes, encoded in one line of 76 characters. */
+	public static final int LINE_BYTES = 57;
+	/** 1024 lines of bytes are read from the file at once. */
+	static final int CHUNK_BYTES = LINE_BYTES * 1024;
+	/** The largest file that can be encoded in one String. */
+	public static final long MAX_FILE_BYTES = (Integer.MAX_VALUE / 4L) * 3L - 3L * LINE_BYTES;
+
+	/**
+	 * @param bytes long, the number of bytes to encode.
+	 * @return long, the number of characters of the encoded String, line ends included.
+	 */
+	public static long encodedLength(long bytes){
+		if(bytes <= 0) return 0;
+		long chars = ((bytes + 2) / 3) * 4;
+		long lines = (bytes + LINE_BYTES - 1) / LINE_BYTES;
+		return chars + lines;
+	}
+
+	/**
+	 * @param file File, the file to encode.
+	 * @return String, the Base64 encoded content of the file.
+	 * @throws IOException if the file cannot be read, or is too big.
+	 */
+	public static String encodeFile(File file) throws IOException{
+		FileInputStream in = new FileInputStream(file);
+		try{
+			FileChannel channel = in.getChannel();
+			long size = channel.size();
+			if(size > MAX_FILE_BYTES) throw new IOException(file.getAbsolutePath()+" is too big to be encoded, "+ size +" bytes.");
+			if(size == 0) return "";
+			return encode(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+		}finally{
+			try{ in.close();}catch(Exception ignore){}
+		}
+	}
+
+	/**
+	 * @param buffer ByteBuffer, the bytes from its position to its limit are encoded. The position is moved to the limit.
+	 * @return String, the Base64 encoded bytes.
+	 */
+	public static String encode(ByteBuffer buffer){
+		int size = buffer.remaining();
+		char[] out = new char[(int) encodedLength(size)];
+		byte[] chunk = new byte[Math.min(CHUNK_BYTES, size)];
+		int op = 0;
+		while(buffer.hasRemaining()){
+			int n = Math.min(chunk.length, buffer.remaining());
+			buffer.get(chunk, 0, n);
+			// the chunks are made of whole lines, only the last one can end with a partial line
+			op = encodeLines(chunk, n, out, op);
+		}
+		return new String(out, 0, op);
+	}
+
+	private static int encodeLines(byte[] in, int length, char[] out, int op){
+		int ip = 0;
+		while(ip < length){
+			int end = Math.min(ip + LINE_BYTES, length);
+			while(end - ip >= 3){
+				int bits = ((in[ip] & 0xff) << 16) | ((in[ip+1] & 0xff) << 8) | (in[ip+2] & 0xff);
+				out[op++] = ALPHABET[(bits >>> 18) & 0x3f];
+				out[op++] = ALPHABET[(bits >>> 12) & 0x3f];
+				out[op++] = ALPHABET[(bits >>> 6) & 0x3f];
+				out[op++] = ALPHABET[bits & 0x3f];
+				ip += 3;
+			}
+			int tail = end - ip;
+			if(tail > 0){
+				int bits = (in[ip] & 0xff) << 16;
+				if(tail == 2) bits |= (in[ip+1] & 0xff) << 8;
+				out[op++] = ALPHABET[(bits >>> 18) & 0x3f];
+				out[op++] = ALPHABET[(bits >>> 12) & 0x3f];
+				out[op++] = tail == 2 ? ALPHABET[(bits >>> 6) & 0x3f] : '=';
+				out[op++] = '=';
+				ip += tail;
+			}
+			out[op++] = '\n';
+		}
+		return op;
+	}
+}
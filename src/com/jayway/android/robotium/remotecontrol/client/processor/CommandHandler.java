@@ -0,0 +1,39 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package com.jayway.android.robotium.remotecontrol.client.processor;
+
+import java.util.Properties;
+
+/**
+ * Handles one or more commands of a processor.<br>
+ * Handlers are registered by command name with {@link AbstractProcessor#registerCommandHandler(String, CommandHandler)}, 
+ * the processor then finds the handler of the current remote command with one hash lookup,
+ * instead of comparing it with each command it knows.<br>
+ * 
+ * @see AbstractProcessor#registerCommandHandlers()
+ * @see AbstractProcessor#dispatchCommand(Properties)
+ * @since  OCT 18, 2026 (agent)
+ */
+public interface CommandHandler {
+	/**
+	 * Handle the current remote command of the processor.
+	 * @param props	The Properties object containing the in and out parameters
+	 * @throws Exception which is handled by the processor as for a command processed in-line.
+	 */
+	public void handle(Properties props) throws Exception;
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package com.jayway.android.robotium.remotecontrol.client.processor;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import android.os.FileObserver;
+
+/**
+ * Wait for a file to be completely written, like the screenshot Robotium saves from a background thread,
+ * instead of polling for its existence.<br>
+ * The folder of the file is observed for the closing of the file after writing, or for the file to be moved in.
+ * The watcher must be started <b>before</b> the writing is triggered, else the event can be missed:
+ * <pre>
+ * FileWriteWatcher watcher = FileWriteWatcher.watch(file);
+ * try{
+ *     solo.takeScreenshot(name);
+ *     watcher.awaitWritten(5000);
+ * }finally{ watcher.stopWatching(); }
+ * </pre>
+ *
+ * @see SoloProcessor#takeScreenshot(java.util.Properties)
+ * @since  OCT 18, 2026 (agent)
+ */
+public class FileWriteWatcher extends FileObserver {
+
+	private final File file;
+	private final CountDownLatch written = new CountDownLatch(1);
+
+	private FileWriteWatcher(File file){
+		super(file.getParent(), FileObserver.CLOSE_WRITE | FileObserver.MOVED_TO);
+		this.file = file;
+	}
+
+	/**
+	 * Start observing the folder of a file. The folder is created if it does not exist yet, it cannot be observed otherwise.
+	 * @param file File, the file which is going to be written.
+	 * @return FileWriteWatcher, started. Call {@link #stopWatching()} when done.
+	 */
+	public static FileWriteWatcher watch(File file){
+		File folder = file.getParentFile();
+		if(folder != null && !folder.exists()) folder.mkdirs();
+		FileWriteWatcher watcher = new FileWriteWatcher(file);
+		watcher.startWatching();
+		return watcher;
+	}
+
+	public void onEvent(int event, String path){
+		if(file.getName().equals(path)) written.countDown();
+	}
+
+	/** @return true if the file has been closed after writing, or moved in, since the watcher was started. */
+	public boolean isWritten(){
+		return written.getCount() == 0;
+	}
+
+	/**
+	 * @param timeout long, the milliseconds to wait for the file to be written.
+	 * @return true if the file has been written; false if the timeout was reached first.
+	 */
+	public boolean awaitWritten(long timeout){
+		try{ return written.await(timeout, TimeUnit.MILLISECONDS);}
+		catch(InterruptedException x){
+			Thread.currentThread().interrupt();
+			return isWritten();
+		}
+	}
+
+	/**
+	 * @param file File, the file to wait for.
+	 * @param timeout long, the milliseconds to wait for the file to be written, if it does not exist yet.
+	 * @return true if the file exists and can be read.
+	 */
+	public static boolean awaitExisting(File file, long timeout){
+		if(file.exists() && file.canRead()) return true;
+		FileWriteWatcher watcher = watch(file);
+		try{
+			// the file can have been written before the watcher was started
+			if(!file.exists()) watcher.awaitWritten(timeout);
+		}finally{
+			watcher.stopWatching();
+		}
+		return file.exists() && file.canRead();
+	}
+}
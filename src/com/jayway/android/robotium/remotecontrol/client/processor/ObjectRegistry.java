@@ -0,0 +1,392 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package com.jayway.android.robotium.remotecontrol.client.processor;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bidirectional cache of engine-specific objects (View, Activity, WebElement etc.) stored by
+ * unique String keys.<br>
+ * Both the forward lookup (key to object) and the reverse lookup (object to key) are done in
+ * constant time, so {@link AbstractProcessor#convertToKey(ObjectRegistry, Object)} no longer
+ * needs to scan every cached value.<br>
+ * The reverse lookup is based on object identity, NOT on {@link Object#equals(Object)}.<br>
+ * <p>
+ * The cached objects can be held by strong, weak or soft references. With weak or soft references
+ * an object that is no longer used by the application (a destroyed Activity and its View tree for
+ * example) is released by the garbage collector and silently dropped from the cache.<br>
+ * The cache can also be bounded by a maximum size, the least recently used object is evicted 
+ * when the maximum size is exceeded.<br>
+ * Hit, miss, eviction, collection and purge counters are kept for tuning the maximum size.<br>
+ * <p>
+ * This class is thread-safe.<br>
+ *
+ * <b>Note:</b> Don't manipulate it directly in the processors.<br>
+ * Use the cache-manipulation-methods defined in {@link AbstractProcessor}<br>
+ *
+ * @see AbstractProcessor#getCachedItem(ObjectRegistry, String)
+ * @see AbstractProcessor#putCachedItem(ObjectRegistry, String, Object)
+ * @see AbstractProcessor#removeCachedItem(ObjectRegistry, String)
+ * @see AbstractProcessor#convertToKey(ObjectRegistry, Object)
+ * @since  OCT 18, 2026 (agent)
+ */
+public class ObjectRegistry {
+
+	/** The cached objects are held by strong references, they will never be garbage collected while cached. */
+	public static final int REFERENCE_STRONG 	= 0;
+	/** The cached objects are held by weak references, they will be dropped once the application releases them. */
+	public static final int REFERENCE_WEAK 		= 1;
+	/** The cached objects are held by soft references, they will be dropped when the memory is low. */
+	public static final int REFERENCE_SOFT 		= 2;
+	
+	/** Used to remove a set of items from cache, see {@link ObjectRegistry#removeMatching(ItemFilter)} */
+	public static interface ItemFilter{
+		/** @return true if the item stored by key should be removed from cache. */
+		public boolean accept(String key, Object item);
+	}
+	
+	/** key to entry, in access order so that the eldest entry is the least recently used one */
+	private LinkedHashMap<String,Entry> items = null;
+	/** entry (by identity of the referent) to itself, so that the key can be found from the object */
+	private HashMap<Entry,Entry> keys = null;
+	/** receives the weak or soft entries whose object has been garbage collected */
+	private ReferenceQueue<Object> queue = new ReferenceQueue<Object>();
+	/** reused to look up an object in {@link #keys} without allocation */
+	private StrongEntry probe = new StrongEntry(null, null);
+	
+	private int referenceType = REFERENCE_STRONG;
+	/** 0 or negative means unbounded */
+	private int maxSize = 0;
+	
+	private long hits = 0;
+	private long misses = 0;
+	private long evictions = 0;
+	private long collected = 0;
+	private long purged = 0;
+
+	public ObjectRegistry(){
+		this(16);
+	}
+
+	/**
+	 * Create an unbounded cache holding strong references.
+	 * @param initialSize int, the expected number of cached objects.
+	 */
+	public ObjectRegistry(int initialSize){
+		this(initialSize, REFERENCE_STRONG, 0);
+	}
+	
+	/**
+	 * @param initialSize int, the expected number of cached objects.
+	 * @param referenceType int, {@link #REFERENCE_STRONG}, {@link #REFERENCE_WEAK} or {@link #REFERENCE_SOFT}.
+	 * @param maxSize int, the maximum number of cached objects, 0 or negative for an unbounded cache.
+	 */
+	public ObjectRegistry(int initialSize, int referenceType, int maxSize){
+		this.referenceType = referenceType;
+		this.maxSize = maxSize;
+		items = new LinkedHashMap<String,Entry>(initialSize, 0.75f, true){
+			private static final long serialVersionUID = 1L;
+			protected boolean removeEldestEntry(Map.Entry<String,Entry> eldest){
+				if(ObjectRegistry.this.maxSize > 0 && size() > ObjectRegistry.this.maxSize){
+					removeReverse(eldest.getValue());
+					evictions++;
+					return true;
+				}
+				return false;
+			}
+		};
+		keys = new HashMap<Entry,Entry>(initialSize);
+	}
+
+	/**
+	 * @param key String, the key of the cached object.
+	 * @return Object stored in cache by key, or null if not found or already garbage collected.
+	 */
+	public synchronized Object get(String key){
+		if(key==null) return null;
+		expunge();
+		Entry entry = items.get(key);
+		Object item = entry==null? null: entry.get();
+		if(item==null){
+			misses++;
+			if(entry!=null){
+				//the object has been garbage collected, but the entry has not been enqueued yet.
+				items.remove(key);
+				removeReverse(entry);
+				collected++;
+			}
+		}else{
+			hits++;
+		}
+		return item;
+	}
+
+	/**
+	 * @param item Object, the cached object.
+	 * @return String, the key of the item stored in cache, or null if the item is not cached.
+	 */
+	public synchronized String getKey(Object item){
+		if(item==null) return null;
+		expunge();
+		probe.item = item;
+		Entry entry = keys.get(probe);
+		probe.item = null;
+		if(entry==null) return null;
+		//refresh the LRU order, the key is going to be used again.
+		items.get(entry.getKey());
+		return entry.getKey();
+	}
+
+	/**
+	 * @param item Object, the object to test.
+	 * @return true if the very same object is stored in cache.
+	 */
+	public synchronized boolean containsItem(Object item){
+		return getKey(item)!=null;
+	}
+	
+	/**
+	 * Unlike {@link #get(String)}, this will neither change the LRU order nor the hit/miss counters.
+	 * @param key String, the key to test.
+	 * @return true if the key is stored in cache.
+	 */
+	public synchronized boolean containsKey(String key){
+		if(key==null) return false;
+		expunge();
+		return items.containsKey(key);
+	}
+
+	/**
+	 * Put an item in cache by key.<br>
+	 * If the key has been used for another item, that item will be replaced.<br>
+	 * If the cache is full, the least recently used item will be evicted.<br>
+	 *
+	 * @param key String, the key of the item.
+	 * @param item Object, the item to cache.
+	 * @throws IllegalArgumentException if either key or item is null.
+	 */
+	public synchronized void put(String key, Object item){
+		if(key==null || item==null){
+			throw new IllegalArgumentException("Neither cache key nor item can be null.");
+		}
+		expunge();
+		Entry entry = null;
+		if(referenceType==REFERENCE_WEAK){
+			entry = new WeakEntry(key, item, queue);
+		}else if(referenceType==REFERENCE_SOFT){
+			entry = new SoftEntry(key, item, queue);
+		}else{
+			entry = new StrongEntry(key, item);
+		}
+		
+		Entry old = items.put(key, entry);
+		if(old!=null) removeReverse(old);
+		//HashMap.put() keeps the existing key object, so remove first to store the new entry as key.
+		keys.remove(entry);
+		keys.put(entry, entry);
+	}
+
+	/**
+	 * Remove an item from cache by key.
+	 * @param key String, the key of the item.
+	 * @return Object removed, or null if not found.
+	 */
+	public synchronized Object remove(String key){
+		if(key==null) return null;
+		expunge();
+		Entry entry = items.remove(key);
+		if(entry==null) return null;
+		removeReverse(entry);
+		return entry.get();
+	}
+	
+	/**
+	 * Remove all the items accepted by the filter, for example all the Views belonging to a 
+	 * destroyed Activity. Objects already garbage collected are removed too.
+	 * @param filter ItemFilter, decides which items to remove.
+	 * @return int, the number of items removed.
+	 */
+	public synchronized int removeMatching(ItemFilter filter){
+		if(filter==null) return 0;
+		expunge();
+		int removed = 0;
+		Iterator<Map.Entry<String,Entry>> it = items.entrySet().iterator();
+		Map.Entry<String,Entry> next = null;
+		Object item = null;
+		while(it.hasNext()){
+			next = it.next();
+			item = next.getValue().get();
+			if(item==null || filter.accept(next.getKey(), item)){
+				it.remove();
+				removeReverse(next.getValue());
+				removed++;
+			}
+		}
+		purged += removed;
+		return removed;
+	}
+
+	/** Remove all the items from cache. The counters are NOT reset. */
+	public synchronized void clear(){
+		items.clear();
+		keys.clear();
+		while(queue.poll()!=null);
+	}
+
+	/** @return int, the number of keys stored in cache. */
+	public synchronized int size(){
+		expunge();
+		return items.size();
+	}
+	
+	/** @return int, the maximum number of cached objects, 0 or negative for an unbounded cache. */
+	public synchronized int getMaxSize(){
+		return maxSize;
+	}
+	
+	/**
+	 * Set the maximum number of cached objects, the least recently used objects will be 
+	 * evicted immediately if the cache holds more than that.
+	 * @param maxSize int, the maximum number of cached objects, 0 or negative for an unbounded cache.
+	 */
+	public synchronized void setMaxSize(int maxSize){
+		this.maxSize = maxSize;
+		if(maxSize <= 0) return;
+		Iterator<Entry> it = items.values().iterator();
+		while(items.size() > maxSize && it.hasNext()){
+			Entry eldest = it.next();
+			it.remove();
+			removeReverse(eldest);
+			evictions++;
+		}
+	}
+	
+	/** @return int, one of {@link #REFERENCE_STRONG}, {@link #REFERENCE_WEAK} or {@link #REFERENCE_SOFT}. */
+	public int getReferenceType(){
+		return referenceType;
+	}
+
+	/** @return long, the number of {@link #get(String)} calls that found an object. */
+	public synchronized long getHits(){ return hits; }
+	/** @return long, the number of {@link #get(String)} calls that did not find an object. */
+	public synchronized long getMisses(){ return misses; }
+	/** @return long, the number of objects evicted because the cache exceeded its maximum size. */
+	public synchronized long getEvictions(){ return evictions; }
+	/** @return long, the number of objects dropped because they were garbage collected. */
+	public synchronized long getCollected(){ return collected; }
+	/** @return long, the number of objects removed by {@link #removeMatching(ItemFilter)}. */
+	public synchronized long getPurged(){ return purged; }
+	
+	/** Reset all the counters to 0. */
+	public synchronized void resetStatistics(){
+		hits = 0;
+		misses = 0;
+		evictions = 0;
+		collected = 0;
+		purged = 0;
+	}
+	
+	/**
+	 * @return String, the size and counters of this cache like 
+	 * "size=120,max=1000,hits=310,misses=2,evictions=0,collected=35,purged=80"
+	 */
+	public synchronized String getStatistics(){
+		expunge();
+		return "size="+items.size()+",max="+maxSize+",hits="+hits+",misses="+misses+
+		       ",evictions="+evictions+",collected="+collected+",purged="+purged;
+	}
+	
+	/** Drop the entries whose object has been garbage collected. */
+	private void expunge(){
+		Reference<? extends Object> ref = null;
+		Entry entry = null;
+		while((ref = queue.poll())!=null){
+			entry = (Entry) ref;
+			removeReverse(entry);
+			if(items.get(entry.getKey())==entry){
+				items.remove(entry.getKey());
+				collected++;
+			}
+		}
+	}
+	
+	/** Remove the reverse mapping of entry, unless the object has been re-cached with another key since. */
+	private void removeReverse(Entry entry){
+		if(keys.get(entry)==entry) keys.remove(entry);
+	}
+
+	/** An entry of cache, which holds the object and its key. */
+	private static interface Entry{
+		public Object get();
+		public String getKey();
+	}
+	
+	/** Entries are equal if they hold the very same object. */
+	private static boolean sameItem(Entry entry, Object other){
+		if(entry==other) return true;
+		if(!(other instanceof Entry)) return false;
+		Object item = entry.get();
+		return item!=null && item==((Entry)other).get();
+	}
+	
+	private static final class StrongEntry implements Entry{
+		private String key;
+		private Object item;
+		private StrongEntry(String key, Object item){
+			this.key = key;
+			this.item = item;
+		}
+		public Object get(){ return item; }
+		public String getKey(){ return key; }
+		public int hashCode(){ return System.identityHashCode(item); }
+		public boolean equals(Object other){ return sameItem(this, other); }
+	}
+	
+	private static final class WeakEntry extends WeakReference<Object> implements Entry{
+		private String key;
+		private int hash;
+		private WeakEntry(String key, Object item, ReferenceQueue<Object> queue){
+			super(item, queue);
+			this.key = key;
+			this.hash = System.identityHashCode(item);
+		}
+		public String getKey(){ return key; }
+		public int hashCode(){ return hash; }
+		public boolean equals(Object other){ return sameItem(this, other); }
+	}
+	
+	private static final class SoftEntry extends SoftReference<Object> implements Entry{
+		private String key;
+		private int hash;
+		private SoftEntry(String key, Object item, ReferenceQueue<Object> queue){
+			super(item, queue);
+			this.key = key;
+			this.hash = System.identityHashCode(item);
+		}
+		public String getKey(){ return key; }
+		public int hashCode(){ return hash; }
+		public boolean equals(Object other){ return sameItem(this, other); }
+	}
+}
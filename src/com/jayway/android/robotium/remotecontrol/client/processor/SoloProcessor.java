@@ -17,15 +17,10 @@
 **/
 package com.jayway.android.robotium.remotecontrol.client.processor;
 
-import java.io.BufferedInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Hashtable;
 import java.util.List;
 import java.util.Properties;
 import java.util.Vector;
@@ -39,7 +34,6 @@ import android.graphics.Bitmap;
 import android.graphics.PointF;
 import android.graphics.Rect;
 import android.os.Environment;
-import android.util.Base64;
 import android.view.Display;
 import android.view.View;
 import android.view.WindowManager;
@@ -108,6 +102,9 @@ import com.robotium.solo.WebElement;
  * 		   MAR 13, 2014		(CarlNagle)	Update to support Robotium 5.x<br>
  * 		   JUL 21, 2014		(LeiWang)	Update to support Robotium 5.2.1<br>
  * 		   MAR 05, 2015		(LeiWang)	Update to support Robotium 5.3.1<br>
+ * 		   OCT 18, 2026		(agent)	Wait for the screenshot with a FileWriteWatcher, encode it with the Base64FileEncoder.<br>
+ * 		   OCT 18, 2026		(agent)	Take the screenshot in memory with the ViewCapture when asked by the capture mode.<br>
+ * 		   OCT 18, 2026		(agent)	Draw only the region of the view for getGuiImage, with the format and quality asked for.<br>
  */
 public class SoloProcessor extends AbstractProcessor implements CacheReferenceInterface{
 	public static String TAG = SoloProcessor.class.getSimpleName();
@@ -123,6 +120,15 @@ public class SoloProcessor extends AbstractProcessor implements CacheReferenceIn
 	 * to do the real work for handling the messages from 'solo remote control'<br>
 	 */
 	RCSolo solo = null;
+	
+	/** Captures the images in memory, set by the first capture. */
+	ViewCapture viewCapture = null;
+	
+	/** @return ViewCapture, the one shared by the processors. */
+	ViewCapture getViewCapture(){
+		if(viewCapture == null) viewCapture = ViewCapture.getShared(testRunner);
+		return viewCapture;
+	}
 
 	RobotiumTestCase activityrunner = null;
 	RobotiumTestRunner robotiumTestrunner = null;
@@ -131,51 +137,54 @@ public class SoloProcessor extends AbstractProcessor implements CacheReferenceIn
 	 * local cache for containing the {@link ActivityMonitor}
 	 * <b>Note:</b> Don't manipulate it directly like activityMonitorCache.get(key) etc.<br>
 	 * Use the cache-manipulation-methods defined in {@link AbstractProcessor}<br>
-	 * @see AbstractProcessor#getCachedItem(Hashtable, Object)
-	 * @see AbstractProcessor#removeCachedItem(Hashtable, Object)
-	 * @see AbstractProcessor#putCachedItem(Hashtable, Object, Object)
+	 * @see AbstractProcessor#getCachedItem(ObjectRegistry, String)
+	 * @see AbstractProcessor#removeCachedItem(ObjectRegistry, String)
+	 * @see AbstractProcessor#putCachedItem(ObjectRegistry, String, Object)
 	 */
-	protected Hashtable<String,ActivityMonitor> activityMonitorCache = new Hashtable<String,ActivityMonitor>(INITIAL_CACHE_SIZE);
+	protected ObjectRegistry activityMonitorCache = new ObjectRegistry(INITIAL_CACHE_SIZE);
 
 	/**
-	 * local cache for containing the {@link Activity}
+	 * local cache for containing the {@link Activity}, held by weak references.<br>
+	 * A destroyed Activity is purged by {@link #onActivityDestroyed(Activity)}.<br>
 	 * <b>Note:</b> Don't manipulate it directly like activityCache.get(key) etc.<br>
 	 * Use the cache-manipulation-methods defined in {@link AbstractProcessor}<br>
-	 * @see AbstractProcessor#getCachedItem(Hashtable, Object)
-	 * @see AbstractProcessor#removeCachedItem(Hashtable, Object)
-	 * @see AbstractProcessor#putCachedItem(Hashtable, Object, Object)
+	 * @see AbstractProcessor#getCachedItem(ObjectRegistry, String)
+	 * @see AbstractProcessor#removeCachedItem(ObjectRegistry, String)
+	 * @see AbstractProcessor#putCachedItem(ObjectRegistry, String, Object)
 	 */
-	protected Hashtable<String,Activity> activityCache = new Hashtable<String,Activity>(INITIAL_CACHE_SIZE);
+	protected ObjectRegistry activityCache = new ObjectRegistry(INITIAL_CACHE_SIZE, ObjectRegistry.REFERENCE_WEAK, 0);
 	
 	/**
-	 * local cache for containing the {@link View}
+	 * local cache for containing the {@link View}, held by weak references and bounded by {@link #MAX_CACHE_SIZE}.<br>
+	 * The Views of a destroyed Activity are purged by {@link #onActivityDestroyed(Activity)}.<br>
 	 * <b>Note:</b> Don't manipulate it directly like viewCache.get(key) etc.<br>
 	 * Use the cache-manipulation-methods defined in {@link AbstractProcessor}<br>
-	 * @see AbstractProcessor#getCachedItem(Hashtable, Object)
-	 * @see AbstractProcessor#removeCachedItem(Hashtable, Object)
-	 * @see AbstractProcessor#putCachedItem(Hashtable, Object, Object)
+	 * @see AbstractProcessor#getCachedItem(ObjectRegistry, String)
+	 * @see AbstractProcessor#removeCachedItem(ObjectRegistry, String)
+	 * @see AbstractProcessor#putCachedItem(ObjectRegistry, String, Object)
 	 */
-	protected Hashtable<String,View> viewCache = new Hashtable<String,View>(INITIAL_CACHE_SIZE);
+	protected ObjectRegistry viewCache = new ObjectRegistry(INITIAL_CACHE_SIZE, ObjectRegistry.REFERENCE_WEAK, MAX_CACHE_SIZE);
 
 	/**
-	 * local cache for containing the {@link WebElement}
+	 * local cache for containing the {@link WebElement}, bounded by {@link #MAX_CACHE_SIZE}.<br>
+	 * The WebElements are created by Robotium on request and only referenced by this cache, so they are held by strong references.<br>
 	 * <b>Note:</b> Don't manipulate it directly like webElementCache.get(key) etc.<br>
 	 * Use the cache-manipulation-methods defined in {@link AbstractProcessor}<br>
-	 * @see AbstractProcessor#getCachedItem(Hashtable, Object)
-	 * @see AbstractProcessor#removeCachedItem(Hashtable, Object)
-	 * @see AbstractProcessor#putCachedItem(Hashtable, Object, Object)
+	 * @see AbstractProcessor#getCachedItem(ObjectRegistry, String)
+	 * @see AbstractProcessor#removeCachedItem(ObjectRegistry, String)
+	 * @see AbstractProcessor#putCachedItem(ObjectRegistry, String, Object)
 	 */
-	protected Hashtable<String,WebElement> webElementCache = new Hashtable<String,WebElement>(INITIAL_CACHE_SIZE);
+	protected ObjectRegistry webElementCache = new ObjectRegistry(INITIAL_CACHE_SIZE, ObjectRegistry.REFERENCE_STRONG, MAX_CACHE_SIZE);
 	
 	/**
-	 * local cache for containing the {@link View#getTag()}<br>
+	 * local cache for containing the {@link View#getTag()}, held by weak references and bounded by {@link #MAX_CACHE_SIZE}.<br>
 	 * <b>Note:</b> Don't manipulate it directly like tagCache.get(key) etc.<br>
 	 * Use the cache-manipulation-methods defined in {@link AbstractProcessor}<br>
-	 * @see AbstractProcessor#getCachedItem(Hashtable, Object)
-	 * @see AbstractProcessor#removeCachedItem(Hashtable, Object)
-	 * @see AbstractProcessor#putCachedItem(Hashtable, Object, Object)
+	 * @see AbstractProcessor#getCachedItem(ObjectRegistry, String)
+	 * @see AbstractProcessor#removeCachedItem(ObjectRegistry, String)
+	 * @see AbstractProcessor#putCachedItem(ObjectRegistry, String, Object)
 	 */
-	protected Hashtable<String,Object> tagCache = new Hashtable<String,Object>(INITIAL_CACHE_SIZE);
+	protected ObjectRegistry tagCache = new ObjectRegistry(INITIAL_CACHE_SIZE, ObjectRegistry.REFERENCE_WEAK, MAX_CACHE_SIZE);
 	
 	public SoloProcessor(RobotiumTestRunner robotiumTestrunner){
 		super(robotiumTestrunner);
@@ -183,6 +192,447 @@ public class SoloProcessor extends AbstractProcessor implements CacheReferenceIn
 		activityrunner = robotiumTestrunner.getActivityrunner();
 	}
 	
+	/**
+	 * Register the handlers of all the commands processed by this processor.<br>
+	 * {@link SoloMessage#cmd_startmainlauncher} is the only command handled before the Solo object exists.<br>
+	 * Subclasses can override a handler by registering their own for the same command.<br>
+	 * @see AbstractProcessor#registerCommandHandlers()
+	 */
+	protected void registerCommandHandlers(){
+		super.registerCommandHandlers();
+		
+		registerCommandHandler(SoloMessage.cmd_startmainlauncher, new CommandHandler(){
+			//This will initialize the solo object of RobotiumTestRunner
+			public void handle(Properties props) throws Exception{ startMainLauncher(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_assertcurrentactivityname,
+		                                    SoloMessage.cmd_assertnewcurrentactivityname,
+		                                    SoloMessage.cmd_assertcurrentactivityclass,
+		                                    SoloMessage.cmd_assertnewcurrentactivityclass}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ assertCurrentActivity(props); }
+		});
+		registerCommandHandler(SoloMessage.cmd_assertmemorynotlow, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ assertMemoryNotLow(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_clickonscreen,
+		                                    SoloMessage.cmd_clickonscreenntimes}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ clickOnScreen(props, false); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_clicklongonscreen,
+		                                    SoloMessage.cmd_clicklongtimeonscreen}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ clickOnScreen(props, true); }
+		});
+		registerCommandHandler(SoloMessage.cmd_clickonactionbaritem, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ clickOnActionBarItem(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_clickonbutton,
+		                                    SoloMessage.cmd_clickontogglebutton}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ clickOnViewByName(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_clickoncheckboxindex,
+		                                    SoloMessage.cmd_clickonedittextindex,
+		                                    SoloMessage.cmd_clickonimage,
+		                                    SoloMessage.cmd_clickonimagebutton,
+		                                    SoloMessage.cmd_clickonbuttonindex,
+		                                    SoloMessage.cmd_clickonradiobuttonindex}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ clickOnViewByIndex(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_clickinlist,
+		                                    SoloMessage.cmd_clickinlistindex}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ clickInList(props, false); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_clicklonginlist,
+		                                    SoloMessage.cmd_clicklonginlistindex,
+		                                    SoloMessage.cmd_clicklongtimeinlistindex}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ clickInList(props, true); }
+		});
+		registerCommandHandler(SoloMessage.cmd_clickonmenuitem, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ clickOnMenuItem(props, false); }
+		});
+		registerCommandHandler(SoloMessage.cmd_clickonsubmenuitem, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ clickOnMenuItem(props, true); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_clickonview,
+		                                    SoloMessage.cmd_clickonviewimmediately}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ clickOnView(props, false); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_clicklongonview,
+		                                    SoloMessage.cmd_clicklongtimeonview}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ clickOnView(props, true); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_clickontext,
+		                                    SoloMessage.cmd_clickontextmatch,
+		                                    SoloMessage.cmd_clickontextmatchscroll}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ clickOnText(props, false); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_clicklongontext,
+		                                    SoloMessage.cmd_clicklongontextmatch,
+		                                    SoloMessage.cmd_clicklongontextmatchscroll,
+		                                    SoloMessage.cmd_clicklongtimeontextmatch,
+		                                    SoloMessage.cmd_clicklongpressontext}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ clickOnText(props, true); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_clearedittextindex,
+		                                    SoloMessage.cmd_clearedittextreference}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ clearEditText(props); }
+		});
+		registerCommandHandler(SoloMessage.cmd_drag, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ drag(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_entertextindex,
+		                                    SoloMessage.cmd_entertextreference,
+		                                    SoloMessage.cmd_typetext,
+		                                    SoloMessage.cmd_typetextuid}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ enterText(props); }
+		});
+		registerCommandHandler(SoloMessage.cmd_finishopenedactivities, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ finishOpenedActivities(props); }
+		});
+		registerCommandHandler(SoloMessage.cmd_finalizeremotesolo, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ finalizeRemoteSolo(props); }
+		});
+		registerCommandHandler(SoloMessage.cmd_goback, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ goBack(props); }
+		});
+		registerCommandHandler(SoloMessage.cmd_gobacktoactivity, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ goBackToActivity(props); }
+		});
+		registerCommandHandler(SoloMessage.cmd_getactivitymonitor, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ getActivityMonitor(props); }
+		});
+		registerCommandHandler(SoloMessage.cmd_getallopenactivities, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ getAllOpenActivities(props); }
+		});
+		registerCommandHandler(SoloMessage.cmd_getcurrentactivity, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ getCurrentActivity(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_getbutton,
+		                                    SoloMessage.cmd_getedittext,
+		                                    SoloMessage.cmd_getimage,
+		                                    SoloMessage.cmd_getimagebutton,
+		                                    SoloMessage.cmd_gettext,
+		                                    SoloMessage.cmd_getviewclass}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ getViewByIndex(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_getbuttontext,
+		                                    SoloMessage.cmd_getbuttonvisible,
+		                                    SoloMessage.cmd_getedittexttext,
+		                                    SoloMessage.cmd_getedittextvisible,
+		                                    SoloMessage.cmd_gettexttext,
+		                                    SoloMessage.cmd_gettextvisible}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ getViewByText(props); }
+		});
+		registerCommandHandler(SoloMessage.cmd_getviewid, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ getViewById(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_getviewbyname,
+		                                    SoloMessage.cmd_getviewbynamematch}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ getViewByName(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_getviewbytag,
+		                                    SoloMessage.cmd_getviewbytagmatch}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ getViewByTag(props); }
+		});
+		registerCommandHandler(SoloMessage.cmd_getparentviews, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ getViewsInParent(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_getcurrentbuttons,
+		                                    SoloMessage.cmd_getcurrentcheckboxes,
+		                                    SoloMessage.cmd_getcurrentdatepickers,
+		                                    SoloMessage.cmd_getcurrentedittexts,
+		                                    SoloMessage.cmd_getcurrentgridviews,
+		                                    SoloMessage.cmd_getcurrentimagebuttons,
+		                                    SoloMessage.cmd_getcurrentimageviews,
+		                                    SoloMessage.cmd_getcurrentlistviews,
+		                                    SoloMessage.cmd_getcurrentprogressbars,
+		                                    SoloMessage.cmd_getcurrentradiobuttons,
+		                                    SoloMessage.cmd_getcurrentscrollviews,
+		                                    SoloMessage.cmd_getcurrentslidingdrawers,
+		                                    SoloMessage.cmd_getcurrentspinners,
+		                                    SoloMessage.cmd_getcurrenttextviews,
+		                                    SoloMessage.cmd_getcurrenttimepickers,
+		                                    SoloMessage.cmd_getcurrenttogglebuttons,
+		                                    SoloMessage.cmd_getcurrentviews,
+		                                    SoloMessage.cmd_getcurrentnumberpickers,
+		                                    SoloMessage.cmd_getviews,
+		                                    SoloMessage.cmd_getcurrentviewsbyclass,
+		                                    SoloMessage.cmd_getcurrentviewsbyclassandparent}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ getCurrentViews(props); }
+		});
+		registerCommandHandler(SoloMessage.cmd_getstring, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ getString(props); }
+		});
+		registerCommandHandler(SoloMessage.cmd_gettopparent, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ getTopParent(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_ischeckboxchecked,
+		                                    SoloMessage.cmd_isradiobuttonchecked,
+		                                    SoloMessage.cmd_isspinnertextselectedindex,
+		                                    SoloMessage.cmd_istogglebuttonchecked}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ isViewByIndexChecked(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_ischeckboxcheckedtext,
+		                                    SoloMessage.cmd_isradiobuttoncheckedtext,
+		                                    SoloMessage.cmd_isspinnertextselected,
+		                                    SoloMessage.cmd_istextchecked,
+		                                    SoloMessage.cmd_istogglebuttoncheckedtext}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ isViewByTextChecked(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_pressmenuitem,
+		                                    SoloMessage.cmd_presssubmenuitem}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ pressMenuItem(props); }
+		});
+		registerCommandHandler(SoloMessage.cmd_presssoftkeyboardnextbutton, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ pressSoftKeyboardNextButton(props); }
+		});
+		registerCommandHandler(SoloMessage.cmd_presssoftkeyboardsearchbutton, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ pressSoftKeyboardSearchButton(props); }
+		});
+		registerCommandHandler(SoloMessage.cmd_pressspinneritem, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ pressSpinnerItem(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_scrolldown,
+		                                    SoloMessage.cmd_scrollup,
+		                                    SoloMessage.cmd_scrolltotop,
+		                                    SoloMessage.cmd_scrolltobottom,
+		                                    SoloMessage.cmd_scrolllisttotop,
+		                                    SoloMessage.cmd_scrolllisttotopuid,
+		                                    SoloMessage.cmd_scrolllisttobottom,
+		                                    SoloMessage.cmd_scrolllisttobottomuid,
+		                                    SoloMessage.cmd_scrolllisttoline,
+		                                    SoloMessage.cmd_scrolllisttolineuid,
+		                                    SoloMessage.cmd_scrolldownlist,
+		                                    SoloMessage.cmd_scrolldownlistuid,
+		                                    SoloMessage.cmd_scrolluplistuid,
+		                                    SoloMessage.cmd_scrolluplist}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ scroll(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_scrolltoside,
+		                                    SoloMessage.cmd_scrollviewtoside}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ scrollToSide(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_searchbutton,
+		                                    SoloMessage.cmd_searchbuttonvisible,
+		                                    SoloMessage.cmd_searchbuttonmatch,
+		                                    SoloMessage.cmd_searchbuttonmatchvisible,
+		                                    SoloMessage.cmd_searchedittext,
+		                                    SoloMessage.cmd_searchtext,
+		                                    SoloMessage.cmd_searchtextvisible,
+		                                    SoloMessage.cmd_searchtextmatch,
+		                                    SoloMessage.cmd_searchtextmatchscroll,
+		                                    SoloMessage.cmd_searchtextmatchscrollvisible,
+		                                    SoloMessage.cmd_searchtogglebutton,
+		                                    SoloMessage.cmd_searchtogglebuttonmatch}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ searchView(props); }
+		});
+		registerCommandHandler(SoloMessage.cmd_setactivityorientation, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ setActivityOrientation(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_setdatepickerreference,
+		                                    SoloMessage.cmd_setdatepickerindex}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ setDatePicker(props); }
+		});
+		registerCommandHandler(SoloMessage.cmd_setmobiledata, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ setMobileData(props); }
+		});
+		registerCommandHandler(SoloMessage.cmd_setwifidata, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ setWiFiData(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_settimepickerreference,
+		                                    SoloMessage.cmd_settimepickerindex}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ setTimePicker(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_setprogressbarreference,
+		                                    SoloMessage.cmd_setprogressbarindex}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ setProgressBar(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_setslidingdrawerreference,
+		                                    SoloMessage.cmd_setslidingdrawerindex}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ setSlidingDrawer(props); }
+		});
+		registerCommandHandler(SoloMessage.cmd_sendkey, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ sendKey(props); }
+		});
+		registerCommandHandler(SoloMessage.cmd_sleep, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ sleep(props); }
+		});
+		registerCommandHandler(SoloMessage.cmd_startscreenshotsequencemax, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ startScreenshotSequenceMax(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_getscreenshotsequence,
+		                                    SoloMessage.cmd_getscreenshotsequenceindex,
+		                                    SoloMessage.cmd_getscreenshotsequenceszie}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ getScreenshotSequence(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_waitforactivity,
+		                                    SoloMessage.cmd_waitforactivitytimeout,
+		                                    SoloMessage.cmd_waitforactivitybyclass,
+		                                    SoloMessage.cmd_waitforactivitybyclasstimeout}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ waitForActivity(props); }
+		});
+		registerCommandHandler(SoloMessage.cmd_waitforemptyactivitystack, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ waitForEmptyActivityStack(props); }
+		});
+		registerCommandHandler(SoloMessage.cmd_waitforfragmentbytag, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ waitForFragmentByTag(props); }
+		});
+		registerCommandHandler(SoloMessage.cmd_waitforfragmentbyid, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ waitForFragmentById(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_waitfordialogtoclose,
+		                                    SoloMessage.cmd_waitfordialogtoopen}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ waitForDialog(props); }
+		});
+		registerCommandHandler(SoloMessage.cmd_waitforlogmessage, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ waitForLogMessage(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_waitfortext,
+		                                    SoloMessage.cmd_waitfortextmatchtimeout,
+		                                    SoloMessage.cmd_waitfortextmatchtimeoutscroll,
+		                                    SoloMessage.cmd_waitfortextmatchtimeoutscrollvisible}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ waitForText(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_waitforviewclass,
+		                                    SoloMessage.cmd_waitforviewclassmatchtimeout,
+		                                    SoloMessage.cmd_waitforviewclassmatchtimeoutscroll}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ waitForView(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_waitforviewbytagreference,
+		                                    SoloMessage.cmd_waitforviewbytagreferencetimeout,
+		                                    SoloMessage.cmd_waitforviewbytagreferencetimeoutscroll}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ waitForViewByTag(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_waitforviewreference,
+		                                    SoloMessage.cmd_waitforviewreferencetimeoutscroll}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ waitForViewUID(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_waitforviewid,
+		                                    SoloMessage.cmd_waitforviewidtimeout,
+		                                    SoloMessage.cmd_waitforviewidtimeoutscroll}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ waitForViewByID(props); }
+		});
+		registerCommandHandler(SoloMessage.cmd_getscreensize, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ getScreenSize(props); }
+		});
+		registerCommandHandler(SoloMessage.cmd_getviewlocation, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ getViewLocation(props); }
+		});
+		registerCommandHandler(SoloMessage.cmd_gettextviewvalue, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ getTextViewValue(props); }
+		});
+		registerCommandHandler(SoloMessage.cmd_getguiimage, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ getGuiImage(props); }
+		});
+		registerCommandHandler(SoloMessage.cmd_getviewclassname, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ getObjectClassName(props, true); }
+		});
+		registerCommandHandler(SoloMessage.cmd_getobjectclassname, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ getObjectClassName(props, false); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_takescreenshot,
+		                                    SoloMessage.cmd_takescreenshotquality}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ takeScreenshot(props); }
+		});
+		registerCommandHandler(SoloMessage.cmd_waitforcondition, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ waitForCondition(props); }
+		});
+		registerCommandHandler(SoloMessage.cmd_cleartextinwebelement, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ clearTextInWebElement(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_clickonwebelement,
+		                                    SoloMessage.cmd_clickonwebelementindex,
+		                                    SoloMessage.cmd_clickonwebelementindexscroll}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ clickOnWebElement(props); }
+		});
+		registerCommandHandler(SoloMessage.cmd_clickonwebelementuid, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ clickOnWebElementByUID(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_entertextinwebelement,
+		                                    SoloMessage.cmd_typetextinwebelement,
+		                                    SoloMessage.cmd_typetextinwebelementindex}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ enterTextInWebElement(props); }
+		});
+		registerCommandHandler(SoloMessage.cmd_typetextinwebelementuid, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ typeTextInWebElementByUID(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_getcurrentwebelements,
+		                                    SoloMessage.cmd_getwebelements,
+		                                    SoloMessage.cmd_getcurrentwebelementsby,
+		                                    SoloMessage.cmd_getwebelementsby,
+		                                    SoloMessage.cmd_getwebelement}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ getCurrentWebElements(props); }
+		});
+		registerCommandHandler(SoloMessage.cmd_getweburl, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ setGeneralSuccessWithSpecialInfo(props, solo.getWebUrl()); }
+		});
+		registerCommandHandler(SoloMessage.cmd_gettagforview, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ getTagForView(props); }
+		});
+		registerCommandHandler(SoloMessage.cmd_hidesoftkeyboard, new CommandHandler(){
+			public void handle(Properties props) throws Exception{
+				solo.hideSoftKeyboard();
+				setGeneralSuccess(props);
+			}
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_waitforwebelement,
+		                                    SoloMessage.cmd_waitforwebelementtimeout,
+		                                    SoloMessage.cmd_waitforwebelementminmatchtimeout}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ waitForWebElement(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_utilsfilterviews,
+		                                    SoloMessage.cmd_utilsfilterviewsbytext,
+		                                    SoloMessage.cmd_utilsfilterviewstoset,
+		                                    SoloMessage.cmd_utilsgetnumberofmatches,
+		                                    SoloMessage.cmd_utilsremoveinvisibleviews,
+		                                    SoloMessage.cmd_utilssortviewsbylocationonscreen,
+		                                    SoloMessage.cmd_utilssortviewsbylocationonscreenyfirst}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ handleRobotiumUtilsCommand(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_setlargetimeout,
+		                                    SoloMessage.cmd_setsmalltimeout,
+		                                    SoloMessage.cmd_getlargetimeout,
+		                                    SoloMessage.cmd_getsmalltimeout}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ handleRobotiumTimeoutCommand(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_pinchtozoom,
+		                                    SoloMessage.cmd_rotatelarge,
+		                                    SoloMessage.cmd_rotatesmall,
+		                                    SoloMessage.cmd_swipe}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ handleZoomRotateSwipe(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_clearlog,
+		                                    SoloMessage.cmd_stopscreenshotsequence,
+		                                    SoloMessage.cmd_clickonactionbarhomebutton,
+		                                    SoloMessage.cmd_unlockscreen}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ handleComandWithoutParams(props); }
+		});
+		registerCommandHandler(SoloMessage.cmd_setnavigationdrawer, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ setNavigationDrawer(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_config_gettimeoutsmall,
+		                                    SoloMessage.cmd_config_gettimeoutlarge,
+		                                    SoloMessage.cmd_config_settimeoutsmall,
+		                                    SoloMessage.cmd_config_settimeoutlarge}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ handleConfigTimeoutCommands(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_config_getshouldscroll,
+		                                    SoloMessage.cmd_config_setshouldscroll}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ handleConfigShouldScrollCommands(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_config_getusejavascripttoclickwebelements,
+		                                    SoloMessage.cmd_config_setusejavascripttoclickwebelements}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ handleConfigUseJavaScriptToClickWebElementsCommands(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_config_getscreenshotsavepath,
+		                                    SoloMessage.cmd_config_setscreenshotsavepath}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ handleConfigScreenshotSavePathCommands(props); }
+		});
+		registerCommandHandler(new String[]{SoloMessage.cmd_config_getscreenshotfiletype,
+		                                    SoloMessage.cmd_config_setscreenshotfiletype}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ handleConfigScreenshotFileTypeCommands(props); }
+		});
+	}
+	
 	/**
 	 * Test if the solo is null. If it is, try to set it with that of {@link RobotiumTestRunner}<br>
 	 * 
@@ -220,446 +670,21 @@ public class SoloProcessor extends AbstractProcessor implements CacheReferenceIn
 		debug(debugPrefix +"Begin processing '"+remoteCommand+"' ... ");
 
 		try{
-			if(remoteCommand.equals(SoloMessage.cmd_startmainlauncher)){
-				//This will initialize the solo object of RobotiumTestRunner
-				startMainLauncher(props);
-			}else{
+			CommandHandler handler = getCommandHandler(remoteCommand);
+			if(handler==null){
+				debug(debugPrefix +"Unknown command '"+remoteCommand+"'.");
+				// "unknown/not executed" result already set.
+				return;
+			}
+			if(!SoloMessage.cmd_startmainlauncher.equals(remoteCommand)){
 				debug(debugPrefix +"For command different from '"+SoloMessage.cmd_startmainlauncher+"', we need to check the Solo object.");
 				if(!checkSolo()){
 					debug(debugPrefix +"The robotium solo object is null, you need to call Solo.launchApplication().");
 					setGeneralError(props, SoloMessage.RESULT_INFO_SOLO_ISNULL);
 					return;
 				}
-				
-				if(remoteCommand.equals(SoloMessage.cmd_assertcurrentactivityname) ||
-						remoteCommand.equals(SoloMessage.cmd_assertnewcurrentactivityname) ||
-						remoteCommand.equals(SoloMessage.cmd_assertcurrentactivityclass) ||
-						remoteCommand.equals(SoloMessage.cmd_assertnewcurrentactivityclass)){
-					assertCurrentActivity(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_assertmemorynotlow)){
-					assertMemoryNotLow(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_clickonscreen) ||
-						 remoteCommand.equals(SoloMessage.cmd_clickonscreenntimes)){
-					clickOnScreen(props, false);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_clicklongonscreen) ||
-						remoteCommand.equals(SoloMessage.cmd_clicklongtimeonscreen)){
-					clickOnScreen(props, true);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_clickonactionbaritem)){
-					clickOnActionBarItem(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_clickonbutton) ||
-						remoteCommand.equals(SoloMessage.cmd_clickontogglebutton)){
-					clickOnViewByName(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_clickoncheckboxindex) ||
-						remoteCommand.equals(SoloMessage.cmd_clickonedittextindex) ||
-						remoteCommand.equals(SoloMessage.cmd_clickonimage) ||
-						remoteCommand.equals(SoloMessage.cmd_clickonimagebutton) ||
-						remoteCommand.equals(SoloMessage.cmd_clickonbuttonindex) ||
-						remoteCommand.equals(SoloMessage.cmd_clickonradiobuttonindex)){
-					clickOnViewByIndex(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_clickinlist) ||
-						remoteCommand.equals(SoloMessage.cmd_clickinlistindex)){
-					clickInList(props, false);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_clicklonginlist) ||
-						remoteCommand.equals(SoloMessage.cmd_clicklonginlistindex) ||
-						remoteCommand.equals(SoloMessage.cmd_clicklongtimeinlistindex)){
-					clickInList(props, true);	
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_clickonmenuitem)){
-					clickOnMenuItem(props, false);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_clickonsubmenuitem)){
-					clickOnMenuItem(props, true);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_clickonview) ||
-						 remoteCommand.equals(SoloMessage.cmd_clickonviewimmediately)){
-					clickOnView(props, false);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_clicklongonview) ||
-						remoteCommand.equals(SoloMessage.cmd_clicklongtimeonview)){
-					clickOnView(props, true);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_clickontext) ||
-						remoteCommand.equals(SoloMessage.cmd_clickontextmatch) ||
-						remoteCommand.equals(SoloMessage.cmd_clickontextmatchscroll) ){
-					clickOnText(props, false);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_clicklongontext) ||
-						remoteCommand.equals(SoloMessage.cmd_clicklongontextmatch) ||
-						remoteCommand.equals(SoloMessage.cmd_clicklongontextmatchscroll) ||
-						remoteCommand.equals(SoloMessage.cmd_clicklongtimeontextmatch) ||
-						remoteCommand.equals(SoloMessage.cmd_clicklongpressontext)){
-					clickOnText(props, true);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_clearedittextindex)||
-						remoteCommand.equals(SoloMessage.cmd_clearedittextreference)){
-					clearEditText(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_drag)){
-					drag(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_entertextindex) ||
-						remoteCommand.equals(SoloMessage.cmd_entertextreference) ||
-						remoteCommand.equals(SoloMessage.cmd_typetext) ||
-						remoteCommand.equals(SoloMessage.cmd_typetextuid)){
-					enterText(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_finishopenedactivities)){
-					finishOpenedActivities(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_finalizeremotesolo)){
-					finalizeRemoteSolo(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_goback)){
-					goBack(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_gobacktoactivity)){
-					goBackToActivity(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_getactivitymonitor)){
-					getActivityMonitor(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_getallopenactivities)){
-					getAllOpenActivities(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_getcurrentactivity)){
-					getCurrentActivity(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_getbutton) ||
-						remoteCommand.equals(SoloMessage.cmd_getedittext) ||
-						remoteCommand.equals(SoloMessage.cmd_getimage) ||
-						remoteCommand.equals(SoloMessage.cmd_getimagebutton) ||
-						remoteCommand.equals(SoloMessage.cmd_gettext) ||
-						remoteCommand.equals(SoloMessage.cmd_getviewclass)){
-					getViewByIndex(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_getbuttontext) ||
-						remoteCommand.equals(SoloMessage.cmd_getbuttonvisible) ||
-						remoteCommand.equals(SoloMessage.cmd_getedittexttext) ||
-						remoteCommand.equals(SoloMessage.cmd_getedittextvisible) ||
-						remoteCommand.equals(SoloMessage.cmd_gettexttext) ||
-						remoteCommand.equals(SoloMessage.cmd_gettextvisible)){
-					getViewByText(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_getviewid)){
-					getViewById(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_getviewbyname) ||
-						 remoteCommand.equals(SoloMessage.cmd_getviewbynamematch)){
-					getViewByName(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_getviewbytag) ||
-						 remoteCommand.equals(SoloMessage.cmd_getviewbytagmatch)){
-					getViewByTag(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_getparentviews)){
-					getViewsInParent(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_getcurrentbuttons) ||
-						remoteCommand.equals(SoloMessage.cmd_getcurrentcheckboxes) ||
-						remoteCommand.equals(SoloMessage.cmd_getcurrentdatepickers) ||
-						remoteCommand.equals(SoloMessage.cmd_getcurrentedittexts) ||
-						remoteCommand.equals(SoloMessage.cmd_getcurrentgridviews) ||
-						remoteCommand.equals(SoloMessage.cmd_getcurrentimagebuttons) ||
-						remoteCommand.equals(SoloMessage.cmd_getcurrentimageviews) ||
-						remoteCommand.equals(SoloMessage.cmd_getcurrentlistviews) ||
-						remoteCommand.equals(SoloMessage.cmd_getcurrentprogressbars) ||
-						remoteCommand.equals(SoloMessage.cmd_getcurrentradiobuttons) ||
-						remoteCommand.equals(SoloMessage.cmd_getcurrentscrollviews) ||
-						remoteCommand.equals(SoloMessage.cmd_getcurrentslidingdrawers) ||
-						remoteCommand.equals(SoloMessage.cmd_getcurrentspinners) ||
-						remoteCommand.equals(SoloMessage.cmd_getcurrenttextviews) ||
-						remoteCommand.equals(SoloMessage.cmd_getcurrenttimepickers) ||
-						remoteCommand.equals(SoloMessage.cmd_getcurrenttogglebuttons) ||
-						remoteCommand.equals(SoloMessage.cmd_getcurrentviews) ||
-						remoteCommand.equals(SoloMessage.cmd_getcurrentnumberpickers) ||
-						remoteCommand.equals(SoloMessage.cmd_getviews) ||
-						remoteCommand.equals(SoloMessage.cmd_getcurrentviewsbyclass) ||
-						remoteCommand.equals(SoloMessage.cmd_getcurrentviewsbyclassandparent)){
-					getCurrentViews(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_getstring)){
-					getString(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_gettopparent)){
-					getTopParent(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_ischeckboxchecked) ||
-						remoteCommand.equals(SoloMessage.cmd_isradiobuttonchecked) ||
-						remoteCommand.equals(SoloMessage.cmd_isspinnertextselectedindex) ||
-						remoteCommand.equals(SoloMessage.cmd_istogglebuttonchecked)){
-					isViewByIndexChecked(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_ischeckboxcheckedtext) ||
-						remoteCommand.equals(SoloMessage.cmd_isradiobuttoncheckedtext) ||
-						remoteCommand.equals(SoloMessage.cmd_isspinnertextselected) ||
-						remoteCommand.equals(SoloMessage.cmd_istextchecked) ||
-						remoteCommand.equals(SoloMessage.cmd_istogglebuttoncheckedtext)){
-					isViewByTextChecked(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_pressmenuitem) ||
-						remoteCommand.equals(SoloMessage.cmd_presssubmenuitem)){
-					pressMenuItem(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_presssoftkeyboardnextbutton)){
-					pressSoftKeyboardNextButton(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_presssoftkeyboardsearchbutton)){
-					pressSoftKeyboardSearchButton(props);
-
-				}else if(remoteCommand.equals(SoloMessage.cmd_pressspinneritem)){
-					pressSpinnerItem(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_scrolldown) ||
-						remoteCommand.equals(SoloMessage.cmd_scrollup) ||
-						remoteCommand.equals(SoloMessage.cmd_scrolltotop) ||
-						remoteCommand.equals(SoloMessage.cmd_scrolltobottom) ||
-						remoteCommand.equals(SoloMessage.cmd_scrolllisttotop) ||
-						remoteCommand.equals(SoloMessage.cmd_scrolllisttotopuid) ||
-						remoteCommand.equals(SoloMessage.cmd_scrolllisttobottom) ||
-						remoteCommand.equals(SoloMessage.cmd_scrolllisttobottomuid) ||
-						remoteCommand.equals(SoloMessage.cmd_scrolllisttoline) ||
-						remoteCommand.equals(SoloMessage.cmd_scrolllisttolineuid) ||
-						remoteCommand.equals(SoloMessage.cmd_scrolldownlist) ||
-						remoteCommand.equals(SoloMessage.cmd_scrolldownlistuid) ||
-						remoteCommand.equals(SoloMessage.cmd_scrolluplistuid) ||
-						remoteCommand.equals(SoloMessage.cmd_scrolluplist)){
-					scroll(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_scrolltoside) ||
-						remoteCommand.equals(SoloMessage.cmd_scrollviewtoside)){
-					scrollToSide(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_searchbutton) ||
-						remoteCommand.equals(SoloMessage.cmd_searchbuttonvisible) ||
-						remoteCommand.equals(SoloMessage.cmd_searchbuttonmatch) ||
-						remoteCommand.equals(SoloMessage.cmd_searchbuttonmatchvisible) ||
-						remoteCommand.equals(SoloMessage.cmd_searchedittext) ||
-						remoteCommand.equals(SoloMessage.cmd_searchtext) ||
-						remoteCommand.equals(SoloMessage.cmd_searchtextvisible) ||
-						remoteCommand.equals(SoloMessage.cmd_searchtextmatch) ||
-						remoteCommand.equals(SoloMessage.cmd_searchtextmatchscroll) ||
-						remoteCommand.equals(SoloMessage.cmd_searchtextmatchscrollvisible) ||
-						remoteCommand.equals(SoloMessage.cmd_searchtogglebutton) ||
-						remoteCommand.equals(SoloMessage.cmd_searchtogglebuttonmatch)){
-					searchView(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_setactivityorientation)){
-					setActivityOrientation(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_setdatepickerreference) ||
-						remoteCommand.equals(SoloMessage.cmd_setdatepickerindex)){
-					setDatePicker(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_setmobiledata)){
-					setMobileData(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_setwifidata)){
-					setWiFiData(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_settimepickerreference) ||
-						remoteCommand.equals(SoloMessage.cmd_settimepickerindex)){
-					setTimePicker(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_setprogressbarreference) ||
-						remoteCommand.equals(SoloMessage.cmd_setprogressbarindex)){
-					setProgressBar(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_setslidingdrawerreference) ||
-						remoteCommand.equals(SoloMessage.cmd_setslidingdrawerindex)){
-					setSlidingDrawer(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_sendkey)){
-					sendKey(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_sleep)){
-					sleep(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_startscreenshotsequencemax)){
-					startScreenshotSequenceMax(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_getscreenshotsequence) ||
-						 remoteCommand.equals(SoloMessage.cmd_getscreenshotsequenceindex) ||
-						 remoteCommand.equals(SoloMessage.cmd_getscreenshotsequenceszie)){
-					getScreenshotSequence(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_waitforactivity) ||
-						remoteCommand.equals(SoloMessage.cmd_waitforactivitytimeout) ||
-						remoteCommand.equals(SoloMessage.cmd_waitforactivitybyclass) ||
-						remoteCommand.equals(SoloMessage.cmd_waitforactivitybyclasstimeout)){
-					waitForActivity(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_waitforemptyactivitystack)){
-					waitForEmptyActivityStack(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_waitforfragmentbytag)){
-					waitForFragmentByTag(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_waitforfragmentbyid)){
-					waitForFragmentById(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_waitfordialogtoclose) ||
-						 remoteCommand.equals(SoloMessage.cmd_waitfordialogtoopen)){
-					waitForDialog(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_waitforlogmessage)){
-					waitForLogMessage(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_waitfortext) ||
-						remoteCommand.equals(SoloMessage.cmd_waitfortextmatchtimeout) ||
-						remoteCommand.equals(SoloMessage.cmd_waitfortextmatchtimeoutscroll) ||
-						remoteCommand.equals(SoloMessage.cmd_waitfortextmatchtimeoutscrollvisible)){
-					waitForText(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_waitforviewclass) ||
-						remoteCommand.equals(SoloMessage.cmd_waitforviewclassmatchtimeout) ||
-						remoteCommand.equals(SoloMessage.cmd_waitforviewclassmatchtimeoutscroll)){
-					waitForView(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_waitforviewbytagreference) ||
-						remoteCommand.equals(SoloMessage.cmd_waitforviewbytagreferencetimeout) ||
-						remoteCommand.equals(SoloMessage.cmd_waitforviewbytagreferencetimeoutscroll)){
-					waitForViewByTag(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_waitforviewreference) ||
-						remoteCommand.equals(SoloMessage.cmd_waitforviewreferencetimeoutscroll)){
-					waitForViewUID(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_waitforviewid) ||
-						 remoteCommand.equals(SoloMessage.cmd_waitforviewidtimeout) ||
-						 remoteCommand.equals(SoloMessage.cmd_waitforviewidtimeoutscroll)){
-					waitForViewByID(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_getscreensize) ){
-					getScreenSize(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_getviewlocation) ){
-					getViewLocation(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_gettextviewvalue) ){
-					getTextViewValue(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_getguiimage) ){
-					getGuiImage(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_getviewclassname)){
-					getObjectClassName(props, true);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_getobjectclassname)){
-					getObjectClassName(props, false);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_takescreenshot) ||
-						 remoteCommand.equals(SoloMessage.cmd_takescreenshotquality)){
-					takeScreenshot(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_waitforcondition) ){
-					waitForCondition(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_cleartextinwebelement) ){
-					clearTextInWebElement(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_clickonwebelement) ||
-						remoteCommand.equals(SoloMessage.cmd_clickonwebelementindex) ||
-						remoteCommand.equals(SoloMessage.cmd_clickonwebelementindexscroll)){
-					clickOnWebElement(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_clickonwebelementuid) ){
-					clickOnWebElementByUID(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_entertextinwebelement) ||
-						 remoteCommand.equals(SoloMessage.cmd_typetextinwebelement) ||
-						 remoteCommand.equals(SoloMessage.cmd_typetextinwebelementindex)){
-					enterTextInWebElement(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_typetextinwebelementuid) ){
-					typeTextInWebElementByUID(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_getcurrentwebelements) ||
-						remoteCommand.equals(SoloMessage.cmd_getwebelements) ||
-						remoteCommand.equals(SoloMessage.cmd_getcurrentwebelementsby) ||
-						remoteCommand.equals(SoloMessage.cmd_getwebelementsby) ||
-						remoteCommand.equals(SoloMessage.cmd_getwebelement)){
-					getCurrentWebElements(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_getweburl) ){
-					setGeneralSuccessWithSpecialInfo(props, solo.getWebUrl());
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_gettagforview) ){
-					getTagForView(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_hidesoftkeyboard) ){
-					solo.hideSoftKeyboard();
-					setGeneralSuccess(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_waitforwebelement) ||
-						remoteCommand.equals(SoloMessage.cmd_waitforwebelementtimeout) ||
-						remoteCommand.equals(SoloMessage.cmd_waitforwebelementminmatchtimeout)){
-					waitForWebElement(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_utilsfilterviews) ||
-						remoteCommand.equals(SoloMessage.cmd_utilsfilterviewsbytext) ||
-						remoteCommand.equals(SoloMessage.cmd_utilsfilterviewstoset) ||
-						remoteCommand.equals(SoloMessage.cmd_utilsgetnumberofmatches) ||
-						remoteCommand.equals(SoloMessage.cmd_utilsremoveinvisibleviews) ||
-						remoteCommand.equals(SoloMessage.cmd_utilssortviewsbylocationonscreen) ||
-						remoteCommand.equals(SoloMessage.cmd_utilssortviewsbylocationonscreenyfirst)){
-					handleRobotiumUtilsCommand(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_setlargetimeout) ||
-						 remoteCommand.equals(SoloMessage.cmd_setsmalltimeout) ||
-						 remoteCommand.equals(SoloMessage.cmd_getlargetimeout) ||
-						 remoteCommand.equals(SoloMessage.cmd_getsmalltimeout)){
-					handleRobotiumTimeoutCommand(props);
-				
-				}else if(remoteCommand.equals(SoloMessage.cmd_pinchtozoom) ||
-						remoteCommand.equals(SoloMessage.cmd_rotatelarge) ||
-						remoteCommand.equals(SoloMessage.cmd_rotatesmall) ||
-						remoteCommand.equals(SoloMessage.cmd_swipe)){
-					handleZoomRotateSwipe(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_clearlog) ||
-						 remoteCommand.equals(SoloMessage.cmd_stopscreenshotsequence) ||
-						 remoteCommand.equals(SoloMessage.cmd_clickonactionbarhomebutton) ||
-						 remoteCommand.equals(SoloMessage.cmd_unlockscreen)){
-					handleComandWithoutParams(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_setnavigationdrawer)){
-					setNavigationDrawer(props);					
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_config_gettimeoutsmall) ||
-						 remoteCommand.equals(SoloMessage.cmd_config_gettimeoutlarge) ||
-						 remoteCommand.equals(SoloMessage.cmd_config_settimeoutsmall) ||
-						 remoteCommand.equals(SoloMessage.cmd_config_settimeoutlarge)){
-					handleConfigTimeoutCommands(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_config_getshouldscroll) ||
-						 remoteCommand.equals(SoloMessage.cmd_config_setshouldscroll)){
-					handleConfigShouldScrollCommands(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_config_getusejavascripttoclickwebelements) ||
-						 remoteCommand.equals(SoloMessage.cmd_config_setusejavascripttoclickwebelements)){
-					handleConfigUseJavaScriptToClickWebElementsCommands(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_config_getscreenshotsavepath) ||
-						 remoteCommand.equals(SoloMessage.cmd_config_setscreenshotsavepath)){
-					handleConfigScreenshotSavePathCommands(props);
-					
-				}else if(remoteCommand.equals(SoloMessage.cmd_config_getscreenshotfiletype) ||
-						 remoteCommand.equals(SoloMessage.cmd_config_setscreenshotfiletype)){
-					handleConfigScreenshotFileTypeCommands(props);
-					
-				}else{
-					debug(debugPrefix +"Unknown command '"+remoteCommand+"'.");
-					// "unknown/not executed" result already set.
-				}
 			}
+			handler.handle(props);
 			
 		}catch(ProcessorException pe){
 			debug(remoteCommand+": Met ProcessorException: '"+pe.getMessage()+"'.");
@@ -686,7 +711,7 @@ public class SoloProcessor extends AbstractProcessor implements CacheReferenceIn
 	 * @param props		The Properties object containing the in and out parameters
 	 * @param view		View, the View object
 	 * @return
-	 * @see #convertToKey(Hashtable, Object)
+	 * @see #convertToKey(ObjectRegistry, Object)
 	 * @see #setViewClassResult(Properties, View)
 	 * @see #setGeneralSuccessWithSpecialInfo(Properties, String)
 	 */
@@ -4035,6 +4060,7 @@ public class SoloProcessor extends AbstractProcessor implements CacheReferenceIn
 	 * If not found, a {@link ProcessorException} will be thrown out.<br>
 	 * If a view is found, we will get the bitmap of that view and compress<br>
 	 * the bytes to String and return it through KEY_REMOTERESULTINFO<br>
+	 * The image is PNG unless {@link ViewCapture#KEY_CAPTUREFORMAT} and {@link ViewCapture#KEY_CAPTUREQUALITY} say otherwise.<br>
 	 * 
 	 * @param uid				String, This is the view's uid according to which we will get a View.
 	 * 							This uid is the key in local cache {@link #viewCache}
@@ -4055,14 +4081,16 @@ public class SoloProcessor extends AbstractProcessor implements CacheReferenceIn
 				throw new ProcessorException(" View for id '"+uid+"' is null.");			
 			}else{
 				debug(dbPrefix +" Try to get gui image for view "+view.getClass().getSimpleName());
-				Bitmap bitmap = getBitmapOfView(view);
-				ByteArrayOutputStream outputstream = new ByteArrayOutputStream();
-				if (bitmap != null) {
-					success = bitmap.compress(Bitmap.CompressFormat.PNG, 100, outputstream);
-					if (success) {
-						message = Base64.encodeToString(outputstream.toByteArray(), Base64.DEFAULT);
-					} else {
-						message = "did not successfully compress Bitmap to PNG format.";
+				Bitmap.CompressFormat format = ViewCapture.parseFormat(props.getProperty(ViewCapture.KEY_CAPTUREFORMAT), Bitmap.CompressFormat.PNG);
+				int quality = ViewCapture.parseQuality(props.getProperty(ViewCapture.KEY_CAPTUREQUALITY), 100);
+				Rect v = new Rect();
+				if (view.getGlobalVisibleRect(v)) {
+					// only the region of the view is drawn, into a pooled Bitmap
+					try{
+						message = getViewCapture().captureBase64(view.getRootView(), v, format, quality);
+						success = true;
+					}catch(RuntimeException x){
+						message = x.getMessage();
 					}
 				}else{
 					message = "did not get Bitmap for this View.";
@@ -4286,6 +4314,9 @@ public class SoloProcessor extends AbstractProcessor implements CacheReferenceIn
 		}
 	}
 	
+	/** 5000 milliseconds to wait for Robotium to write a screenshot. */
+	public static final int SCREENSHOT_TIMEOUT = 5000;
+	
 	/**
 	 * Takes a Screenshot and retrieve it from /sdcard/Robotium-Screenshots/.<br>
 	 * Requires Robotium 3.4.1
@@ -4305,15 +4336,32 @@ public class SoloProcessor extends AbstractProcessor implements CacheReferenceIn
 			if(filename == null || filename.length() < 1)
 				throw new ProcessorException(debugPrefix +"filename is null or invalid.");			
 			
-			try{ 
-				if(remoteCommand.equals(SoloMessage.cmd_takescreenshot)){
-					solo.takeScreenshot(filename);
-				}else if(remoteCommand.equals(SoloMessage.cmd_takescreenshotquality)){
-					int quality = SoloMessage.getInteger(props, SoloMessage.PARAM_QUALITY);
-					solo.takeScreenshot(filename, quality);
+			if(ViewCapture.MODE_MEMORY.equalsIgnoreCase(props.getProperty(ViewCapture.KEY_CAPTUREMODE, "").trim())){
+				takeScreenshotInMemory(props);
+				return;
+			}
+			
+			// Robotium saves the screenshot from a background thread, watch for it before it is taken
+			FileWriteWatcher watcher = FileWriteWatcher.watch(getRobotiumScreenshotFile(filename));
+			try{
+				boolean taken = false;
+				try{ 
+					if(remoteCommand.equals(SoloMessage.cmd_takescreenshot)){
+						solo.takeScreenshot(filename);
+						taken = true;
+					}else if(remoteCommand.equals(SoloMessage.cmd_takescreenshotquality)){
+						int quality = SoloMessage.getInteger(props, SoloMessage.PARAM_QUALITY);
+						solo.takeScreenshot(filename, quality);
+						taken = true;
+					}
+				}catch(Exception x){
+					debug("takeScreenshot ignoring "+ x.getClass().getSimpleName()+": "+x.getMessage());
 				}
-			}catch(Exception x){
-				debug("takeScreenshot ignoring "+ x.getClass().getSimpleName()+": "+x.getMessage());
+				if(taken && !watcher.awaitWritten(SCREENSHOT_TIMEOUT)){
+					debug(debugPrefix +" the screenshot was not written within "+ SCREENSHOT_TIMEOUT +" milliseconds.");
+				}
+			}finally{
+				watcher.stopWatching();
 			}
 
 			debug(debugPrefix +" Try to get completed screenshot...");
@@ -4342,6 +4390,41 @@ public class SoloProcessor extends AbstractProcessor implements CacheReferenceIn
 		}
 	}
 
+	/**
+	 * Take the screenshot of the window Robotium would take, in memory with the {@link ViewCapture}: 
+	 * nothing is written to, nor read back from, the external storage. The name of the image is ignored.<br>
+	 * The format is given by {@link ViewCapture#KEY_CAPTUREFORMAT}, JPEG by default like Robotium. The quality is 
+	 * {@link SoloMessage#PARAM_QUALITY} for {@link SoloMessage#cmd_takescreenshotquality}, else 
+	 * {@link ViewCapture#KEY_CAPTUREQUALITY}, 100 by default.<br>
+	 * The image is returned Base64 encoded, the same as the one read from the file.
+	 * 
+	 * @param props		The Properties object containing the in and out parameters
+	 * @see #takeScreenshot(Properties)
+	 */
+	void takeScreenshotInMemory(Properties props) throws ProcessorException{
+		String debugPrefix = TAG+".takeScreenshotInMemory() ";
+		Bitmap.CompressFormat format = ViewCapture.parseFormat(props.getProperty(ViewCapture.KEY_CAPTUREFORMAT), Bitmap.CompressFormat.JPEG);
+		int quality = ViewCapture.parseQuality(props.getProperty(ViewCapture.KEY_CAPTUREQUALITY), 100);
+		if(remoteCommand.equals(SoloMessage.cmd_takescreenshotquality)){
+			quality = ViewCapture.parseQuality(props.getProperty(SoloMessage.PARAM_QUALITY), quality);
+		}
+		View root = solo.getScreenshotView();
+		if(root == null){
+			debug(debugPrefix +"there is no window to capture.");
+			setGeneralError(props, "There is no window to capture.");
+			return;
+		}
+		try{
+			String message = getViewCapture().captureBase64(root, null, format, quality);
+			debug(debugPrefix +" Succeeded to capture the screenshot as "+ format +", quality "+ quality);
+			setGeneralSuccessWithSpecialInfo(props, message);
+		}catch(RuntimeException x){
+			String msg = x.getClass().getSimpleName()+": "+ x.getMessage();
+			debug(debugPrefix + msg);
+			setGeneralError(props, msg);
+		}
+	}
+	
 	/**
 	 * Read a JPG file with name 'filename' from folder '/sdcard/Robotium-Screenshots/', then encode it to
 	 * a String and return, this method doesn't care when the image file is created.
@@ -4379,27 +4462,14 @@ public class SoloProcessor extends AbstractProcessor implements CacheReferenceIn
 				throw new ProcessorException(fileToRead.getAbsolutePath()+" is too old, we don't read it!");
 			}
 			if(absoluteFilePath!=null) absoluteFilePath.append(fileToRead.getAbsolutePath());
-			BufferedInputStream inputstream = null;
-			ByteArrayOutputStream outputstream = null;
 			try {
-				inputstream = new BufferedInputStream(new FileInputStream(fileToRead));
-				outputstream = new ByteArrayOutputStream();
-				int byt = 0;
-				while(inputstream.available() > 0 && byt != -1){
-					byt = inputstream.read();
-					if(byt != -1) outputstream.write(byt);
-				}
-				outputstream.flush();
-				imgString = Base64.encodeToString(outputstream.toByteArray(), Base64.DEFAULT);
-				
-				if(imgString.length() <= 0){
-					throw new ProcessorException(" image data appears to be empty!");
-				}
+				// mapped and encoded by chunks, without a copy of the whole image on the heap
+				imgString = Base64FileEncoder.encodeFile(fileToRead);
 			} catch (Exception e) {
 				throw new ProcessorException(e.getClass()+":"+e.getMessage());
-			}finally{
-				if(inputstream!=null) try{ inputstream.close();}catch (Exception e) {}
-				if(outputstream!=null) try{ outputstream.close();}catch (Exception e) {}
+			}
+			if(imgString.length() <= 0){
+				throw new ProcessorException(" image data appears to be empty!");
 			}
 		}else{
 			throw new ProcessorException(fileToRead.getAbsolutePath()+" does not exist or is not readable.");
@@ -4482,17 +4552,10 @@ public class SoloProcessor extends AbstractProcessor implements CacheReferenceIn
 	 * @param fileToRead, File
 	 * @param timeout, time to wait for existence of the file, in milliseconds
 	 * @return boolean, true if the file exists and can be read
+	 * @see FileWriteWatcher#awaitExisting(File, long)
 	 */
 	private boolean waitForFileExistAndReadable(File fileToRead, int timeout/*millisecond*/){
-		
-		long startTime = (new Date()).getTime();
-		while(!(fileToRead.exists()||fileToRead.canRead()) &&
-				((new Date()).getTime() < (startTime+timeout))){
-			//Wait for for the image to be ready to read
-			solo.sleep(100);
-		}
-		
-		return fileToRead.exists() && fileToRead.canRead();
+		return FileWriteWatcher.awaitExisting(fileToRead, timeout);
 	}
 	
 	/**
@@ -4885,5 +4948,38 @@ public class SoloProcessor extends AbstractProcessor implements CacheReferenceIn
 		}
 	}
 
+	/**
+	 * Purge the destroyed Activity and its Views from {@link #activityCache} and {@link #viewCache}.
+	 * @see AbstractProcessor#onActivityDestroyed(Activity)
+	 */
+	@Override
+	public void onActivityDestroyed(Activity activity){
+		int purged = purgeActivityFromCache(activityCache, activity);
+		purged += purgeActivityFromCache(viewCache, activity);
+		if(mainApp==activity) mainApp = null;
+		debug(TAG+".onActivityDestroyed() purged "+purged+" objects of "+activity.getClass().getName());
+	}
 	
+	/**
+	 * Apply the maximum size to {@link #viewCache}, {@link #webElementCache} and {@link #tagCache}.
+	 * @see AbstractProcessor#setMaxCacheSize(int)
+	 */
+	@Override
+	public void setMaxCacheSize(int maxSize){
+		super.setMaxCacheSize(maxSize);
+		viewCache.setMaxSize(maxSize);
+		webElementCache.setMaxSize(maxSize);
+		tagCache.setMaxSize(maxSize);
+	}
+	
+	/** @see AbstractProcessor#getCacheStatistics() */
+	@Override
+	public String getCacheStatistics(){
+		return "viewCache["+viewCache.getStatistics()+"];"+
+		       "activityCache["+activityCache.getStatistics()+"];"+
+		       "webElementCache["+webElementCache.getStatistics()+"];"+
+		       "tagCache["+tagCache.getStatistics()+"];"+
+		       "activityMonitorCache["+activityMonitorCache.getStatistics()+"]"+
+		       (viewCapture==null ? "" : ";viewCapture["+viewCapture.getStatistics()+"]");
+	}
 }
@@ -0,0 +1,269 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package com.jayway.android.robotium.remotecontrol.client.processor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import android.app.Instrumentation;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Rect;
+import android.os.Looper;
+import android.view.View;
+
+/**
+ * Capture the image of a window, or of a region of it, in memory.<br>
+ * The root View is drawn on the UI thread straight into a Bitmap of the size of the region, taken from a small
+ * pool of Bitmaps by size, then compressed into a reused buffer with the format and quality asked for.
+ * Nothing is written to the external storage, and the drawing cache of the window is not used. 
+ * The children of the window out of the region are rejected by the clipping of the Canvas, so capturing 
+ * a small component does not draw the whole screen.<br>
+ * <p>
+ * The result of a capture is only valid until the next capture, so the methods returning it are synchronized
+ * and {@link #captureBase64(View, Rect, Bitmap.CompressFormat, int)} encodes it before returning.<br>
+ * The options are given by the optional properties {@link #KEY_CAPTUREMODE}, {@link #KEY_CAPTUREFORMAT}
+ * and {@link #KEY_CAPTUREQUALITY} of the commands.<br>
+ *
+ * @see #getShared(Instrumentation)
+ * @see SoloProcessor#takeScreenshot(java.util.Properties)
+ * @since  OCT 18, 2026 (agent)
+ */
+public class ViewCapture {
+
+	/** "capturemode", the optional property selecting how an image is captured. */
+	public static final String KEY_CAPTUREMODE = "capturemode";
+	/** "memory", the {@link #KEY_CAPTUREMODE} capturing the image in memory, see {@link ViewCapture}. */
+	public static final String MODE_MEMORY = "memory";
+	/** "captureformat", the optional property giving the image format: "PNG", "JPEG" or "WEBP". */
+	public static final String KEY_CAPTUREFORMAT = "captureformat";
+	/** "capturequality", the optional property giving the compression quality, 0 to 100. Ignored by PNG. */
+	public static final String KEY_CAPTUREQUALITY = "capturequality";
+
+	/** 256 KB, the initial size of the compression buffer. */
+	static final int INITIAL_BUFFER_SIZE = 256 * 1024;
+	/** 4 Bitmaps of different sizes are kept. */
+	public static final int DEFAULT_POOL_SIZE = 4;
+
+	/** A ByteArrayOutputStream whose array is used without being copied. */
+	static final class Buffer extends ByteArrayOutputStream{
+		Buffer(int size){ super(size); }
+		byte[] array(){ return buf; }
+	}
+
+	/** A pooled Bitmap and the Canvas drawing into it. */
+	static final class Surface{
+		final Bitmap bitmap;
+		final Canvas canvas;
+		Surface(int width, int height){
+			bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+			canvas = new Canvas(bitmap);
+		}
+	}
+
+	private static ViewCapture shared = null;
+
+	private final Instrumentation inst;
+	private final Buffer buffer = new Buffer(INITIAL_BUFFER_SIZE);
+	/** The pooled Surfaces by size, the least recently used first. */
+	private final LinkedHashMap<Long, Surface> pool = new LinkedHashMap<Long, Surface>(8, 0.75f, true);
+	private int poolSize = DEFAULT_POOL_SIZE;
+
+	private long captures = 0;
+	private long allocations = 0;
+	private long bytes = 0;
+
+	/** @param inst Instrumentation, to draw the Views on the UI thread. */
+	public ViewCapture(Instrumentation inst){
+		this.inst = inst;
+	}
+
+	/**
+	 * @param inst Instrumentation, to draw the Views on the UI thread.
+	 * @return ViewCapture, the one shared by all the processors, so they share the pooled Bitmaps.
+	 */
+	public static synchronized ViewCapture getShared(Instrumentation inst){
+		if(shared == null) shared = new ViewCapture(inst);
+		return shared;
+	}
+
+	/** @param size int, the number of Bitmaps of different sizes to keep, at least 1. */
+	public synchronized void setPoolSize(int size){
+		poolSize = Math.max(1, size);
+		trimPool(poolSize);
+	}
+
+	/**
+	 * @param format String, "PNG", "JPEG", "JPG" or "WEBP", case insensitive.
+	 * @param defaultFormat Bitmap.CompressFormat, returned if the format is null, empty, or not supported by the device.
+	 */
+	public static Bitmap.CompressFormat parseFormat(String format, Bitmap.CompressFormat defaultFormat){
+		if(format == null || format.trim().length() == 0) return defaultFormat;
+		String name = format.trim().toUpperCase();
+		if(name.equals("JPG")) name = "JPEG";
+		try{ return Bitmap.CompressFormat.valueOf(name);}
+		catch(IllegalArgumentException x){ return defaultFormat;}
+	}
+
+	/**
+	 * @param quality String, the compression quality.
+	 * @param defaultQuality int, returned if the quality is null or not a number.
+	 * @return int, the quality between 0 and 100.
+	 */
+	public static int parseQuality(String quality, int defaultQuality){
+		int value = defaultQuality;
+		if(quality != null && quality.trim().length() > 0){
+			try{ value = Integer.parseInt(quality.trim());}catch(NumberFormatException x){}
+		}
+		return Math.max(0, Math.min(100, value));
+	}
+
+	/**
+	 * Capture and encode an image.
+	 * @param root View, the root View of the window to capture.
+	 * @param region Rect, the region to capture in the coordinates of the window; or null for the whole window.
+	 * @param format Bitmap.CompressFormat, the format of the image.
+	 * @param quality int, the compression quality, 0 to 100.
+	 * @return String, the image encoded like Base64.encodeToString(bytes, Base64.DEFAULT).
+	 * @throws IllegalArgumentException if the region is empty or out of the window.
+	 * @throws IllegalStateException if the image cannot be drawn or compressed.
+	 */
+	public synchronized String captureBase64(View root, Rect region, Bitmap.CompressFormat format, int quality){
+		int size = capture(root, region, format, quality);
+		return Base64FileEncoder.encode(ByteBuffer.wrap(buffer.array(), 0, size));
+	}
+
+	/**
+	 * Capture an image into the compression buffer, see {@link #captureBase64(View, Rect, Bitmap.CompressFormat, int)}.
+	 * @return int, the number of bytes of the compressed image.
+	 */
+	synchronized int capture(View root, Rect region, Bitmap.CompressFormat format, int quality){
+		Bitmap target = draw(root, region);
+		buffer.reset();
+		if(!target.compress(format, quality, buffer))
+			throw new IllegalStateException("did not successfully compress Bitmap to "+ format +" format.");
+		captures++;
+		bytes += buffer.size();
+		return buffer.size();
+	}
+
+	/**
+	 * Capture and compress an image into a stream, like an image file.
+	 * @param out OutputStream, where the compressed image is written. It is not closed.
+	 * @see #captureBase64(View, Rect, Bitmap.CompressFormat, int)
+	 */
+	public synchronized void captureTo(View root, Rect region, Bitmap.CompressFormat format, int quality, OutputStream out) throws IOException{
+		capture(root, region, format, quality);
+		buffer.writeTo(out);
+	}
+
+	/**
+	 * Capture the pixels of an image, to compare them on the device.
+	 * @param root View, the root View of the window to capture.
+	 * @param region Rect, the region to capture in the coordinates of the window; or null for the whole window.
+	 * Set to the region actually captured, inside the window.
+	 * @return int[], the ARGB pixels of the image, row by row.
+	 * @see #captureBase64(View, Rect, Bitmap.CompressFormat, int)
+	 */
+	public synchronized int[] capturePixels(View root, Rect region){
+		Bitmap target = draw(root, region);
+		int width = target.getWidth();
+		int height = target.getHeight();
+		int[] pixels = new int[width * height];
+		target.getPixels(pixels, 0, width, 0, 0, width, height);
+		captures++;
+		return pixels;
+	}
+
+	/** @return Bitmap, the pooled Bitmap the region of the window has been drawn into. */
+	private Bitmap draw(final View root, Rect region){
+		final Rect area = new Rect(0, 0, root.getWidth(), root.getHeight());
+		if(region != null && !area.intersect(region))
+			throw new IllegalArgumentException("region "+ region.toShortString() +" is out of the window.");
+		if(area.isEmpty())
+			throw new IllegalArgumentException("nothing to capture in "+ area.toShortString() +".");
+
+		Surface surface = getSurface(area.width(), area.height());
+		final Bitmap target = surface.bitmap;
+		final Canvas drawing = surface.canvas;
+		final Throwable[] failure = new Throwable[1];
+		Runnable draw = new Runnable(){
+			public void run(){
+				try{
+					target.eraseColor(Color.TRANSPARENT);
+					int saved = drawing.save();
+					drawing.translate(-area.left, -area.top);
+					root.draw(drawing);
+					drawing.restoreToCount(saved);
+				}catch(Throwable x){ failure[0] = x; }
+			}
+		};
+		if(Looper.myLooper() == Looper.getMainLooper()) draw.run();
+		else inst.runOnMainSync(draw);
+		if(failure[0] != null) 
+			throw new IllegalStateException("cannot draw the window: "+ failure[0].getClass().getSimpleName()+": "+failure[0].getMessage());
+		if(region != null) region.set(area);
+		return target;
+	}
+
+	/** @return Surface, the pooled one of that size; a new one, replacing the least recently used, if there is none. */
+	private Surface getSurface(int width, int height){
+		Long key = Long.valueOf(((long)width << 32) | height);
+		Surface surface = pool.get(key);
+		if(surface == null || surface.bitmap.isRecycled()){
+			// a recycled Bitmap of that size is replaced, it must not evict a valid one
+			if(surface != null) pool.remove(key);
+			trimPool(poolSize - 1);
+			surface = new Surface(width, height);
+			pool.put(key, surface);
+			allocations++;
+		}
+		return surface;
+	}
+
+	private void trimPool(int size){
+		Iterator<Map.Entry<Long, Surface>> entries = pool.entrySet().iterator();
+		while(pool.size() > size && entries.hasNext()){
+			Surface surface = entries.next().getValue();
+			entries.remove();
+			if(!surface.bitmap.isRecycled()) surface.bitmap.recycle();
+		}
+	}
+
+	/**
+	 * Free the pooled Bitmaps, they are created again by the next captures.<br>
+	 * Called when an Activity is destroyed and when the caches are cleared, so the Bitmaps of its windows 
+	 * do not stay on the heap between the tests.
+	 */
+	public synchronized void release(){
+		trimPool(0);
+	}
+
+	/**
+	 * @return String, like "captures=25,bitmaps=2,pooled=2,bytes=3145728"
+	 */
+	public synchronized String getStatistics(){
+		return "captures="+captures+",bitmaps="+allocations+",pooled="+pool.size()+",bytes="+bytes;
+	}
+}
@@ -58,6 +58,8 @@ import android.view.View;
  * @author Lei Wang, SAS Institute, Inc
  * @since  May 21, 2013
  * <br>    May 17, 2013		(LeiWang)	Update to add removed method finishInactiveActivities() in Robotium 4.1<br>
+ * <br>    OCT 18, 2026		(agent)	Add getWindowDecorViews() and getRecentRootView() to find a window without enumerating its views.<br>
+ * <br>    OCT 18, 2026		(agent)	Add getScreenshotView().<br>
  */
 
 public class RCSolo extends Solo{
@@ -163,4 +165,38 @@ public class RCSolo extends Solo{
 		waitedView = waiter.waitForView(id, index, timeout, scroll); 
 		return (waitedView!=null);
 	}
+	
+	/**
+	 * Expose {@link ViewFetcher#getWindowDecorViews()}: the root Views of all the windows, as listed by the WindowManager.<br>
+	 * It reads the list by reflection, none of the views of the windows is visited.
+	 * @return View[], the root Views of the windows; or null if they cannot be read.
+	 */
+	public View[] getWindowDecorViews(){
+		return viewFetcher.getWindowDecorViews();
+	}
+	
+	/**
+	 * The root View of the window whose views are listed first by {@link Solo#getViews()}, the same as
+	 * solo.getViews().get(0).getRootView(), without enumerating all the views of that window:
+	 * the first window which is not a DecorView, like a PopupWindow, else the most recent DecorView.
+	 * @param views View[], the root Views of the windows, from {@link #getWindowDecorViews()}.
+	 * @return View, the root View; or null if there is no window.
+	 */
+	public View getRecentRootView(View[] views){
+		if(views == null || views.length == 0) return null;
+		for(int i=0;i<views.length;i++){
+			if(views[i] != null && !views[i].getClass().getName().endsWith("DecorView")) return views[i];
+		}
+		return viewFetcher.getRecentDecorView(views);
+	}
+	
+	/**
+	 * @return View, the root View of the window Robotium takes the screenshots of: the most recent DecorView.
+	 * null if there is no window.
+	 */
+	public View getScreenshotView(){
+		View[] views = viewFetcher.getWindowDecorViews();
+		if(views == null || views.length == 0) return null;
+		return viewFetcher.getRecentDecorView(views);
+	}
 }
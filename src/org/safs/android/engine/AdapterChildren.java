@@ -0,0 +1,273 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package org.safs.android.engine;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import android.view.View;
+import android.widget.Adapter;
+import android.widget.AdapterView;
+
+/**
+ * The lazy enumeration of the children of an AdapterView for {@link DGuiObjectVector#searchChildren(Object, DGuiObjectDefinition)}.<br>
+ * <p>
+ * {@link DGuiObjectRecognition#getChildren(Object)} asks the adapter for a new item View for every offscreen position
+ * before the search looks at the first child: a list of 5000 rows inflates 5000 layouts, even if the sought
+ * component is elsewhere in the window. This enumeration gives, in order:
+ * <ol>
+ * <li>the children on screen, which already exist;
+ * <li>the offscreen rows whose adapter item has the texts sought by the recognition;
+ * <li>the other offscreen rows, if the {@link #OFFSCREEN_ALL} policy allows it.
+ * </ol>
+ * Each offscreen row is made only when the search asks for it, and the previous offscreen row of the same
+ * view type is given back to the adapter as its convertView. The search stops at the first match, so a row
+ * is only reused after the search is done with it and its descendants.<br>
+ * <p>
+ * The rows are not met in the order of their positions, so the index qualifiers of the recognition would 
+ * count different objects: only use it when {@link ViewTreeIndex#isIndexable(DGuiObjectDefinition)}. The adapter 
+ * items are compared to the texts with {@link String#valueOf(Object)}, the item ids are not compared because
+ * no qualifier refers to them: "ID=" is the id of the View.<br>
+ *
+ * @see DGuiObjectVector#LAZY_ADAPTER_CHILDREN
+ * @see DGuiObjectVector#OFFSCREEN_ROWS
+ * @since  OCT 18, 2026 (agent)
+ */
+public class AdapterChildren {
+
+	/** Search all the offscreen rows, after those whose item has the sought texts. */
+	public static final int OFFSCREEN_ALL = 0;
+	/** Search only the offscreen rows whose item has the sought texts; none if the recognition has no text. */
+	public static final int OFFSCREEN_MATCHING_ITEMS = 1;
+	/** Search only the children on screen. */
+	public static final int OFFSCREEN_NONE = 2;
+
+	/** The names of the policies, by value. */
+	public static final String[] POLICY_NAMES = {"ALL", "MATCHING_ITEMS", "NONE"};
+
+	private static final int ONSCREEN = 0;
+	private static final int MATCHING = 1;
+	private static final int OTHERS = 2;
+	private static final int DONE = 3;
+
+	private static final AtomicLong onscreenRows = new AtomicLong();
+	private static final AtomicLong madeRows = new AtomicLong();
+	private static final AtomicLong matchingRows = new AtomicLong();
+	private static final AtomicLong skippedRows = new AtomicLong();
+
+	private final AdapterView<?> parent;
+	private final Adapter adapter;
+	private final int policy;
+	private final String[] texts;
+	private final int count;
+	private final int firstVisible;
+	private final int lastVisible;
+	/** The last offscreen row made for each view type. */
+	private final View[] convertViews;
+	/** The offscreen positions whose item has the texts. */
+	private BitSet matching = null;
+
+	private int phase = ONSCREEN;
+	private int position;
+	private Object next = null;
+	private int nextPosition = -1;
+	private boolean trace = false;
+
+	/**
+	 * @param parent AdapterView, the parent whose children are searched.
+	 * @param testdef DGuiObjectDefinition, the definition the children and their descendants are matched with.
+	 * @param policy int, {@link #OFFSCREEN_ALL}, {@link #OFFSCREEN_MATCHING_ITEMS} or {@link #OFFSCREEN_NONE}.
+	 * @see #getRows(Object, DGuiObjectDefinition, int)
+	 */
+	public AdapterChildren(AdapterView<?> parent, DGuiObjectDefinition testdef, int policy){
+		this.parent = parent;
+		this.adapter = parent.getAdapter();
+		this.policy = policy;
+		this.texts = getSoughtTexts(testdef);
+		this.count = adapter == null ? 0 : parent.getCount();
+		this.firstVisible = parent.getFirstVisiblePosition();
+		this.lastVisible = parent.getLastVisiblePosition();
+		int types = 1;
+		try{ if(adapter != null) types = Math.max(1, adapter.getViewTypeCount()); }catch(RuntimeException ignore){}
+		this.convertViews = new View[types];
+		this.position = Math.max(0, firstVisible);
+		this.trace = DGuiObjectVector.isTraceEnabled();
+	}
+
+	/**
+	 * @return AdapterChildren, the lazy enumeration of the children of aparent; or null if it is not an AdapterView.
+	 * @see #AdapterChildren(AdapterView, DGuiObjectDefinition, int)
+	 */
+	public static AdapterChildren getRows(Object aparent, DGuiObjectDefinition testdef, int policy){
+		return aparent instanceof AdapterView ? new AdapterChildren((AdapterView<?>) aparent, testdef, policy) : null;
+	}
+
+	/**
+	 * The texts every row holding a match must show, because testdef or one of its child definitions has them.
+	 * @return String[], the lower-cased values of the "Text=", "TextContains=" and "Caption=" qualifiers.
+	 */
+	static String[] getSoughtTexts(DGuiObjectDefinition testdef){
+		ArrayList<String> texts = new ArrayList<String>();
+		for(DGuiObjectDefinition def = testdef; def != null; def = def.child){
+			if(def.qualType == null) continue;
+			for(int i=0;i<def.qualType.length;i++){
+				switch(def.qualType[i]){
+					case DGuiObjectDefinition.TEXTID:
+					case DGuiObjectDefinition.TEXTCONTAINSID:
+					case DGuiObjectDefinition.CAPTIONID:
+						if(def.qualValue[i] != null && def.qualValue[i].length() > 0) texts.add(def.qualValue[i].toLowerCase());
+						break;
+					default:
+				}
+			}
+		}
+		return texts.toArray(new String[texts.size()]);
+	}
+
+	/** @return true if the item at the position shows all the sought texts, as far as its String value tells. */
+	boolean isMatchingItem(int position){
+		if(texts.length == 0) return false;
+		String item;
+		try{ item = String.valueOf(adapter.getItem(position)); }
+		catch(RuntimeException x){ return false; }
+		for(int i=0;i<texts.length;i++){
+			if(!DGuiObjectDefinition.containsLowerCase(item, texts[i])) return false;
+		}
+		return true;
+	}
+
+	/** @return true if {@link #next()} has one more child. */
+	public boolean hasNext(){
+		while(next == null && phase != DONE){
+			advance();
+		}
+		return next != null;
+	}
+
+	/** @return Object, the next child; or null if there is none. */
+	public Object next(){
+		if(!hasNext()) return null;
+		Object child = next;
+		next = null;
+		return child;
+	}
+
+	/** @return int, the adapter position of the child last returned by {@link #next()}. */
+	public int getPosition(){
+		return nextPosition;
+	}
+
+	/** Look for the next child of the current phase, or go to the next phase. */
+	private void advance(){
+		switch(phase){
+			case ONSCREEN:
+				if(position <= lastVisible && position < count){
+					View child = parent.getChildAt(position - firstVisible);
+					nextPosition = position++;
+					if(child != null){
+						if(trace) DGuiObjectRecognition.trace("AdapterChildren onscreen child["+ nextPosition +"]");
+						onscreenRows.incrementAndGet();
+						next = child;
+					}
+					return;
+				}
+				int offscreen = count - Math.max(0, Math.min(lastVisible, count-1) - Math.max(firstVisible, 0) + 1);
+				if(policy == OFFSCREEN_NONE || offscreen <= 0){
+					skippedRows.addAndGet(Math.max(0, offscreen));
+					phase = DONE;
+					return;
+				}
+				matching = new BitSet(count);
+				for(int i=0;i<count;i++){
+					if((i < firstVisible || i > lastVisible) && isMatchingItem(i)) matching.set(i);
+				}
+				matchingRows.addAndGet(matching.cardinality());
+				if(policy == OFFSCREEN_MATCHING_ITEMS) skippedRows.addAndGet(offscreen - matching.cardinality());
+				phase = MATCHING;
+				position = 0;
+				return;
+			case MATCHING:
+				position = matching.nextSetBit(position);
+				if(position >= 0){
+					nextPosition = position++;
+					next = makeRow(nextPosition);
+					return;
+				}
+				phase = policy == OFFSCREEN_ALL ? OTHERS : DONE;
+				position = 0;
+				return;
+			case OTHERS:
+				if(position >= count){
+					phase = DONE;
+					return;
+				}
+				if(position >= firstVisible && position <= lastVisible){
+					position = lastVisible + 1;
+					return;
+				}
+				nextPosition = position++;
+				if(!matching.get(nextPosition)) next = makeRow(nextPosition);
+				return;
+			default:
+				phase = DONE;
+		}
+	}
+
+	/** Ask the adapter for the row, reusing the previous offscreen row of the same view type. */
+	private View makeRow(int position){
+		if(position >= adapter.getCount()) return null; // the data changed
+		if(trace) DGuiObjectRecognition.trace("AdapterChildren making offscreen child["+ position +"]");
+		int type = Adapter.IGNORE_ITEM_VIEW_TYPE;
+		try{ type = adapter.getItemViewType(position); }catch(RuntimeException ignore){}
+		boolean reusable = type >= 0 && type < convertViews.length;
+		View row = null;
+		try{ row = adapter.getView(position, reusable ? convertViews[type] : null, parent); }
+		catch(RuntimeException x){
+			DGuiObjectRecognition.debug("AdapterChildren ignoring offscreen child["+ position +"]: "+ x.getClass().getSimpleName()+", "+ x.getMessage());
+			return null;
+		}
+		if(row != null) madeRows.incrementAndGet();
+		if(reusable) convertViews[type] = row;
+		return row;
+	}
+
+	/**
+	 * @return int, the policy named by value, "ALL", "MATCHING_ITEMS" or "NONE", ignoring case, or its number;
+	 *              or defaultPolicy if the value is null or unknown.
+	 */
+	public static int parsePolicy(String value, int defaultPolicy){
+		if(value == null) return defaultPolicy;
+		String name = value.trim();
+		for(int i=0;i<POLICY_NAMES.length;i++){
+			if(POLICY_NAMES[i].equalsIgnoreCase(name)) return i;
+		}
+		try{
+			int policy = Integer.parseInt(name);
+			if(policy >= OFFSCREEN_ALL && policy <= OFFSCREEN_NONE) return policy;
+		}catch(NumberFormatException ignore){}
+		return defaultPolicy;
+	}
+
+	/**
+	 * @return String, the counters of the rows given to the searches like "onscreen=120,made=35,matching=4,skipped=4890".
+	 */
+	public static String getStatistics(){
+		return "onscreen="+onscreenRows.get()+",made="+madeRows.get()+",matching="+matchingRows.get()+",skipped="+skippedRows.get();
+	}
+}
@@ -0,0 +1,185 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package org.safs.android.engine;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import android.database.DataSetObserver;
+import android.view.View;
+import android.widget.Adapter;
+import android.widget.AdapterView;
+import android.widget.TextView;
+
+/**
+ * The texts of all the items of one Adapter, as shown by the item Views, for the text commands of
+ * ListView and ComboBox (Spinner).<br>
+ * <p>
+ * The texts are read once, asking the adapter for each item View with the previous View of the same type 
+ * as convertView, and kept with a lower-cased copy for the case-insensitive partial matches. The index
+ * is read again after the adapter notifies its DataSetObserver of a change or an invalidation, or when
+ * its count is not the count of the adapter any more. So selecting, activating, verifying and capturing by text
+ * do not inflate all the items for each command.<br>
+ * The index holds no reference to the Adapter or its Views: it is discarded with the Adapter.<br>
+ *
+ * @see #getItemTexts(AdapterView)
+ * @since  OCT 18, 2026 (agent)
+ */
+public class AdapterItemTexts {
+
+	/** The indexes by Adapter. */
+	private static final Map<Adapter, AdapterItemTexts> indexes = new WeakHashMap<Adapter, AdapterItemTexts>();
+
+	private static final AtomicLong hits = new AtomicLong();
+	private static final AtomicLong builds = new AtomicLong();
+	private static final AtomicLong changes = new AtomicLong();
+
+	private final DataSetObserver observer = new DataSetObserver(){
+		public void onChanged(){ invalidate(); }
+		public void onInvalidated(){ invalidate(); }
+	};
+	private volatile boolean stale = true;
+
+	private int count = 0;
+	/** The text of each item, null if it has none. */
+	private String[] texts = new String[0];
+	/** The lower-cased texts. */
+	private String[] lowerTexts = new String[0];
+	/** true for the items shown by a TextView. */
+	private boolean[] textViews = new boolean[0];
+
+	private AdapterItemTexts(){}
+
+	/**
+	 * @param view AdapterView, the ListView, Spinner or other AdapterView whose items are read.
+	 * @return AdapterItemTexts, the current index of the adapter of the view, built if there is none or if the 
+	 *                           items changed; or null if the view has no adapter.
+	 */
+	public static AdapterItemTexts getItemTexts(AdapterView<?> view){
+		Adapter adapter = view.getAdapter();
+		if(adapter == null) return null;
+		AdapterItemTexts index;
+		synchronized(indexes){
+			index = indexes.get(adapter);
+			if(index == null){
+				index = new AdapterItemTexts();
+				adapter.registerDataSetObserver(index.observer);
+				indexes.put(adapter, index);
+			}
+		}
+		index.update(view, adapter);
+		return index;
+	}
+
+	/** The items must be read again, the adapter reported a change. */
+	void invalidate(){
+		if(!stale) changes.incrementAndGet();
+		stale = true;
+	}
+
+	/** Read the texts again if the adapter reported a change or its count changed. */
+	private synchronized void update(AdapterView<?> view, Adapter adapter){
+		int current = adapter.getCount();
+		if(!stale && current == count){
+			hits.incrementAndGet();
+			return;
+		}
+		stale = false;
+		builds.incrementAndGet();
+		String[] newTexts = new String[current];
+		String[] newLowerTexts = new String[current];
+		boolean[] newTextViews = new boolean[current];
+		View[] convertViews = new View[Math.max(1, adapter.getViewTypeCount())];
+		boolean trace = DGuiObjectVector.isTraceEnabled();
+		for(int i=0;i<current;i++){
+			int type = adapter.getItemViewType(i);
+			boolean reusable = type >= 0 && type < convertViews.length;
+			View child = adapter.getView(i, reusable ? convertViews[type] : null, view);
+			if(reusable) convertViews[type] = child;
+			if(child == null) continue;
+			newTextViews[i] = child instanceof TextView;
+			newTexts[i] = DGuiObjectRecognition.getObjectText(child);
+			if(newTexts[i] != null) newLowerTexts[i] = newTexts[i].toLowerCase();
+			if(trace) DGuiObjectRecognition.trace("AdapterItemTexts item["+ i +"] '"+ newTexts[i] +"'");
+		}
+		texts = newTexts;
+		lowerTexts = newLowerTexts;
+		textViews = newTextViews;
+		count = current;
+	}
+
+	/** @return int, the number of items. */
+	public synchronized int getCount(){
+		return count;
+	}
+
+	/** @return String, the text of the item; or null if it has none or the position is out of bounds. */
+	public synchronized String getText(int position){
+		return position < 0 || position >= count ? null : texts[position];
+	}
+
+	/** @return boolean, true if the item is shown by a TextView. */
+	public synchronized boolean isTextView(int position){
+		return position >= 0 && position < count && textViews[position];
+	}
+
+	/**
+	 * Find the nth item whose text matches, like {@link com.jayway.android.robotium.remotecontrol.client.processor.AbstractProcessor#stringIsMatched(String, String, boolean, boolean)}.
+	 * @param text String, the sought text.
+	 * @param partial boolean, true if the item text only needs to contain the text.
+	 * @param caseSensitive boolean, true if the case of the texts must be the same.
+	 * @param nth int, 1 for the first matching item, 2 for the second, etc..
+	 * @param textViewsOnly boolean, true to ignore the items not shown by a TextView.
+	 * @param emptyItems boolean, false to ignore the items with an empty text.
+	 * @return int, the position of the matching item; or -1 if there is none.
+	 */
+	public synchronized int indexOf(String text, boolean partial, boolean caseSensitive, int nth, boolean textViewsOnly, boolean emptyItems){
+		if(text == null) return -1;
+		String lowerText = caseSensitive || !partial ? text : text.toLowerCase();
+		int nmatches = 0;
+		for(int i=0;i<count;i++){
+			String item = texts[i];
+			if(item == null || (textViewsOnly && !textViews[i]) || (!emptyItems && item.length() == 0)) continue;
+			boolean matched;
+			if(caseSensitive){
+				matched = partial ? item.contains(text) : item.equals(text);
+			}else{
+				matched = partial ? lowerTexts[i].contains(lowerText) : item.equalsIgnoreCase(text);
+			}
+			if(matched && ++nmatches == nth) return i;
+		}
+		return -1;
+	}
+
+	/** Have all the indexes read their items again on their next use. */
+	public static void clearCache(){
+		synchronized(indexes){
+			for(AdapterItemTexts index: indexes.values()) index.invalidate();
+		}
+	}
+
+	/**
+	 * @return String, the counters of the indexes like "adapters=2,hits=40,builds=3,changes=1".
+	 */
+	public static String getStatistics(){
+		int adapters;
+		synchronized(indexes){ adapters = indexes.size(); }
+		return "adapters="+adapters+",hits="+hits.get()+",builds="+builds.get()+",changes="+changes.get();
+	}
+}
@@ -24,6 +24,8 @@ import java.util.Hashtable;
 import java.util.Properties;
 import java.util.StringTokenizer;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.safs.GuiClassData;
 import org.safs.IndependantLog;
@@ -46,6 +48,7 @@ import org.safs.tools.drivers.DriverConstant;
  * Custom types to library mapping is stored in "custom_object_types_map.dat".<br/>
  * 
  * FEB 07, 2013 (LeiWang)	Modify to let it be a subclass of org.safs.GuiClassData.<br/>
+ * OCT 18, 2026 (agent)	Memoize the mapped and deduced class types per Class, cleared by loadMappingFile.<br/>
  **/
 public class DGuiClassData extends GuiClassData{
 
@@ -65,6 +68,30 @@ public class DGuiClassData extends GuiClassData{
      */
     DSAFSTestRunner testrunner = null;
     
+    /** Stands for a resolved null type in {@link ClassTypes}, so that unmapped classes are not resolved again. */
+    private static final String NO_TYPE = new String("");
+    
+    /**
+     * The memoized types of one Class. A null element is not resolved yet, 
+     * {@link #NO_TYPE} is resolved as null.
+     */
+    private static final class ClassTypes{
+    	/** The mapped class types, indexed by {@link DGuiClassData#typeIndex(boolean, boolean)}. */
+    	final String[] mapped = new String[4];
+    	/** The single type deduced by {@link DGuiClassData#getObjectClassType(Object)}. */
+    	volatile String objectType = null;
+    }
+    
+    /**
+     * Class to its memoized types. The superclass chain of a class never changes, so its types
+     * only change when the mapping files are loaded again.
+     * @see #clearTypeCache()
+     */
+    private final ConcurrentHashMap<Class<?>, ClassTypes> typeCache = new ConcurrentHashMap<Class<?>, ClassTypes>();
+    private volatile int mappingVersion = 0;
+    private final AtomicLong typeCacheHits = new AtomicLong();
+    private final AtomicLong typeCacheMisses = new AtomicLong();
+    
     public DGuiClassData(DSAFSTestRunner testrunner){
     	this.testrunner = testrunner;
     	IndependantLog.setDebugListener(testrunner);
@@ -179,8 +206,55 @@ public class DGuiClassData extends GuiClassData{
 		}catch(Exception ex){
 			debug("DGCD: Met "+ex.getClass().getSimpleName()+" : "+ex.getMessage());				
 		}
+		// types resolved while loading must not survive the new mapping
+		clearTypeCache();
 	}
 
+	/**
+	 * Discard the memoized class types, they will be resolved again with the current mapping.<br>
+	 * Called by {@link #loadMappingFile()}.
+	 */
+	public void clearTypeCache(){
+		typeCache.clear();
+		mappingVersion++;
+	}
+	
+	/**
+	 * @return int, a number changing each time the memoized class types are discarded. 
+	 *         Callers caching results derived from the class types compare it to know when to discard them.
+	 */
+	public int getMappingVersion(){
+		return mappingVersion;
+	}
+	
+	/**
+	 * @return String, the counters of the memoized class types like "classes=40,hits=5230,misses=40".
+	 */
+	public String getTypeCacheStatistics(){
+		return "classes="+typeCache.size()+",hits="+typeCacheHits.get()+",misses="+typeCacheMisses.get();
+	}
+	
+	private static int typeIndex(boolean recursive, boolean allowGeneric){
+		return (recursive ? 2:0) + (allowGeneric ? 1:0);
+	}
+	
+	/**
+	 * @return ClassTypes, the memoized types of the class of theObject; or null if theObject is null or 
+	 *         is not of the named class, then nothing is memoized.
+	 */
+	private ClassTypes getClassTypes(String classname, Object theObject){
+		if(theObject==null) return null;
+		Class<?> clazz = theObject.getClass();
+		if(!clazz.getName().equals(classname)) return null;
+		ClassTypes types = typeCache.get(clazz);
+		if(types==null){
+			types = new ClassTypes();
+			ClassTypes previous = typeCache.putIfAbsent(clazz, types);
+			if(previous!=null) types = previous;
+		}
+		return types;
+	}
+	
 	/**
 	 * Retrieves the class processor key we have stored for the provided class name (if any).
 	 * We will cycle through all possible superclasses (except Object) looking for 
@@ -232,12 +306,22 @@ public class DGuiClassData extends GuiClassData{
 			debug("DGCD classname: null, returning null mapped classtype.");
 			return null;
 		}
-		debug("DGCD.getMappedClassType():classname: "+classname);
-		
 		if(classesmap==null) loadMappingFile();
 		
-		String type = super.getMappedClassType(classname, theObject, recursive, allowGeneric);
-		return (DEFAULT_CLASS_TYPE.equals(type))? DEFAULT_ANDROID_CLASS_TYPE:type;
+		ClassTypes types = getClassTypes(classname, theObject);
+		int index = typeIndex(recursive, allowGeneric);
+		String type = types==null ? null:types.mapped[index];
+		if(type!=null){
+			typeCacheHits.incrementAndGet();
+			return type==NO_TYPE ? null:type;
+		}
+		typeCacheMisses.incrementAndGet();
+		debug("DGCD.getMappedClassType():classname: "+classname);
+		
+		type = super.getMappedClassType(classname, theObject, recursive, allowGeneric);
+		type = (DEFAULT_CLASS_TYPE.equals(type))? DEFAULT_ANDROID_CLASS_TYPE:type;
+		if(types!=null) types.mapped[index] = type==null ? NO_TYPE:type;
+		return type;
 	}
 	
 	/**
@@ -266,9 +350,18 @@ public class DGuiClassData extends GuiClassData{
 		if(theObject==null){
 			return null;
 		}
-		String type = getMappedClassType(theObject.getClass().getName(), theObject);
+		String classname = theObject.getClass().getName();
+		ClassTypes types = getClassTypes(classname, theObject);
+		String type = types==null ? null:types.objectType;
+		if(type!=null){
+			typeCacheHits.incrementAndGet();
+			return type==NO_TYPE ? null:type;
+		}
+		type = getMappedClassType(classname, theObject);
 		
-		return deduceOneClassType(DriverConstant.ANDROID_CLIENT_TEXT, type);
+		type = deduceOneClassType(DriverConstant.ANDROID_CLIENT_TEXT, type);
+		if(types!=null) types.objectType = type==null ? NO_TYPE:type;
+		return type;
 	}
 	
 	//TODO For the following static method, maybe we can remove them and just use
@@ -19,6 +19,8 @@ package org.safs.android.engine;
 
 import org.safs.sockets.RemoteException;
 
+import com.jayway.android.robotium.remotecontrol.client.DebugChannel;
+
 /**
  * 
  * @author Carl Nagle, SAS Institute, Inc
@@ -27,6 +29,9 @@ import org.safs.sockets.RemoteException;
  * FEB 21, 2013 (LeiWang)	Adjust to work with Recognition String in "Type=XXX" format.<br/>
  * JUN 05, 2013 (LeiWang)	Handle qualifier "ID=".<br/>
  * JUN 14, 2013 (LeiWang)	Handle qualifier "ID=xxx;Index=xxx", "Name=xxx;Index=xxx".<br/>
+ * OCT 18, 2026 (agent)	Send the per-node mismatch message as trace.<br/>
+ * OCT 18, 2026 (agent)	Parse the recognition once into an immutable Compiled form, shared through DGuiRecognitionCache.<br/>
+ *                	isMatchingObject compares pre-parsed integers and pre-lowercased values, without allocation.<br/>
  */
 public class DGuiObjectDefinition{
 
@@ -82,15 +87,192 @@ public class DGuiObjectDefinition{
 	public static final int SUBCLASSINDEXID    = 19;
 	public static final int ABSSUBCLASSINDEXID = 20;
 	
+	/** "definedBy" bits of {@link Compiled#definedBy}. */
+	static final int DEFINED_BY_TYPE = 1;
+	static final int DEFINED_BY_ID   = 2;
+	static final int DEFINED_BY_NAME = 4;
+
+	/** Pre-parsed index qualifier value matching an empty actual value. */
+	private static final int INDEX_EMPTY = -1;
+	/** Pre-parsed index qualifier value "null", matching a missing subclass. */
+	private static final int INDEX_NULL = -2;
+	/** Pre-parsed index qualifier value never matching. */
+	private static final int INDEX_INVALID = -3;
+
+	/**
+	 * The immutable parsed form of one level of a recognition string.<br>
+	 * It is built once per distinct recognition and shared by the DGuiObjectDefinitions of all searches, 
+	 * through {@link DGuiRecognitionCache}. Its arrays must not be modified.
+	 */
+	public static final class Compiled{
+		public final String rawRecString;
+		public final boolean fpsmmode;
+		public final String objstring;
+		public final String[] qualifiers;
+		public final int[] qualType;
+		/** The values as given, the "contains" values are lower-cased. */
+		public final String[] qualValue;
+		/** The values of the index and ID qualifiers, parsed. */
+		final int[] qualInt;
+		/** false if the value of the ID qualifier is not an integer. */
+		final boolean[] qualIsInt;
+		/** The property names of the property qualifiers, "name:value". */
+		final String[] propName;
+		/** {@link #DEFINED_BY_TYPE}, {@link #DEFINED_BY_ID} and {@link #DEFINED_BY_NAME} bits. */
+		final int definedBy;
+
+		public Compiled(String recString){
+			debug(TAG+"compiling recString: "+ recString);
+			rawRecString = recString;
+			fpsmmode = recString.toUpperCase().startsWith(FPSM);
+			objstring = recString.substring(fpsmmode ? FPSM.length() : 0);
+			qualifiers = objstring.split(DGuiObjectVector.DEFAULT_QUALIFIER_SEPARATOR);
+			qualType = new int[qualifiers.length];  // hold integer id of type (ex: GOD.NAMEID)
+			qualValue = new String[qualifiers.length]; // hold expected/sought value
+			qualInt = new int[qualifiers.length];
+			qualIsInt = new boolean[qualifiers.length];
+			propName = new String[qualifiers.length];
+
+			debug(TAG+"compiled "+ qualifiers.length +" qualifiers.");
+			String[] q = null;
+			String ucqual = null;
+			int by = 0;
+			for(int i=0;i < qualifiers.length;i++){
+				q = qualifiers[i].split(DGuiObjectVector.DEFAULT_ASSIGN_SEPARATOR);
+				try{ qualValue[i] = q[1]; }
+				catch(ArrayIndexOutOfBoundsException x){
+					// CurrrentWindow or another single item recognition
+					qualValue[i] = q[0];
+				}
+				ucqual = q[0].toUpperCase();
+				if(CLASS.equals(ucqual)){
+					qualType[i]=CLASSID;
+				}else
+				if(SUBCLASS.equals(ucqual)){
+					qualType[i]=SUBCLASSID;
+				}else
+				if(TYPE.equals(ucqual)){
+					qualType[i]=TYPEID;
+				}else
+				if(CURRENT.equals(ucqual)){
+					qualType[i]=CURRENTID;
+				}else
+				if(INDEX.equals(ucqual)){
+					qualType[i]=INDEXID;
+				}else
+				if(CAPTION.equals(ucqual)){
+					qualType[i]=CAPTIONID;
+				}else
+				if(NAME.equals(ucqual)){
+					qualType[i]=NAMEID;
+				}else
+				if(NAMECONTAINS.equals(ucqual)){
+					qualType[i]=NAMECONTAINSID;
+				}else
+				if(PROPERTY.equals(ucqual)){
+					qualType[i]=PROPERTYID;
+				}else
+				if(PROPERTYCONTAINS.equals(ucqual)){
+					qualType[i]=PROPERTYCONTAINSID;
+				}else
+				if(TEXT.equals(ucqual)){
+					qualType[i]=TEXTID;
+				}else
+				if(TEXTCONTAINS.equals(ucqual)){
+					qualType[i]=TEXTCONTAINSID;
+				}else
+				if(ID.equals(ucqual)){
+					qualType[i]=IDID;
+				}else
+				if(PATH.equals(ucqual)){
+					qualType[i]=PATHID;
+				}else
+				if(CLASSINDEX.equals(ucqual)){
+					qualType[i]=CLASSINDEXID;
+				}else
+				if(OBJECTINDEX.equals(ucqual)){
+					qualType[i]=OBJECTINDEXID;
+				}else
+				if(ABSCLASSINDEX.equals(ucqual)){
+					qualType[i]=ABSCLASSINDEXID;
+				}else
+				if(ABSINDEX.equals(ucqual)){
+					qualType[i]=ABSINDEXID;
+				}else
+				if(ABSOBJECTINDEX.equals(ucqual)){
+					qualType[i]=ABSOBJECTINDEXID;
+				}else{
+					debug(TAG+"unknown qualifier type for "+ qualifiers[i]);
+				}
+
+				switch(qualType[i]){
+					case TYPEID:
+						by |= DEFINED_BY_TYPE;
+						break;
+					case IDID:
+						by |= DEFINED_BY_ID;
+						try{ qualInt[i] = Integer.parseInt(qualValue[i]); qualIsInt[i] = true; }
+						catch(NumberFormatException e){ qualIsInt[i] = false; }
+						break;
+					case NAMEID:
+						by |= DEFINED_BY_NAME;
+						break;
+					case NAMECONTAINSID:
+					case TEXTCONTAINSID:
+						qualValue[i] = qualValue[i].toLowerCase();
+						break;
+					case PROPERTYID:
+					case PROPERTYCONTAINSID:
+						String[] qarray = qualValue[i].split(DGuiObjectVector.DEFAULT_PROPERTY_QUALIFIER_SEPARATOR);
+						propName[i] = qarray[0];
+						qualValue[i] = qarray.length > 1 ? qarray[1] : null;
+						if(qualValue[i] != null && qualType[i] == PROPERTYCONTAINSID) qualValue[i] = qualValue[i].toLowerCase();
+						break;
+					case INDEXID:
+					case CLASSINDEXID:
+					case SUBCLASSINDEXID:
+					case OBJECTINDEXID:
+					case ABSCLASSINDEXID:
+					case ABSINDEXID:
+					case ABSOBJECTINDEXID:
+					case ABSSUBCLASSINDEXID:
+						qualInt[i] = parseIndex(qualValue[i]);
+						break;
+					default:
+				}
+			}
+			definedBy = by;
+		}
+
+		/**
+		 * The index qualifiers used to compare their trimmed value with the String of the actual index.
+		 * @return the index, or {@link #INDEX_EMPTY}, {@link #INDEX_NULL} or {@link #INDEX_INVALID}.
+		 */
+		private static int parseIndex(String value){
+			String trimmed = value.trim();
+			if(trimmed.length() == 0) return INDEX_EMPTY;
+			if("null".equals(trimmed)) return INDEX_NULL;
+			try{
+				int index = Integer.parseInt(trimmed);
+				if(index >= 0 && String.valueOf(index).equals(trimmed)) return index;
+			}catch(NumberFormatException x){}
+			return INDEX_INVALID;
+		}
+	}
+
 	public String rawRecString = null;
 	public DGuiObjectDefinition parent = null;
 	public DGuiObjectDefinition child = null;
 	public boolean fpsmmode = false;
 	public String objstring = null;
+	/** shared with {@link #compiled}, must not be modified. */
 	public String[] qualifiers = null;
+	/** shared with {@link #compiled}, must not be modified. */
 	public int[] qualType = null;
+	/** shared with {@link #compiled}, must not be modified. */
 	public String[] qualValue = null;
 	public DGuiObjectIndices matched_indices = null;
+	private final Compiled compiled;
 	
 	/**
 	 * definedByType is set to true only the RecognitionString is defined by "Type=XXX".
@@ -100,9 +282,6 @@ public class DGuiObjectDefinition{
 	 */
 	private boolean definedByType = false;
 	public boolean isDefinedByType() {
-		if(!definedByType){
-			definedByType = isDefinedBy(new int[] {TYPEID});
-		}
 		return definedByType;
 	}
 	public void setDefinedByType(boolean definedByType) {
@@ -119,9 +298,6 @@ public class DGuiObjectDefinition{
 	 */
 	private boolean definedByID = false;
 	public boolean isDefinedByID() {
-		if(!definedByID){
-			definedByID = isDefinedBy(new int[] {IDID});
-		}
 		return definedByID;
 	}
 	public void setDefinedByID(boolean definedByID) {
@@ -138,9 +314,6 @@ public class DGuiObjectDefinition{
 	 */
 	private boolean definedByName = false;
 	public boolean isDefinedByName() {
-		if(!definedByName){
-			definedByName = isDefinedBy(new int[] {NAMEID});
-		}
 		return definedByName;
 	}
 	public void setDefinedByName(boolean definedByName) {
@@ -166,87 +339,31 @@ public class DGuiObjectDefinition{
 		return matched;
 	}
 
+	/** Parse the recognition string, prefer {@link DGuiRecognitionCache} to reuse the parsed form. */
 	public DGuiObjectDefinition(String recString){
-	    debug(TAG+"constructor processing recString: "+ recString);
-	    this.rawRecString = recString;
-	    fpsmmode = (recString.substring(0, FPSM.length()).toUpperCase()==FPSM);    
-	    objstring = recString.substring(fpsmmode ? FPSM.length() : 0);
-	    qualifiers = objstring.split(DGuiObjectVector.DEFAULT_QUALIFIER_SEPARATOR);
-	    qualType = new int[qualifiers.length];  // hold integer id of type (ex: GOD.NAMEID)
-	    qualValue = new String[qualifiers.length]; // hold expected/sought value
+		this(new Compiled(recString));
+	}
+
+	/**
+	 * @param compiled Compiled, the parsed recognition string, shared.
+	 * @see DGuiRecognitionCache#getPath(String)
+	 */
+	public DGuiObjectDefinition(Compiled compiled){
+		this.compiled = compiled;
+		rawRecString = compiled.rawRecString;
+		fpsmmode = compiled.fpsmmode;
+		objstring = compiled.objstring;
+		qualifiers = compiled.qualifiers;
+		qualType = compiled.qualType;
+		qualValue = compiled.qualValue;
+		definedByType = (compiled.definedBy & DEFINED_BY_TYPE) != 0;
+		definedByID = (compiled.definedBy & DEFINED_BY_ID) != 0;
+		definedByName = (compiled.definedBy & DEFINED_BY_NAME) != 0;
+	}
 	
-	    debug(TAG+"constructor counted "+ qualifiers.length +" qualifiers.");
-	    String[] q = null;
-	    String ucqual = null;
-	    for(int i=0;i < qualifiers.length;i++){
-	        q = qualifiers[i].split(DGuiObjectVector.DEFAULT_ASSIGN_SEPARATOR);
-	        debug(TAG+"constructor processing qualifier "+ (i+1) +": "+  qualifiers[i]);
-	        try{ qualValue[i] = q[1]; }
-	        catch(ArrayIndexOutOfBoundsException x){
-	        	// CurrrentWindow or another single item recognition
-	        	qualValue[i] = q[0];
-	        }
-	        ucqual = q[0].toUpperCase();
-	        if(CLASS.equals(ucqual)){
-	        	qualType[i]=CLASSID;
-	        }else
-	        if(SUBCLASS.equals(ucqual)){
-	        	qualType[i]=SUBCLASSID;
-	        }else
-	        if(TYPE.equals(ucqual)){
-	        	qualType[i]=TYPEID;
-	        }else
-	        if(CURRENT.equals(ucqual)){
-	        	qualType[i]=CURRENTID;
-	        }else
-	        if(INDEX.equals(ucqual)){
-	        	qualType[i]=INDEXID;
-	        }else
-	        if(CAPTION.equals(ucqual)){
-	        	qualType[i]=CAPTIONID;
-	        }else
-	        if(NAME.equals(ucqual)){
-	        	qualType[i]=NAMEID;
-	        }else
-	        if(NAMECONTAINS.equals(ucqual)){
-	        	qualType[i]=NAMECONTAINSID;
-	        }else
-	        if(PROPERTY.equals(ucqual)){
-	        	qualType[i]=PROPERTYID;
-	        }else
-	        if(PROPERTYCONTAINS.equals(ucqual)){
-	        	qualType[i]=PROPERTYCONTAINSID;
-	        }else
-	        if(TEXT.equals(ucqual)){
-	        	qualType[i]=TEXTID;
-	        }else
-	        if(TEXTCONTAINS.equals(ucqual)){
-	        	qualType[i]=TEXTCONTAINSID;
-	        }else
-	        if(ID.equals(ucqual)){
-	        	qualType[i]=IDID;
-	        }else
-	        if(PATH.equals(ucqual)){
-	        	qualType[i]=PATHID;
-	        }else
-	        if(CLASSINDEX.equals(ucqual)){
-	        	qualType[i]=CLASSINDEXID;
-	        }else
-	        if(OBJECTINDEX.equals(ucqual)){
-	        	qualType[i]=OBJECTINDEXID;
-	        }else
-	        if(ABSCLASSINDEX.equals(ucqual)){
-	        	qualType[i]=ABSCLASSINDEXID;
-	        }else
-	        if(ABSINDEX.equals(ucqual)){
-	        	qualType[i]=ABSINDEXID;
-	        }else
-	        if(ABSOBJECTINDEX.equals(ucqual)){
-	        	qualType[i]=ABSOBJECTINDEXID;
-	        }else{
-		        debug(TAG+"unknown qualifier type for "+ qualifiers[i]);
-	        }         
-	    }
+	/** @return Compiled, the parsed recognition string of this definition. */
+	public Compiled getCompiled(){
+		return compiled;
 	}
 	
     /**
@@ -271,24 +388,47 @@ public class DGuiObjectDefinition{
     }
     
 	/** send a debug message to our testrunner to send to our remote controller. */
-    void debug(String message){    	
+    static void debug(String message){    	
     	try{ testrunner.debug(message); }
     	catch(Exception x){ System.out.println(message); }
     }
     
-	// indices array should contain:
+	/** send a per-node trace message at {@link DebugChannel#LEVEL_TRACE}. */
+    void trace(String message){    	
+    	try{ testrunner.debug(DebugChannel.LEVEL_TRACE, message); }
+    	catch(Exception x){ System.out.println(message); }
+    }
+    
+    /** @return true if text contains the lower-cased value, ignoring case, without creating a lower-cased copy of text. */
+    static boolean containsLowerCase(String text, String lower){
+    	if(text == null || lower == null) return false;
+    	int length = lower.length();
+    	int last = text.length() - length;
+    	for(int i=0;i <= last;i++){
+    		if(text.regionMatches(true, i, lower, 0, length)) return true;
+    	}
+    	return false;
+    }
+    
+	/**
+	 * The indices are only read; they are copied into {@link #matched_indices} if the object matches.
+	 * No object is allocated for the comparisons, except the values read from the object.
+	 */
 	public boolean isMatchingObject( Object obj, DGuiObjectIndices indices )throws RemoteException{ 
         boolean isMatch = true; // until made false
         String qvalue = null;
         String rvalue = null;
-        String[] qarray = null;
+        int rint = 0;
+        boolean isInt = false;
         String aclass = DGuiObjectRecognition.getObjectClassName(obj);
         String asubclass = null;
+        final int[] qualInt = compiled.qualInt;
         for(int i=0;isMatch && i < qualifiers.length;i++){
             qvalue = qualValue[i];  // qvalue already lower-case for "contains" qualifiers
+            isInt = false;
             switch(qualType[i]){
                 case CURRENTID: 
-                    rvalue = CURRENT+ " not supported, class="+aclass;
+                    rvalue = CURRENT+ " not supported";
                     break;
                 case CLASSID: 
                     rvalue = aclass;
@@ -310,26 +450,26 @@ public class DGuiObjectDefinition{
                 case TYPEID:
                     rvalue = guiclassdata.getObjectClassType(obj);
                     isMatch = qvalue.equalsIgnoreCase(rvalue);
-                    setDefinedByType(true);
                     break;
                 case INDEXID:
-                	if(isDefinedByID()){//Type=xxx;ID=xxx;Index=xxx or Class=xxx;ID=xxx;Index=xxx
+                	isInt = true;
+                	if(definedByID){//Type=xxx;ID=xxx;Index=xxx or Class=xxx;ID=xxx;Index=xxx
                 		String anid = DGuiObjectRecognition.getObjectIdString(obj);
-                		rvalue = anid!=null? String.valueOf(indices.getIdIndex(anid)):"";
+                		rint = anid!=null? indices.getIdIndex(anid):INDEX_EMPTY;
                 		
-                	}else if(isDefinedByName()){//Type=xxx;Name=xxx;Index=xxx or Class=xxx;Name=xxx;Index=xxx
+                	}else if(definedByName){//Type=xxx;Name=xxx;Index=xxx or Class=xxx;Name=xxx;Index=xxx
                 		String aname = DGuiObjectRecognition.getObjectName(obj);
-                		rvalue = aname!=null? String.valueOf(indices.getNameIndex(aname)):"";
+                		rint = aname!=null? indices.getNameIndex(aname):INDEX_EMPTY;
                 		
                 	}else{
                 		//Type=xxx;Index=xxx or Class=xxx;Index=xxx
-                		if(isDefinedByType()){
-                			rvalue = String.valueOf(indices.getTypeIndex(guiclassdata.getObjectClassType(obj))); //typeindex
+                		if(definedByType){
+                			rint = indices.getTypeIndex(guiclassdata.getObjectClassType(obj)); //typeindex
                 		}else{
-                			rvalue = String.valueOf(indices.getClassIndex(aclass)); //classindex
+                			rint = indices.getClassIndex(aclass); //classindex
                 		}
                 	}
-                    isMatch = qvalue.trim().equals(rvalue.trim());
+                    isMatch = qualInt[i] == rint;
                     break;
                 case CAPTIONID: 
                     rvalue = DGuiObjectRecognition.getObjectCaption(obj);
@@ -338,76 +478,74 @@ public class DGuiObjectDefinition{
                 case NAMEID:  
                     rvalue = DGuiObjectRecognition.getObjectName(obj);
                     isMatch = ( qvalue.equals(rvalue));
-                    setDefinedByName(true);
                     break;
                 case NAMECONTAINSID: 
-                    rvalue = DGuiObjectRecognition.getObjectName(obj).toLowerCase();
-                    isMatch = ( rvalue.indexOf(qvalue) > -1);
+                    rvalue = DGuiObjectRecognition.getObjectName(obj);
+                    isMatch = containsLowerCase(rvalue, qvalue);
                     break;
                 case PROPERTYID:
-                    qarray = qvalue.split(DGuiObjectVector.DEFAULT_PROPERTY_QUALIFIER_SEPARATOR);
-                    qvalue = qarray[1];
-                    rvalue = DGuiObjectRecognition.getObjectProperty(obj, qarray[0]);
-                    isMatch = (qvalue.equals(rvalue));
+                    rvalue = DGuiObjectRecognition.getObjectProperty(obj, compiled.propName[i]);
+                    isMatch = (qvalue != null && qvalue.equals(rvalue));
                     break;
                 case PROPERTYCONTAINSID:   
-                    qarray = qvalue.split(DGuiObjectVector.DEFAULT_PROPERTY_QUALIFIER_SEPARATOR);
-                    qvalue = qarray[1];
-                    rvalue = DGuiObjectRecognition.getObjectProperty(obj,qarray[0]).toLowerCase();
-                    isMatch = ( rvalue.indexOf(qvalue) > -1);
+                    rvalue = DGuiObjectRecognition.getObjectProperty(obj, compiled.propName[i]);
+                    isMatch = containsLowerCase(rvalue, qvalue);
                     break;
                 case TEXTID:   
                     rvalue = DGuiObjectRecognition.getObjectText(obj);
                     isMatch = ( qvalue.equals(rvalue));
                     break;
                 case TEXTCONTAINSID:
-                    rvalue = DGuiObjectRecognition.getObjectText(obj).toLowerCase();
-                    isMatch = ( rvalue.indexOf(qvalue) > -1);
+                    rvalue = DGuiObjectRecognition.getObjectText(obj);
+                    isMatch = containsLowerCase(rvalue, qvalue);
                     break;
                 case IDID:
-                	int ID = DGuiObjectRecognition.getObjectId(obj);
-                	rvalue = Integer.toString(ID);
-                	try{ isMatch =(Integer.parseInt(qvalue)==ID); }
-                	catch(NumberFormatException e){ isMatch=false; }
-                	setDefinedByID(true);
+                	isInt = true;
+                	rint = DGuiObjectRecognition.getObjectId(obj);
+                	isMatch = compiled.qualIsInt[i] && qualInt[i] == rint;
                     break;
                 case PATHID:   
                     rvalue = "not supported";
                     isMatch = false; // not supported yet
                     break;
                 case CLASSINDEXID:   
-                    rvalue = String.valueOf(indices.getClassIndex(aclass));
-                    isMatch = ( qvalue.trim().equals(rvalue.trim())); 
+                	isInt = true;
+                    rint = indices.getClassIndex(aclass);
+                    isMatch = qualInt[i] == rint; 
                     break;
                 case SUBCLASSINDEXID:   
-                    try{ rvalue = String.valueOf(indices.getClassIndex(asubclass));}
-                    catch(NullPointerException x){ rvalue = "null";}
-                    isMatch = ( qvalue.trim().equals(rvalue.trim())); 
+                	isInt = true;
+                    rint = asubclass == null ? INDEX_NULL : indices.getClassIndex(asubclass);
+                    isMatch = qualInt[i] == rint; 
                     break;
                 case OBJECTINDEXID:   
-                    rvalue = String.valueOf(indices.objectindex); 
-                    isMatch = ( qvalue.trim().equals(rvalue.trim())); 
+                	isInt = true;
+                    rint = indices.objectindex; 
+                    isMatch = qualInt[i] == rint; 
                     break;
                 case ABSCLASSINDEXID:   
-                    rvalue = String.valueOf(indices.getAbsClassIndex(aclass)); 
-                    isMatch = ( qvalue.trim().equals(rvalue.trim())); 
+                	isInt = true;
+                    rint = indices.getAbsClassIndex(aclass); 
+                    isMatch = qualInt[i] == rint; 
                     break;
                 case ABSINDEXID:   
-                	if(isDefinedByType()){
-                		rvalue = String.valueOf(indices.getAbsTypeIndex(guiclassdata.getObjectClassType(obj))); //typeindex
+                	isInt = true;
+                	if(definedByType){
+                		rint = indices.getAbsTypeIndex(guiclassdata.getObjectClassType(obj)); //typeindex
                 	}else{
-                		rvalue = String.valueOf(indices.getAbsClassIndex(aclass)); //classindex
+                		rint = indices.getAbsClassIndex(aclass); //classindex
                 	}
-                    isMatch = ( qvalue.trim().equals(rvalue.trim())); 
+                    isMatch = qualInt[i] == rint; 
                     break;
                 case ABSOBJECTINDEXID:   
-                    rvalue = String.valueOf(indices.absoluteobjectindex); 
-                    isMatch = ( qvalue.trim().equals(rvalue.trim())); 
+                	isInt = true;
+                    rint = indices.absoluteobjectindex; 
+                    isMatch = qualInt[i] == rint; 
                     break;
                 case ABSSUBCLASSINDEXID:   
-                    try{rvalue = String.valueOf(indices.getAbsSubClassIndex(asubclass));}
-                    catch(NullPointerException x){ rvalue="null";}
-                    isMatch = ( qvalue.trim().equals(rvalue.trim())); 
+                	isInt = true;
+                    rint = asubclass == null ? INDEX_NULL : indices.getAbsSubClassIndex(asubclass);
+                    isMatch = qualInt[i] == rint; 
                     break;
                 
                 default:
@@ -415,8 +553,12 @@ public class DGuiObjectDefinition{
             }// end isMatchingObject switch         
 
         }// end isMatchingObject for loop
-        if(!isMatch) 
-        	debug(TAG+"isMatchingObject DID NOT match or contain '"+ qvalue +"': "+ rvalue);
+        if(!isMatch){ 
+        	if(DGuiObjectVector.isTraceEnabled()){
+        		if(isInt) rvalue = rint == INDEX_EMPTY ? "" : rint == INDEX_NULL ? "null" : String.valueOf(rint);
+        		trace(TAG+"isMatchingObject DID NOT match or contain '"+ qvalue +"': "+ rvalue);
+        	}
+        }
         else
         	matched_indices = indices.copyAllIndices();
         return isMatch;
@@ -17,23 +17,45 @@
 **/
 package org.safs.android.engine;
 
-import java.util.Hashtable;
+import java.util.Arrays;
 
+/**
+ * The class, type, id and name indices counted by the search while it meets the objects of the tree,
+ * relative to the current branch and absolute.<br>
+ * <p>
+ * The indices are kept in primitive open-addressing maps from String to int, and the search saves and 
+ * restores the class indices around each descent with {@link #checkpointClassIndices()} and 
+ * {@link #rollbackClassIndices(int)}: only the changes made since the checkpoint are undone, from an undo log, 
+ * instead of copying the tables.<br>
+ * A missing key has the index 0, and a null key throws a NullPointerException, as with the Hashtables used before.<br>
+ * OCT 18, 2026 (agent)	Replace the Hashtables of Integers with primitive maps and an undo log.<br>
+ */
 public class DGuiObjectIndices {
     	
-	public Hashtable classindex = new Hashtable();
-	public Hashtable subclassindex = new Hashtable();
-	public Hashtable typeindex = new Hashtable();
+	private static final int CLASS = 0;
+	private static final int SUBCLASS = 1;
+	private static final int TYPE = 2;
+	private static final int ABSCLASS = 3;
+	private static final int ABSTYPE = 4;
+	private static final int ABSSUBCLASS = 5;
+	private static final int ID = 6;
+	private static final int NAME = 7;
+	private static final int MAPS = 8;
+
+	private final IndexMap[] maps = new IndexMap[MAPS];
     int objectindex = 0;
-    public Hashtable absoluteclassindex = new Hashtable();
-    public Hashtable absolutetypeindex = new Hashtable();
     int absoluteobjectindex = 0;
-    public Hashtable absolutesubclassindex = new Hashtable();
     
-    public Hashtable idindex = new Hashtable();
-    public Hashtable nameindex = new Hashtable();
+    /* undo log of the class and subclass indices: map, key and previous value */
+    private int checkpoints = 0;
+    private int undoSize = 0;
+    private int[] undoMaps = new int[32];
+    private String[] undoKeys = new String[32];
+    private int[] undoValues = new int[32];
     
-    public DGuiObjectIndices(){ resetAllIndices();}
+    public DGuiObjectIndices(){
+    	for(int i=0;i<MAPS;i++) maps[i] = new IndexMap();
+    }
 
     static DSAFSTestRunner testrunner = null;
     /**
@@ -53,56 +75,38 @@ public class DGuiObjectIndices {
     
     
     public void resetAllIndices(){
-	    classindex = new Hashtable();
-	    subclassindex = new Hashtable();
-	    typeindex = new Hashtable();
+    	for(int i=0;i<MAPS;i++) maps[i].clear();
 	    objectindex = 0;
-	    absoluteclassindex = new Hashtable();
-	    absolutetypeindex = new Hashtable();
 	    absoluteobjectindex = 0;
-	    absolutesubclassindex = new Hashtable();
-	    idindex = new Hashtable();
-	    nameindex = new Hashtable();
+	    clearUndoLog();
     }	    
     
     public DGuiObjectIndices copyAllIndices(){
     	DGuiObjectIndices copy = new DGuiObjectIndices();    	
-    	copy.classindex = (Hashtable) classindex.clone();
-    	copy.subclassindex= (Hashtable)subclassindex.clone();
-    	copy.typeindex =(Hashtable) typeindex.clone();
+    	for(int i=0;i<MAPS;i++) copy.maps[i].copyFrom(maps[i]);
     	copy.objectindex= objectindex;
-    	copy.absoluteclassindex=(Hashtable) absoluteclassindex.clone();
-    	copy.absolutesubclassindex=(Hashtable) absolutesubclassindex.clone();
-    	copy.absolutetypeindex=(Hashtable) absolutetypeindex.clone();
     	copy.absoluteobjectindex=absoluteobjectindex;
-    	copy.idindex=(Hashtable) idindex.clone();
-    	copy.nameindex=(Hashtable) nameindex.clone();
     	return copy;
     }
     
+    /** The id and name indices are copied too, they used to be shared with the copy. */
     public void restoreAllIndices(DGuiObjectIndices copy){
-    	resetAllIndices();
-    	classindex = (Hashtable) copy.classindex.clone();
-    	subclassindex = (Hashtable) copy.subclassindex.clone();
-    	typeindex = (Hashtable) copy.typeindex.clone();
+    	for(int i=0;i<MAPS;i++) maps[i].copyFrom(copy.maps[i]);
     	objectindex = copy.objectindex;
-    	absoluteclassindex = (Hashtable) copy.absoluteclassindex.clone();
-    	absolutesubclassindex = (Hashtable) copy.absolutesubclassindex.clone();
-    	absolutetypeindex = (Hashtable) copy.absolutetypeindex.clone();
     	absoluteobjectindex = copy.absoluteobjectindex;
-    	idindex = (Hashtable) copy.idindex;
-    	nameindex = (Hashtable) copy.nameindex;
+    	clearUndoLog();
     }
 
     /************************************************************
     *
     * saveClassIndices ()
+    * A copy of the class indices, prefer {@link #checkpointClassIndices()}.
     *
     *************************************************************/
     public DGuiObjectIndices saveClassIndices(){
     	DGuiObjectIndices saved = new DGuiObjectIndices();
-        saved.classindex = (Hashtable) classindex.clone();
-        saved.subclassindex = (Hashtable) subclassindex.clone();
+    	saved.maps[CLASS].copyFrom(maps[CLASS]);
+    	saved.maps[SUBCLASS].copyFrom(maps[SUBCLASS]);
         return saved;
     }
 
@@ -112,27 +116,66 @@ public class DGuiObjectIndices {
     *
     *************************************************************/
     public void restoreClassIndices(DGuiObjectIndices saved){
-    	classindex = (Hashtable) saved.classindex.clone();
-    	subclassindex = (Hashtable) saved.subclassindex.clone();	    	
+    	maps[CLASS].copyFrom(saved.maps[CLASS]);
+    	maps[SUBCLASS].copyFrom(saved.maps[SUBCLASS]);
+    }
+
+    /**
+     * Start recording the changes of the class and subclass indices, to undo them with {@link #rollbackClassIndices(int)}.
+     * The checkpoints can be nested.
+     * @return int, the mark of the checkpoint.
+     */
+    public int checkpointClassIndices(){
+    	checkpoints++;
+    	return undoSize;
+    }
+
+    /**
+     * Restore the class and subclass indices as they were at the checkpoint, like {@link #restoreClassIndices(DGuiObjectIndices)}.
+     * The other indices keep their changes.
+     * @param mark int, returned by {@link #checkpointClassIndices()}.
+     */
+    public void rollbackClassIndices(int mark){
+    	while(undoSize > mark){
+    		undoSize--;
+    		maps[undoMaps[undoSize]].put(undoKeys[undoSize], undoValues[undoSize]);
+    		undoKeys[undoSize] = null;
+    	}
+    	if(checkpoints > 0) checkpoints--;
     }
 
-    private int incrementIndex(Hashtable table, String key){
-    	Integer oint = (Integer) table.get(key);
-    	int val = oint == null? 1: oint.intValue()+1;
-    	table.put(key, new Integer(val));
+    private void clearUndoLog(){
+    	Arrays.fill(undoKeys, 0, undoSize, null);
+    	undoSize = 0;
+    	checkpoints = 0;
+    }
+
+    private int incrementIndex(int map, String key){
+    	int val = maps[map].increment(key);
+    	if(checkpoints > 0 && (map == CLASS || map == SUBCLASS)){
+    		if(undoSize == undoKeys.length){
+    			int capacity = undoSize*2;
+    			undoMaps = Arrays.copyOf(undoMaps, capacity);
+    			undoKeys = Arrays.copyOf(undoKeys, capacity);
+    			undoValues = Arrays.copyOf(undoValues, capacity);
+    		}
+    		undoMaps[undoSize] = map;
+    		undoKeys[undoSize] = key;
+    		undoValues[undoSize] = val-1;
+    		undoSize++;
+    	}
     	return val;
     }
     
-    private int getIndex(Hashtable table, String key){
-    	Integer cint = (Integer)table.get(key);
-    	return cint == null ? 0 : cint.intValue();
+    private int getIndex(int map, String key){
+    	return maps[map].get(key);
     }
 
     /** increments both classindices and absoluteclassindices.
      * @return int classindex after increment */
     public int incrementClassIndex(String aclass){
-    	incrementIndex(absoluteclassindex, aclass);
-    	return incrementIndex(classindex, aclass);
+    	incrementIndex(ABSCLASS, aclass);
+    	return incrementIndex(CLASS, aclass);
     }
     
     /**
@@ -140,7 +183,7 @@ public class DGuiObjectIndices {
      * @param aclass
      * @return index or 0 if not found	     */
     public int getClassIndex(String aclass){
-    	return getIndex(classindex, aclass);
+    	return getIndex(CLASS, aclass);
     }
 
     /**
@@ -148,14 +191,14 @@ public class DGuiObjectIndices {
      * @param aclass
      * @return index or 0 if not found	     */
     public int getAbsClassIndex(String aclass){
-    	return getIndex(absoluteclassindex, aclass);
+    	return getIndex(ABSCLASS, aclass);
     }
 
     /** increments both subclassindices and absolutesubclassindices.
      * @return int subclassindex after increment */
     public int incrementSubClassIndex(String aclass){
-    	incrementIndex(absolutesubclassindex, aclass);
-    	return incrementIndex(subclassindex, aclass);
+    	incrementIndex(ABSSUBCLASS, aclass);
+    	return incrementIndex(SUBCLASS, aclass);
     }
 
     /**
@@ -163,7 +206,7 @@ public class DGuiObjectIndices {
      * @param aclass
      * @return index or 0 if not found	     */
     public int getSubClassIndex(String aclass){
-    	return getIndex(subclassindex, aclass);
+    	return getIndex(SUBCLASS, aclass);
     }
 
     /**
@@ -171,14 +214,14 @@ public class DGuiObjectIndices {
      * @param aclass
      * @return index or 0 if not found	     */
     public int getAbsSubClassIndex(String aclass){
-    	return getIndex(absolutesubclassindex, aclass);
+    	return getIndex(ABSSUBCLASS, aclass);
     }
 
     /** increments both typeindices and absolutetypeindices.
      * @return int typeindex after increment */
     public int incrementTypeIndex(String aclass){
-    	incrementIndex(absolutetypeindex, aclass);
-    	return incrementIndex(typeindex, aclass);
+    	incrementIndex(ABSTYPE, aclass);
+    	return incrementIndex(TYPE, aclass);
     }
 
     /**
@@ -186,7 +229,7 @@ public class DGuiObjectIndices {
      * @param atype
      * @return index or 0 if not found	     */
     public int getTypeIndex(String atype){
-    	return getIndex(typeindex, atype);
+    	return getIndex(TYPE, atype);
     }
 
     /**
@@ -194,7 +237,7 @@ public class DGuiObjectIndices {
      * @param atype
      * @return index or 0 if not found	     */
     public int getAbsTypeIndex(String atype){
-    	return getIndex(absolutetypeindex, atype);
+    	return getIndex(ABSTYPE, atype);
     }
 
     /** increments both objectindex and absoluteobjectindex.
@@ -221,7 +264,7 @@ public class DGuiObjectIndices {
     /** increments idindex.
      * @return int idindex after increment */
     public int incrementIdIndex(String anid){
-    	return incrementIndex(idindex, anid);
+    	return incrementIndex(ID, anid);
     }
 
     /**
@@ -229,13 +272,13 @@ public class DGuiObjectIndices {
      * @param anid
      * @return index or 0 if not found	     */
     public int getIdIndex(String anid){
-    	return getIndex(idindex, anid);
+    	return getIndex(ID, anid);
     }
     
     /** increments nameindex.
      * @return int nameindex after increment */
     public int incrementNameIndex(String aname){
-    	return incrementIndex(nameindex, aname);
+    	return incrementIndex(NAME, aname);
     }
     
     /**
@@ -243,6 +286,85 @@ public class DGuiObjectIndices {
      * @param aname
      * @return index or 0 if not found	     */
     public int getNameIndex(String aname){
-    	return getIndex(nameindex, aname);
+    	return getIndex(NAME, aname);
+    }
+
+    /** Open-addressing map from String to int with linear probing. A missing key has the value 0. */
+    static final class IndexMap{
+    	private String[] keys = new String[16];
+    	private int[] values = new int[16];
+    	private int size = 0;
+
+    	/** @throws NullPointerException if key is null. */
+    	int get(String key){
+    		int slot = slot(keys, key);
+    		return keys[slot] == null ? 0 : values[slot];
+    	}
+
+    	/** @return int, the value after increment. */
+    	int increment(String key){
+    		int slot = insert(key);
+    		return ++values[slot];
+    	}
+
+    	void put(String key, int value){
+    		values[insert(key)] = value;
+    	}
+
+    	private int insert(String key){
+    		int slot = slot(keys, key);
+    		if(keys[slot] == null){
+    			if((size+1)*4 > keys.length*3){
+    				grow();
+    				slot = slot(keys, key);
+    			}
+    			keys[slot] = key;
+    			size++;
+    		}
+    		return slot;
+    	}
+
+    	/** @return int, the slot of the key, or of the free slot where it belongs. */
+    	private static int slot(String[] keys, String key){
+    		int h = key.hashCode();
+    		h ^= (h >>> 16);
+    		int mask = keys.length-1;
+    		int slot = h & mask;
+    		String k;
+    		while((k = keys[slot]) != null && k != key && !k.equals(key)) slot = (slot+1) & mask;
+    		return slot;
+    	}
+
+    	private void grow(){
+    		String[] oldKeys = keys;
+    		int[] oldValues = values;
+    		keys = new String[oldKeys.length*2];
+    		values = new int[oldKeys.length*2];
+    		for(int i=0;i<oldKeys.length;i++){
+    			if(oldKeys[i] != null){
+    				int slot = slot(keys, oldKeys[i]);
+    				keys[slot] = oldKeys[i];
+    				values[slot] = oldValues[i];
+    			}
+    		}
+    	}
+
+    	void clear(){
+    		if(size == 0) return;
+    		Arrays.fill(keys, null);
+    		Arrays.fill(values, 0);
+    		size = 0;
+    	}
+
+    	void copyFrom(IndexMap other){
+    		if(keys.length == other.keys.length){
+    			System.arraycopy(other.keys, 0, keys, 0, keys.length);
+    			System.arraycopy(other.values, 0, values, 0, values.length);
+    		}else{
+    			keys = other.keys.clone();
+    			values = other.values.clone();
+    		}
+    		size = other.size;
+    	}
     }
 }
@@ -17,15 +17,18 @@
 **/
 package org.safs.android.engine;
 
-import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.safs.android.remotecontrol.SAFSMessage;
 import org.safs.sockets.RemoteException;
@@ -38,6 +41,7 @@ import android.content.Intent;
 import android.content.res.Resources;
 import android.graphics.Rect;
 import android.os.Bundle;
+import android.os.Looper;
 import android.util.SparseBooleanArray;
 import android.view.Display;
 import android.view.View;
@@ -58,6 +62,7 @@ import android.widget.Switch;
 import android.widget.TextView;
 import android.widget.ToggleButton;
 
+import com.jayway.android.robotium.remotecontrol.client.DebugChannel;
 import com.robotium.solo.RCSolo;
 
 /**
@@ -70,6 +75,11 @@ import com.robotium.solo.RCSolo;
  * 						  get property for some simple properties easily.<br>
  * (LeiWang) FEB 21, 2013  Add "TYPE=WINDOW" to array {@link #TOPLEVEL_WINDOW_RECS_UC}<br>
  * (LeiWang) JUN 05, 2013  Return view's id name as the object's name.<br>
+ * (agent) OCT 18, 2026  Send the per-child messages of getChildren as trace.<br>
+ * (agent) OCT 18, 2026  Memoize getObjectSuperclassNames per Class.<br>
+ * (agent) OCT 18, 2026  Cache the field and accessor method found by getPropertyByReflection per Class and property.<br>
+ * (agent) OCT 18, 2026  Add captureObjectProperties() to read all the properties of a View in one UI thread pass.<br>
+ * (agent) OCT 18, 2026  Keep the windows of getTopLevelWindows in DGuiTopWindows until a lifecycle or focus change.<br>
  */
 public class DGuiObjectRecognition{
 
@@ -93,6 +103,11 @@ public class DGuiObjectRecognition{
     	try{ testrunner.debug(message);}catch(Exception x){}
     }
     
+    /** send a per-node trace message at {@link DebugChannel#LEVEL_TRACE}. */
+    static void trace(String message){
+    	try{ testrunner.debug(DebugChannel.LEVEL_TRACE, message);}catch(Exception x){}
+    }
+    
     /**
      * Retrieve the testrunner.getSolo() object.  If null, we will run testrunner.launchApplication() 
      * in an attempt to create the Solo object.
@@ -135,9 +150,17 @@ public class DGuiObjectRecognition{
 	public static Object[] getTopLevelWindows()throws RemoteException{
 		// getCurrentFocus can return null!
 		RCSolo solo = autostartMainLauncher();
+		// read before building, a window opened meanwhile makes the next call build again
+		long generation = DGuiTopWindows.getGeneration();
+		View[] decorViews = null;
+		try{ decorViews = solo.getWindowDecorViews();}catch(Exception ignore){}
+		Object[] cached = DGuiTopWindows.getCached(decorViews);
+		if(cached != null) return cached;
+		
 		solo.finishInactiveActivities();
 		View view = null;
 		ArrayList<View> topwins = new ArrayList<View>();
+		Set<View> added = Collections.newSetFromMap(new IdentityHashMap<View, Boolean>());
 		List<Activity> activities = solo.getAllOpenedActivities();
 		for(int i=0; i < activities.size();i++){
 			Activity act = activities.get(i);
@@ -146,26 +169,30 @@ public class DGuiObjectRecognition{
 				try{ view = act.getWindow().peekDecorView(); }catch(Exception ignore){}
 				if(view != null) view = solo.getTopParent(view);
 				if(view != null){
-					if(! topwins.contains(view) && view.isShown()) 
+					if(view.isShown() && added.add(view)) 
 						topwins.add(view);
 				}
 			}else{
 				view = solo.getTopParent(view);
-				if(! topwins.contains(view) && view.isShown())
+				if(view.isShown() && added.add(view))
 					topwins.add(0, view);
 			}
 		}
 		view = null;
-		try{ view = solo.getViews().get(0).getRootView();}catch(Exception ignore){}
+		// the same window as solo.getViews().get(0).getRootView(), without enumerating all its views
+		if(decorViews != null) try{ view = solo.getRecentRootView(decorViews);}catch(Exception ignore){}
+		if(view == null) try{ view = solo.getViews().get(0).getRootView();}catch(Exception ignore){}
 		if(view == null)
 			throw new RemoteException("Solo does not have the most current Activity or Dialog with Window focus at this time!");
 		view = solo.getTopParent(view);
 		if(view != null){
-			if(! topwins.contains(view) && view.isShown()) 
+			if(view.isShown() && added.add(view)) 
 				topwins.add(0,view);
 		}
 		debug("TopParent Views: "+ topwins.size());
-		return topwins.toArray();
+		Object[] windows = topwins.toArray();
+		DGuiTopWindows.store(windows, decorViews, generation);
+		return windows;
 	}
 
 	/**
@@ -195,14 +222,15 @@ public class DGuiObjectRecognition{
 			View aview = null;
 			int firstVisible = avparent.getFirstVisiblePosition();
 			int lastVisible = avparent.getLastVisiblePosition();
+			boolean trace = DGuiObjectVector.isTraceEnabled();
 			for(int i = 0;i < avparent.getCount();i++){				
 				//try{views.add(adapter.getView(i, null, gparent));}
 				//catch(Exception ignore){}
 				if(i < firstVisible || i > lastVisible){
-					debug("DGOR.getChildren attempting to retrieve offscreen child["+i+"] info from AdapterView...");
+					if(trace) trace("DGOR.getChildren attempting to retrieve offscreen child["+i+"] info from AdapterView...");
 					aview = adapter.getView(i, null, avparent);
 				}else{
-					debug("DGOR.getChildren attempting to retrieve onscreen child["+(i-firstVisible)+"] info from AdapterView...");
+					if(trace) trace("DGOR.getChildren attempting to retrieve onscreen child["+(i-firstVisible)+"] info from AdapterView...");
 					aview = avparent.getChildAt(i - firstVisible);
 				}
 				views.add(aview);
@@ -275,16 +303,29 @@ public class DGuiObjectRecognition{
 		return obj.getClass().getName();	    
 	}
 
+	/** Class to its superclass classnames, the hierarchy of a class never changes. */
+	private static final ConcurrentHashMap<Class<?>, String[]> superclassNames = new ConcurrentHashMap<Class<?>, String[]>();
+	
 	/**
-	 * Get the full class hierarchy of superclass classnames, begin from java.lang.Object.
+	 * Get the full class hierarchy of superclass classnames, begin from java.lang.Object.<br>
+	 * The array is computed once per class and shared: it must not be modified.
 	 * @param obj
 	 * @return String[] of superclass classname hierarchy. Class String java.lang.Object is the first in the Array.
 	 * @throws NullPointerException on null obj reference. 
 	 */
 	public static String[] getObjectSuperclassNames(Object obj){
+		Class<?> clazz = obj.getClass();
+		String[] rc = superclassNames.get(clazz);
+		if(rc==null){
+			rc = getSuperclassNames(clazz);
+			superclassNames.putIfAbsent(clazz, rc);
+		}
+		return rc;
+	}
+	
+	private static String[] getSuperclassNames(Class<?> oClass){
 		String[] rc = new String[0];
 		ArrayList<String> list = new ArrayList<String>();
-		Class oClass = obj.getClass();
 		Class sClass = oClass;
 		Class cClass = null;
 		while(sClass != null){
@@ -500,6 +541,37 @@ public class DGuiObjectRecognition{
 	*@return A String.  Arrays of values will generally be returned from {@link #convertArrayToDelimitedString(ArrayList)} 
 	*************************************************************/
 	public static String getObjectProperty(Object obj, String propname){
+		return getObjectProperty(obj, propname, null);
+	}
+	
+	/**
+	 * Holds the one AccessibilityNodeInfo shared by all the accessible* properties of a snapshot.
+	 * @see DGuiObjectRecognition#captureObjectProperties(Object, String[], StringBuilder)
+	 */
+	private static final class NodeInfoHolder{
+		boolean created = false;
+		AccessibilityNodeInfo info = null;
+		
+		AccessibilityNodeInfo get(View view){
+			if(!created){
+				created = true;
+				info = view.createAccessibilityNodeInfo(/* API Level 14 and above */);
+			}
+			return info;
+		}
+		
+		void recycle(){
+			try{ if(info!=null) info.recycle();}catch(Throwable x){}
+			info = null;
+		}
+	}
+	
+	/**
+	 * @param nodeInfo NodeInfoHolder, holds the AccessibilityNodeInfo to share with other properties of the same View,
+	 *                 it is NOT recycled here. If null, an AccessibilityNodeInfo is created and recycled for this property only.
+	 * @see #getObjectProperty(Object, String)
+	 */
+	private static String getObjectProperty(Object obj, String propname, NodeInfoHolder nodeInfo){
 		//String rc = null;
 	    if(obj == null || propname==null) return SAFSMessage.NULL_VALUE;
 	    
@@ -532,29 +604,26 @@ public class DGuiObjectRecognition{
 	    		String value = null;
 	        	Object ani = null;
 		    	try{ 
-		    		ani = ((View)obj).createAccessibilityNodeInfo(/* API Level 14 and above */);
+		    		if(nodeInfo == null) ani = ((View)obj).createAccessibilityNodeInfo(/* API Level 14 and above */);
+		    		else ani = nodeInfo.get((View)obj);
 		    		AccessibilityNodeInfo info = (AccessibilityNodeInfo) ani;
 		    		if(info == null) throw new NoSuchMethodException("createAccessibilityNodeInfo not supported.") ;
 		    		if (PROP_ACCESSIBLEBOUNDSINPARENT.equalsIgnoreCase(propname)){
 		    			Rect bounds = new Rect();
 		    			info.getBoundsInParent(bounds);
 		    			value = bounds.flattenToString();
-			    	    try{info.recycle();}catch(Exception x){}
-			    	    return value;
-		    		}
-		    		if (PROP_ACCESSIBLEBOUNDSINSCREEN.equalsIgnoreCase(propname)){
+		    		}else if (PROP_ACCESSIBLEBOUNDSINSCREEN.equalsIgnoreCase(propname)){
 		    			Rect bounds = new Rect();
 		    			info.getBoundsInScreen(bounds);
 		    			value = bounds.flattenToString();
-			    	    try{info.recycle();}catch(Exception x){}
-			    	    return value;
+		    		}else{
+		    			value = getPropertyByReflection(info, realProp, true);
 		    		}
-		    		value = getPropertyByReflection(info, realProp, true);
-		    	    try{info.recycle();}catch(Exception x){}
+		    		if(nodeInfo == null) try{info.recycle();}catch(Exception x){}
 		    	    return value;
 				} 
 		    	catch (Throwable e) { debug("Ignoring "+ e.getClass().getSimpleName()+": "+ e.getMessage()); }
-	    	    try{((AccessibilityNodeInfo)ani).recycle();}catch(Throwable x){}
+		    	if(nodeInfo == null) try{((AccessibilityNodeInfo)ani).recycle();}catch(Throwable x){}
 	    	}
 	    	
     		if (PROP_CANSCROLLLEFT.equalsIgnoreCase(propname)){	    		
@@ -744,6 +813,78 @@ public class DGuiObjectRecognition{
 	    return SAFSMessage.NULL_VALUE;
 	}	
 
+	/**
+	 * Read all the properties of an object in one pass, and append them to out in the format of 
+	 * {@link java.util.Properties#store(java.io.Writer, String)}, so that they can be loaded with {@link java.util.Properties#load(java.io.Reader)}.<br>
+	 * For a View, the properties are read on the UI thread within a single Runnable, and the accessible* properties
+	 * share one AccessibilityNodeInfo, instead of creating and recycling one for each of them.<br>
+	 * 
+	 * @param obj Object, the object to read.
+	 * @param names String[], the properties to read; if null, all the {@link #getObjectPropertyNames(Object)}.
+	 * @param out StringBuilder, receives the properties, a null value is written as {@link SAFSMessage#NULL_VALUE}.
+	 * @return int, the number of properties written.
+	 * @see #getObjectProperty(Object, String)
+	 */
+	public static int captureObjectProperties(final Object obj, final String[] names, final StringBuilder out){
+		if(obj == null) return 0;
+		final int[] count = {0};
+		Runnable capture = new Runnable(){
+			public void run(){
+				NodeInfoHolder nodeInfo = new NodeInfoHolder();
+				try{
+					String[] propnames = names==null ? getObjectPropertyNames(obj): names;
+					out.append('#').append("Properties").append('\n');
+					out.append('#').append(new Date().toString()).append('\n');
+					String value = null;
+					for(int i=0;i<propnames.length;i++){
+						value = getObjectProperty(obj, propnames[i], nodeInfo);
+						if(value == null) value = SAFSMessage.NULL_VALUE;
+						appendPropertyEscaped(out, propnames[i], true);
+						out.append('=');
+						appendPropertyEscaped(out, value, false);
+						out.append('\n');
+						count[0]++;
+					}
+				}catch(Throwable x){
+					// must not escape to the UI thread's Looper
+					debug("captureObjectProperties stopped by "+ x.getClass().getSimpleName()+": "+ x.getMessage());
+				}finally{
+					nodeInfo.recycle();
+				}
+			}
+		};
+		if(obj instanceof View && testrunner != null && Looper.myLooper() != Looper.getMainLooper()){
+			testrunner.runOnMainSync(capture);
+		}else{
+			capture.run();
+		}
+		return count[0];
+	}
+	
+	/**
+	 * Escape a key or a value as {@link java.util.Properties#store(java.io.Writer, String)} does.
+	 */
+	private static void appendPropertyEscaped(StringBuilder out, String text, boolean isKey){
+		for(int i=0;i<text.length();i++){
+			char c = text.charAt(i);
+			switch(c){
+				case ' ':
+					if(i==0 || isKey) out.append('\\');
+					out.append(' ');
+					break;
+				case '\t': out.append("\\t"); break;
+				case '\n': out.append("\\n"); break;
+				case '\r': out.append("\\r"); break;
+				case '\f': out.append("\\f"); break;
+				case '\\': case '=': case ':': case '#': case '!':
+					out.append('\\').append(c);
+					break;
+				default:
+					out.append(c);
+			}
+		}
+	}
+	
 	/** The possible prefix for the name of accessory method*/
 	public static final String PREFIX_PROP_GET 		= "get";
 	public static final String PREFIX_PROP_IS 		= "is";
@@ -1523,39 +1664,18 @@ public class DGuiObjectRecognition{
 	public static String getPropertyByReflection(Object obj, String property, boolean includingSuperClass){
 		
 		if(obj==null || property==null) return null;		
-		Class clazz = obj.getClass();
-		Field field = null;
-		Method method = null;
-		
-		//First, try to get value from public field
-		try {
-			if(includingSuperClass)
-				field = clazz.getField(property);
-			else
-				field = clazz.getDeclaredField(property);			
-			return String.valueOf(field.get(obj));
-		} catch (Exception e) {
-			debug("Can't get value for property '"+property+"' by Field, met "+ e.getClass().getSimpleName()+": "+e.getMessage());
-		}
+		Class<?> clazz = obj.getClass();
 		
-		//If not found, try specific no-arg accessory methods
-		List<String> possibleAccessorMethods = getPossiblePropertyAccessorMethodsName(property);
-		String methodName = null;
-		for(int i=0;method==null && i<possibleAccessorMethods.size();i++){
-			methodName = possibleAccessorMethods.get(i);
-			try{
-				if(includingSuperClass)
-					method = clazz.getMethod(methodName, new Class[0]);
-				else
-					method = clazz.getDeclaredMethod(methodName, new Class[0]);
-			} catch (Exception e) {
-				debug("Can't get value for property '"+property+"' by Method, met "+ e.getClass().getSimpleName()+": "+e.getMessage());
-			}
+		//The field or no-arg accessory method is looked for only the first time for a class
+		PropertyAccessor accessor = PropertyAccessor.getCached(clazz, property, includingSuperClass);
+		if(accessor==null){
+			accessor = PropertyAccessor.resolve(clazz, property, includingSuperClass, getPossiblePropertyAccessorMethodsName(property));
+			if(!accessor.exists()) debug("Can't find Field or Method for property '"+property+"' in "+ clazz.getName());
 		}
-		if(method != null){
-			try { return String.valueOf(method.invoke(obj, new Object[0]));} 
+		if(accessor.exists()){
+			try { return String.valueOf(accessor.read(obj));} 
 			catch (Exception e) {
-				debug("Can't invoke Method for property '"+property+"', met "+ e.getClass().getSimpleName()+": "+e.getMessage());
+				debug("Can't get value for property '"+property+"', met "+ e.getClass().getSimpleName()+": "+e.getMessage());
 			}
 		}		
 		return SAFSMessage.NULL_VALUE;
@@ -22,12 +22,24 @@ import java.util.ArrayList;
 import org.safs.sockets.DebugListener;
 import org.safs.sockets.RemoteException;
 
+import com.jayway.android.robotium.remotecontrol.client.CommandMetrics;
+import com.jayway.android.robotium.remotecontrol.client.DebugChannel;
+
 /**
  * 
  * @author Carl Nagle, SAS Institute, Inc
  * <p>
  * FEB 07, 2013 (LeiWang)	Add a static field DGuiClassData to help get type for an object.<br/>
  * JUN 14, 2013 (LeiWang)	Modify to capture also id's index and name's index.<br/>
+ * OCT 18, 2026 (agent)	Send the per-node messages as trace, built only if trace is enabled.<br/>
+ * OCT 18, 2026 (agent)	Answer searchChildren from the ViewTreeIndex snapshot when the recognition allows it.<br/>
+ * OCT 18, 2026 (agent)	Wait between the search attempts with a DGuiWaiter instead of sleeping 1 second.<br/>
+ * OCT 18, 2026 (agent)	Get the definitions from the parsed recognitions of DGuiRecognitionCache; do not copy the indices for each candidate.<br/>
+ * OCT 18, 2026 (agent)	Undo the class indices changed by a descent with an indices checkpoint, instead of copying them.<br/>
+ * OCT 18, 2026 (agent)	Enumerate the rows of AdapterViews lazily with AdapterChildren, onscreen rows first.<br/>
+ * OCT 18, 2026 (agent)	Verify the place of the last match kept by DGuiPathHints before searching the window.<br/>
+ * OCT 18, 2026 (agent)	Add getMatchingChildren to find the components of several recognitions in one walk.<br/>
+ * OCT 18, 2026 (agent)	Count the nodes visited by the searches in CommandMetrics.<br/>
  */
 public class DGuiObjectVector {
 
@@ -50,15 +62,60 @@ public class DGuiObjectVector {
 	 **/
 	public boolean SINGLE_LOOP_SEARCH = false;
 	
+	/** 
+	 * Set to false to always walk the live view tree in {@link #searchChildren(Object, DGuiObjectDefinition)}, 
+	 * instead of looking up the {@link ViewTreeIndex} snapshot of the window first.  
+	 * The lookup does not update the indices, so the {@link DGuiObjectDefinition#matched_indices} 
+	 * of the definitions are not complete when it finds the object.
+	 * Default is true. 
+	 **/
+	public boolean USE_VIEWTREE_INDEX = true;
+	
+	/** 
+	 * How to wait between the attempts of the window/component search, 
+	 * one of {@link DGuiWaiter#WAIT_POLL}, {@link DGuiWaiter#WAIT_BACKOFF} or {@link DGuiWaiter#WAIT_EVENT}.
+	 * Default is {@link DGuiWaiter#WAIT_EVENT}. 
+	 **/
+	public int WAIT_STRATEGY = DGuiWaiter.WAIT_EVENT;
+	
+	/** 
+	 * The longest wait in milliseconds between two attempts of the window/component search. 
+	 * Default is {@link DGuiWaiter#DEFAULT_POLL_MILLIS}. 
+	 **/
+	public long POLL_INTERVAL = DGuiWaiter.DEFAULT_POLL_MILLIS;
+	
+	/** 
+	 * Set to false to have {@link #searchChildren(Object, DGuiObjectDefinition)} ask the adapter of an AdapterView
+	 * for all its offscreen rows, in order, before searching them.  When true, and the recognition has no index
+	 * qualifier, the children on screen are searched first and the offscreen rows are made one at a time, 
+	 * as allowed by {@link #OFFSCREEN_ROWS}.  See {@link AdapterChildren}.
+	 * Default is true. 
+	 **/
+	public boolean LAZY_ADAPTER_CHILDREN = true;
+	
+	/** 
+	 * Which offscreen rows of the AdapterViews the lazy search makes, one of {@link AdapterChildren#OFFSCREEN_ALL},
+	 * {@link AdapterChildren#OFFSCREEN_MATCHING_ITEMS} or {@link AdapterChildren#OFFSCREEN_NONE}.
+	 * Default is {@link AdapterChildren#OFFSCREEN_ALL}. 
+	 **/
+	public int OFFSCREEN_ROWS = AdapterChildren.OFFSCREEN_ALL;
+	
+	/** 
+	 * Set to false to always search the whole window in {@link #getMatchingChild(int)}, instead of verifying first 
+	 * the place where the same recognition was last found, kept by {@link DGuiPathHints}.  
+	 * Hints are only used for recognitions without index qualifiers, within a window recognition.
+	 * Default is true. 
+	 **/
+	public boolean USE_PATH_HINTS = true;
+	
     String winrec = null;
-    ArrayList winpath = null;
     ArrayList windefs = null;
     Object winobj = null;
     boolean fpsmmode = false;
     String comprec = null;
-    ArrayList comppath = null;
     ArrayList compdefs = null;
     Object compobj = null;
+    DGuiObjectDefinition[] batchdefs = null;
 
     DebugListener debuglogger = null;
     
@@ -101,14 +158,29 @@ public class DGuiObjectVector {
     	catch(Exception x){ System.out.println(message); }
     }
     
+    /**
+     * @return true if the per-node trace messages of the search should be built and sent.
+     * Always check this before building a message for {@link #trace(String)}.
+     * @see DSAFSTestRunner#isTraceEnabled()
+     */
+    static boolean isTraceEnabled(){
+    	try{ return testrunner.isTraceEnabled(); }
+    	catch(Exception x){ return true; }
+    }
+    
+    /** send a per-node trace message at {@link DebugChannel#LEVEL_TRACE}. */
+    void trace(String message){
+    	try{ testrunner.debug(DebugChannel.LEVEL_TRACE, message); }
+    	catch(Exception x){ System.out.println(message); }
+    }
+    
     DGuiObjectIndices indices = new DGuiObjectIndices();    
     
     /** */
     public Object getMatchingParentObject(int secsTimeout)throws RemoteException{
 	    if( !(winobj == null)) return winobj;
 	    debug(".getMatchingParent seeking "+ winrec);
-	    winpath = splitRec(winrec);
-	    windefs = getDefinitionHierarchy(winpath);
+	    windefs = getDefinitionHierarchy(winrec);
 	    fpsmmode = ((DGuiObjectDefinition)windefs.get(0)).fpsmmode; // only valid on first one
 	    debug(".getMatchingParent using FPSM: "+ fpsmmode);
 	
@@ -121,9 +193,10 @@ public class DGuiObjectVector {
 	    DGuiObjectDefinition testdef = null;
 	    boolean isMatched = false;
 	    boolean looped = false;	    
+	    DGuiWaiter waiter = new DGuiWaiter(WAIT_STRATEGY, POLL_INTERVAL);
 	    while(!isTimeout && !isMatched && !(looped && SINGLE_LOOP_SEARCH)){
 	        testdef = (DGuiObjectDefinition) windefs.get(0);
-	        debug(".getMatchingParent seeking: "+ testdef.objstring);
+	        if(isTraceEnabled()) trace(".getMatchingParent seeking: "+ testdef.objstring);
 	        //sys = UIATarget.localTarget();
 	        //app = DGuiObjectRecognition.getForegroundApplication();
 	        try{ windows = DGuiObjectRecognition.getTopLevelWindows();}
@@ -134,10 +207,11 @@ public class DGuiObjectVector {
 	        indices.resetAllIndices();
 	        for(int i=0; !isMatched && i < windows.length; i++){
 	            testobj = windows[i];
+	            ViewTreeIndex.watch(testobj);
 	            testobjInfo = captureTestObjectIndex(testobj, i+1);
-			    debug(".getMatchingParent processing top-level window "+ (i+1) +", class: "+ testobjInfo.classname+", type: "+testobjInfo.typeclass);
+			    if(isTraceEnabled()) trace(".getMatchingParent processing top-level window "+ (i+1) +", class: "+ testobjInfo.classname+", type: "+testobjInfo.typeclass);
 			    
-	            isMatched = testdef.isMatchingObject(testobj, indices.copyAllIndices());
+	            isMatched = testdef.isMatchingObject(testobj, indices);
 	            
 	            /*
 	             * Adding support for a child of the top-level window to be considered the top-level parent.
@@ -156,7 +230,7 @@ public class DGuiObjectVector {
 	        }
 	        looped = true;
 	        if(!isMatched) isTimeout = System.currentTimeMillis() > endtime;
-	        if(!isTimeout && !SINGLE_LOOP_SEARCH) try{Thread.sleep(1000);}catch(Exception x){};        
+	        if(!isMatched && !isTimeout && !SINGLE_LOOP_SEARCH) waiter.await(endtime);
 	    }
 	    if (isMatched) {
 	        winobj = testobj;
@@ -197,8 +271,7 @@ public class DGuiObjectVector {
 	        return null;
 	    }
 	    debug(".getMatchingChild using timeout: "+ secsTimeout+", comprec: "+ comprec);
-	    comppath = splitRec(comprec);
-	    compdefs = getDefinitionHierarchy(comppath);
+	    compdefs = getDefinitionHierarchy(comprec);
 	    if(compdefs.size() > 0) fpsmmode = ((DGuiObjectDefinition)compdefs.get(0)).fpsmmode; // only valid on first one
 	    debug(".getMatchingChild using FPSM: "+ fpsmmode);
 	
@@ -219,15 +292,25 @@ public class DGuiObjectVector {
 	        }
 	    }
 	    boolean looped = false;
+	    DGuiWaiter waiter = new DGuiWaiter(WAIT_STRATEGY, POLL_INTERVAL);
+	    ViewTreeIndex.watch(winobj);
+	    String hintKey = (USE_PATH_HINTS && winrec != null && ViewTreeIndex.isIndexable(testdef)) ? DGuiPathHints.getKey(winrec, comprec) : null;
 	    while(!isTimeout && (compobj == null) && !(looped && SINGLE_LOOP_SEARCH)){
-	        compobj = searchChildren(winobj, testdef);
+	        if(hintKey != null){
+	        	compobj = DGuiPathHints.find(hintKey, winobj, testdef, indices, fpsmmode);
+	        	if(compobj != null) debug(".getMatchingChild found matching child at the place of the last match.");
+	        }
+	        if(compobj == null){
+	        	compobj = searchChildren(winobj, testdef);
+	        	if(compobj != null && hintKey != null) DGuiPathHints.record(hintKey, winobj, compobj);
+	        }
 	        looped = true;
 	        if(compobj == null) {
 	            nowtime = System.currentTimeMillis();
 	            if (nowtime > endtime) {
 	                isTimeout = true;
 	            }else if(!SINGLE_LOOP_SEARCH){
-	                try{Thread.sleep(1000);}catch(Exception x){};
+	                waiter.await(endtime);
 	                debug(".getMatchingChild TRYING AGAIN: "+ nowtime +" <= "+ endtime);
 	                indices.restoreAllIndices(copy); 
 	            }
@@ -242,37 +325,199 @@ public class DGuiObjectVector {
 	
 	}// end getMatchingChild
 
+    /**
+     * The last DGuiObjectDefinition of each recognition of the last {@link #getMatchingChildren(String[], int)}, 
+     * with its {@link DGuiObjectDefinition#matched_indices} if it was found.
+     * @return the array of definitions, in the order of the recognitions; an item is null if its recognition 
+     * is invalid. This is null if no batch search has been done.
+     */
+    public DGuiObjectDefinition[] getBatchDefs(){
+    	return batchdefs;
+    }
+
+	/**
+	 * Find the components of several recognitions within the matched parent, walking the tree once 
+	 * for all of them instead of once for each.<br>
+	 * Each component is the one {@link #getMatchingChild(int)} would find for its recognition alone: 
+	 * at each View the indices are counted once, then the first level of each recognition not found yet 
+	 * is tried. When it matches, the next levels are searched below it from a copy of the indices.
+	 * A recognition in FPSM mode, or whose next levels are not found below its first match, is searched alone.<br>
+	 * The search is repeated for the recognitions not found, until the timeout.
+	 * @param childrecs String[], the component recognitions, relative to the parent.
+	 * @param secsTimeout int, the timeout in seconds for the parent and for the components.
+	 * @return Object[], the component found for each recognition, in the same order; null items for those not found.
+	 * @throws RemoteException
+	 * @see #getBatchDefs()
+	 */
+	public Object[] getMatchingChildren(String[] childrecs, int secsTimeout) throws RemoteException{
+		Object[] found = new Object[childrecs.length];
+		batchdefs = new DGuiObjectDefinition[childrecs.length];
+	    if(getMatchingParentObject(secsTimeout) == null) {
+	        debug(".getMatchingChildren == null -- no matched parent to search!!");
+	        return found;
+	    }
+	    debug(".getMatchingChildren using timeout: "+ secsTimeout+", for "+ childrecs.length +" recognitions.");
+	    DGuiObjectDefinition[] testdefs = new DGuiObjectDefinition[childrecs.length];
+	    boolean[] alone = new boolean[childrecs.length];
+	    boolean[] fpsm = new boolean[childrecs.length];
+	    for(int i=0;i<childrecs.length;i++){
+	    	if(childrecs[i] == null || childrecs[i].length() == 0) continue;
+	    	ArrayList defs = getDefinitionHierarchy(childrecs[i]);
+	    	if(defs.size() == 0) continue;
+	    	DGuiObjectDefinition testdef = (DGuiObjectDefinition) defs.get(0);
+	    	fpsm[i] = testdef.fpsmmode;
+	    	alone[i] = fpsm[i];
+	    	batchdefs[i] = (DGuiObjectDefinition) defs.get(defs.size()-1);
+	    	if(DGuiObjectRecognition.isTopLevelWindowRecognition(testdef.objstring)){
+	    		debug(".getMatchingChildren ignoring TOP WINDOW reference in recognition string "+ i);
+	    		testdef = testdef.child;
+	    	}
+	    	testdefs[i] = testdef;
+	    	if(testdef == null) debug(".getMatchingChildren invalid recognition "+ i +", solely top-level reference.");
+	    }
+
+	    DGuiObjectIndices copy = indices.copyAllIndices(); // we might have to loop for timeout
+	    long endtime = System.currentTimeMillis() + (1000 * secsTimeout); 
+	    boolean isTimeout = false;
+	    boolean looped = false;
+	    DGuiWaiter waiter = new DGuiWaiter(WAIT_STRATEGY, POLL_INTERVAL);
+	    ViewTreeIndex.watch(winobj);
+	    int[] pending = new int[1];
+	    while(!isTimeout && !(looped && SINGLE_LOOP_SEARCH)){
+	    	pending[0] = 0;
+	    	for(int i=0;i<testdefs.length;i++){
+	    		if(testdefs[i] != null && found[i] == null && !alone[i]) pending[0]++;
+	    	}
+	    	if(pending[0] > 0){
+	    		indices.restoreAllIndices(copy);
+	    		if(isTraceEnabled()) trace(".getMatchingChildren searching "+ pending[0] +" recognitions together.");
+	    		searchChildrenBatch(winobj, testdefs, found, alone, pending);
+	    	}
+	    	boolean allFound = true;
+	    	for(int i=0;i<testdefs.length;i++){
+	    		if(testdefs[i] == null || found[i] != null) continue;
+	    		if(alone[i]){
+	    			indices.restoreAllIndices(copy);
+	    			boolean batchfpsm = fpsmmode;
+	    			fpsmmode = fpsm[i];
+	    			try{ found[i] = searchChildren(winobj, testdefs[i]); }
+	    			finally{ fpsmmode = batchfpsm; }
+	    		}
+	    		if(found[i] == null) allFound = false;
+	    	}
+	    	looped = true;
+	    	if(allFound) break;
+	    	isTimeout = System.currentTimeMillis() > endtime;
+	    	if(!isTimeout && !SINGLE_LOOP_SEARCH){
+	    		waiter.await(endtime);
+	    		debug(".getMatchingChildren TRYING AGAIN for the recognitions not found.");
+	    	}
+	    }
+	    indices.restoreAllIndices(copy);
+	    int count = 0;
+	    for(int i=0;i<found.length;i++) if(found[i] != null) count++;
+	    debug(".getMatchingChildren found "+ count +" of "+ found.length +" matching children.");
+	    return found;
+	}// end getMatchingChildren
+
+	/**
+	 * The depth-first walk of {@link #searchChildren(Object, DGuiObjectDefinition)}, trying the first level of 
+	 * all the pending recognitions at each child.
+	 * @param found Object[], the components found, set here.
+	 * @param alone boolean[], set here for the recognitions whose next levels are not found below the first match.
+	 * @param pending int[1], the number of recognitions still pending, decremented here. The walk stops at 0.
+	 */
+	void searchChildrenBatch(Object aparent, DGuiObjectDefinition[] testdefs, Object[] found, boolean[] alone, int[] pending) throws RemoteException{
+	    Object[] children = DGuiObjectRecognition.getChildren(aparent);
+	    for(int i=0; pending[0] > 0 && i<children.length; i++){
+	        Object testobj = children[i];
+	        captureTestObjectIndex(testobj, i+1);
+	        for(int j=0; j<testdefs.length; j++){
+	        	DGuiObjectDefinition testdef = testdefs[j];
+	        	if(testdef == null || found[j] != null || alone[j]) continue;
+	        	if(!testdef.isMatchingObject(testobj, indices)) continue;
+	        	pending[0]--;
+	        	debug(".searchChildrenBatch matched recognition "+ j +" at this level: "+ testdef.objstring);
+	        	if(testdef.child == null){
+	        		found[j] = testobj;
+	        		continue;
+	        	}
+	        	// the next levels must not change the indices of the other recognitions
+	        	DGuiObjectIndices shared = indices;
+	        	indices = shared.copyAllIndices();
+	        	try{ found[j] = searchChildren(testobj, testdef.child); }
+	        	finally{ indices = shared; }
+	        	if(found[j] == null) alone[j] = true;
+	        }
+	        if(pending[0] > 0 && DGuiObjectRecognition.hasChildren(testobj)){
+	        	int saved = indices.checkpointClassIndices();
+	        	searchChildrenBatch(testobj, testdefs, found, alone, pending);
+	        	indices.rollbackClassIndices(saved);
+	        }
+	    }
+	}// end searchChildrenBatch
+
 	/**
 	 * @throws RemoteException ****************************************/
 	public Object searchChildren(Object aparent, DGuiObjectDefinition testdef) throws RemoteException{
 		DClassTypeInfo testobjInfo = null;
 	    Object testobj = null;
 	    boolean isMatched = false;
-	    Object[] children = DGuiObjectRecognition.getChildren(aparent);
-	    if(children.length == 0){
-	        debug(".searchChildren object has no children to search.");
-	        return null;
+	    if(USE_VIEWTREE_INDEX && !fpsmmode && ViewTreeIndex.isIndexable(testdef)){
+	    	ViewTreeIndex index = ViewTreeIndex.getIndex(aparent);
+	    	ViewTreeIndex.Lookup lookup = (index == null) ? null : index.lookup(aparent, testdef);
+	    	if(lookup != null){
+	    		if(isTraceEnabled()) trace(".searchChildren verifying "+ lookup.candidates.length +" indexed candidates for: "+ testdef.objstring);
+	    		for(int i=0; !isMatched && i<lookup.candidates.length; i++){
+	    			testobj = lookup.candidates[i];
+	    			isMatched = testdef.isMatchingObject(testobj, indices);
+	    		}
+	    		if (isMatched) {
+	    			debug(".searchChildren matched indexed object: "+ testdef.objstring);
+	    			if(testdef.child == null) return testobj;
+	    			return searchChildren(testobj, testdef.child);
+	    		}
+	    		if(lookup.complete) return null; // not found.
+	    		if(isTraceEnabled()) trace(".searchChildren index is not complete, processing the children.");
+	    	}
+	    }
+	    Object[] children = null;
+	    AdapterChildren rows = null;
+	    if(LAZY_ADAPTER_CHILDREN && ViewTreeIndex.isIndexable(testdef)){
+	    	rows = AdapterChildren.getRows(aparent, testdef, OFFSCREEN_ROWS);
 	    }
-	    debug(".searchChildren processing children looking for: "+ testdef.objstring);
-	    for(int i=0; !isMatched && i<children.length; i++){
-	        testobj = children[i];
+	    if(rows != null){
+	    	if(!rows.hasNext()){
+	    		if(isTraceEnabled()) trace(".searchChildren adapter has no rows to search.");
+	    		return null;
+	    	}
+	    }else{
+	    	children = DGuiObjectRecognition.getChildren(aparent);
+	    	if(children.length == 0){
+	    		if(isTraceEnabled()) trace(".searchChildren object has no children to search.");
+	    		return null;
+	    	}
+	    }
+	    if(isTraceEnabled()) trace(".searchChildren processing children looking for: "+ testdef.objstring);
+	    for(int i=0; !isMatched && (rows == null ? i<children.length : rows.hasNext()); i++){
+	        testobj = rows == null ? children[i] : rows.next();
 	        testobjInfo = captureTestObjectIndex(testobj, i+1);
-	        debug(".searchChildren processing child class: "+ testobjInfo.classname+" ,type: "+testobjInfo.typeclass);
-	        isMatched = testdef.isMatchingObject(testobj, indices.copyAllIndices());
+	        if(isTraceEnabled()) trace(".searchChildren processing child class: "+ testobjInfo.classname+" ,type: "+testobjInfo.typeclass);
+	        isMatched = testdef.isMatchingObject(testobj, indices);
 	        if(!isMatched && !fpsmmode){
 	            if(DGuiObjectRecognition.hasChildren(testobj)){
-	            	DGuiObjectIndices saved = indices.saveClassIndices();
-	                debug(".searchChildren seeking non-FPSM match in grandchildren.");
+	            	int saved = indices.checkpointClassIndices();
+	                if(isTraceEnabled()) trace(".searchChildren seeking non-FPSM match in grandchildren.");
 	                testobj = searchChildren(testobj, testdef);
 	                if (testobj != null) return testobj;
-	                indices.restoreClassIndices(saved);
+	                indices.rollbackClassIndices(saved);
 	            }
 	        }
 	    }
 	    if (isMatched) {
 	        debug(".searchChildren matched object at this level: "+ testdef.objstring);
 	        if(testdef.child == null) return testobj;       
-	        debug(".searchChildren seeking children for next level");
+	        if(isTraceEnabled()) trace(".searchChildren seeking children for next level");
 	        return searchChildren(testobj, testdef.child);
 	    }
 	    return null; // not found.	    
@@ -288,31 +533,33 @@ public class DGuiObjectVector {
 	*************************************************************/
 	public DClassTypeInfo captureTestObjectIndex(Object testobj, int objectindex){
         DClassTypeInfo aninfo = new DClassTypeInfo("Class.Name.Not.Assigned");
+        boolean trace = isTraceEnabled();
 
         if(testobj==null){
         	debug("The test object is null, which should never happen!!!");
         	return aninfo;
         }
+        CommandMetrics.countNodes(1);
         
 	    try{
 	    	aninfo.classname = DGuiObjectRecognition.getObjectClassName(testobj);
 		    aninfo.classindex = indices.incrementClassIndex(aninfo.classname);
 		    aninfo.absoluteclassindex = indices.getAbsClassIndex(aninfo.classname);
-		    debug(".incremented classIndex: "+ aninfo.classindex+", absclassindex: "+ aninfo.absoluteclassindex+" for '"+aninfo.classname+"'");
+		    if(trace) trace(".incremented classIndex: "+ aninfo.classindex+", absclassindex: "+ aninfo.absoluteclassindex+" for '"+aninfo.classname+"'");
 	    }catch(NullPointerException x){}/* aninfo.classname might be null? not possible*/
 	    
 	    try{
 	    	aninfo.typeclass = (dgcd!=null? dgcd.getObjectClassType(testobj):null);
 		    aninfo.typeindex = indices.incrementTypeIndex(aninfo.typeclass);
 		    aninfo.absolutetypeindex = indices.getAbsTypeIndex(aninfo.typeclass);
-		    debug(".incremented typeindex: "+ aninfo.typeindex+", absolutetypeindex: "+ aninfo.absolutetypeindex+" for '"+aninfo.typeclass+"'");
+		    if(trace) trace(".incremented typeindex: "+ aninfo.typeindex+", absolutetypeindex: "+ aninfo.absolutetypeindex+" for '"+aninfo.typeclass+"'");
 	    }catch(NullPointerException x){}/* aninfo.typeclass might be null? possible*/
 	    
 	    try{
 		    aninfo.id = DGuiObjectRecognition.getObjectIdString(testobj);
 		    if(aninfo.id!=null){
 		    	aninfo.idindex = indices.incrementIdIndex(aninfo.id);
-		    	debug(".incremented idindex: "+ aninfo.idindex+" for '"+aninfo.id+"'");
+		    	if(trace) trace(".incremented idindex: "+ aninfo.idindex+" for '"+aninfo.id+"'");
 		    }
 	    }catch(Exception ignore){}
 	    
@@ -320,11 +567,11 @@ public class DGuiObjectVector {
 		    aninfo.name = DGuiObjectRecognition.getObjectName(testobj);
 		    if(aninfo.name!=null){
 		    	aninfo.nameindex = indices.incrementNameIndex(aninfo.name);
-		    	debug(".incremented nameindex: "+ aninfo.nameindex+" for '"+aninfo.name+"'");
+		    	if(trace) trace(".incremented nameindex: "+ aninfo.nameindex+" for '"+aninfo.name+"'");
 		    }
 	    }catch(Exception ignore){}
 	    
-	    debug(".incremented objectIndex = "+ objectindex);
+	    if(trace) trace(".incremented objectIndex = "+ objectindex);
 	    aninfo.objectindex = objectindex;
 	    indices.incrementObjectIndex();
 	    aninfo.absoluteobjectindex = indices.getAbsObjectIndex();
@@ -354,6 +601,29 @@ public class DGuiObjectVector {
 	    return list;
 	}
 
+	/***************************************
+	 * create an ArrayList of DGuiObjectDefinition objects for a full 
+	 * parent\child recognition string, like {@link #getDefinitionHierarchy(ArrayList)}.
+	 * The recognition is parsed only once, the definitions share the parsed levels  
+	 * kept by {@link DGuiRecognitionCache}.
+	 **************************************/
+	public static ArrayList getDefinitionHierarchy(String arec){
+		DGuiObjectDefinition.Compiled[] path = DGuiRecognitionCache.getPath(arec);
+		ArrayList list = new ArrayList(path.length);
+	    DGuiObjectDefinition parent = null;
+	    DGuiObjectDefinition child = null;
+	    for(int i=0; i < path.length; i++) {
+	        child = new DGuiObjectDefinition(path[i]);
+	        if(parent != null) {
+	            parent.child = child;
+	            child.parent = parent;
+	        }
+	        parent = child;
+	        list.add(child);
+	    }
+	    return list;
+	}
+
 	/***************************************
 	 * split hierarchy recognition into ArrayList 
 	 * of separate object recognition strings 
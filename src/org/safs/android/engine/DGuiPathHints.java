@@ -0,0 +1,204 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package org.safs.android.engine;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.safs.sockets.RemoteException;
+
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewParent;
+
+/**
+ * A bounded LRU cache of the place in the window where each recognition string was last found: the child index 
+ * of each View from the window down to the component, with their class names.<br>
+ * <p>
+ * Test steps usually find a component where they found it before. {@link DGuiObjectVector#getMatchingChild(int)} 
+ * first follows the hint of its recognition, in time proportional to its depth, and verifies the Views on it:
+ * the class of each View must be the recorded one, the last View must match the last level of the recognition,
+ * and the other levels must match Views above it, in order (each the direct child of the previous one in FPSM mode).
+ * It searches the whole window only when the hint is missing or does not match any more.<br>
+ * <p>
+ * A hint is only the place of the last match: if another matching component now comes before it in the search order, 
+ * the hinted one is still found. Recognitions with index qualifiers are never hinted, the indices are not counted 
+ * along the hint.<br>
+ *
+ * @see DGuiObjectVector#USE_PATH_HINTS
+ * @since  OCT 18, 2026 (agent)
+ */
+public class DGuiPathHints {
+
+	/** 512 recognitions */
+	public static final int DEFAULT_MAX_SIZE = 512;
+
+	private static int maxSize = DEFAULT_MAX_SIZE;
+	private static long hits = 0;
+	private static long misses = 0;
+	private static long unknown = 0;
+	private static long records = 0;
+
+	/** The child index path and class chain of one match, from the child of the window down to the component. */
+	private static final class Hint{
+		final int[] path;
+		final String[] classes;
+
+		Hint(int[] path, String[] classes){
+			this.path = path;
+			this.classes = classes;
+		}
+	}
+
+	private static final LinkedHashMap<String, Hint> hints = 
+		new LinkedHashMap<String, Hint>(64, 0.75f, true){
+			private static final long serialVersionUID = 1L;
+			protected boolean removeEldestEntry(Map.Entry<String, Hint> eldest){
+				return size() > maxSize;
+			}
+		};
+
+	/** @return String, the key of the hints of a component recognition within a window recognition. */
+	public static String getKey(String winrec, String comprec){
+		return winrec +"\n"+ comprec;
+	}
+
+	/**
+	 * Follow the hint of the recognition from the window and verify the Views on it.
+	 * @param key String, see {@link #getKey(String, String)}.
+	 * @param window Object, the matched window, where the hint starts.
+	 * @param testdef DGuiObjectDefinition, the first level of the recognition below the window.
+	 * @param indices DGuiObjectIndices, passed to {@link DGuiObjectDefinition#isMatchingObject(Object, DGuiObjectIndices)},
+	 *                they are not counted along the hint.
+	 * @param fpsmmode boolean, true if each level of the recognition is a direct child of the previous one.
+	 * @return Object, the component at the place of the hint, if it still matches; or null.
+	 */
+	public static Object find(String key, Object window, DGuiObjectDefinition testdef, DGuiObjectIndices indices, boolean fpsmmode) throws RemoteException{
+		Hint hint;
+		synchronized(hints){
+			hint = hints.get(key);
+			if(hint == null){
+				unknown++;
+				return null;
+			}
+		}
+		Object found = follow(hint, window, testdef, indices, fpsmmode);
+		synchronized(hints){
+			if(found == null){
+				misses++;
+				// the next successful search records the new place
+				if(hints.get(key) == hint) hints.remove(key);
+			}else{
+				hits++;
+			}
+		}
+		return found;
+	}
+
+	private static Object follow(Hint hint, Object window, DGuiObjectDefinition testdef, DGuiObjectIndices indices, boolean fpsmmode) throws RemoteException{
+		if(hint.path.length == 0) return null;
+		Object[] views = new Object[hint.path.length];
+		Object parent = window;
+		for(int i=0;i<hint.path.length;i++){
+			if(!(parent instanceof ViewGroup)) return null;
+			ViewGroup group = (ViewGroup) parent;
+			if(hint.path[i] >= group.getChildCount()) return null;
+			View child = group.getChildAt(hint.path[i]);
+			if(child == null || !hint.classes[i].equals(DGuiObjectRecognition.getObjectClassName(child))) return null;
+			views[i] = child;
+			parent = child;
+		}
+		// the levels of the recognition must match Views of the path in order, the last one the component
+		int last = views.length-1;
+		int next = 0;
+		for(DGuiObjectDefinition def = testdef; def != null; def = def.child){
+			if(def.child == null){
+				if(fpsmmode && next != last) return null;
+				return def.isMatchingObject(views[last], indices) ? views[last] : null;
+			}
+			if(fpsmmode){
+				if(next >= last || !def.isMatchingObject(views[next], indices)) return null;
+			}else{
+				while(next < last && !def.isMatchingObject(views[next], indices)) next++;
+				if(next >= last) return null;
+			}
+			next++;
+		}
+		return null;
+	}
+
+	/**
+	 * Record the place of a component found by the search.
+	 * @param key String, see {@link #getKey(String, String)}.
+	 * @param window Object, the matched window.
+	 * @param component Object, the component found in the window. Nothing is recorded if it is not attached under the window.
+	 */
+	public static void record(String key, Object window, Object component){
+		if(!(component instanceof View) || component == window) return;
+		ArrayList<Integer> path = new ArrayList<Integer>();
+		ArrayList<String> classes = new ArrayList<String>();
+		Object child = component;
+		while(child != window){
+			if(!(child instanceof View)) return;
+			ViewParent parent = ((View) child).getParent();
+			if(!(parent instanceof ViewGroup)) return; // not under the window, or made by an adapter
+			int index = ((ViewGroup) parent).indexOfChild((View) child);
+			if(index < 0) return;
+			path.add(0, Integer.valueOf(index));
+			classes.add(0, DGuiObjectRecognition.getObjectClassName(child));
+			child = parent;
+		}
+		int[] indexes = new int[path.size()];
+		for(int i=0;i<indexes.length;i++) indexes[i] = path.get(i).intValue();
+		Hint hint = new Hint(indexes, classes.toArray(new String[classes.size()]));
+		synchronized(hints){
+			hints.put(key, hint);
+			records++;
+		}
+	}
+
+	/** @param size int, the maximum number of recognitions kept, at least 1. */
+	public static void setMaxSize(int size){
+		synchronized(hints){
+			maxSize = size < 1 ? 1 : size;
+			while(hints.size() > maxSize) hints.remove(hints.keySet().iterator().next());
+		}
+	}
+
+	public static int getMaxSize(){
+		synchronized(hints){ return maxSize; }
+	}
+
+	public static void clear(){
+		synchronized(hints){ hints.clear(); }
+	}
+
+	/**
+	 * @return String, like "size=40,hits=930,misses=12,unknown=45,records=57,hitrate=94.2%", 
+	 *                 the hit rate of the searches having a hint.
+	 */
+	public static String getStatistics(){
+		synchronized(hints){
+			long total = hits + misses;
+			long permille = total == 0 ? 0 : (hits * 1000) / total;
+			return "size="+hints.size()+",hits="+hits+",misses="+misses+",unknown="+unknown+
+			       ",records="+records+",hitrate="+(permille/10)+"."+(permille%10)+"%";
+		}
+	}
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package org.safs.android.engine;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded LRU cache of the parsed recognition paths, by recognition string.<br>
+ * Test suites reuse a limited set of recognition strings for many commands: each distinct string is split 
+ * into its parent/child levels and parsed into {@link DGuiObjectDefinition.Compiled} once, then each search 
+ * only creates its light DGuiObjectDefinitions over the shared parsed levels.<br>
+ *
+ * @see DGuiObjectVector#getDefinitionHierarchy(String)
+ * @since  OCT 18, 2026 (agent)
+ */
+public class DGuiRecognitionCache {
+
+	/** 512 recognition strings */
+	public static final int DEFAULT_MAX_SIZE = 512;
+
+	private static int maxSize = DEFAULT_MAX_SIZE;
+	private static long hits = 0;
+	private static long misses = 0;
+
+	private static final LinkedHashMap<String, DGuiObjectDefinition.Compiled[]> paths = 
+		new LinkedHashMap<String, DGuiObjectDefinition.Compiled[]>(64, 0.75f, true){
+			private static final long serialVersionUID = 1L;
+			protected boolean removeEldestEntry(Map.Entry<String, DGuiObjectDefinition.Compiled[]> eldest){
+				return size() > maxSize;
+			}
+		};
+
+	/**
+	 * @param recognition String, a full recognition string, with parent/child levels separated by
+	 *                    {@link DGuiObjectVector#DEFAULT_CHILD_SEPARATOR}.
+	 * @return DGuiObjectDefinition.Compiled[], the parsed levels, shared: the array must not be modified.
+	 */
+	public static DGuiObjectDefinition.Compiled[] getPath(String recognition){
+		DGuiObjectDefinition.Compiled[] path = null;
+		synchronized(paths){
+			path = paths.get(recognition);
+			if(path != null){
+				hits++;
+				return path;
+			}
+			misses++;
+		}
+		ArrayList levels = DGuiObjectVector.splitRec(recognition);
+		path = new DGuiObjectDefinition.Compiled[levels.size()];
+		for(int i=0;i<path.length;i++) path[i] = new DGuiObjectDefinition.Compiled((String)levels.get(i));
+		synchronized(paths){
+			paths.put(recognition, path);
+		}
+		return path;
+	}
+
+	/** @param size int, the maximum number of recognition strings kept, at least 1. */
+	public static void setMaxSize(int size){
+		synchronized(paths){
+			maxSize = size < 1 ? 1 : size;
+			while(paths.size() > maxSize) paths.remove(paths.keySet().iterator().next());
+		}
+	}
+
+	public static int getMaxSize(){
+		synchronized(paths){ return maxSize; }
+	}
+
+	public static void clear(){
+		synchronized(paths){ paths.clear(); }
+	}
+
+	/**
+	 * @return String, like "size=40,hits=5230,misses=40,hitrate=99.2%"
+	 */
+	public static String getStatistics(){
+		synchronized(paths){
+			long total = hits + misses;
+			long permille = total == 0 ? 0 : (hits * 1000) / total;
+			return "size="+paths.size()+",hits="+hits+",misses="+misses+",hitrate="+(permille/10)+"."+(permille%10)+"%";
+		}
+	}
+}
@@ -0,0 +1,193 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package org.safs.android.engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import com.robotium.solo.RCSolo;
+
+/**
+ * The cache of the top-level windows returned by {@link DGuiObjectRecognition#getTopLevelWindows()}.<br>
+ * Every search attempt asks for the top-level windows, and building them means listing all the opened Activities
+ * and finding their focused or decor Views. The list is kept until:
+ * <ul>
+ * <li>an Activity lifecycle callback of the {@link DSAFSTestRunner} calls {@link #invalidate()},
+ * <li>the focus moves in one of the windows, reported by its {@link ViewTreeObserver.OnGlobalFocusChangeListener},
+ * <li>the root Views listed by the WindowManager are not the same any more, a Dialog or PopupWindow was opened or closed,
+ * <li>or one of the cached windows is not shown any more.
+ * </ul>
+ * The WindowManager list is read by reflection, without visiting any view of the windows.<br>
+ *
+ * @see #setEnabled(boolean)
+ * @since  OCT 18, 2026 (agent)
+ */
+public class DGuiTopWindows {
+
+	private static final Object lock = new Object();
+	private static volatile boolean enabled = true;
+	private static volatile boolean dirty = true;
+
+	/* the cached windows, and the root Views of the WindowManager when they were built */
+	private static Object[] windows = null;
+	private static View[] decorViews = null;
+	/* the focus listeners registered on the cached windows */
+	private static ViewTreeObserver[] observers = null;
+
+	/* counts every invalidation, even while dirty, to detect those happening while the windows are built */
+	private static final AtomicLong generation = new AtomicLong();
+	private static final AtomicLong hits = new AtomicLong();
+	private static final AtomicLong builds = new AtomicLong();
+	private static final AtomicLong invalidations = new AtomicLong();
+
+	private static final ViewTreeObserver.OnGlobalFocusChangeListener listener = new ViewTreeObserver.OnGlobalFocusChangeListener(){
+		public void onGlobalFocusChanged(View oldFocus, View newFocus){
+			invalidate();
+		}
+	};
+
+	/** @param enable boolean, false to build the top-level windows on every call. true by default. */
+	public static void setEnabled(boolean enable){
+		enabled = enable;
+		if(!enable) clearCache();
+	}
+
+	public static boolean isEnabled(){
+		return enabled;
+	}
+
+	/** Discard the cached windows, they will be built again on the next call. */
+	public static void invalidate(){
+		generation.incrementAndGet();
+		if(!dirty){
+			dirty = true;
+			invalidations.incrementAndGet();
+		}
+	}
+
+	/**
+	 * @param currentViews View[], the root Views read by {@link RCSolo#getWindowDecorViews()}.
+	 * @return Object[], a copy of the cached windows; or null if they have to be built.
+	 */
+	static Object[] getCached(View[] currentViews){
+		if(!enabled || dirty) return null;
+		synchronized(lock){
+			if(dirty || windows == null || !sameViews(decorViews, currentViews)) return null;
+			for(int i=0;i<windows.length;i++){
+				if(!((View)windows[i]).isShown()) return null;
+			}
+			hits.incrementAndGet();
+			return windows.clone();
+		}
+	}
+
+	/** @return long, to pass to {@link #store(Object[], View[], long)}, read before building the windows. */
+	static long getGeneration(){
+		return generation.get();
+	}
+
+	/**
+	 * Keep the windows just built, until the next invalidation.
+	 * @param built Object[], the top-level windows.
+	 * @param builtViews View[], the root Views read by {@link RCSolo#getWindowDecorViews()} <b>before</b> building the windows.
+	 * @param builtGeneration long, the {@link #getGeneration()} read before building the windows.
+	 */
+	static void store(Object[] built, View[] builtViews, long builtGeneration){
+		builds.incrementAndGet();
+		if(!enabled || builtViews == null) return;
+		synchronized(lock){
+			release();
+			windows = built.clone();
+			decorViews = builtViews.clone();
+			observers = new ViewTreeObserver[windows.length];
+			for(int i=0;i<windows.length;i++) observe((View) windows[i], i);
+			// an invalidation while building makes the next call build again.
+			// dirty is cleared before the generation is checked: an invalidate() running meanwhile, 
+			// which does not take the lock, either sees dirty cleared or has changed the generation.
+			dirty = false;
+			if(builtGeneration != generation.get()) dirty = true;
+		}
+	}
+
+	private static boolean sameViews(View[] cached, View[] current){
+		if(current == null || cached.length != current.length) return false;
+		for(int i=0;i<cached.length;i++){
+			if(cached[i] != current[i]) return false;
+		}
+		return true;
+	}
+
+	/** Register the focus listener from the UI thread, the ViewTreeObserver is not thread safe. */
+	private static void observe(final View root, final int i){
+		final ViewTreeObserver[] registered = observers;
+		root.post(new Runnable(){
+			public void run(){
+				try{
+					ViewTreeObserver vto = root.getViewTreeObserver();
+					synchronized(lock){
+						// the windows have been built again meanwhile
+						if(registered != observers) return;
+						vto.addOnGlobalFocusChangeListener(listener);
+						registered[i] = vto;
+					}
+				}catch(Throwable ignore){}
+			}
+		});
+	}
+
+	/** Unregister the focus listeners of the cached windows. Called with the lock. */
+	private static void release(){
+		if(observers != null){
+			for(int i=0;i<observers.length;i++){
+				final ViewTreeObserver vto = observers[i];
+				if(vto == null) continue;
+				((View)windows[i]).post(new Runnable(){
+					public void run(){
+						try{ if(vto.isAlive()) vto.removeOnGlobalFocusChangeListener(listener); }catch(Throwable ignore){}
+					}
+				});
+			}
+		}
+		windows = null;
+		decorViews = null;
+		observers = null;
+	}
+
+	/** Discard the cached windows and unregister their listeners. */
+	public static void clearCache(){
+		synchronized(lock){
+			release();
+			invalidate();
+		}
+	}
+
+	/**
+	 * @return String, like "windows=2,hits=..,builds=..,invalidations=..,hitrate=xx.x%"
+	 */
+	public static String getStatistics(){
+		int size;
+		synchronized(lock){ size = windows == null ? 0 : windows.length; }
+		long h = hits.get();
+		long total = h + builds.get();
+		long permille = total == 0 ? 0 : (h * 1000) / total;
+		return "windows="+size+",hits="+h+",builds="+builds.get()+",invalidations="+invalidations.get()+
+		       ",hitrate="+(permille/10)+"."+(permille%10)+"%";
+	}
+}
@@ -0,0 +1,153 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package org.safs.android.engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Waits between the search attempts of {@link DGuiObjectVector} for the window or component to appear.<br>
+ * <p>
+ * The UI events are counted by {@link #signal()}: the global layouts of the observed windows, reported by
+ * {@link ViewTreeIndex#watch(Object)}, and the Activity lifecycle callbacks of {@link DSAFSTestRunner}.
+ * Strategies:
+ * <ul>
+ * <li>{@link #WAIT_POLL}: wait the poll interval between attempts.
+ * <li>{@link #WAIT_BACKOFF}: wait {@link #DEFAULT_MIN_MILLIS} after the first miss, then twice longer after each miss, 
+ *                            up to the poll interval.
+ * <li>{@link #WAIT_EVENT}: wake up on the first UI event, but not before {@link #DEFAULT_MIN_MILLIS} since the last 
+ *                          attempt; without event, wait like {@link #WAIT_BACKOFF}. This is the default.
+ * </ul>
+ * A waiter is created for each search, the events are shared by all.<br>
+ *
+ * @see DGuiObjectVector#WAIT_STRATEGY
+ * @since  OCT 18, 2026 (agent)
+ */
+public class DGuiWaiter {
+
+	public static final int WAIT_POLL    = 0;
+	public static final int WAIT_BACKOFF = 1;
+	public static final int WAIT_EVENT   = 2;
+
+	/** "POLL", "BACKOFF", "EVENT", indexed by strategy. */
+	public static final String[] STRATEGY_NAMES = {"POLL", "BACKOFF", "EVENT"};
+
+	/** 1000 milliseconds, the fixed interval of the original search loops. */
+	public static final long DEFAULT_POLL_MILLIS = 1000;
+	/** 50 milliseconds between two attempts at least, except with {@link #WAIT_POLL}. */
+	public static final long DEFAULT_MIN_MILLIS = 50;
+
+	private static final Object lock = new Object();
+	private static long generation = 0;
+
+	private static final AtomicLong events = new AtomicLong();
+	private static final AtomicLong waits = new AtomicLong();
+	private static final AtomicLong wakeups = new AtomicLong();
+
+	private final int strategy;
+	private final long pollMillis;
+	private final long minMillis;
+	private long delay;
+	private long seen;
+
+	/**
+	 * @param strategy int, {@link #WAIT_POLL}, {@link #WAIT_BACKOFF} or {@link #WAIT_EVENT}.
+	 * @param pollMillis long, the poll interval, the longest wait between two attempts.
+	 */
+	public DGuiWaiter(int strategy, long pollMillis){
+		this.strategy = (strategy < WAIT_POLL || strategy > WAIT_EVENT) ? WAIT_EVENT : strategy;
+		this.pollMillis = pollMillis < 1 ? 1 : pollMillis;
+		minMillis = Math.min(DEFAULT_MIN_MILLIS, this.pollMillis);
+		delay = this.strategy == WAIT_POLL ? this.pollMillis : minMillis;
+		synchronized(lock){ seen = generation; }
+	}
+
+	/** Count a UI event, and wake up the waiters using {@link #WAIT_EVENT}. */
+	public static void signal(){
+		events.incrementAndGet();
+		synchronized(lock){
+			generation++;
+			lock.notifyAll();
+		}
+	}
+
+	/**
+	 * Wait before the next search attempt, according to the strategy.
+	 * @param endtime long, the time in milliseconds after which there will be no more attempt,
+	 *                the wait does not go beyond it.
+	 * @return boolean, true if woken up by a UI event.
+	 */
+	public boolean await(long endtime){
+		waits.incrementAndGet();
+		long now = System.currentTimeMillis();
+		long timeout = Math.min(now + delay, endtime);
+		long earliest = Math.min(now + minMillis, endtime);
+		boolean woken = false;
+		synchronized(lock){
+			try{
+				while(now < timeout){
+					if(strategy == WAIT_EVENT && generation != seen){
+						if(now >= earliest){
+							woken = true;
+							break;
+						}
+						lock.wait(earliest - now);
+					}else{
+						lock.wait(timeout - now);
+					}
+					now = System.currentTimeMillis();
+				}
+			}catch(InterruptedException x){
+				Thread.currentThread().interrupt();
+			}
+			seen = generation;
+		}
+		if(woken){
+			wakeups.incrementAndGet();
+			// the UI is changing, look again soon
+			delay = minMillis;
+		}else if(strategy != WAIT_POLL){
+			delay = Math.min(delay * 2, pollMillis);
+		}
+		return woken;
+	}
+
+	public int getStrategy(){
+		return strategy;
+	}
+
+	/**
+	 * @param name String, one of {@link #STRATEGY_NAMES}, case-insensitive.
+	 * @return int, the strategy, or -1 if the name is unknown.
+	 */
+	public static int parseStrategy(String name){
+		if(name != null){
+			name = name.trim();
+			for(int i=0;i<STRATEGY_NAMES.length;i++){
+				if(STRATEGY_NAMES[i].equalsIgnoreCase(name)) return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return String, like "events=..,waits=..,wakeups=.."
+	 */
+	public static String getStatistics(){
+		return "events="+events.get()+",waits="+waits.get()+",wakeups="+wakeups.get();
+	}
+}
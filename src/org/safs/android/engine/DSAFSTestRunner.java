@@ -24,7 +24,8 @@ import org.safs.android.engine.processor.*;
 import org.safs.android.remotecontrol.SAFSMessage;
 import org.safs.android.engine.R;
 
-import android.util.Log;
+import android.app.Activity;
+import android.os.Bundle;
 
 import com.jayway.android.robotium.remotecontrol.client.RobotiumTestRunner;
 
@@ -32,6 +33,9 @@ import com.jayway.android.robotium.remotecontrol.client.RobotiumTestRunner;
  * @author Carl Nagle, SAS Institute, Inc.
  * <p>
  * FEB 07, 2013 (LeiWang)	Override method {@link #beforeStart()} to initialize DGuiClassData.<br>
+ * OCT 18, 2026 (agent)	Send debug messages in batches through the asynchronous DebugChannel.<br>
+ * OCT 18, 2026 (agent)	Signal the Activity lifecycle callbacks to the DGuiWaiters of the searches.<br>
+ * OCT 18, 2026 (agent)	Invalidate the cached top-level windows on the Activity lifecycle callbacks.<br>
  */
 public class DSAFSTestRunner extends RobotiumTestRunner {
 
@@ -147,16 +151,52 @@ public class DSAFSTestRunner extends RobotiumTestRunner {
 	}
 	
 	/**
-	 * Send a debug message to our remote TCP client (if enabled).
-	 * If our messageRunner is null, or did not successfully send the message, 
+	 * The Activity lifecycle callbacks invalidate the cached top-level windows, and 
+	 * wake up the searches waiting for a window or component.
+	 * @see DGuiTopWindows#invalidate()
+	 * @see DGuiWaiter#signal()
+	 */
+	@Override
+	public void callActivityOnCreate(Activity activity, Bundle icicle){
+		super.callActivityOnCreate(activity, icicle);
+		DGuiTopWindows.invalidate();
+		DGuiWaiter.signal();
+	}
+	
+	/** @see DGuiWaiter#signal() */
+	@Override
+	public void callActivityOnResume(Activity activity){
+		super.callActivityOnResume(activity);
+		DGuiTopWindows.invalidate();
+		DGuiWaiter.signal();
+	}
+	
+	/** @see DGuiWaiter#signal() */
+	@Override
+	public void callActivityOnPause(Activity activity){
+		super.callActivityOnPause(activity);
+		DGuiTopWindows.invalidate();
+		DGuiWaiter.signal();
+	}
+	
+	/** @see DGuiWaiter#signal() */
+	@Override
+	public void callActivityOnDestroy(Activity activity){
+		super.callActivityOnDestroy(activity);
+		DGuiTopWindows.invalidate();
+		DGuiWaiter.signal();
+	}
+	
+	/**
+	 * Send a batch of debug messages to our remote TCP client in one message.
+	 * If our messageRunner is null, or did not successfully send the batch, 
 	 * then we will send to the Android debug Log.d.
+	 * @see #debug(int, String)
 	 */
 	@Override
-	public void debug(String message){
-		if(isDebugEnabled()){
-			try{ if(messageRunner.sendDebug(message)) return;}
-			catch(Exception x){} 
-			Log.d(TAG, message);  		
-		}
+	protected void sendDebugBatch(String batch){
+		try{ if(messageRunner.sendDebug(batch)) return;}
+		catch(Exception x){} 
+		logBatch(TAG, batch);
 	}
 }
@@ -0,0 +1,157 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package org.safs.android.engine;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.jayway.android.robotium.remotecontrol.client.CommandMetrics;
+
+/**
+ * The resolved reflective accessor of a property for one class: a public field, and/or a no-arg accessor method.<br>
+ * Accessors are resolved once per (Class, property name) and cached, including the negative result
+ * when the class has neither field nor method for the property. So the repeated reads of
+ * VerifyProperty or CapturePropertiesToFile do not pay for the failed getField/getMethod lookups
+ * and their exceptions any more. setAccessible is called only while resolving.<br>
+ *
+ * @see DGuiObjectRecognition#getPropertyByReflection(Object, String, boolean)
+ * @since  OCT 18, 2026 (agent)
+ */
+public class PropertyAccessor {
+
+	/** The cached accessors, [0] for the public members including super classes, [1] for the declared members. */
+	@SuppressWarnings("unchecked")
+	private static final ConcurrentHashMap<Class<?>, ConcurrentHashMap<String, PropertyAccessor>>[] cache = new ConcurrentHashMap[]{
+		new ConcurrentHashMap<Class<?>, ConcurrentHashMap<String, PropertyAccessor>>(),
+		new ConcurrentHashMap<Class<?>, ConcurrentHashMap<String, PropertyAccessor>>()
+	};
+	private static final AtomicLong hits = new AtomicLong();
+	private static final AtomicLong misses = new AtomicLong();
+
+	private final Field field;
+	private final Method method;
+
+	private PropertyAccessor(Field field, Method method){
+		this.field = field;
+		this.method = method;
+	}
+
+	/** @return boolean, false if the class has neither field nor accessor method for the property. */
+	public boolean exists(){
+		return field!=null || method!=null;
+	}
+
+	public Field getField(){
+		return field;
+	}
+
+	public Method getMethod(){
+		return method;
+	}
+
+	/**
+	 * Read the property from the field, or from the accessor method if there is no field or it cannot be read.
+	 * @param obj Object, an instance of the class this accessor was resolved for.
+	 * @return Object, the value of the property.
+	 * @throws NoSuchFieldException if the property does not {@link #exists()}.
+	 * @throws Exception if the field and the method both fail.
+	 */
+	public Object read(Object obj) throws Exception{
+		CommandMetrics.countReflection();
+		Exception failure = null;
+		if(field!=null){
+			try{ return field.get(obj); }
+			catch(Exception x){ failure = x; }
+		}
+		if(method!=null) return method.invoke(obj, new Object[0]);
+		if(failure!=null) throw failure;
+		throw new NoSuchFieldException(String.valueOf(obj==null? null:obj.getClass().getName()));
+	}
+
+	/**
+	 * @return PropertyAccessor, the cached accessor; or null if it has not been resolved yet.
+	 * @see #resolve(Class, String, boolean, List)
+	 */
+	public static PropertyAccessor getCached(Class<?> clazz, String property, boolean includingSuperClass){
+		ConcurrentHashMap<String, PropertyAccessor> accessors = cache[includingSuperClass ? 0:1].get(clazz);
+		PropertyAccessor accessor = accessors==null ? null:accessors.get(property);
+		if(accessor!=null) hits.incrementAndGet();
+		return accessor;
+	}
+
+	/**
+	 * Resolve and cache the accessor of a property.
+	 * @param clazz Class, the class of the objects to read.
+	 * @param property String, the property name, tried as a field name.
+	 * @param includingSuperClass boolean, true to look for public members including those of the super classes,
+	 *                                     false to look for the members declared by the class itself.
+	 * @param methodNames List, the possible names of the no-arg accessor method, tried in order.
+	 * @return PropertyAccessor, never null. It does not {@link #exists()} if nothing was found.
+	 * @see DGuiObjectRecognition#getPossiblePropertyAccessorMethodsName(String)
+	 */
+	public static PropertyAccessor resolve(Class<?> clazz, String property, boolean includingSuperClass, List<String> methodNames){
+		misses.incrementAndGet();
+		CommandMetrics.countReflection();
+		Field field = null;
+		Method method = null;
+		try {
+			field = includingSuperClass ? clazz.getField(property) : clazz.getDeclaredField(property);
+			setAccessible(field);
+		} catch (Exception ignore) {}
+		for(int i=0;method==null && methodNames!=null && i<methodNames.size();i++){
+			try{
+				method = includingSuperClass ? clazz.getMethod(methodNames.get(i), new Class[0]) :
+					                           clazz.getDeclaredMethod(methodNames.get(i), new Class[0]);
+				setAccessible(method);
+			} catch (Exception ignore) {}
+		}
+		PropertyAccessor accessor = new PropertyAccessor(field, method);
+
+		ConcurrentHashMap<Class<?>, ConcurrentHashMap<String, PropertyAccessor>> classes = cache[includingSuperClass ? 0:1];
+		ConcurrentHashMap<String, PropertyAccessor> accessors = classes.get(clazz);
+		if(accessors==null){
+			accessors = new ConcurrentHashMap<String, PropertyAccessor>();
+			ConcurrentHashMap<String, PropertyAccessor> previous = classes.putIfAbsent(clazz, accessors);
+			if(previous!=null) accessors = previous;
+		}
+		accessors.put(property, accessor);
+		return accessor;
+	}
+
+	/** Public members of non-public classes cannot be invoked without it. */
+	private static void setAccessible(AccessibleObject member){
+		try{ member.setAccessible(true); }catch(SecurityException ignore){}
+	}
+
+	/** Discard all the cached accessors. */
+	public static void clearCache(){
+		cache[0].clear();
+		cache[1].clear();
+	}
+
+	/**
+	 * @return String, the counters of the accessor cache like "hits=5230,misses=40".
+	 */
+	public static String getStatistics(){
+		return "hits="+hits.get()+",misses="+misses.get();
+	}
+}
@@ -0,0 +1,523 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package org.safs.android.engine;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewTreeObserver;
+import android.widget.AdapterView;
+
+import com.jayway.android.robotium.remotecontrol.client.CommandMetrics;
+
+/**
+ * A snapshot of the view tree of one window, used by {@link DGuiObjectVector#searchChildren(Object, DGuiObjectDefinition)}
+ * to answer the common qualifiers "ID=", "Name=", "Text=", "Class=" and "Type=" by hash lookup, instead of walking
+ * and interrogating the whole live view tree for every component command.<br>
+ * <p>
+ * The nodes are stored in the depth-first pre-order of {@link DGuiObjectRecognition#getChildren(Object)}, with the
+ * class, mapped type and id of each node. The name and text are only read, for all the nodes, by the first search
+ * using "Name=" or "Text=" on a snapshot. The candidates of a lookup are returned in the order the recursive search
+ * would meet them, and the caller still verifies them with {@link DGuiObjectDefinition#isMatchingObject(Object, DGuiObjectIndices)}.<br>
+ * <p>
+ * The snapshot is rebuilt on the next lookup after a global layout of the window, reported by its
+ * {@link ViewTreeObserver.OnGlobalLayoutListener}, when a layout is pending, or when it is older than {@link #getMaxAge()}.<br>
+ * The children of an AdapterView showing only part of its items are not indexed, the adapter has to be asked for them.
+ * Lookups reaching such an AdapterView, or searching a name or text which can change without a layout, are not
+ * {@link Lookup#complete}: if no candidate matches, the caller must search the live tree.<br>
+ * <p>
+ * The global layouts also wake up the {@link DGuiWaiter}s of the searches, see {@link #watch(Object)}.<br>
+ *
+ * @see DGuiObjectVector#USE_VIEWTREE_INDEX
+ * @since  OCT 18, 2026 (agent)
+ */
+public class ViewTreeIndex {
+
+	/** 1000 milliseconds */
+	public static final long DEFAULT_MAX_AGE_MILLIS = 1000;
+
+	/** The qualifiers which can be looked up, in order of preference. */
+	private static final int[] KEY_QUALIFIERS = {
+		DGuiObjectDefinition.IDID,
+		DGuiObjectDefinition.NAMEID,
+		DGuiObjectDefinition.TEXTID,
+		DGuiObjectDefinition.CLASSID,
+		DGuiObjectDefinition.TYPEID
+	};
+
+	private static final Object[] NO_CANDIDATES = new Object[0];
+	private static final View[] NO_VIEWS = new View[0];
+
+	/** The indexes of the attached windows, by root View. */
+	private static final HashMap<View, ViewTreeIndex> indexes = new HashMap<View, ViewTreeIndex>();
+	private static volatile long maxAgeMillis = DEFAULT_MAX_AGE_MILLIS;
+
+	private static final AtomicLong lookups = new AtomicLong();
+	private static final AtomicLong unanswered = new AtomicLong();
+	private static final AtomicLong incomplete = new AtomicLong();
+	private static final AtomicLong builds = new AtomicLong();
+	private static final AtomicLong invalidations = new AtomicLong();
+
+	/** The result of {@link ViewTreeIndex#lookup(Object, DGuiObjectDefinition)}. */
+	public static final class Lookup{
+		/** The indexed descendants having the key qualifier, in the order of the recursive search. */
+		public final Object[] candidates;
+		/** true if no other descendant can match when none of the candidates does. */
+		public final boolean complete;
+
+		Lookup(Object[] candidates, boolean complete){
+			this.candidates = candidates;
+			this.complete = complete;
+		}
+	}
+
+	private final View root;
+	private final ViewTreeObserver.OnGlobalLayoutListener listener = new ViewTreeObserver.OnGlobalLayoutListener(){
+		public void onGlobalLayout(){
+			DGuiWaiter.signal();
+			if(!dirty){
+				dirty = true;
+				invalidations.incrementAndGet();
+			}
+		}
+	};
+	private volatile ViewTreeObserver observer = null;
+	private volatile boolean registering = false;
+	private volatile boolean dirty = true;
+	private long builtTime = 0;
+
+	/* The snapshot, in pre-order. ends[i] is the position after the last descendant of node i. */
+	private int size = 0;
+	private View[] views = null;
+	private int[] ends = null;
+	private boolean[] opaque = null;
+	private String[] classes = null;
+	private String[] types = null;
+	private int[] ids = null;
+	private IdentityHashMap<View, Integer> positions = null;
+	private IntList opaques = null;
+	private HashMap<Integer, IntList> byId = null;
+	private HashMap<String, IntList> byClass = null;
+	private HashMap<String, IntList> byType = null;
+	private HashMap<String, IntList> byName = null;
+	private HashMap<String, IntList> byText = null;
+
+	private ViewTreeIndex(View root){
+		this.root = root;
+	}
+
+	/**
+	 * @param view Object, a View attached to a window.
+	 * @return ViewTreeIndex, the index of the window of the view; or null if the view is not an attached View.
+	 */
+	public static ViewTreeIndex getIndex(Object view){
+		if(!(view instanceof View)) return null;
+		View root = ((View)view).getRootView();
+		if(root == null || root.getWindowToken() == null) return null;
+		synchronized(indexes){
+			Iterator<Map.Entry<View, ViewTreeIndex>> entries = indexes.entrySet().iterator();
+			while(entries.hasNext()){
+				Map.Entry<View, ViewTreeIndex> entry = entries.next();
+				if(entry.getKey().getWindowToken() == null){
+					entry.getValue().release();
+					entries.remove();
+				}
+			}
+			ViewTreeIndex index = indexes.get(root);
+			if(index == null){
+				index = new ViewTreeIndex(root);
+				indexes.put(root, index);
+			}
+			return index;
+		}
+	}
+
+	/**
+	 * Observe the global layouts of the window of the view, they are signaled to the {@link DGuiWaiter}s.
+	 * @param view Object, a View attached to a window, ignored otherwise.
+	 */
+	public static void watch(Object view){
+		ViewTreeIndex index = getIndex(view);
+		if(index == null) return;
+		ViewTreeObserver vto = index.observer;
+		if(vto == null || !vto.isAlive()) index.observe();
+	}
+
+	/**
+	 * @param testdef DGuiObjectDefinition, the first level of a recognition path.
+	 * @return true if no level of the path uses a qualifier counting the nodes met by the recursive
+	 * search, like "Index=", which cannot be answered from the snapshot.
+	 */
+	public static boolean isIndexable(DGuiObjectDefinition testdef){
+		for(DGuiObjectDefinition def = testdef; def != null; def = def.child){
+			if(def.qualType == null) return false;
+			for(int i=0;i<def.qualType.length;i++){
+				switch(def.qualType[i]){
+					case DGuiObjectDefinition.INDEXID:
+					case DGuiObjectDefinition.CLASSINDEXID:
+					case DGuiObjectDefinition.SUBCLASSINDEXID:
+					case DGuiObjectDefinition.OBJECTINDEXID:
+					case DGuiObjectDefinition.ABSCLASSINDEXID:
+					case DGuiObjectDefinition.ABSINDEXID:
+					case DGuiObjectDefinition.ABSOBJECTINDEXID:
+					case DGuiObjectDefinition.ABSSUBCLASSINDEXID:
+						return false;
+					default:
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Find the descendants of parent having the value of one qualifier of testdef: the first of
+	 * "ID=", "Name=", "Text=", "Class=" or "Type=" it uses.
+	 * @param parent Object, the View whose descendants are searched, not itself.
+	 * @param testdef DGuiObjectDefinition, the definition to match.
+	 * @return Lookup, the candidates to verify; or null if the snapshot cannot answer, because
+	 * it cannot be built, the parent is not in it, or testdef has none of the indexed qualifiers.
+	 */
+	public synchronized Lookup lookup(Object parent, DGuiObjectDefinition testdef){
+		lookups.incrementAndGet();
+		Lookup result = null;
+		try{ result = find(parent, testdef); }
+		catch(RuntimeException x){
+			/* the tree changed while reading it */
+			dirty = true;
+		}
+		if(result == null) unanswered.incrementAndGet();
+		else if(!result.complete) incomplete.incrementAndGet();
+		return result;
+	}
+
+	private Lookup find(Object parent, DGuiObjectDefinition testdef){
+		int key = -1;
+		for(int k=0;key < 0 && k<KEY_QUALIFIERS.length;k++){
+			for(int i=0;key < 0 && i<testdef.qualType.length;i++){
+				if(testdef.qualType[i] == KEY_QUALIFIERS[k]) key = i;
+			}
+		}
+		if(key < 0) return null;
+		if(!ensureSnapshot()) return null;
+		Integer at = positions.get(parent);
+		if(at == null || opaque[at.intValue()]) return null;
+
+		int start = at.intValue()+1;
+		int end = ends[at.intValue()];
+		boolean complete = true;
+		int first = opaques.indexFrom(start);
+		if(first < opaques.size() && opaques.get(first) < end){
+			// the opaque AdapterView itself is met before its children
+			end = opaques.get(first)+1;
+			complete = false;
+		}
+
+		String value = testdef.qualValue[key];
+		IntList found = null;
+		switch(testdef.qualType[key]){
+			case DGuiObjectDefinition.IDID:
+				try{ found = byId.get(Integer.valueOf(Integer.parseInt(value))); }
+				catch(NumberFormatException x){ return new Lookup(NO_CANDIDATES, true); }
+				break;
+			case DGuiObjectDefinition.NAMEID:
+				if(byName == null) byName = indexNames();
+				found = byName.get(value);
+				complete = false;
+				break;
+			case DGuiObjectDefinition.TEXTID:
+				if(byText == null) byText = indexTexts();
+				found = byText.get(value);
+				complete = false;
+				break;
+			case DGuiObjectDefinition.CLASSID:
+				found = byClass.get(value);
+				break;
+			default:
+				if(byType == null) return null;
+				found = byType.get(value == null ? null:value.toLowerCase());
+		}
+		if(found == null) return new Lookup(NO_CANDIDATES, complete);
+
+		int from = found.indexFrom(start);
+		int to = found.indexFrom(end);
+		Object[] candidates = new Object[to-from];
+		for(int i=from;i<to;i++) candidates[i-from] = views[found.get(i)];
+		return new Lookup(candidates, complete);
+	}
+
+	/** @return true if the snapshot is up to date, or has been rebuilt. */
+	private boolean ensureSnapshot(){
+		if(root.getWindowToken() == null) return false;
+		ViewTreeObserver vto = observer;
+		boolean observed = vto != null && vto.isAlive();
+		long now = System.currentTimeMillis();
+		if(views != null && !dirty && observed && !root.isLayoutRequested() && now - builtTime <= maxAgeMillis) return true;
+		if(!observed) observe();
+		// cleared before reading the tree, a layout during the build makes it dirty again
+		dirty = false;
+		try{
+			build();
+			builtTime = now;
+			builds.incrementAndGet();
+			return true;
+		}catch(RuntimeException x){
+			clearSnapshot();
+			dirty = true;
+			return false;
+		}
+	}
+
+	/** Register the layout listener from the UI thread, the ViewTreeObserver is not thread safe. */
+	private synchronized void observe(){
+		if(registering) return;
+		registering = true;
+		boolean posted = root.post(new Runnable(){
+			public void run(){
+				try{
+					ViewTreeObserver vto = root.getViewTreeObserver();
+					vto.addOnGlobalLayoutListener(listener);
+					observer = vto;
+				}catch(Throwable ignore){}
+				finally{ registering = false; }
+			}
+		});
+		if(!posted) registering = false;
+	}
+
+	/** Unregister the layout listener and drop the snapshot. */
+	private synchronized void release(){
+		final ViewTreeObserver vto = observer;
+		observer = null;
+		if(vto != null){
+			root.post(new Runnable(){
+				public void run(){
+					try{ if(vto.isAlive()) vto.removeGlobalOnLayoutListener(listener); }catch(Throwable ignore){}
+				}
+			});
+		}
+		clearSnapshot();
+	}
+
+	private void clearSnapshot(){
+		size = 0;
+		views = null;
+		ends = null;
+		opaque = null;
+		classes = null;
+		types = null;
+		ids = null;
+		positions = null;
+		opaques = null;
+		byId = null;
+		byClass = null;
+		byType = null;
+		byName = null;
+		byText = null;
+	}
+
+	private void build(){
+		clearSnapshot();
+		views = new View[64];
+		ends = new int[64];
+		opaque = new boolean[64];
+		opaques = new IntList();
+		add(root);
+		CommandMetrics.countNodes(size);
+
+		DGuiClassData gcd = DGuiObjectDefinition.getGuiClassData();
+		classes = new String[size];
+		types = new String[size];
+		ids = new int[size];
+		positions = new IdentityHashMap<View, Integer>(size*2);
+		byId = new HashMap<Integer, IntList>();
+		byClass = new HashMap<String, IntList>();
+		byType = gcd == null ? null:new HashMap<String, IntList>();
+		for(int i=0;i<size;i++){
+			View view = views[i];
+			Integer position = Integer.valueOf(i);
+			positions.put(view, position);
+			classes[i] = view.getClass().getName();
+			put(byClass, classes[i], i);
+			ids[i] = view.getId();
+			if(ids[i] != View.NO_ID) put(byId, Integer.valueOf(ids[i]), i);
+			if(byType != null){
+				types[i] = gcd.getObjectClassType(view);
+				if(types[i] != null) put(byType, types[i].toLowerCase(), i);
+			}
+		}
+	}
+
+	/** Append the view and its descendants in pre-order. */
+	private void add(View view){
+		int position = size;
+		if(size == views.length){
+			int capacity = size*2;
+			View[] v = new View[capacity];
+			System.arraycopy(views, 0, v, 0, size);
+			views = v;
+			int[] e = new int[capacity];
+			System.arraycopy(ends, 0, e, 0, size);
+			ends = e;
+			boolean[] o = new boolean[capacity];
+			System.arraycopy(opaque, 0, o, 0, size);
+			opaque = o;
+		}
+		views[size++] = view;
+		View[] children = getIndexedChildren(view);
+		if(children == null){
+			opaque[position] = true;
+			opaques.add(position);
+		}else{
+			for(int i=0;i<children.length;i++){
+				if(children[i] != null) add(children[i]);
+			}
+		}
+		ends[position] = size;
+	}
+
+	/**
+	 * The children the recursive search would get from {@link DGuiObjectRecognition#getChildren(Object)},
+	 * when they are all on screen.
+	 * @return View[], the children; or null for an AdapterView whose adapter would be asked for offscreen items.
+	 */
+	private static View[] getIndexedChildren(View view){
+		if(view instanceof AdapterView){
+			AdapterView<?> adapterView = (AdapterView<?>) view;
+			int childCount = adapterView.getChildCount();
+			// DGuiObjectRecognition.hasChildren is false, the search does not go into it
+			if(childCount == 0) return NO_VIEWS;
+			int count = adapterView.getCount();
+			if(adapterView.getFirstVisiblePosition() != 0 ||
+			   adapterView.getLastVisiblePosition() != count-1 ||
+			   childCount < count) return null;
+			View[] children = new View[count];
+			for(int i=0;i<count;i++) children[i] = adapterView.getChildAt(i);
+			return children;
+		}
+		if(view instanceof ViewGroup){
+			ViewGroup group = (ViewGroup) view;
+			View[] children = new View[group.getChildCount()];
+			for(int i=0;i<children.length;i++) children[i] = group.getChildAt(i);
+			return children;
+		}
+		return NO_VIEWS;
+	}
+
+	private HashMap<String, IntList> indexNames(){
+		HashMap<String, IntList> names = new HashMap<String, IntList>();
+		for(int i=0;i<size;i++){
+			String name = null;
+			try{ name = DGuiObjectRecognition.getObjectName(views[i]); }catch(Exception ignore){}
+			if(name != null) put(names, name, i);
+		}
+		return names;
+	}
+
+	private HashMap<String, IntList> indexTexts(){
+		HashMap<String, IntList> texts = new HashMap<String, IntList>();
+		for(int i=0;i<size;i++){
+			String text = null;
+			try{ text = DGuiObjectRecognition.getObjectText(views[i]); }catch(Exception ignore){}
+			if(text != null) put(texts, text, i);
+		}
+		return texts;
+	}
+
+	private static <K> void put(HashMap<K, IntList> index, K key, int position){
+		IntList list = index.get(key);
+		if(list == null){
+			list = new IntList();
+			index.put(key, list);
+		}
+		list.add(position);
+	}
+
+	/** @return int, the number of Views in the current snapshot, 0 if there is none. */
+	public synchronized int getSize(){
+		return size;
+	}
+
+	/** The snapshot is rebuilt by the next lookup. */
+	public void invalidate(){
+		dirty = true;
+	}
+
+	/** @param millis long, the age after which a snapshot is rebuilt even without a layout of the window. */
+	public static void setMaxAge(long millis){
+		maxAgeMillis = millis < 0 ? 0:millis;
+	}
+	public static long getMaxAge(){
+		return maxAgeMillis;
+	}
+
+	/** Drop the indexes of all the windows. */
+	public static void clearIndexes(){
+		synchronized(indexes){
+			Iterator<ViewTreeIndex> values = indexes.values().iterator();
+			while(values.hasNext()) values.next().release();
+			indexes.clear();
+		}
+	}
+
+	/**
+	 * @return String, like "windows=1,lookups=..,unanswered=..,incomplete=..,builds=..,invalidations=.."
+	 */
+	public static String getStatistics(){
+		int windows;
+		synchronized(indexes){ windows = indexes.size(); }
+		return "windows="+windows+",lookups="+lookups.get()+",unanswered="+unanswered.get()+
+		       ",incomplete="+incomplete.get()+",builds="+builds.get()+",invalidations="+invalidations.get();
+	}
+
+	/** Ascending positions of the nodes having one key. */
+	private static final class IntList{
+		private int[] items = new int[4];
+		private int size = 0;
+
+		void add(int item){
+			if(size == items.length){
+				int[] grown = new int[size*2];
+				System.arraycopy(items, 0, grown, 0, size);
+				items = grown;
+			}
+			items[size++] = item;
+		}
+		int get(int i){
+			return items[i];
+		}
+		int size(){
+			return size;
+		}
+		/** @return int, the index of the first item not less than value, size() if there is none. */
+		int indexFrom(int value){
+			int low = 0;
+			int high = size;
+			while(low < high){
+				int mid = (low+high) >>> 1;
+				if(items[mid] < value) low = mid+1;
+				else high = mid;
+			}
+			return low;
+		}
+	}
+}
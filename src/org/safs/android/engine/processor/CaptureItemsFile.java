@@ -0,0 +1,118 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package org.safs.android.engine.processor;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
+
+import org.safs.android.engine.DGuiObjectRecognition;
+
+import android.os.Environment;
+import android.view.View;
+import android.widget.Adapter;
+import android.widget.AdapterView;
+import android.widget.TextView;
+
+/**
+ * Streaming CaptureItemsToFile of ListView and ComboBox: the items are written one per line into a file 
+ * on the device, as they are read from the adapter, instead of being returned in one String.<br>
+ * <p>
+ * Only one item View per view type is alive at a time, it is given back to the adapter as convertView, 
+ * and the file is written through a fixed buffer: the memory used does not depend on the number of items.<br>
+ * The file is written in the folder {@link #CAPTURE_FOLDER} of the external storage, like the Robotium screenshots.
+ * The device path of the file is returned in place of the items, the controller pulls the file.<br>
+ *
+ * @see SAFSProcessor#KEY_CAPTUREMODE
+ * @since  OCT 18, 2026 (agent)
+ */
+public class CaptureItemsFile {
+
+	/** "devicefile", the value of {@link SAFSProcessor#KEY_CAPTUREMODE} asking for the streaming capture. */
+	public static final String MODE_DEVICEFILE = "devicefile";
+	/** "SAFS-Captures", the folder of the capture files in the external storage. */
+	public static final String CAPTURE_FOLDER = "SAFS-Captures";
+	/** "UTF-8", the encoding used when none is given. */
+	public static final String DEFAULT_ENCODING = "UTF-8";
+
+	private static final int BUFFER_SIZE = 8192;
+
+	/** @return boolean, true if the capture mode property asks for the streaming capture. */
+	public static boolean isDeviceFileMode(String mode){
+		return mode != null && MODE_DEVICEFILE.equalsIgnoreCase(mode.trim());
+	}
+
+	/**
+	 * @param filename String, the file name given to CaptureItemsToFile, only its last part is used.
+	 * @return File, the file of that name in the {@link #CAPTURE_FOLDER}, the folder is created if needed.
+	 */
+	public static File getCaptureFile(String filename){
+		File directory = new File(Environment.getExternalStorageDirectory(), CAPTURE_FOLDER);
+		if(!directory.isDirectory()) directory.mkdirs();
+		return new File(directory, new File(filename).getName());
+	}
+
+	/**
+	 * @param encoding String, the encoding given to CaptureItemsToFile, can be null or empty.
+	 * @return String, the encoding to write with, {@link #DEFAULT_ENCODING} if none is given.
+	 * @throws UnsupportedEncodingException if the encoding is not supported on the device.
+	 */
+	public static String getEncoding(String encoding) throws UnsupportedEncodingException{
+		if(encoding == null || encoding.trim().length() == 0) return DEFAULT_ENCODING;
+		String name = encoding.trim();
+		try{ if(Charset.isSupported(name)) return name; }catch(IllegalArgumentException ignore){}
+		throw new UnsupportedEncodingException(name);
+	}
+
+	/**
+	 * Write the text of each item of the AdapterView, as DGuiObjectRecognition.getObjectText gives it, one per line.
+	 * @param view AdapterView, the ListView or Spinner.
+	 * @param file File, the file to write, replaced if it exists.
+	 * @param encoding String, the encoding, see {@link #getEncoding(String)}.
+	 * @param textViewsOnly boolean, true to write only the items shown by a TextView, as the ComboBox capture does.
+	 * @return int, the number of items written.
+	 * @throws IOException if the file cannot be written.
+	 */
+	public static int write(AdapterView<?> view, File file, String encoding, boolean textViewsOnly) throws IOException{
+		Adapter adapter = view.getAdapter();
+		BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), getEncoding(encoding)), BUFFER_SIZE);
+		int written = 0;
+		try{
+			int count = adapter == null ? 0 : adapter.getCount();
+			View[] convertViews = new View[adapter == null ? 1 : Math.max(1, adapter.getViewTypeCount())];
+			for(int i=0;i<count;i++){
+				int type = adapter.getItemViewType(i);
+				boolean reusable = type >= 0 && type < convertViews.length;
+				View child = adapter.getView(i, reusable ? convertViews[type] : null, view);
+				if(reusable) convertViews[type] = child;
+				if(child == null || (textViewsOnly && !(child instanceof TextView))) continue;
+				String text = DGuiObjectRecognition.getObjectText(child);
+				writer.write(text == null ? "" : text);
+				writer.newLine();
+				written++;
+			}
+		}finally{
+			writer.close();
+		}
+		return written;
+	}
+}
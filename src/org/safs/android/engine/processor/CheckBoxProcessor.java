@@ -24,6 +24,8 @@ import org.safs.android.remotecontrol.SAFSMessage;
 
 import android.widget.CheckBox;
 
+import com.jayway.android.robotium.remotecontrol.client.processor.CommandHandler;
+
 /**
  * 
  * @author Carl Nagle, SAS Institute, Inc
@@ -36,10 +38,29 @@ public class CheckBoxProcessor extends  TestStepProcessor{
 		super(testrunner);
 	}
 
+	/**
+	 * Register the handlers of the CheckBox commands.
+	 * @see com.jayway.android.robotium.remotecontrol.client.processor.AbstractProcessor#registerCommandHandlers()
+	 */
+	protected void registerCommandHandlers(){
+		super.registerCommandHandlers();
+		
+		registerCommandHandler(SAFSMessage.cf_comprouting_check, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _setCheckCommands(props, true); }
+		});
+		registerCommandHandler(SAFSMessage.cf_comprouting_uncheck, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _setCheckCommands(props, false); }
+		});
+	}
+	
 	public void processComponentFunction(Properties props) {
 		String dbPrefix = debugPrefix +".processComponentFunction(): ";
-		boolean success = false;
 		
+		if(!isCommandSupported(remoteCommand)){
+			// not handled here, maybe in a chained ViewProcessor?
+			debug(dbPrefix+"command '"+remoteCommand+"' is not processed by CheckBoxProcessor.");
+			return;
+		}
 		if(!checkSolo(props)){
 			debug(dbPrefix+"CANNOT get the Solo object.");
 			return;
@@ -55,22 +76,8 @@ public class CheckBoxProcessor extends  TestStepProcessor{
 			String text = checkbox.getText().toString();
 			debug(dbPrefix+"Trying to process command '"+remoteCommand+"' on checkbox '"+text+"'");
 			
-			if(SAFSMessage.cf_comprouting_check.equalsIgnoreCase(remoteCommand)){
-				success = setCheck(true);
-			}else if(SAFSMessage.cf_comprouting_uncheck.equalsIgnoreCase(remoteCommand)){
-				success = setCheck(false);
-			}else{
-				// not handled here, maybe in a chained ViewProcessor?
-				debug(dbPrefix+"command '"+remoteCommand+"' is not processed by CheckBoxProcessor.");
-				return;
-			}
+			dispatchCommand(props);
 			
-			if(success){
-				setGeneralSuccessWithBundle(props);
-			}else{
-				debug(dbPrefix+"command '"+remoteCommand+"' failed.");
-				setGeneralError3(props, null);
-			}
 			// route Results to the controller side CFCheckBoxFunctions library
 			if(commandNotExecuted(props)){ /*ignore*/ }
 			else props.setProperty(SAFSMessage.KEY_TARGET, SAFSMessage.target_safs_checkbox);
@@ -83,6 +90,21 @@ public class CheckBoxProcessor extends  TestStepProcessor{
 		}
 	}
 
+	/**
+	 * Handle the commands Check and UnCheck.
+	 * 
+	 * @param props Properties, contains the output results
+	 * @param checked boolean, the status to set to check box.
+	 */
+	void _setCheckCommands(Properties props, boolean checked){
+		if(setCheck(checked)){
+			setGeneralSuccessWithBundle(props);
+		}else{
+			debug(debugPrefix +"._setCheckCommands(): command '"+remoteCommand+"' failed.");
+			setGeneralError3(props, null);
+		}
+	}
+	
 	/**
 	 * Set the checkbox's status to checked or un-checked.
 	 * 
@@ -18,10 +18,10 @@
 package org.safs.android.engine.processor;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Properties;
 
+import org.safs.android.engine.AdapterItemTexts;
 import org.safs.android.engine.DGuiObjectRecognition;
 import org.safs.android.engine.DSAFSTestRunner;
 import org.safs.android.remotecontrol.SAFSMessage;
@@ -32,10 +32,13 @@ import android.view.View;
 import android.widget.Spinner;
 import android.widget.TextView;
 
+import com.jayway.android.robotium.remotecontrol.client.processor.CommandHandler;
+
 /**
  * 
  * @author Carl Nagle, SAS Institute, Inc
  * 29 AUG, 2012		LeiWang	Implement for keywords.
+ * OCT 18, 2026		agent	Match and capture the item texts with the AdapterItemTexts of the adapter.
  */
 public class ComboBoxProcessor extends  TestStepProcessor{
 	private Spinner spinner = null;
@@ -45,11 +48,89 @@ public class ComboBoxProcessor extends  TestStepProcessor{
 		super(testrunner);
 	}
 
+	/**
+	 * Register the handlers of the ComboBox commands, they all need one required parameter.
+	 * @see com.jayway.android.robotium.remotecontrol.client.processor.AbstractProcessor#registerCommandHandlers()
+	 */
+	protected void registerCommandHandlers(){
+		super.registerCommandHandlers();
+		
+		registerCommandHandler(SAFSMessage.cf_comprouting_captureitemstofile, new CommandHandler(){
+			public void handle(Properties props) throws Exception{
+				//the file name is required, also by the device file mode
+				if(!checkParameterSize(1, props)) return;
+				setCommandResult(props, _captureItems(props));
+			}
+		});
+		registerCommandHandler(SAFSMessage.cf_comprouting_select, new CommandHandler(){
+			public void handle(Properties props) throws Exception{
+				String param1 = getFirstRequiredParameter(props);
+				if(param1==null) return;
+				setCommandResult(props, _selectItemText(param1, false, true, true));
+			}
+		});
+		registerCommandHandler(SAFSMessage.cf_comprouting_selectindex, new CommandHandler(){
+			public void handle(Properties props) throws Exception{
+				String param1 = getFirstRequiredParameter(props);
+				if(param1==null) return;
+				ResourceMessageInfo detailErrMsg = null;
+				try{
+					//the passed in index is 1-based, convert it to 0-based
+					detailErrMsg = _selectItemIndex(Integer.parseInt(param1)-1);
+					
+				}catch(NumberFormatException e){
+					detailErrMsg = new ResourceMessageInfo();
+					detailErrMsg.setKey(FAILKEYS.GENERIC_ERROR);
+					detailErrMsg.addParameter("The index parameter '"+param1+"' is not a number");
+				}
+				setCommandResult(props, detailErrMsg);
+			}
+		});
+		registerCommandHandler(SAFSMessage.cf_comprouting_selectpartialmatch, new CommandHandler(){
+			public void handle(Properties props) throws Exception{
+				String param1 = getFirstRequiredParameter(props);
+				if(param1==null) return;
+				setCommandResult(props, _selectItemText(param1, true, true, true));
+			}
+		});
+		registerCommandHandler(SAFSMessage.cf_comprouting_selectunverified, new CommandHandler(){
+			public void handle(Properties props) throws Exception{
+				String param1 = getFirstRequiredParameter(props);
+				if(param1==null) return;
+				setCommandResult(props, _selectItemText(param1, false, true, false));
+			}
+		});
+		registerCommandHandler(SAFSMessage.cf_comprouting_settextvalue, new CommandHandler(){
+			public void handle(Properties props) throws Exception{
+				String param1 = getFirstRequiredParameter(props);
+				if(param1==null) return;
+				setCommandResult(props, _setItemText(param1, true));
+			}
+		});
+		registerCommandHandler(SAFSMessage.cf_comprouting_setunverifiedtextvalue, new CommandHandler(){
+			public void handle(Properties props) throws Exception{
+				String param1 = getFirstRequiredParameter(props);
+				if(param1==null) return;
+				setCommandResult(props, _setItemText(param1, false));
+			}
+		});
+		registerCommandHandler(SAFSMessage.cf_comprouting_verifyselected, new CommandHandler(){
+			public void handle(Properties props) throws Exception{
+				String param1 = getFirstRequiredParameter(props);
+				if(param1==null) return;
+				setCommandResult(props, _verifyItemText(param1, true, true));
+			}
+		});
+	}
+	
 	public void processComponentFunction(Properties props) {
 		String dbPrefix = debugPrefix +".processComponentFunction(): ";
-		ResourceMessageInfo detailErrMsg = null;
-		Iterator<String> iter = null;
 		
+		if(!isCommandSupported(remoteCommand)){
+			// not handled here, maybe in a chained ViewProcessor?
+			debug(dbPrefix+"command '"+remoteCommand+"' is not processed by ComboBoxProcessor.");
+			return;
+		}
 		if(!checkSolo(props)){
 			debug(dbPrefix+"CANNOT get the Solo object.");
 			return;
@@ -60,80 +141,11 @@ public class ComboBoxProcessor extends  TestStepProcessor{
 			return;
 		}
 		try{
-			String param1 = "";
-			String param2 = "";
-			iter = params.iterator();
 			spinner = (Spinner) compobj;			
 			debug(dbPrefix+"Trying to process command '"+remoteCommand+"' on combobox");
 			
-			//These keywords need one required parameter
-			if(SAFSMessage.cf_comprouting_captureitemstofile.equalsIgnoreCase(remoteCommand)||
-			   SAFSMessage.cf_comprouting_select.equalsIgnoreCase(remoteCommand) ||
-			   SAFSMessage.cf_comprouting_selectindex.equalsIgnoreCase(remoteCommand) ||
-			   SAFSMessage.cf_comprouting_selectpartialmatch.equalsIgnoreCase(remoteCommand) ||
-			   SAFSMessage.cf_comprouting_selectunverified.equalsIgnoreCase(remoteCommand) ||
-			   SAFSMessage.cf_comprouting_settextvalue.equalsIgnoreCase(remoteCommand) ||
-			   SAFSMessage.cf_comprouting_setunverifiedtextvalue.equalsIgnoreCase(remoteCommand) ||
-			   SAFSMessage.cf_comprouting_verifyselected.equalsIgnoreCase(remoteCommand)){
-
-
-				if(!checkParameterSize(1, props)){
-					debug(dbPrefix+" the parameters are not enough.");
-					return;
-				}
-				param1 = iter.next();
-				debug(dbPrefix+"The first parameter is '"+param1+"' ");
-				
-				if(SAFSMessage.cf_comprouting_captureitemstofile.equalsIgnoreCase(remoteCommand)){
-					if(iter.hasNext()){
-						param2= iter.next();
-						debug(dbPrefix+" save to file with encoding '"+param2+"'");
-					}
-					
-					detailErrMsg = _captureItems(props);
-					
-				}else if(SAFSMessage.cf_comprouting_select.equalsIgnoreCase(remoteCommand)){
-					detailErrMsg = _selectItemText(param1, false, true, true);
-					
-				}else if(SAFSMessage.cf_comprouting_selectindex.equalsIgnoreCase(remoteCommand)){
-					try{
-						//the passed in index is 1-based, convert it to 0-based
-						detailErrMsg = _selectItemIndex(Integer.parseInt(param1)-1);
-						
-					}catch(NumberFormatException e){
-						detailErrMsg = new ResourceMessageInfo();
-						detailErrMsg.setKey(FAILKEYS.GENERIC_ERROR);
-						detailErrMsg.addParameter("The index parameter '"+param1+"' is not a number");
-					}
-					
-				}else if(SAFSMessage.cf_comprouting_selectpartialmatch.equalsIgnoreCase(remoteCommand)){
-					detailErrMsg = _selectItemText(param1, true, true, true);
-					
-				}else if(SAFSMessage.cf_comprouting_selectunverified.equalsIgnoreCase(remoteCommand)){
-					detailErrMsg = _selectItemText(param1, false, true, false);
-					
-				}else if(SAFSMessage.cf_comprouting_settextvalue.equalsIgnoreCase(remoteCommand)){
-					detailErrMsg = _setItemText(param1, true);
-					
-				}else if(SAFSMessage.cf_comprouting_setunverifiedtextvalue.equalsIgnoreCase(remoteCommand)){
-					detailErrMsg = _setItemText(param1, false);
-					
-				}else if(SAFSMessage.cf_comprouting_verifyselected.equalsIgnoreCase(remoteCommand)){
-					detailErrMsg = _verifyItemText(param1, true, true);
-					
-				}
-			}else{
-				// not handled here, maybe in a chained ViewProcessor?
-				debug(dbPrefix+"command '"+remoteCommand+"' is not processed by CheckBoxProcessor.");
-				return;
-			}
+			dispatchCommand(props);
 			
-			if(detailErrMsg==null){
-				setGeneralSuccessWithBundle(props);
-			}else{
-				debug(dbPrefix+"command '"+remoteCommand+"' failed.");
-				setGeneralError3(props, detailErrMsg);
-			}
 			// route Results to the controller side CFComboBoxFunctions library
 			if(commandNotExecuted(props)){ /*ignore*/ }
 			else props.setProperty(SAFSMessage.KEY_TARGET, SAFSMessage.target_safs_combobox);
@@ -160,12 +172,20 @@ public class ComboBoxProcessor extends  TestStepProcessor{
 		String itemsString = "";
 		
 		try{
+			if(CaptureItemsFile.isDeviceFileMode(props.getProperty(KEY_CAPTUREMODE))){
+				//the parameter size has been checked by the command handler, like ListViewProcessor does
+				debug(dbPrefix+ " Try to capture items of combobox into a device file.");
+				//Use the PARAM_9 to take back the path of the file.
+				props.setProperty(SAFSMessage.PARAM_9, captureItemsToDeviceFile(spinner, true));
+				return null;
+			}
 			debug(dbPrefix+ " Try to capture items of combobox.");
-			List<View> itemList = getComboBoxItems(spinner);
-			
-			for(int i=0;i<itemList.size();i++){
-				itemsString += DGuiObjectRecognition.getObjectText(itemList.get(i)) + SAFSMessage.cf_combobox_items_separator;
+			AdapterItemTexts itemList = AdapterItemTexts.getItemTexts(spinner);
+			StringBuilder items = new StringBuilder();
+			for(int i=0;itemList != null && i<itemList.getCount();i++){
+				if(itemList.isTextView(i)) items.append(itemList.getText(i)).append(SAFSMessage.cf_combobox_items_separator);
 			}
+			itemsString = items.toString();
 
 			//Use the PARAM_9 to take back the items' value.
 			props.setProperty(SAFSMessage.PARAM_9, itemsString);
@@ -238,16 +258,10 @@ public class ComboBoxProcessor extends  TestStepProcessor{
 		try{
 			debug(dbPrefix+ " Try to select '"+text+"' from combobox.");
 			//First, get the index for item text
-			List<View> itemList = getComboBoxItems(spinner);
+			AdapterItemTexts itemList = AdapterItemTexts.getItemTexts(spinner);
 			String itemText = "";
-			for(int i=0; i<itemList.size();i++){
-				itemText = DGuiObjectRecognition.getObjectText(itemList.get(i));
-				debug(dbPrefix+" Comparing with '"+itemText+"'");
-				if(stringIsMatched(itemText, text, partial, caseSensitive)){
-					indexToSelect = i;
-					break;
-				}
-			}
+			if(itemList != null) indexToSelect = itemList.indexOf(text, partial, caseSensitive, 1, true, true);
+			debug(dbPrefix+" Matched item index "+ indexToSelect);
 			
 			if(!selectIndex(spinner, indexToSelect)){
 				throw new Exception("Fail to select '"+text+"' for combo box. MatchedIndex='"+indexToSelect+"'");
@@ -392,6 +406,7 @@ public class ComboBoxProcessor extends  TestStepProcessor{
 	
 	/**
 	 * Currently only returns TextView items in the List.
+	 * The text commands use the {@link AdapterItemTexts} of the Adapter instead, which does not make the item Views again.
 	 * @param spinner
 	 * @return
 	 */
@@ -19,7 +19,6 @@ package org.safs.android.engine.processor;
 
 import java.util.Calendar;
 import java.util.Date;
-import java.util.Iterator;
 import java.util.Properties;
 
 import org.safs.android.engine.DSAFSTestRunner;
@@ -30,6 +29,8 @@ import org.safs.tools.stringutils.StringUtilities;
 
 import android.widget.DatePicker;
 
+import com.jayway.android.robotium.remotecontrol.client.processor.CommandHandler;
+
 /**
  * 
  * @author Lei Wang, SAS Institute, Inc
@@ -43,11 +44,44 @@ public class DataPickerProcessor extends  TestStepProcessor{
 		super(testrunner);
 	}
 
+	/**
+	 * Register the handlers of the DatePicker commands.<br>
+	 * The date parameter is required for setdate, the variable parameter is required for getdate.
+	 * @see com.jayway.android.robotium.remotecontrol.client.processor.AbstractProcessor#registerCommandHandlers()
+	 */
+	protected void registerCommandHandlers(){
+		super.registerCommandHandlers();
+		
+		registerCommandHandler(SAFSMessage.cf_datepicker_setdate, new CommandHandler(){
+			public void handle(Properties props) throws Exception{
+				String param1 = getFirstRequiredParameter(props);
+				if(param1==null) return;
+				setCommandResult(props, setDate(datapicker, param1));
+			}
+		});
+		registerCommandHandler(SAFSMessage.cf_datepicker_getdate, new CommandHandler(){
+			public void handle(Properties props) throws Exception{
+				if(getFirstRequiredParameter(props)==null) return;
+				Calendar calendar = Calendar.getInstance();
+				ResourceMessageInfo detailErrMsg = getDate(datapicker, calendar);
+				
+				//Use format "MM-dd-yyyy" to create a date string
+				String calendarStr = StringUtilities.getDateString(calendar.getTime());
+				
+				props.setProperty(SAFSMessage.PARAM_9, calendarStr);
+				setCommandResult(props, detailErrMsg);
+			}
+		});
+	}
+	
 	public void processComponentFunction(Properties props) {
 		String dbPrefix = debugPrefix +".processComponentFunction(): ";
-		ResourceMessageInfo detailErrMsg = null;
-		Iterator<String> iter = null;
 		
+		if(!isCommandSupported(remoteCommand)){
+			// not handled here, maybe in a chained ViewProcessor?
+			debug(dbPrefix+"command '"+remoteCommand+"' is not processed by DataPickerProcessor.");
+			return;
+		}
 		if(!checkSolo(props)){
 			debug(dbPrefix+"CANNOT get the Solo object.");
 			return;
@@ -60,42 +94,9 @@ public class DataPickerProcessor extends  TestStepProcessor{
 			datapicker = (DatePicker) compobj;
 		}
 		try{
-			iter = params.iterator();
-			String param1 = "";
-			
 			debug(dbPrefix+"Trying to process command '"+remoteCommand+"' on DatePicker object.");
 			
-			//The date parameter is required for setdate
-			//The variable parameter is required for getdate
-			if(SAFSMessage.cf_datepicker_setdate.equalsIgnoreCase(remoteCommand)||
-			   SAFSMessage.cf_datepicker_getdate.equalsIgnoreCase(remoteCommand)){
-				if(!checkParameterSize(1, props)){
-					debug(dbPrefix+" the parameters are not enough.");
-					return;
-				}
-			}
-			
-			if(SAFSMessage.cf_datepicker_setdate.equalsIgnoreCase(remoteCommand)){
-				param1 = iter.next();
-				debug(dbPrefix+"The first parameter is '"+param1+"' ");
-				detailErrMsg = setDate(datapicker, param1);
-				
-			}else if(SAFSMessage.cf_datepicker_getdate.equalsIgnoreCase(remoteCommand)){
-				Calendar calendar = Calendar.getInstance();
-				detailErrMsg = getDate(datapicker, calendar);
-				
-				//Use format "MM-dd-yyyy" to create a date string
-				String calendarStr = StringUtilities.getDateString(calendar.getTime());
-					
-				props.setProperty(SAFSMessage.PARAM_9, calendarStr);
-			}
-			
-			if(detailErrMsg==null){
-				setGeneralSuccessWithBundle(props);
-			}else{
-				debug(dbPrefix+"command '"+remoteCommand+"' failed.");
-				setGeneralError3(props, detailErrMsg);
-			}
+			dispatchCommand(props);
 			
 			// route Results to the controller side CFScrollBarFunctions library
 			if(commandNotExecuted(props)){ /*ignore*/ }
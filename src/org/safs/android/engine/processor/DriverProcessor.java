@@ -22,15 +22,18 @@ import java.util.Properties;
 import java.util.Vector;
 
 import org.safs.android.engine.DGuiObjectVector;
+import org.safs.android.engine.DGuiWaiter;
 import org.safs.android.engine.DSAFSTestRunner;
 import org.safs.android.messenger.client.MessageResult;
 import org.safs.android.remotecontrol.SAFSMessage;
 import org.safs.text.FAILKEYS;
 import org.safs.text.ResourceMessageInfo;
 
+import com.jayway.android.robotium.remotecontrol.client.CommandMetrics;
 import com.jayway.android.robotium.remotecontrol.client.processor.CacheReferenceInterface;
 import com.jayway.android.robotium.remotecontrol.client.processor.SoloProcessor;
 
+import android.app.Activity;
 import android.content.Context;
 import android.os.IBinder;
 import android.view.Surface;
@@ -41,9 +44,19 @@ import android.view.inputmethod.InputMethodManager;
 /**
  * 
  * @author Carl Nagle, SAS Institute, Inc
+ * OCT 18, 2026 	(agent)	Add the command {@link #driver_getcommandmetrics} returning the CommandMetrics.<br>
  */
 public class DriverProcessor extends  SAFSProcessor implements CacheReferenceInterface{
 
+	/**
+	 * "getcommandmetrics", the driver command returning the snapshot of the {@link CommandMetrics}: 
+	 * the latency histograms of the commands and their phases, the nodes visited and the reflective reads, 
+	 * followed by the statistics of the engine caches.<br>
+	 * If PARAM_1 is "Reset" or "true", the metrics are cleared once they are read.
+	 * @see CommandMetrics#getSnapshot(boolean)
+	 */
+	public static final String driver_getcommandmetrics = "getcommandmetrics";
+	
 	String debugPrefix = getClass().getSimpleName();
 	
 	/** set to true by internal processes when SoloProcessor has been chained. 
@@ -76,6 +89,8 @@ public class DriverProcessor extends  SAFSProcessor implements CacheReferenceInt
 		if(isGuiDriverCommand()){
 			if(! extractComponentProperties(props)) return;			
 			dgov = new DGuiObjectVector(winrec, comprec, null);			
+			setSearchWait(dgov);
+			DGuiWaiter waiter = new DGuiWaiter(waitStrategy, millisPollInterval);
 			long timeout_time = System.currentTimeMillis() + (1000 * command_timeout);
 			boolean done = false;
 			if(!chainedSolo){
@@ -152,7 +167,7 @@ public class DriverProcessor extends  SAFSProcessor implements CacheReferenceInt
 					}
 				}// end if winobj == null
 				done = System.currentTimeMillis() > timeout_time;
-				if(!done) try{ Thread.sleep(500);}catch(Exception ignore){}
+				if(!done) waiter.await(timeout_time);
 			}// end while (! done)
 			// exited while loop after timeout without success
 			setGeneralWarningWithSpecialInfo(props, null);
@@ -186,6 +201,8 @@ public class DriverProcessor extends  SAFSProcessor implements CacheReferenceInt
 			}else{
 				setGeneralError(props, "Fail to set '"+content+"' to clipboard.");
 			}
+		}else if(driver_getcommandmetrics.equalsIgnoreCase(remoteCommand)){
+			_getCommandMetrics(props);
 		}else if(SAFSMessage.driver_takescreenshot.equalsIgnoreCase(remoteCommand)){
 			_takeScreenShot(props);
 		}else if(SAFSMessage.driver_hidesoftkeyboard.equalsIgnoreCase(remoteCommand)){
@@ -201,6 +218,26 @@ public class DriverProcessor extends  SAFSProcessor implements CacheReferenceInt
 		}
 	}
 
+	/**
+	 * Return the snapshot of the {@link CommandMetrics} and the statistics of the engine caches.<br>
+	 * The snapshot does not include the time of this command itself, which is still in progress.
+	 * @see #driver_getcommandmetrics
+	 */
+	void _getCommandMetrics(Properties props){
+		String dbPrefix = debugPrefix +"_getCommandMetrics(): ";
+		String option = props.getProperty(SAFSMessage.PARAM_1, "").trim();
+		boolean reset = "reset".equalsIgnoreCase(option) || Boolean.parseBoolean(option);
+		StringBuilder snapshot = new StringBuilder(CommandMetrics.getSnapshot(reset));
+		try{
+			EngineProcessor p = (EngineProcessor) testrunner.getProcessors(SAFSMessage.target_safs_engine).firstElement();
+			snapshot.append("\ncaches:").append(p.getCacheStatistics());
+		}catch(Exception x){
+			debug(dbPrefix+"no engine cache statistics: "+x.getClass().getSimpleName());
+		}
+		debug(dbPrefix+(reset ? "returned and reset the metrics." : "returned the metrics."));
+		setGeneralSuccessWithSpecialInfo(props, snapshot.toString());
+	}
+	
 	/**
 	 * The screenshot of the device will be got through AndroidDebugBridge at the remote-control computer<br>
 	 * Here, this method will only return the rotation of the device.<br>
@@ -317,6 +354,16 @@ public class DriverProcessor extends  SAFSProcessor implements CacheReferenceInt
     	}
 	}
 	
+	/**
+	 * Purge the destroyed Activity and its Views from the test object cache.
+	 * @see SAFSProcessor#purgeTestObjectCache(Activity)
+	 */
+	@Override
+	public void onActivityDestroyed(Activity activity){
+		int purged = purgeTestObjectCache(activity);
+		debug(debugPrefix+".onActivityDestroyed() purged "+purged+" test objects of "+activity.getClass().getName());
+	}
+	
 	public MessageResult processMessage(String message) {
 		// TODO Auto-generated method stub
 		return null;
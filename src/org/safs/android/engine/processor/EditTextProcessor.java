@@ -27,6 +27,8 @@ import org.safs.tools.stringutils.StringUtilities;
 import android.widget.EditText;
 import android.widget.TextView;
 
+import com.jayway.android.robotium.remotecontrol.client.processor.CommandHandler;
+
 /**
  * 
  * @author Carl Nagle, SAS Institute, Inc
@@ -40,8 +42,33 @@ public class EditTextProcessor extends  TestStepProcessor{
 		super(testrunner);
 	}
 
+	/**
+	 * Register the handlers of the EditText commands.
+	 * @see com.jayway.android.robotium.remotecontrol.client.processor.AbstractProcessor#registerCommandHandlers()
+	 */
+	protected void registerCommandHandlers(){
+		super.registerCommandHandlers();
+		
+		registerCommandHandler(SAFSMessage.cf_comprouting_settextcharacters, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _setTextCommands(props, true, true); }
+		});
+		registerCommandHandler(SAFSMessage.cf_comprouting_settextvalue, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _setTextCommands(props, false, true); }
+		});
+		registerCommandHandler(SAFSMessage.cf_comprouting_setunverifiedtextcharacters, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _setTextCommands(props, true, false); }
+		});
+		registerCommandHandler(SAFSMessage.cf_comprouting_setunverifiedtextvalue, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _setTextCommands(props, false, false); }
+		});
+	}
+	
 	public void processComponentFunction(Properties props) {
 		String dbPrefix = debugPrefix +".processComponentFunction(): ";		
+		if(!isCommandSupported(remoteCommand)){
+			debug(dbPrefix+"command '"+remoteCommand+"' is not processed by EditTextProcessor.");
+			return;
+		}
 		if(!checkSolo(props)){
 			debug(dbPrefix+"CANNOT get the Solo object.");
 			return;
@@ -52,18 +79,8 @@ public class EditTextProcessor extends  TestStepProcessor{
 			return;
 		}
 		try{
+			dispatchCommand(props);
 			
-			if(((compobj instanceof EditText)||compobj instanceof TextView) &&
-			   ( SAFSMessage.cf_comprouting_settextcharacters.equalsIgnoreCase(remoteCommand) ||
-			     SAFSMessage.cf_comprouting_settextvalue.equalsIgnoreCase(remoteCommand) ||
-			     SAFSMessage.cf_comprouting_setunverifiedtextcharacters.equalsIgnoreCase(remoteCommand) ||
-			     SAFSMessage.cf_comprouting_setunverifiedtextvalue.equalsIgnoreCase(remoteCommand))
-			   ){
-				_setTextCommands(props);
-			}else{
-				debug(dbPrefix+"command '"+remoteCommand+"' is not processed by EditTextProcessor.");
-				return;
-			}
 			// route Results to the controller side CFEditTextFunctions library
 			if(commandNotExecuted(props)){ /*ignore*/ }
 			else props.setProperty(SAFSMessage.KEY_TARGET, SAFSMessage.target_safs_edittext);
@@ -75,7 +92,14 @@ public class EditTextProcessor extends  TestStepProcessor{
 		}		
 	}
 	
-	void _setTextCommands(Properties props){
+	/**
+	 * Handle the commands SetTextCharacters, SetTextValue, SetUnverifiedTextCharacters and SetUnverifiedTextValue.
+	 * 
+	 * @param props Properties, contains the output results
+	 * @param isCharacter boolean, true to input the text character by character.
+	 * @param verify boolean, true to verify the text after it has been set.
+	 */
+	void _setTextCommands(Properties props, boolean isCharacter, boolean verify){
 		String dbPrefix = debugPrefix +"_setTextCommands(): ";
 
 		//These keywords need one required parameter--but it can be an empty string.
@@ -85,21 +109,8 @@ public class EditTextProcessor extends  TestStepProcessor{
 		}
 		String text = params.iterator().next();
 		TextView textView = (TextView) compobj;
-		//preset success
-		boolean success = true;
+		boolean success = setText(textView, text, isCharacter, verify);
 		
-		if(SAFSMessage.cf_comprouting_settextcharacters.equalsIgnoreCase(remoteCommand)){
-			success = setText(textView, text, true, true);
-		}else if(SAFSMessage.cf_comprouting_settextvalue.equalsIgnoreCase(remoteCommand)){
-			success = setText(textView, text, false, true);
-		}else if(SAFSMessage.cf_comprouting_setunverifiedtextcharacters.equalsIgnoreCase(remoteCommand)){
-			success = setText(textView, text, true, false);
-		}else if(SAFSMessage.cf_comprouting_setunverifiedtextvalue.equalsIgnoreCase(remoteCommand)){
-			success = setText(textView, text, false, false);
-		}else{
-			debug(dbPrefix+"command '"+remoteCommand+"' has not been properly implemented in EditTextProcessor!");
-			return;
-		}
 		//If success is false, setText should have set the global resourceDetailMsg error already
 		if(success){
 			setGeneralSuccessWithBundle(props);
@@ -17,25 +17,35 @@
 **/
 package org.safs.android.engine.processor;
 
-import java.util.Hashtable;
+import java.util.List;
 import java.util.Properties;
 import java.util.Vector;
 
+import org.safs.android.engine.AdapterChildren;
+import org.safs.android.engine.AdapterItemTexts;
 import org.safs.android.engine.DGuiObjectDefinition;
 import org.safs.android.engine.DGuiObjectRecognition;
 import org.safs.android.engine.DGuiObjectVector;
+import org.safs.android.engine.DGuiPathHints;
+import org.safs.android.engine.DGuiRecognitionCache;
+import org.safs.android.engine.DGuiTopWindows;
 import org.safs.android.engine.DSAFSTestRunner;
+import org.safs.android.engine.ViewTreeIndex;
 import org.safs.android.messenger.client.MessageResult;
 import org.safs.android.remotecontrol.SAFSMessage;
 import org.safs.sockets.RemoteException;
 import org.safs.text.FAILKEYS;
 
+import android.app.Activity;
 import android.view.View;
 
 import com.jayway.android.robotium.remotecontrol.client.SoloMessage;
 import com.jayway.android.robotium.remotecontrol.client.processor.CacheReferenceInterface;
+import com.jayway.android.robotium.remotecontrol.client.processor.CommandHandler;
+import com.jayway.android.robotium.remotecontrol.client.processor.ObjectRegistry;
 import com.jayway.android.robotium.remotecontrol.client.processor.ProcessorException;
 import com.jayway.android.robotium.remotecontrol.client.processor.SoloProcessor;
+import com.jayway.android.robotium.remotecontrol.client.processor.ViewCapture;
 
 
 /**
@@ -45,13 +55,30 @@ import com.jayway.android.robotium.remotecontrol.client.processor.SoloProcessor;
  * @since  Feb 16, 2012<br>
  * 		   Jun 05, 2013		(LeiWang)	Handle keyword 'getaccessiblename', return view's id name.<br>
  *                                      If view's id is {@value View#NO_ID}, return "" as id.<br>
+ * 		   OCT 18, 2026		(agent)	Keep the engine objects and their definitions in bidirectional ObjectRegistries.<br>
+ * 		   OCT 18, 2026		(agent)	Hold the engine objects by weak references in bounded registries; report the cache statistics.<br>
+ * 		   OCT 18, 2026		(agent)	Register the handlers of the engine commands.<br>
+ * 		   OCT 18, 2026		(agent)	Add the command {@link #engine_getmatchingchildobjectsbatch} resolving several recognitions in one walk.<br>
+ * 		   OCT 18, 2026		(agent)	Free the pooled Bitmaps of the {@link ViewCapture} when an Activity is destroyed or the cache is cleared.<br>
  */
 public class EngineProcessor extends  SAFSProcessor implements CacheReferenceInterface{
 	public static String TAG = EngineProcessor.class.getName();
 
 	protected int INITIAL_CACHE_SIZE = 25;
-	protected Hashtable<Object,Object> cache = new Hashtable<Object, Object>(INITIAL_CACHE_SIZE);
-	protected Hashtable<Object,Object> _defs = new Hashtable<Object, Object>(INITIAL_CACHE_SIZE);
+	/** the engine objects (Views), held by weak references and bounded by {@link #MAX_CACHE_SIZE}. */
+	protected ObjectRegistry cache = new ObjectRegistry(INITIAL_CACHE_SIZE, ObjectRegistry.REFERENCE_WEAK, MAX_CACHE_SIZE);
+	/** the DGuiObjectDefinition of the objects in {@link #cache}, stored with the same keys. */
+	protected ObjectRegistry _defs = new ObjectRegistry(INITIAL_CACHE_SIZE, ObjectRegistry.REFERENCE_STRONG, MAX_CACHE_SIZE);
+	
+	/**
+	 * "getmatchingchildobjectsbatch", the engine command finding the children of several recognitions 
+	 * under one parent in one walk of its tree.<br>
+	 * PARAM_1 is the parent UID, PARAM_2 the recognitions as a delimited string, like the one returned by 
+	 * {@link SoloMessage#convertToDelimitedString(Object[])}. The result is the delimited string of one key for each
+	 * recognition, in the same order: {@link SAFSMessage#NULL_VALUE} for those not found.
+	 * @see DGuiObjectVector#getMatchingChildren(String[], int)
+	 */
+	public static final String engine_getmatchingchildobjectsbatch = "getmatchingchildobjectsbatch";
 	
 	DGuiObjectVector dgov = null;
 	HighLightUtil highlightUtil = null;
@@ -72,14 +99,77 @@ public class EngineProcessor extends  SAFSProcessor implements CacheReferenceInt
 	
 	/** 
 	 * Resets both the object cache and the _defs cache of associated DGuiObjectDefinitions.
-	 * @see com.jayway.android.robotium.remotecontrol.client.processor.AbstractProcessor#resetExternalModeCache(java.util.Hashtable)
+	 * @see com.jayway.android.robotium.remotecontrol.client.processor.AbstractProcessor#resetExternalModeCache(ObjectRegistry)
 	 */
 	@Override
-	public void resetExternalModeCache(Hashtable cache) {
+	public void resetExternalModeCache(ObjectRegistry cache) {
 		super.resetExternalModeCache(cache);
 		super.resetExternalModeCache(_defs);
 	}
 	
+	/**
+	 * Register the handlers of the engine commands.<br>
+	 * {@link SAFSMessage#engine_getmatchingpathobject}, {@link SAFSMessage#engine_getstringdata} and 
+	 * {@link SAFSMessage#engine_ismatchingpath} are not supported yet and are left unregistered.<br>
+	 * @see AbstractProcessor#registerCommandHandlers()
+	 */
+	protected void registerCommandHandlers(){
+		super.registerCommandHandlers();
+		
+		registerCommandHandler(new String[]{SAFSMessage.engine_getaccessiblename,
+		                                    SAFSMessage.engine_getcaption,
+		                                    SAFSMessage.engine_getchildcount,
+		                                    SAFSMessage.engine_getchildren,
+		                                    SAFSMessage.engine_getclassindex,
+		                                    SAFSMessage.engine_getclassname,
+		                                    SAFSMessage.engine_getid,
+		                                    SAFSMessage.engine_getname,
+		                                    SAFSMessage.engine_getnonaccessiblename,
+		                                    SAFSMessage.engine_getpropertynames,
+		                                    SAFSMessage.engine_getsuperclassnames,
+		                                    SAFSMessage.engine_gettext,
+		                                    SAFSMessage.engine_isenabled,
+		                                    SAFSMessage.engine_isshowing,
+		                                    SAFSMessage.engine_isvalid,
+		                                    SAFSMessage.engine_istoplevelpopupcontainer,
+		                                    SAFSMessage.engine_setactivewindow}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _doSimpleCommand(props); }
+		});
+		registerCommandHandler(SAFSMessage.engine_clearreferencecache, new CommandHandler(){
+			public void handle(Properties props) throws Exception{
+				resetExternalModeCache(cache);
+				setGeneralSuccess(props);
+			}
+		});
+		registerCommandHandler(SAFSMessage.engine_getcurrentwindow, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _getCurrentWindow(props); }
+		});
+		registerCommandHandler(SAFSMessage.engine_getmatchingchildobjects, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _getMatchingChildObjects(props); }
+		});
+		registerCommandHandler(engine_getmatchingchildobjectsbatch, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _getMatchingChildObjectsBatch(props); }
+		});
+		registerCommandHandler(SAFSMessage.engine_getmatchingparentobject, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _getMatchingParentObject(props); }
+		});
+		registerCommandHandler(SAFSMessage.engine_getproperty, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _doGetPropertyCommand(props); }
+		});
+		registerCommandHandler(SAFSMessage.engine_gettoplevelcount, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _getTopLevelCount(props); }
+		});
+		registerCommandHandler(SAFSMessage.engine_gettoplevelwindows, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _getTopLevelWindows(props); }
+		});
+		registerCommandHandler(SAFSMessage.engine_highlightmatchingchildobjectbykey, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _doHighLightCommand(props); }
+		});
+		registerCommandHandler(SAFSMessage.engine_clearhighlighteddialog, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _doClearHighLightCommand(props); }
+		});
+	}
+	
 	public void processProperties(Properties props) {
 		String debugPrefix = TAG + ".processProperties() ";
 		debug(debugPrefix +" processing...");
@@ -92,126 +182,9 @@ public class EngineProcessor extends  SAFSProcessor implements CacheReferenceInt
 			}catch(Exception x){/* ignore */}
 		}
 		try{
-			if(SAFSMessage.engine_clearreferencecache.equalsIgnoreCase(remoteCommand)){
-				
-				resetExternalModeCache(cache);
-				setGeneralSuccess(props);
-				
-			}else if(SAFSMessage.engine_getaccessiblename.equalsIgnoreCase(remoteCommand)){
-				
-				_doSimpleCommand(props);
-				
-			}else if(SAFSMessage.engine_getcaption.equalsIgnoreCase(remoteCommand)){
-				
-				_doSimpleCommand(props);
-				
-			}else if(SAFSMessage.engine_getchildcount.equalsIgnoreCase(remoteCommand)){
-	
-				_doSimpleCommand(props);
-	
-			}else if(SAFSMessage.engine_getchildren.equalsIgnoreCase(remoteCommand)){
-	
-				_doSimpleCommand(props);
-				
-			}else if(SAFSMessage.engine_getclassindex.equalsIgnoreCase(remoteCommand)){
-				
-				_doSimpleCommand(props);
-				
-			}else if(SAFSMessage.engine_getclassname.equalsIgnoreCase(remoteCommand)){
-	
-				_doSimpleCommand(props);
-	
-			}else if(SAFSMessage.engine_getcurrentwindow.equalsIgnoreCase(remoteCommand)){
-				
-				_getCurrentWindow(props);
-				
-			}else if(SAFSMessage.engine_getid.equalsIgnoreCase(remoteCommand)){
-				
-				_doSimpleCommand(props);
-	
-			}else if(SAFSMessage.engine_getmatchingchildobjects.equalsIgnoreCase(remoteCommand)){
-				
-				_getMatchingChildObjects(props);
-				
-			}else if(SAFSMessage.engine_getmatchingparentobject.equalsIgnoreCase(remoteCommand)){
-	
-				_getMatchingParentObject(props);
-				
-			}else if(SAFSMessage.engine_getmatchingpathobject.equalsIgnoreCase(remoteCommand)){
-				
-				// TODO Auto-generated method stub
-				
-			}else if(SAFSMessage.engine_getname.equalsIgnoreCase(remoteCommand)){
-	
-				_doSimpleCommand(props);
-	
-			}else if(SAFSMessage.engine_getnonaccessiblename.equalsIgnoreCase(remoteCommand)){
-	
-				_doSimpleCommand(props);
-	
-			}else if(SAFSMessage.engine_getproperty.equalsIgnoreCase(remoteCommand)){
-				
-				_doGetPropertyCommand(props);
-				
-			}else if(SAFSMessage.engine_getpropertynames.equalsIgnoreCase(remoteCommand)){
-	
-				_doSimpleCommand(props);
-	
-			}else if(SAFSMessage.engine_getstringdata.equalsIgnoreCase(remoteCommand)){
-				
-				// TODO Auto-generated method stub
-				
-			}else if(SAFSMessage.engine_getsuperclassnames.equalsIgnoreCase(remoteCommand)){
-	
-				_doSimpleCommand(props);
-	
-			}else if(SAFSMessage.engine_gettext.equalsIgnoreCase(remoteCommand)){
-				
-				_doSimpleCommand(props);
-				
-			}else if(SAFSMessage.engine_gettoplevelcount.equalsIgnoreCase(remoteCommand)){
-	
-				_getTopLevelCount(props);
-	
-			}else if(SAFSMessage.engine_gettoplevelwindows.equalsIgnoreCase(remoteCommand)){
-	
-				_getTopLevelWindows(props);
-				
-			}else if(SAFSMessage.engine_isenabled.equalsIgnoreCase(remoteCommand)){
-	
-				_doSimpleCommand(props);
-				
-			}else if(SAFSMessage.engine_ismatchingpath.equalsIgnoreCase(remoteCommand)){
-				
-				// TODO Auto-generated method stub
-				
-			}else if(SAFSMessage.engine_isshowing.equalsIgnoreCase(remoteCommand)){
-				
-				_doSimpleCommand(props);
-				
-			}else if(SAFSMessage.engine_isvalid.equalsIgnoreCase(remoteCommand)){
-				
-				_doSimpleCommand(props);
-				
-			}else if(SAFSMessage.engine_istoplevelpopupcontainer.equalsIgnoreCase(remoteCommand)){
-				
-				_doSimpleCommand(props);
-				
-			}else if(SAFSMessage.engine_setactivewindow.equalsIgnoreCase(remoteCommand)){
-				
-				_doSimpleCommand(props);
-				
-			}else if(SAFSMessage.engine_highlightmatchingchildobjectbykey.equalsIgnoreCase(remoteCommand)){
-				
-				_doHighLightCommand(props);
-				
-			}else if(SAFSMessage.engine_clearhighlighteddialog.equalsIgnoreCase(remoteCommand)){
-				
-				_doClearHighLightCommand(props);
-				
+			if(!dispatchCommand(props)){
+				debug(debugPrefix +"Unknown command '"+remoteCommand+"'.");
 			}
-			
-			
 		}catch(Throwable x){
 			String stackout = getStackTrace(x);
 			debug(debugPrefix+ "\n"+ stackout);
@@ -371,6 +344,11 @@ public class EngineProcessor extends  SAFSProcessor implements CacheReferenceInt
 		}
 		
 		dgov = new DGuiObjectVector(parent,recognition,"");
+		// the matched_indices of the cached definition are used by engine_getclassindex
+		dgov.USE_VIEWTREE_INDEX = false;
+		dgov.LAZY_ADAPTER_CHILDREN = false;
+		dgov.USE_PATH_HINTS = false;
+		setSearchWait(dgov);
 		
 		Object child = null;
 		try{ child = dgov.getMatchingChild(secsTimeout);}
@@ -399,7 +377,7 @@ public class EngineProcessor extends  SAFSProcessor implements CacheReferenceInt
 					return;
 				}
 				setGeneralSuccessWithSpecialInfo(props, resultInfo);
-				try{_defs.put(keys[0], dgov.getCompDefs().get(dgov.getCompDefs().size()-1));}
+				try{putCachedItem(_defs, keys[0], dgov.getCompDefs().get(dgov.getCompDefs().size()-1));}
 				catch(Exception x){
 					debug(debugPrefix+"can't store DGuiObjectDefinition for child: "+x.getClass().getSimpleName());				
 				}
@@ -421,6 +399,102 @@ public class EngineProcessor extends  SAFSProcessor implements CacheReferenceInt
 		}
 	}
 
+	/** 
+	 * {@link #engine_getmatchingchildobjectsbatch}, 
+	 * can return NLS ERROR Keys with appropriate Parameters/Args to complete the message:
+	 * <p>
+	 * <ul>
+	 * FAILKEYS.PARAMSIZE_2<br>
+	 * FAILKEYS.NO_SUCCESS_2<br>
+	 * FAILKEYS.SUPPORT_NOT_INITIALIZED<br>
+	 * FAILKEYS.FAILURE_2<br>
+	 * </ul>  
+	 */
+	private void _getMatchingChildObjectsBatch(Properties props){
+		String debugPrefix = TAG + "._getMatchingChildObjectsBatch() ";
+		String uid = null;
+		List<String> recognitions = null;
+		try{ 
+			uid = SoloMessage.getString(props, SAFSMessage.PARAM_1);
+			if(uid == null || uid.length() < 1) throw new ProcessorException("Component");
+			debug(debugPrefix +"using Parent UID: "+ uid);
+			String recs = SoloMessage.getString(props, SAFSMessage.PARAM_2);
+			if(recs == null || recs.length() < 1) throw new ProcessorException("Recognitions");
+			recognitions = SoloMessage.parseStringArrayList(recs);
+			if(recognitions == null || recognitions.size() < 1) throw new ProcessorException("Recognitions");
+			debug(debugPrefix +"using "+ recognitions.size() +" Component Recs.");
+		}
+		catch(ProcessorException x){
+			debug(debugPrefix+" Missing '"+ x.getMessage()+"' parameter for "+ remoteCommand);			
+			// %1%, wrong number of parameters: %2%.
+			resourceMsg.reset();
+			resourceMsg.setKey(FAILKEYS.PARAMSIZE_2);
+			resourceMsg.setParams(new String[]{remoteCommand, x.getMessage()});
+			setGeneralErrorWithBundleMessage(props, resourceMsg, null);
+			return;
+		}
+		Object parent = getCachedObject(uid, true);
+		if(parent == null){	
+			// %1% was not successful using %2%.
+			// No match found for %1%.
+			resourceMsg.reset();
+			resourceMsg.setKey(FAILKEYS.NO_SUCCESS_2);
+			resourceMsg.setParams(new String[]{remoteCommand,uid});
+			resourceDetailMsg.reset();
+			resourceDetailMsg.setKey(FAILKEYS.NO_MATCH_FOUND);
+			resourceDetailMsg.setParams(new String[]{uid});
+			setGeneralErrorWithBundleMessage(props, resourceMsg, resourceDetailMsg);
+			return;
+		}
+		int secsTimeout = 60;
+		if(props.containsKey(SAFSMessage.PARAM_TIMEOUT)){
+			try{ secsTimeout = Integer.parseInt(props.getProperty(SAFSMessage.PARAM_TIMEOUT));}
+			catch(Exception x){/* use default */}
+		}
+		
+		dgov = new DGuiObjectVector(parent,null,"");
+		// the matched_indices of the cached definitions are used by engine_getclassindex
+		dgov.USE_VIEWTREE_INDEX = false;
+		dgov.LAZY_ADAPTER_CHILDREN = false;
+		dgov.USE_PATH_HINTS = false;
+		setSearchWait(dgov);
+		
+		Object[] children = null;
+		try{ children = dgov.getMatchingChildren(recognitions.toArray(new String[recognitions.size()]), secsTimeout);}
+		catch(RemoteException x){ 
+			debug(debugPrefix+" RemoteException=" +x.getMessage());
+			// %1% support may not be properly initialized!
+			resourceMsg.reset();
+			resourceMsg.setKey(FAILKEYS.SUPPORT_NOT_INITIALIZED);
+			resourceMsg.addParameter("Messenger/Solo");		
+			setGeneralErrorWithBundleMessage(props, resourceMsg, null);
+			return;
+		}
+		String[] keys = new String[children.length];
+		DGuiObjectDefinition[] defs = dgov.getBatchDefs();
+		for(int i=0;i<children.length;i++){
+			keys[i] = children[i] == null ? null : convertToKey(cache, children[i]);
+			if(keys[i] == null){
+				debug(debugPrefix +"did not find matching object for '"+recognitions.get(i)+"'");
+				keys[i] = SAFSMessage.NULL_VALUE;
+				continue;
+			}
+			try{putCachedItem(_defs, keys[i], defs[i]);}
+			catch(Exception x){
+				debug(debugPrefix+"can't store DGuiObjectDefinition for child: "+x.getClass().getSimpleName());				
+			}
+		}
+		try{ setGeneralSuccessWithSpecialInfo(props, SoloMessage.convertToDelimitedString(keys));}	
+		catch(Exception idoe){
+			debug(debugPrefix+idoe.getMessage());				
+			// Unable to perform %2% on %1%
+			resourceMsg.reset();
+			resourceMsg.setKey(FAILKEYS.FAILURE_2);
+			resourceMsg.setParams(new String[]{remoteCommand, "getUniqueDelimiter()"});				
+			setGeneralErrorWithBundleMessage(props, resourceMsg, null);
+		}
+	}
+
 	/** 
 	 * can return NLS ERROR Keys with appropriate Parameters/Args to complete the message:
 	 * <p>
@@ -453,6 +527,10 @@ public class EngineProcessor extends  SAFSProcessor implements CacheReferenceInt
 		}
 		
 		dgov = new DGuiObjectVector(parentRS,parentRS,"");
+		dgov.USE_VIEWTREE_INDEX = false;
+		dgov.LAZY_ADAPTER_CHILDREN = false;
+		dgov.USE_PATH_HINTS = false;
+		setSearchWait(dgov);
 		
 		Object parent = null;
 		try{ parent = dgov.getMatchingParentObject(secsTimeout);}
@@ -471,7 +549,7 @@ public class EngineProcessor extends  SAFSProcessor implements CacheReferenceInt
 			String[] keys = convertToKeys(cache, tmp);
 			try{
 				setGeneralSuccessWithSpecialInfo(props, keys[0]);
-				try{_defs.put(keys[0], dgov.getWinDefs().get(dgov.getWinDefs().size()-1));}
+				try{putCachedItem(_defs, keys[0], dgov.getWinDefs().get(dgov.getWinDefs().size()-1));}
 				catch(Exception x){
 					debug(debugPrefix+"can't store DGuiObjectDefinition for window: "+x.getClass().getSimpleName());				
 				}
@@ -562,7 +640,7 @@ public class EngineProcessor extends  SAFSProcessor implements CacheReferenceInt
 		try{ 
 			Object obj = getCachedObject(uid, true);
 			DGuiObjectDefinition def = null;
-			try{def = (DGuiObjectDefinition)_defs.get(uid);}catch(Exception x){
+			try{def = (DGuiObjectDefinition)getCachedItem(_defs, uid);}catch(Exception x){
 				debug(debugPrefix+" ignoring DGuiObjectDefinition.get() "+ x.getClass().getSimpleName());			
 			}
 
@@ -878,11 +956,55 @@ public class EngineProcessor extends  SAFSProcessor implements CacheReferenceInt
 		}
 	}
 
+	/**
+	 * Purge the destroyed Activity and its Views from {@link #cache}, and their 
+	 * definitions from {@link #_defs}. Free the Bitmaps pooled by the {@link ViewCapture}.
+	 * @see com.jayway.android.robotium.remotecontrol.client.processor.AbstractProcessor#onActivityDestroyed(Activity)
+	 */
+	@Override
+	public void onActivityDestroyed(Activity activity){
+		int purged = purgeActivityFromCache(cache, activity);
+		if(purged > 0){
+			_defs.removeMatching(new ObjectRegistry.ItemFilter(){
+				public boolean accept(String key, Object item){
+					return !cache.containsKey(key);
+				}
+			});
+		}
+		ViewCapture.getShared(testrunner).release();
+		debug(TAG+".onActivityDestroyed() purged "+purged+" objects of "+activity.getClass().getName());
+	}
+	
+	/** 
+	 * Apply the maximum size to {@link #cache} and {@link #_defs}.
+	 * @see com.jayway.android.robotium.remotecontrol.client.processor.AbstractProcessor#setMaxCacheSize(int)
+	 */
+	@Override
+	public void setMaxCacheSize(int maxSize){
+		super.setMaxCacheSize(maxSize);
+		cache.setMaxSize(maxSize);
+		_defs.setMaxSize(maxSize);
+	}
+	
+	/** @see com.jayway.android.robotium.remotecontrol.client.processor.AbstractProcessor#getCacheStatistics() */
+	@Override
+	public String getCacheStatistics(){
+		return "cache["+cache.getStatistics()+"];_defs["+_defs.getStatistics()+"]"+
+		       (dgcd==null ? "":";classTypes["+dgcd.getTypeCacheStatistics()+"]")+
+		       ";viewTree["+ViewTreeIndex.getStatistics()+"]"+
+		       ";adapterRows["+AdapterChildren.getStatistics()+"]"+
+		       ";itemTexts["+AdapterItemTexts.getStatistics()+"]"+
+		       ";pathHints["+DGuiPathHints.getStatistics()+"]"+
+		       ";topWindows["+DGuiTopWindows.getStatistics()+"]"+
+		       ";recognitions["+DGuiRecognitionCache.getStatistics()+"]";
+	}
+	
 	/** CacheReferenceInterface implementation. 
 	 * @see CacheReferenceInterface#clearCache(boolean) */
 	public void clearCache(boolean useChain) {
 		resetExternalModeCache(cache);
 		//resetExternalModeCache(activityMonitorCache); //must not be cleared until testing is done
+		ViewCapture.getShared(testrunner).release();
 		if(useChain){
 			for(int i=0;i<chainedCache.size();i++){
 				CacheReferenceInterface c = (CacheReferenceInterface) chainedCache.elementAt(i);
@@ -0,0 +1,346 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package org.safs.android.engine.processor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The comparison of a captured image with a baseline image, both given as ARGB pixels, done on the device
+ * so that a verification only returns its score and the regions which differ, not the images.<br>
+ * <p>
+ * The modes, given like "Exact", "Tolerance:16,99.5" or "PHash:10":
+ * <ul>
+ * <li>{@link #MODE_EXACT}: the images match if all their pixels are equal.
+ * <li>{@link #MODE_TOLERANCE}: a pixel matches if none of its channels differs by more than the tolerance, 
+ * {@link #DEFAULT_TOLERANCE} by default. The images match if at least the given percentage of the pixels match, 
+ * 100 by default.
+ * <li>{@link #MODE_PHASH}: the perceptual hashes of the images, 64 bits from the low frequencies of the cosine 
+ * transform of their 32x32 grayscale reductions, are compared. The images match if the hashes differ by at most 
+ * the given number of bits, {@link #DEFAULT_PHASH_DISTANCE} by default. The images can differ in size.
+ * </ul>
+ * The score is the fraction of matching pixels, or 1 - distance/64 for the perceptual hash. The differing pixels, 
+ * with the tolerance of the mode, are grouped into bounding boxes of neighbouring {@link #CELL_SIZE} cells.<br>
+ *
+ * @see ViewProcessor
+ * @since  OCT 18, 2026 (agent)
+ */
+public class ImageComparison {
+
+	/** "exact" */
+	public static final String MODE_EXACT = "exact";
+	/** "tolerance" */
+	public static final String MODE_TOLERANCE = "tolerance";
+	/** "phash" */
+	public static final String MODE_PHASH = "phash";
+
+	/** 16, the default difference allowed in each channel by {@link #MODE_TOLERANCE}. */
+	public static final int DEFAULT_TOLERANCE = 16;
+	/** 10, the default number of different bits allowed by {@link #MODE_PHASH}. */
+	public static final int DEFAULT_PHASH_DISTANCE = 10;
+	/** 16 pixels, the side of the cells grouping the differences into boxes. */
+	public static final int CELL_SIZE = 16;
+	/** 32 boxes at most are returned, the largest ones. */
+	public static final int MAX_BOXES = 32;
+
+	private static final int HASH_SIZE = 32;
+	private static final int HASH_BITS_SIDE = 8;
+	private static final double[][] COSINES = new double[HASH_BITS_SIDE][HASH_SIZE];
+	static{
+		for(int u=0;u<HASH_BITS_SIDE;u++){
+			for(int x=0;x<HASH_SIZE;x++){
+				COSINES[u][x] = Math.cos((2*x+1) * u * Math.PI / (2*HASH_SIZE));
+			}
+		}
+	}
+
+	/** The comparison asked for, see {@link #parse(String)}. */
+	public static final class Options{
+		public final String mode;
+		/** The difference allowed in each channel, 0 for {@link #MODE_EXACT}. */
+		public final int tolerance;
+		/** The percentage of matching pixels needed by {@link #MODE_TOLERANCE}. */
+		public final double minPercent;
+		/** The number of different bits allowed by {@link #MODE_PHASH}. */
+		public final int maxDistance;
+
+		Options(String mode, int tolerance, double minPercent, int maxDistance){
+			this.mode = mode;
+			this.tolerance = tolerance;
+			this.minPercent = minPercent;
+			this.maxDistance = maxDistance;
+		}
+	}
+
+	/** The result of {@link ImageComparison#compare(int[], int, int, int[], int, int, Options)}. */
+	public static final class Result{
+		public boolean match = false;
+		/** Between 0 and 1, 1 for identical images. */
+		public double score = 0;
+		/** The number of different bits of the perceptual hashes, -1 if they were not compared. */
+		public int distance = -1;
+		/** The number of differing pixels, -1 if the images have different sizes. */
+		public long diffPixels = -1;
+		/** The bounding boxes of the differences, as {x, y, width, height}, the largest first. */
+		public final List<int[]> boxes = new ArrayList<int[]>();
+		/** true if there were more than {@link #MAX_BOXES} boxes. */
+		public boolean truncated = false;
+
+		/**
+		 * @return String, like "match=false;score=0.99871;distance=-1;diffpixels=120;boxes=10,20,32,16 200,40,8,8"
+		 */
+		public String toString(){
+			StringBuilder text = new StringBuilder(64 + boxes.size()*16);
+			text.append("match=").append(match);
+			text.append(";score=").append(Math.floor(score*100000)/100000);
+			text.append(";distance=").append(distance);
+			text.append(";diffpixels=").append(diffPixels);
+			text.append(";boxes=");
+			for(int i=0;i<boxes.size();i++){
+				int[] box = boxes.get(i);
+				if(i > 0) text.append(' ');
+				text.append(box[0]).append(',').append(box[1]).append(',').append(box[2]).append(',').append(box[3]);
+			}
+			if(truncated) text.append(";truncated=true");
+			return text.toString();
+		}
+	}
+
+	/**
+	 * @param mode String, like "Exact", "Tolerance", "Tolerance:20", "Tolerance:20,99.5", "PHash" or "PHash:8". 
+	 * null or empty for {@link #MODE_EXACT}.
+	 * @return Options
+	 * @throws IllegalArgumentException if the mode or its values are not valid.
+	 */
+	public static Options parse(String mode){
+		if(mode == null || mode.trim().length() == 0) return new Options(MODE_EXACT, 0, 100, 0);
+		String name = mode.trim();
+		String[] values = new String[0];
+		int colon = name.indexOf(':');
+		if(colon > 0){
+			values = name.substring(colon+1).split(",");
+			name = name.substring(0, colon).trim();
+		}
+		try{
+			if(MODE_EXACT.equalsIgnoreCase(name)){
+				return new Options(MODE_EXACT, 0, 100, 0);
+			}else if(MODE_TOLERANCE.equalsIgnoreCase(name)){
+				int tolerance = values.length > 0 ? Integer.parseInt(values[0].trim()) : DEFAULT_TOLERANCE;
+				double percent = values.length > 1 ? Double.parseDouble(values[1].trim()) : 100;
+				if(tolerance < 0 || tolerance > 255 || percent < 0 || percent > 100) throw new NumberFormatException(mode);
+				return new Options(MODE_TOLERANCE, tolerance, percent, 0);
+			}else if(MODE_PHASH.equalsIgnoreCase(name)){
+				int distance = values.length > 0 ? Integer.parseInt(values[0].trim()) : DEFAULT_PHASH_DISTANCE;
+				if(distance < 0 || distance > 64) throw new NumberFormatException(mode);
+				return new Options(MODE_PHASH, DEFAULT_TOLERANCE, 100, distance);
+			}
+		}catch(NumberFormatException x){
+			throw new IllegalArgumentException("invalid values in comparison mode '"+ mode +"'");
+		}
+		throw new IllegalArgumentException("unknown comparison mode '"+ mode +"'");
+	}
+
+	/**
+	 * Compare an image with its baseline.
+	 * @param actual int[], the ARGB pixels of the captured image, row by row.
+	 * @param width int, the width of the captured image.
+	 * @param height int, the height of the captured image.
+	 * @param baseline int[], the ARGB pixels of the baseline image, row by row.
+	 * @param baseWidth int, the width of the baseline image.
+	 * @param baseHeight int, the height of the baseline image.
+	 * @param options Options, the comparison.
+	 * @return Result
+	 */
+	public static Result compare(int[] actual, int width, int height, int[] baseline, int baseWidth, int baseHeight, Options options){
+		Result result = new Result();
+		boolean sameSize = width == baseWidth && height == baseHeight;
+		if(sameSize){
+			diff(actual, baseline, width, height, options.tolerance, result);
+			long total = (long) width * height;
+			result.score = total == 0 ? 1 : (double)(total - result.diffPixels) / total;
+		}else{
+			result.boxes.add(new int[]{0, 0, width, height});
+		}
+		if(MODE_PHASH.equals(options.mode)){
+			result.distance = Long.bitCount(hash(actual, width, height) ^ hash(baseline, baseWidth, baseHeight));
+			result.score = 1 - result.distance / 64.0;
+			result.match = result.distance <= options.maxDistance;
+		}else if(sameSize){
+			result.match = MODE_EXACT.equals(options.mode) ? result.diffPixels == 0 :
+			               result.score * 100 >= options.minPercent;
+		}
+		return result;
+	}
+
+	/** Count the differing pixels and group them into boxes of neighbouring cells. */
+	private static void diff(int[] actual, int[] baseline, int width, int height, int tolerance, Result result){
+		int columns = (width + CELL_SIZE - 1) / CELL_SIZE;
+		int rows = (height + CELL_SIZE - 1) / CELL_SIZE;
+		// the bounds of the differences in each cell: left, top, right, bottom; left == -1 for none
+		int[] bounds = new int[columns * rows * 4];
+		for(int i=0;i<bounds.length;i+=4) bounds[i] = -1;
+		long count = 0;
+		for(int y=0;y<height;y++){
+			int row = y * width;
+			int cellRow = (y / CELL_SIZE) * columns;
+			for(int x=0;x<width;x++){
+				if(!differs(actual[row+x], baseline[row+x], tolerance)) continue;
+				count++;
+				int b = (cellRow + x / CELL_SIZE) * 4;
+				if(bounds[b] == -1){
+					bounds[b] = x; bounds[b+1] = y; bounds[b+2] = x; bounds[b+3] = y;
+				}else{
+					if(x < bounds[b]) bounds[b] = x;
+					if(x > bounds[b+2]) bounds[b+2] = x;
+					bounds[b+3] = y;
+				}
+			}
+		}
+		result.diffPixels = count;
+		if(count > 0) group(bounds, columns, rows, result);
+	}
+
+	private static boolean differs(int a, int b, int tolerance){
+		if(a == b) return false;
+		if(tolerance == 0) return true;
+		for(int shift=0;shift<32;shift+=8){
+			int d = ((a >>> shift) & 0xff) - ((b >>> shift) & 0xff);
+			if(d > tolerance || -d > tolerance) return true;
+		}
+		return false;
+	}
+
+	/** Merge the 8-connected cells having differences, and keep the largest boxes. */
+	private static void group(int[] bounds, int columns, int rows, Result result){
+		boolean[] visited = new boolean[columns * rows];
+		int[] stack = new int[columns * rows];
+		List<int[]> boxes = new ArrayList<int[]>();
+		for(int start=0;start<visited.length;start++){
+			if(visited[start] || bounds[start*4] == -1) continue;
+			int left = Integer.MAX_VALUE, top = Integer.MAX_VALUE, right = -1, bottom = -1;
+			int size = 0;
+			stack[size++] = start;
+			visited[start] = true;
+			while(size > 0){
+				int cell = stack[--size];
+				int b = cell * 4;
+				left = Math.min(left, bounds[b]);
+				top = Math.min(top, bounds[b+1]);
+				right = Math.max(right, bounds[b+2]);
+				bottom = Math.max(bottom, bounds[b+3]);
+				int cx = cell % columns;
+				int cy = cell / columns;
+				for(int ny=Math.max(0, cy-1);ny<=Math.min(rows-1, cy+1);ny++){
+					for(int nx=Math.max(0, cx-1);nx<=Math.min(columns-1, cx+1);nx++){
+						int next = ny * columns + nx;
+						if(!visited[next] && bounds[next*4] != -1){
+							visited[next] = true;
+							stack[size++] = next;
+						}
+					}
+				}
+			}
+			boxes.add(new int[]{left, top, right - left + 1, bottom - top + 1});
+		}
+		Collections.sort(boxes, new Comparator<int[]>(){
+			public int compare(int[] a, int[] b){
+				long areaA = (long) a[2] * a[3];
+				long areaB = (long) b[2] * b[3];
+				return areaA > areaB ? -1 : areaA < areaB ? 1 : 0;
+			}
+		});
+		result.truncated = boxes.size() > MAX_BOXES;
+		result.boxes.addAll(result.truncated ? boxes.subList(0, MAX_BOXES) : boxes);
+	}
+
+	/**
+	 * @return long, the 64 bits perceptual hash of the image: the signs, against their median, of the 8x8 lowest 
+	 * frequencies of the cosine transform of its 32x32 grayscale reduction.
+	 */
+	static long hash(int[] pixels, int width, int height){
+		if(width <= 0 || height <= 0) return 0;
+		// box-filtered reduction to 32x32 grayscale
+		double[] gray = new double[HASH_SIZE * HASH_SIZE];
+		for(int gy=0;gy<HASH_SIZE;gy++){
+			int y0 = gy * height / HASH_SIZE;
+			int y1 = Math.max(y0 + 1, (gy + 1) * height / HASH_SIZE);
+			for(int gx=0;gx<HASH_SIZE;gx++){
+				int x0 = gx * width / HASH_SIZE;
+				int x1 = Math.max(x0 + 1, (gx + 1) * width / HASH_SIZE);
+				double sum = 0;
+				for(int y=y0;y<y1;y++){
+					int row = y * width;
+					for(int x=x0;x<x1;x++){
+						int p = pixels[row + x];
+						sum += 0.299 * ((p >> 16) & 0xff) + 0.587 * ((p >> 8) & 0xff) + 0.114 * (p & 0xff);
+					}
+				}
+				gray[gy * HASH_SIZE + gx] = sum / ((y1 - y0) * (x1 - x0));
+			}
+		}
+		// the 8x8 low frequencies of the separable cosine transform
+		double[] rows = new double[HASH_SIZE * HASH_BITS_SIDE];
+		for(int y=0;y<HASH_SIZE;y++){
+			for(int u=0;u<HASH_BITS_SIDE;u++){
+				double sum = 0;
+				for(int x=0;x<HASH_SIZE;x++) sum += gray[y * HASH_SIZE + x] * COSINES[u][x];
+				rows[y * HASH_BITS_SIDE + u] = sum;
+			}
+		}
+		double[] coefficients = new double[HASH_BITS_SIDE * HASH_BITS_SIDE];
+		for(int v=0;v<HASH_BITS_SIDE;v++){
+			for(int u=0;u<HASH_BITS_SIDE;u++){
+				double sum = 0;
+				for(int y=0;y<HASH_SIZE;y++) sum += rows[y * HASH_BITS_SIDE + u] * COSINES[v][y];
+				coefficients[v * HASH_BITS_SIDE + u] = sum;
+			}
+		}
+		// the median without the DC term, which only gives the mean brightness
+		double[] sorted = new double[coefficients.length - 1];
+		System.arraycopy(coefficients, 1, sorted, 0, sorted.length);
+		Arrays.sort(sorted);
+		double median = (sorted[sorted.length/2 - 1] + sorted[sorted.length/2]) / 2;
+		long hash = 0;
+		for(int i=0;i<coefficients.length;i++){
+			if(coefficients[i] > median) hash |= 1L << i;
+		}
+		return hash;
+	}
+
+	/**
+	 * @return int[], the ARGB pixels of an image showing the differences: the differing pixels in opaque red, 
+	 * the others as a faded grayscale of the captured image. The images must have the same size.
+	 */
+	public static int[] diffImage(int[] actual, int[] baseline, int width, int height, int tolerance){
+		int[] image = new int[width * height];
+		for(int i=0;i<image.length;i++){
+			if(differs(actual[i], baseline[i], tolerance)){
+				image[i] = 0xffff0000;
+			}else{
+				int p = actual[i];
+				int luma = (((p >> 16) & 0xff) * 77 + ((p >> 8) & 0xff) * 151 + (p & 0xff) * 28) >> 8;
+				int faded = 160 + luma * 95 / 255;
+				image[i] = 0xff000000 | (faded << 16) | (faded << 8) | faded;
+			}
+		}
+		return image;
+	}
+}
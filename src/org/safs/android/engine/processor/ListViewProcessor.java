@@ -21,7 +21,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
 
-import org.safs.android.engine.DGuiObjectRecognition;
+import org.safs.android.engine.AdapterItemTexts;
 import org.safs.android.engine.DSAFSTestRunner;
 import org.safs.android.messenger.client.MessageResult;
 import org.safs.android.remotecontrol.SAFSMessage;
@@ -34,6 +34,8 @@ import android.widget.ListView;
 import android.widget.Spinner;
 import android.widget.TextView;
 
+import com.jayway.android.robotium.remotecontrol.client.processor.CommandHandler;
+
 
 /**
  * 
@@ -49,8 +51,53 @@ public class ListViewProcessor extends  TestStepProcessor{
 		super(testrunner);
 	}
 
+	/**
+	 * Register the handlers of the ListView commands.
+	 * @see com.jayway.android.robotium.remotecontrol.client.processor.AbstractProcessor#registerCommandHandlers()
+	 */
+	protected void registerCommandHandlers(){
+		super.registerCommandHandlers();
+		
+		registerCommandHandler(SAFSMessage.cf_comprouting_selecttextitem, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _selectTextCommands(props, true, true, false, false); }
+		});
+		registerCommandHandler(SAFSMessage.cf_comprouting_activatetextitem, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _selectTextCommands(props, false, true, false, true); }
+		});
+		registerCommandHandler(SAFSMessage.cf_comprouting_selectpartialmatch, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _selectTextCommands(props, false, true, true, false); }
+		});
+		registerCommandHandler(SAFSMessage.cf_comprouting_activatepartialmatch, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _selectTextCommands(props, false, true, true, true); }
+		});
+		registerCommandHandler(SAFSMessage.cf_comprouting_selectunverifiedtextitem, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _selectTextCommands(props, false, true, false, false); }
+		});
+		registerCommandHandler(SAFSMessage.cf_comprouting_activateunverifiedtextitem, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _selectTextCommands(props, false, true, false, true); }
+		});
+		registerCommandHandler(new String[]{SAFSMessage.cf_comprouting_selectindexitem,
+		                                    SAFSMessage.cf_comprouting_selectindex}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _selectIndexCommands(props, true, false); }
+		});
+		registerCommandHandler(new String[]{SAFSMessage.cf_comprouting_activateindexitem,
+		                                    SAFSMessage.cf_comprouting_activateindex,
+		                                    SAFSMessage.cf_comprouting_clickindexitem,
+		                                    SAFSMessage.cf_comprouting_clickindex}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _selectIndexCommands(props, false, true); }
+		});
+		registerCommandHandler(SAFSMessage.cf_comprouting_captureitemstofile, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _captureItems(props); }
+		});
+	}
+	
 	public void processComponentFunction(Properties props) {
 		String dbPrefix = debugPrefix +".processComponentFunction(): ";		
+		if(!isCommandSupported(remoteCommand)){
+			// not handled here, maybe in a chained ViewProcessor?
+			debug(dbPrefix+"command '"+remoteCommand+"' is not processed by ListViewProcessor.");
+			return;
+		}
 		if(!checkSolo(props)){
 			debug(dbPrefix+"CANNOT get the Solo object.");
 			return;
@@ -62,37 +109,7 @@ public class ListViewProcessor extends  TestStepProcessor{
 		}
 		listview = (ListView) compobj;
 		try{
-			if(SAFSMessage.cf_comprouting_selecttextitem.equalsIgnoreCase(remoteCommand)){
-				_selectTextCommands(props, true, true, false, false);
-			}
-			else if(SAFSMessage.cf_comprouting_activatetextitem.equalsIgnoreCase(remoteCommand)){
-				_selectTextCommands(props, false, true, false, true);
-			}
-			else if(SAFSMessage.cf_comprouting_selectpartialmatch.equalsIgnoreCase(remoteCommand)){
-				_selectTextCommands(props, false, true, true, false);
-			}
-			else if(SAFSMessage.cf_comprouting_activatepartialmatch.equalsIgnoreCase(remoteCommand)){
-				_selectTextCommands(props, false, true, true, true);
-			}
-			else if(SAFSMessage.cf_comprouting_selectunverifiedtextitem.equalsIgnoreCase(remoteCommand)){
-				_selectTextCommands(props, false, true, false, false);
-			}
-			else if(SAFSMessage.cf_comprouting_activateunverifiedtextitem.equalsIgnoreCase(remoteCommand)){
-				_selectTextCommands(props, false, true, false, true);
-			}
-			else if(SAFSMessage.cf_comprouting_selectindexitem.equalsIgnoreCase(remoteCommand) ||
-					SAFSMessage.cf_comprouting_selectindex.equalsIgnoreCase(remoteCommand)){
-				_selectIndexCommands(props, true, false);
-			}
-			else if(SAFSMessage.cf_comprouting_activateindexitem.equalsIgnoreCase(remoteCommand) ||
-					SAFSMessage.cf_comprouting_activateindex.equalsIgnoreCase(remoteCommand) ||
-					SAFSMessage.cf_comprouting_clickindexitem.equalsIgnoreCase(remoteCommand) ||
-					SAFSMessage.cf_comprouting_clickindex.equalsIgnoreCase(remoteCommand)){
-				_selectIndexCommands(props, false, true);
-			}
-			else if(SAFSMessage.cf_comprouting_captureitemstofile.equalsIgnoreCase(remoteCommand)){
-				_captureItems(props);
-			}
+			dispatchCommand(props);
 			
 			// route Results to the controller side CFListViewFunctions library
 			if(commandNotExecuted(props)){ /*ignore*/ }
@@ -173,7 +190,7 @@ public class ListViewProcessor extends  TestStepProcessor{
 		}else{ // match found
 			String fulltext = text;
 			if(isPartial) { //get full item text if originally only a substring
-				fulltext = getListViewTextAtIndex(listview, item);
+				fulltext = getListViewTextAtIndex(listview, item); // from the same index, no item is read again
 				if(fulltext==null) fulltext = text;
 			}
 			tempError = null;
@@ -293,12 +310,19 @@ public class ListViewProcessor extends  TestStepProcessor{
 		String dbPrefix = debugPrefix +"._captureItems(): ";
 		String itemsString = "";		
 		try{
+			if(CaptureItemsFile.isDeviceFileMode(props.getProperty(KEY_CAPTUREMODE))){
+				if(!checkParameterSize(1, props)) return;
+				debug(dbPrefix+ " Try to capture items of listview into a device file.");
+				setGeneralSuccessWithSpecialInfo(props, captureItemsToDeviceFile(listview, false));
+				return;
+			}
 			debug(dbPrefix+ " Try to capture items of listview.");
 			List<String> itemList = getListViewItems(listview);
-			
+			StringBuilder items = new StringBuilder();
 			for(int i=0;i<itemList.size();i++){
-				itemsString += DGuiObjectRecognition.getObjectText(itemList.get(i)) + SAFSMessage.cf_combobox_items_separator;
+				items.append(itemList.get(i)).append(SAFSMessage.cf_combobox_items_separator);
 			}
+			itemsString = items.toString();
 			//Use the KEY_REMOTERESULTINFO to take back the items' value.
 		    setGeneralSuccessWithSpecialInfo(props, itemsString);
 		}catch(Throwable x){
@@ -409,8 +433,10 @@ public class ListViewProcessor extends  TestStepProcessor{
 			debug(dbPrefix+"index-out-of-bounds using index "+ index);
 			return null;
 		}
-		List<String> items = getListViewItems(listview);
-		return items.get(index);
+		AdapterItemTexts items = AdapterItemTexts.getItemTexts(view);
+		if(items == null) return null;
+		String text = items.getText(index);
+		return text == null ? "" : text;
 	}
 	
 	/**************************************************************************
@@ -467,12 +493,18 @@ public class ListViewProcessor extends  TestStepProcessor{
 	 * @return 0-based index of matching item.  -1 if a match cannot be deduced.
 	 */
 	int getListViewItemIndex(final ListView view, String text, boolean useCase, boolean isPartial, int nth){
-		List<String> items = getListViewItems(view);
-		return getListViewItemIndex(view, items, text, useCase, isPartial, nth);
+		String dbPrefix = debugPrefix +".getListViewItemIndex(): ";
+		AdapterItemTexts items = AdapterItemTexts.getItemTexts(view);
+		if(items == null || items.getCount() < view.getCount()){
+			debug(dbPrefix+"count of indexable items does not match count of total items!");
+			return -1;
+		}
+		return items.indexOf(text, isPartial, useCase, nth, false, false);
 	}
 	
 	/**************************************************************************
-	 * Uses DGuiObjectRecognition.getObjectText to extract text of each Adapter item.
+	 * Uses the {@link AdapterItemTexts} of the Adapter, with the text DGuiObjectRecognition.getObjectText 
+	 * extracted from each Adapter item.
 	 * Items with no discernable text will be returned as an EMPTY String.
 	 * @param spinner
 	 * @return
@@ -481,14 +513,13 @@ public class ListViewProcessor extends  TestStepProcessor{
 		String dbPrefix = debugPrefix +".getListViewItems(): ";
 		List<String> items = new ArrayList<String>();
 		int count = 0;
-		View child = null;
 		String item = null;
 		//Adapter is the model object of ListView, BUT the items' order may NOT be the same as displayed!!!
-		count = view.getCount();//This will return the number of items in model
+		AdapterItemTexts texts = AdapterItemTexts.getItemTexts(view);
+		count = texts == null ? 0 : texts.getCount();//This will return the number of items in model
 		debug(dbPrefix+"There are "+count+" items in ListView.");
 		for(int i=0;i<count;i++){
-			child = view.getAdapter().getView(i, null, view);
-			item = DGuiObjectRecognition.getObjectText(child);
+			item = texts.getText(i);
 			if (item != null) items.add(item);
 			else {
 				debug(debugPrefix+" detected item '"+ i +"' without discernable text! Storing EMPTY String.");
@@ -30,6 +30,8 @@ import org.safs.tools.stringutils.StringUtilities;
 import android.widget.ProgressBar;
 import android.widget.RatingBar;
 
+import com.jayway.android.robotium.remotecontrol.client.processor.CommandHandler;
+
 /**
  * 
  * @author Lei Wang, SAS Institute, Inc
@@ -43,11 +45,62 @@ public class ProgressBarProcessor extends  TestStepProcessor{
 		super(testrunner);
 	}
 
+	/**
+	 * Register the handlers of the ProgressBar and RatingBar commands.<br>
+	 * The progress or rating parameter is required for the set commands, the variable parameter is required for the get commands.
+	 * @see com.jayway.android.robotium.remotecontrol.client.processor.AbstractProcessor#registerCommandHandlers()
+	 */
+	protected void registerCommandHandlers(){
+		super.registerCommandHandlers();
+		
+		registerCommandHandler(SAFSMessage.cf_progressbar_setprogress, new CommandHandler(){
+			public void handle(Properties props) throws Exception{
+				String param1 = getFirstRequiredParameter(props);
+				if(param1==null) return;
+				setCommandResult(props, setProgress(progressbar, param1, _isPrimaryBar()));
+			}
+		});
+		registerCommandHandler(SAFSMessage.cf_progressbar_getprogress, new CommandHandler(){
+			public void handle(Properties props) throws Exception{
+				if(getFirstRequiredParameter(props)==null) return;
+				StringBuffer progress = new StringBuffer();
+				ResourceMessageInfo detailErrMsg = getProgress(progressbar, progress, _isPrimaryBar());
+				
+				props.setProperty(SAFSMessage.PARAM_9, progress.toString());
+				setCommandResult(props, detailErrMsg);
+			}
+		});
+		registerCommandHandler(SAFSMessage.cf_progressbar_setrating, new CommandHandler(){
+			public void handle(Properties props) throws Exception{
+				RatingBar ratingbar = _getRatingBar();
+				if(ratingbar==null) return;
+				String param1 = getFirstRequiredParameter(props);
+				if(param1==null) return;
+				setCommandResult(props, setRating(ratingbar, param1));
+			}
+		});
+		registerCommandHandler(SAFSMessage.cf_progressbar_getrating, new CommandHandler(){
+			public void handle(Properties props) throws Exception{
+				RatingBar ratingbar = _getRatingBar();
+				if(ratingbar==null) return;
+				if(getFirstRequiredParameter(props)==null) return;
+				StringBuffer rating = new StringBuffer();
+				ResourceMessageInfo detailErrMsg = getRating(ratingbar, rating);
+				
+				props.setProperty(SAFSMessage.PARAM_9, rating.toString());
+				setCommandResult(props, detailErrMsg);
+			}
+		});
+	}
+	
 	public void processComponentFunction(Properties props) {
 		String dbPrefix = debugPrefix +".processComponentFunction(): ";
-		ResourceMessageInfo detailErrMsg = null;
-		Iterator<String> iter = null;
 		
+		if(!isCommandSupported(remoteCommand)){
+			// not handled here, maybe in a chained ViewProcessor?
+			debug(dbPrefix+"command '"+remoteCommand+"' is not processed by ProgressBarProcessor.");
+			return;
+		}
 		if(!checkSolo(props)){
 			debug(dbPrefix+"CANNOT get the Solo object.");
 			return;
@@ -62,83 +115,9 @@ public class ProgressBarProcessor extends  TestStepProcessor{
 		}
 		
 		try{
-			iter = params.iterator();
-			String param1 = "";
-			String param2 = "";
-			//Progress bar has 2 indicator, primary and secondary. isPrimaryBar tell which one to use.
-			boolean isPrimaryBar = true;
-			
 			debug(dbPrefix+"Trying to process command '"+remoteCommand+"' on ProgressBar object.");
 			
-			if(SAFSMessage.cf_progressbar_getprogress.equalsIgnoreCase(remoteCommand)||
-			   SAFSMessage.cf_progressbar_setprogress.equalsIgnoreCase(remoteCommand)){
-				//Check the parameters
-				//The progress parameter is required for setprogress
-				//The variable parameter is required for getprogress
-				if(!checkParameterSize(1, props)){
-					debug(dbPrefix+" the parameters are not enough.");
-					return;
-				}
-				param1 = iter.next();
-				debug(dbPrefix+"The first parameter is '"+param1+"' ");
-				if(iter.hasNext()){
-					param2 = iter.next();
-					debug(dbPrefix+"The second parameter is '"+param2+"' ");
-					isPrimaryBar = StringUtilities.convertBool(param2);
-				}
-				
-				//Process each keyword
-				if(SAFSMessage.cf_progressbar_setprogress.equalsIgnoreCase(remoteCommand)){
-					detailErrMsg = setProgress(progressbar, param1, isPrimaryBar);
-					
-				}else if(SAFSMessage.cf_progressbar_getprogress.equalsIgnoreCase(remoteCommand)){
-					StringBuffer progress = new StringBuffer();
-					detailErrMsg = getProgress(progressbar, progress, isPrimaryBar);
-					
-					props.setProperty(SAFSMessage.PARAM_9, progress.toString());
-				}
-			}else if(SAFSMessage.cf_progressbar_getrating.equalsIgnoreCase(remoteCommand)||
-					 SAFSMessage.cf_progressbar_setrating.equalsIgnoreCase(remoteCommand)){
-			
-				//android.widget.RatingBar
-				if(!(progressbar instanceof RatingBar)){
-					debug(dbPrefix+"skipped for object not instanceof RatingBar: it is "+compobj.getClass().getSimpleName());
-					return;
-				}
-				RatingBar ratingbar = (RatingBar) progressbar;
-				
-				//Check the parameters
-				//The rating parameter is required for setrating
-				//The variable parameter is required for getrating
-				if(!checkParameterSize(1, props)){
-					debug(dbPrefix+" the parameters are not enough.");
-					return;
-				}
-				param1 = iter.next();
-				debug(dbPrefix+"The first parameter is '"+param1+"' ");
-				
-				//Process each keyword
-				if(SAFSMessage.cf_progressbar_setrating.equalsIgnoreCase(remoteCommand)){
-					detailErrMsg = setRating(ratingbar, param1);
-					
-				}else if(SAFSMessage.cf_progressbar_getrating.equalsIgnoreCase(remoteCommand)){
-					StringBuffer rating = new StringBuffer();
-					detailErrMsg = getRating(ratingbar, rating);
-					
-					props.setProperty(SAFSMessage.PARAM_9, rating.toString());
-				}
-								
-			}else{
-				debug(dbPrefix+" keyword '"+remoteCommand+"' can't be processed here.");
-				return;
-			}
-			
-			if(detailErrMsg==null){
-				setGeneralSuccessWithBundle(props);
-			}else{
-				debug(dbPrefix+"command '"+remoteCommand+"' failed.");
-				setGeneralError3(props, detailErrMsg);
-			}
+			dispatchCommand(props);
 			
 			// route Results to the controller side CFScrollBarFunctions library
 			if(commandNotExecuted(props)){ /*ignore*/ }
@@ -152,6 +131,31 @@ public class ProgressBarProcessor extends  TestStepProcessor{
 		}
 	}
 
+	/**
+	 * Progress bar has 2 indicators, primary and secondary. The optional second parameter tells which one to use.
+	 * @return boolean, true to use the primary indicator, which is the default.
+	 */
+	private boolean _isPrimaryBar(){
+		Iterator<String> iter = params.iterator();
+		iter.next();
+		if(!iter.hasNext()) return true;
+		String param2 = iter.next();
+		debug(debugPrefix+"._isPrimaryBar(): The second parameter is '"+param2+"' ");
+		return StringUtilities.convertBool(param2);
+	}
+	
+	/**
+	 * @return RatingBar, the component as an android.widget.RatingBar; or null if it is not, the command
+	 *                    is left not executed so that it may be handled in a chained processor.
+	 */
+	private RatingBar _getRatingBar(){
+		if(!(progressbar instanceof RatingBar)){
+			debug(debugPrefix+"._getRatingBar(): skipped for object not instanceof RatingBar: it is "+compobj.getClass().getSimpleName());
+			return null;
+		}
+		return (RatingBar) progressbar;
+	}
+	
 	/**
 	 * Set the progress to a ProgressBar.
 	 * 
@@ -17,14 +17,17 @@
 **/
 package org.safs.android.engine.processor;
 
+import java.util.Map;
 import java.util.Properties;
-import java.util.Vector;
+import java.util.WeakHashMap;
 
 import org.safs.android.engine.DGuiClassData;
 import org.safs.android.engine.DSAFSTestRunner;
 import org.safs.android.remotecontrol.SAFSMessage;
 import org.safs.text.FAILKEYS;
 
+import com.jayway.android.robotium.remotecontrol.client.AbstractTestRunner;
+import com.jayway.android.robotium.remotecontrol.client.CommandMetrics;
 import com.jayway.android.robotium.remotecontrol.client.processor.ProcessorInterface;
 
 
@@ -35,13 +38,115 @@ import com.jayway.android.robotium.remotecontrol.client.processor.ProcessorInter
  * This routing processor is used to route commands according to the component type found by the superclasses 
  * prior to the invocation of processComponentFunction.
  * 
+ * <p>
+ * The target and processor chain resolved for a concrete component class are cached, so the class 
+ * hierarchy is walked only once per class. The cache is discarded when the processors of the test runner 
+ * change or when the class mapping data is replaced or reloaded.
+ * 
  * @author Carl Nagle, SAS Institute, Inc
+ * OCT 18, 2026 	(agent)	Cache the resolved route per concrete component class.<br>
+ * OCT 18, 2026 	(agent)	Time the routing in CommandMetrics.<br>
  */
 public class RoutingViewProcessor extends  TestStepProcessor{
 
+	/** The library target resolved for a component class, and the processor chain of that target. */
+	private static class Route{
+		final String target;
+		final ProcessorInterface[] processors;
+		Route(String target, ProcessorInterface[] processors){
+			this.target = target;
+			this.processors = processors;
+		}
+	}
+	
+	/** Concrete component class to its resolved Route. A null target is cached too: the class cannot be routed. */
+	private final Map<Class<?>, Route> routes = new WeakHashMap<Class<?>, Route>();
+	/** The {@link AbstractTestRunner#getRoutingVersion()} the cached routes were resolved with. */
+	private int routesVersion = -1;
+	/** The class mapping data the cached routes were resolved with. */
+	private DGuiClassData routesClassData = null;
+	/** The {@link DGuiClassData#getMappingVersion()} the cached routes were resolved with. */
+	private int routesMappingVersion = -1;
+	private long routeHits = 0;
+	private long routeMisses = 0;
+	
 	public RoutingViewProcessor(DSAFSTestRunner testrunner) {
 		super(testrunner);
 	}
+	
+	/**
+	 * Get the Route of a component, resolving it through the class mapping data only the first time 
+	 * its concrete class is met.
+	 * @param component Object, the component to route the command for.
+	 * @return Route, never null. The target is null if the class cannot be routed.
+	 */
+	private Route getRoute(Object component){
+		String dbPrefix = debugPrefix+".getRoute(): ";
+		Class<?> clazz = component.getClass();
+		int version = testrunner.getRoutingVersion();
+		DGuiClassData classData = dgcd;
+		int mappingVersion = classData.getMappingVersion();
+		
+		synchronized(routes){
+			if(version!=routesVersion || classData!=routesClassData || mappingVersion!=routesMappingVersion){
+				routes.clear();
+				routesVersion = version;
+				routesClassData = classData;
+				routesMappingVersion = mappingVersion;
+			}
+			Route route = routes.get(clazz);
+			if(route!=null){
+				routeHits++;
+				return route;
+			}
+			routeMisses++;
+		}
+		
+		// must route according to deepest class hierarchy before lowest			
+		String target = classData.getMappedClassType(clazz.getName(), component);
+		if(target==null){
+			debug(dbPrefix +"cannot currently route for class "+ clazz.getName());
+		}else{
+			target = target.trim();
+			debug(dbPrefix +"processing mapped class as type(s) "+ target);
+			String type = target;
+			target = DGuiClassData.getGenericObjectType(type);
+			if(target==null){
+				debug(dbPrefix +"cannot determine library handler for class type "+ type);
+			}else{
+				target = target.trim();
+			}
+		}
+		Route route = new Route(target, target==null ? AbstractTestRunner.NO_PROCESSORS : testrunner.getProcessorChain(target));
+		synchronized(routes){
+			if(version==routesVersion && classData==routesClassData && mappingVersion==routesMappingVersion) routes.put(clazz, route);
+		}
+		return route;
+	}
+	
+	/** Discard the cached routes, they will be resolved again. */
+	public void clearRoutes(){
+		synchronized(routes){
+			routes.clear();
+		}
+	}
+	
+	/**
+	 * @return String, the size and counters of the route cache like "size=12,hits=300,misses=12,hitrate=96.1%".
+	 */
+	public String getRouteStatistics(){
+		synchronized(routes){
+			long lookups = routeHits+routeMisses;
+			long permille = lookups==0 ? 0:routeHits*1000/lookups;
+			return "size="+routes.size()+",hits="+routeHits+",misses="+routeMisses+",hitrate="+(permille/10)+"."+(permille%10)+"%";
+		}
+	}
+	
+	/** @see com.jayway.android.robotium.remotecontrol.client.processor.AbstractProcessor#getCacheStatistics() */
+	@Override
+	public String getCacheStatistics(){
+		return "routes["+getRouteStatistics()+"];testrunner["+testrunner.getRoutingStatistics()+"]";
+	}
 
 	/**
 	 * Given the set of properties for the command, and the found Window and Comp objects, 
@@ -60,7 +165,7 @@ public class RoutingViewProcessor extends  TestStepProcessor{
 		}		
 		try{
 			String target = null;
-			Vector<ProcessorInterface> processors = null;
+			ProcessorInterface[] processors = null;
 			ProcessorInterface processor = null;
 			String command = props.getProperty(SAFSMessage.KEY_COMMAND); // should never be null by this point
 
@@ -68,34 +173,26 @@ public class RoutingViewProcessor extends  TestStepProcessor{
 			   if( SAFSMessage.cf_view_guidoesexist.equalsIgnoreCase(remoteCommand)||
 			       SAFSMessage.cf_view_guidoesnotexist.equalsIgnoreCase(remoteCommand)){
 				   target = SAFSMessage.target_safs_view;
+				   processors = testrunner.getProcessorChain(target);
 			   }
 			}else{
-				// must route according to deepest class hierarchy before lowest			
-				target = dgcd.getMappedClassType(compobj.getClass().getName(), compobj);
-				if(target==null){
-					debug(dbPrefix +"cannot currently route for class "+ compobj.getClass().getName());
-					return;
-				}
-				target = target.trim();
-				debug(dbPrefix +"processing mapped class as type(s) "+ target);
-				target = DGuiClassData.getGenericObjectType(target);
-				if(target==null){
-					debug(dbPrefix +"cannot determine library handler for class type "+ target);
-					return;
-				}
-				target = target.trim();
+				long start = CommandMetrics.start();
+				Route route = getRoute(compobj);
+				CommandMetrics.stop(CommandMetrics.PHASE_ROUTING, start);
+				if(route.target==null) return;
+				target = route.target;
+				processors = route.processors;
 			}
 			debug(dbPrefix+"routing command to "+target);
 			props.setProperty(SAFSMessage.KEY_TARGET, target);			
-			processors = testrunner.getProcessors(target);
-			if(processors == null || processors.isEmpty()){
+			if(processors == null || processors.length==0){
 				debug(dbPrefix +"no available processors found for target "+ target);
 				return;
 			}
 			boolean processed = false;
 			// cycle through chained target processors only until one of them handles the command
-			for(int i=0; i<processors.size()&& !processed;i++){
-				processor = processors.get(i);
+			for(int i=0; i<processors.length&& !processed;i++){
+				processor = processors[i];
 				processor.setRemoteCommand(command);
 				//processor.processProperties(props); // already done in this RoutingViewProcessor
 				try{ 
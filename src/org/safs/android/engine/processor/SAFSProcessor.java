@@ -17,23 +17,31 @@
 **/
 package org.safs.android.engine.processor;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.Collection;
-import java.util.Hashtable;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Properties;
 
+import org.safs.android.engine.AdapterChildren;
 import org.safs.android.engine.DGuiClassData;
 import org.safs.android.engine.DGuiObjectVector;
+import org.safs.android.engine.DGuiWaiter;
 import org.safs.android.engine.DSAFSTestRunner;
 import org.safs.android.remotecontrol.SAFSMessage;
 import org.safs.text.FAILKEYS;
 import org.safs.text.ResourceMessageInfo;
 
+import android.app.Activity;
 import android.app.Instrumentation;
+import android.widget.AdapterView;
 
 import com.jayway.android.robotium.remotecontrol.client.SoloMessage;
 import com.jayway.android.robotium.remotecontrol.client.processor.AbstractProcessor;
+import com.jayway.android.robotium.remotecontrol.client.processor.ObjectRegistry;
 import com.jayway.android.robotium.remotecontrol.client.processor.ProcessorException;
+import com.jayway.android.robotium.remotecontrol.client.processor.ViewCapture;
 import com.robotium.solo.Solo;
 
 /**
@@ -43,6 +51,7 @@ import com.robotium.solo.Solo;
  * 26 APR, 2012 	(LeiWang)	Add 2 methods to return the embedded Solo object and Instrumentation object.<br>
  * 07 FEB, 2013 	(LeiWang)	Move initialization of DGuiClassData to method {@link DSAFSTestRunner#beforeStart()}.<br>
  * 19 APR, 2013 	(LeiWang)	Add cache to store testObject by windowName and componentName.<br>
+ * OCT 18, 2026 	(agent)	Add the wait strategy and poll interval of the window/component searches.<br>
  */
  public class SAFSProcessor extends AbstractProcessor {
 	 public static String TAG = SAFSProcessor.class.getSimpleName();
@@ -62,18 +71,56 @@ import com.robotium.solo.Solo;
 	 */
 	protected static final String KEY_COMPOBJ = "compfound";
 	
+	/**
+	 * Optional property setting the wait strategy of the window/component searches, 
+	 * one of {@link DGuiWaiter#STRATEGY_NAMES}. It stays in effect for the following commands.
+	 * @see #setWaitStrategy(int)
+	 */
+	public static final String KEY_WAITSTRATEGY = "waitstrategy";
+	
+	/**
+	 * Optional property setting the poll interval of the window/component searches, in milliseconds.
+	 * It stays in effect for the following commands.
+	 * @see #setMillisPollInterval(long)
+	 */
+	public static final String KEY_POLLINTERVAL = "pollinterval";
+	
+	/**
+	 * Optional property setting which offscreen rows of the AdapterViews the component searches make, 
+	 * one of {@link AdapterChildren#POLICY_NAMES}. It stays in effect for the following commands.
+	 * @see #setOffscreenRows(int)
+	 */
+	public static final String KEY_OFFSCREENROWS = "offscreenrows";
+	
+	/**
+	 * Optional property of CaptureItemsToFile: {@link CaptureItemsFile#MODE_DEVICEFILE} writes the items into a 
+	 * file on the device as they are read, and returns the path of the file instead of the items.
+	 * Of the screenshot commands: {@link ViewCapture#MODE_MEMORY} captures the image in memory.
+	 * It only applies to the command carrying it.
+	 */
+	public static final String KEY_CAPTUREMODE = ViewCapture.KEY_CAPTUREMODE;
+	
 	/**
 	 * local cache for containing the test objects.
-	 * This cache contains pairs as <windownName, Hashtable<componentName, testObject>>
+	 * This cache contains pairs as <windownName, ObjectRegistry<componentName, testObject>><br>
+	 * The test objects are held by weak references, a test object released by the application 
+	 * is simply searched again.<br>
 	 * 
 	 * <b>Note:</b> Don't manipulate it directly like testObjectCache.get(key) etc.<br>
 	 * Use the cache-manipulation-methods defined in {@link AbstractProcessor}<br>
-	 * @see AbstractProcessor#getCachedItem(Hashtable, Object)
-	 * @see AbstractProcessor#removeCachedItem(Hashtable, Object)
-	 * @see AbstractProcessor#putCachedItem(Hashtable, Object, Object)
+	 * @see AbstractProcessor#getCachedItem(ObjectRegistry, String)
+	 * @see AbstractProcessor#removeCachedItem(ObjectRegistry, String)
+	 * @see AbstractProcessor#putCachedItem(ObjectRegistry, String, Object)
+	 */
+	protected static ObjectRegistry testObjectCache = new ObjectRegistry(50);
+	
+	/**
+	 * The SAFS commands are not case-sensitive.
+	 * @see AbstractProcessor#normalizeCommand(String)
 	 */
-	protected static Hashtable<String,Hashtable<String, Object>> testObjectCache = 
-		new Hashtable<String/*windownName*/,Hashtable<String/*componentName*/, Object/*testObject*/>>(50);
+	protected boolean isCommandCaseSensitive(){
+		return false;
+	}
 	
 	/**
 	 * According to windowName and componentName, try to get the testObject<br>
@@ -84,10 +131,8 @@ import com.robotium.solo.Solo;
 		
 		//According to window name, we get a cache containing pair <name, testObjecct>
 		Object cacheobject = getCachedItem(testObjectCache, windowName);
-		Hashtable<String, Object> cache = null;
-		if(cacheobject instanceof Hashtable){
-			cache = (Hashtable<String, Object>) cacheobject;
-			testobject = getCachedItem(cache, componentName);
+		if(cacheobject instanceof ObjectRegistry){
+			testobject = getCachedItem((ObjectRegistry) cacheobject, componentName);
 		}
 
 		return testobject;
@@ -100,16 +145,14 @@ import com.robotium.solo.Solo;
 	public Object setTestObject(String windowName, String componentName, Object testobject){
 		
 		Object cacheobject = getCachedItem(testObjectCache, windowName);
-		Hashtable<String, Object> cache = null;
 		//If there is no cache related to windowName, create a new one and put it in testObjectCache
 		//with windowName as the key.
 		if(cacheobject==null){
-			cacheobject = new Hashtable<String, Object> (INITIAL_CACHE_SIZE);
+			cacheobject = new ObjectRegistry(INITIAL_CACHE_SIZE, ObjectRegistry.REFERENCE_WEAK, MAX_CACHE_SIZE);
 			putCachedItem(testObjectCache, windowName, cacheobject);
 		}
-		if(cacheobject instanceof Hashtable){
-			cache = (Hashtable<String, Object>) cacheobject;
-			putCachedItem(cache, componentName, testobject);
+		if(cacheobject instanceof ObjectRegistry){
+			putCachedItem((ObjectRegistry) cacheobject, componentName, testobject);
 		}
 
 		return testobject;
@@ -119,10 +162,33 @@ import com.robotium.solo.Solo;
 		testObjectCache.clear();
 	}
 	
+	/**
+	 * Purge the destroyed Activity and its Views from the window caches of {@link #testObjectCache}.
+	 * @param activity Activity, the destroyed Activity.
+	 * @return int, the number of test objects removed.
+	 */
+	public int purgeTestObjectCache(final Activity activity){
+		final int[] purged = {0};
+		testObjectCache.removeMatching(new ObjectRegistry.ItemFilter(){
+			public boolean accept(String key, Object item){
+				if(item instanceof ObjectRegistry){
+					ObjectRegistry cache = (ObjectRegistry) item;
+					purged[0] += purgeActivityFromCache(cache, activity);
+					return cache.size()==0;
+				}
+				return false;
+			}
+		});
+		return purged[0];
+	}
+	
 	// shared by ALL Component Function Processor subclasses and chains
 	protected static int secsWaitForWindow = 30;
 	protected static int secsWaitForComponent = 30;
 	protected static int command_timeout = 30;
+	protected static int waitStrategy = DGuiWaiter.WAIT_EVENT;
+	protected static long millisPollInterval = DGuiWaiter.DEFAULT_POLL_MILLIS;
+	protected static int offscreenRows = AdapterChildren.OFFSCREEN_ALL;
 
 	// shared by ALL Component Function Processor subclasses and chains
 	protected static Object winobj = null;
@@ -164,6 +230,67 @@ import com.robotium.solo.Solo;
 		TestStepProcessor.secsWaitForComponent = secsWaitForComponent;
 	}
 
+	/** @return the wait strategy of the window/component searches */
+	public static int getWaitStrategy() { return waitStrategy; }
+
+	/** 
+	 * @param waitStrategy the wait strategy of the window/component searches: {@link DGuiWaiter#WAIT_POLL} 
+	 * favors low CPU use, {@link DGuiWaiter#WAIT_EVENT} favors low latency.
+	 */
+	public static void setWaitStrategy(int waitStrategy) {
+		TestStepProcessor.waitStrategy = waitStrategy;
+	}
+
+	/** @return the longest wait between two search attempts (in milliseconds) */
+	public static long getMillisPollInterval() { return millisPollInterval; }
+
+	/** @param millisPollInterval the longest wait between two search attempts (in milliseconds) */
+	public static void setMillisPollInterval(long millisPollInterval) {
+		TestStepProcessor.millisPollInterval = millisPollInterval;
+	}
+
+	/** @return the policy of the searches for the offscreen rows of AdapterViews */
+	public static int getOffscreenRows() { return offscreenRows; }
+
+	/** 
+	 * @param offscreenRows which offscreen rows of the AdapterViews the searches make: {@link AdapterChildren#OFFSCREEN_ALL}, 
+	 * {@link AdapterChildren#OFFSCREEN_MATCHING_ITEMS} or {@link AdapterChildren#OFFSCREEN_NONE}.
+	 */
+	public static void setOffscreenRows(int offscreenRows) {
+		TestStepProcessor.offscreenRows = offscreenRows;
+	}
+
+	/**
+	 * Capture the items of an AdapterView into a device file, for the {@link #KEY_CAPTUREMODE} {@link CaptureItemsFile#MODE_DEVICEFILE}.
+	 * The first parameter is the file name, the optional second parameter the encoding.
+	 * The callers check the parameter size first, with TestStepProcessor.checkParameterSize(1, props).
+	 * @param view AdapterView, the ListView or Spinner.
+	 * @param textViewsOnly boolean, true to capture only the items shown by a TextView.
+	 * @return String, the device path of the written file.
+	 * @throws IOException if the file cannot be written or the encoding is not supported.
+	 * @throws IllegalArgumentException if there is no file name parameter.
+	 */
+	protected String captureItemsToDeviceFile(AdapterView<?> view, boolean textViewsOnly) throws IOException{
+		if(params == null || params.isEmpty()) throw new IllegalArgumentException("missing the file name parameter.");
+		Iterator<String> values = params.iterator();
+		String filename = values.next();
+		String encoding = values.hasNext() ? values.next() : null;
+		File file = CaptureItemsFile.getCaptureFile(filename);
+		int count = CaptureItemsFile.write(view, file, encoding, textViewsOnly);
+		debug(getClass().getSimpleName()+".captureItemsToDeviceFile(): wrote "+ count +" items to "+ file.getAbsolutePath());
+		return file.getAbsolutePath();
+	}
+
+	/**
+	 * Apply the wait strategy, poll interval and offscreen rows policy to a new search.
+	 * @param vector DGuiObjectVector, the search.
+	 */
+	protected static void setSearchWait(DGuiObjectVector vector){
+		vector.WAIT_STRATEGY = waitStrategy;
+		vector.POLL_INTERVAL = millisPollInterval;
+		vector.OFFSCREEN_ROWS = offscreenRows;
+	}
+
 	/**
 	 * Load our local component name and recognition static fields with the 
 	 * property string values from:
@@ -173,6 +300,7 @@ import com.robotium.solo.Solo;
 	 * winrec = KEY_WINREC,<br>
 	 * comprec = KEY_COMPREC,<br>
 	 * command_timeout = PARAM_TIMEOUT<br>
+	 * and the optional {@link #KEY_WAITSTRATEGY}, {@link #KEY_POLLINTERVAL} and {@link #KEY_OFFSCREENROWS}.<br>
 	 * @param props
 	 * @return true if all were retrievable.  If any were not present (except command_timeout) 
 	 * then the routine will set appropriate {@link #resourceMsg} values and 
@@ -231,6 +359,23 @@ import com.robotium.solo.Solo;
 			/* ignoring */ 
 			debug(dbPrefix+"Ignoring missing 'TIMEOUT' parameter for "+ remoteCommand);			
 		}	
+		String wait = props.getProperty(KEY_WAITSTRATEGY);
+		if(wait != null){
+			int strategy = DGuiWaiter.parseStrategy(wait);
+			if(strategy < 0) debug(dbPrefix+"Ignoring unknown '"+ KEY_WAITSTRATEGY +"' "+ wait);
+			else setWaitStrategy(strategy);
+		}
+		String poll = props.getProperty(KEY_POLLINTERVAL);
+		if(poll != null){
+			try{ setMillisPollInterval(Long.parseLong(poll.trim()));}
+			catch(NumberFormatException x){ debug(dbPrefix+"Ignoring invalid '"+ KEY_POLLINTERVAL +"' "+ poll);}
+		}
+		String rows = props.getProperty(KEY_OFFSCREENROWS);
+		if(rows != null){
+			int policy = AdapterChildren.parsePolicy(rows, -1);
+			if(policy < 0) debug(dbPrefix+"Ignoring unknown '"+ KEY_OFFSCREENROWS +"' "+ rows);
+			else setOffscreenRows(policy);
+		}
 		return true;
 	}
 	
@@ -29,6 +29,8 @@ import android.view.View;
 import android.widget.HorizontalScrollView;
 import android.widget.ScrollView;
 
+import com.jayway.android.robotium.remotecontrol.client.processor.CommandHandler;
+
 /**
  * 
  * @author Lei Wang, SAS Institute, Inc
@@ -43,11 +45,47 @@ public class ScrollBarProcessor extends  TestStepProcessor{
 		super(testrunner);
 	}
 
+	/**
+	 * Register the handlers of the ScrollView and HorizontalScrollView commands.
+	 * @see com.jayway.android.robotium.remotecontrol.client.processor.AbstractProcessor#registerCommandHandlers()
+	 */
+	protected void registerCommandHandlers(){
+		super.registerCommandHandlers();
+		
+		registerCommandHandler(SAFSMessage.cf_scrollbar_pagedown, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _scrollCommands(props, true, true, false); }
+		});
+		registerCommandHandler(SAFSMessage.cf_scrollbar_pageup, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _scrollCommands(props, true, true, true); }
+		});
+		registerCommandHandler(SAFSMessage.cf_scrollbar_onedown, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _scrollCommands(props, true, false, false); }
+		});
+		registerCommandHandler(SAFSMessage.cf_scrollbar_oneup, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _scrollCommands(props, true, false, true); }
+		});
+		registerCommandHandler(SAFSMessage.cf_scrollbar_pageleft, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _scrollCommands(props, false, true, true); }
+		});
+		registerCommandHandler(SAFSMessage.cf_scrollbar_pageright, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _scrollCommands(props, false, true, false); }
+		});
+		registerCommandHandler(SAFSMessage.cf_scrollbar_oneleft, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _scrollCommands(props, false, false, true); }
+		});
+		registerCommandHandler(SAFSMessage.cf_scrollbar_oneright, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _scrollCommands(props, false, false, false); }
+		});
+	}
+	
 	public void processComponentFunction(Properties props) {
 		String dbPrefix = debugPrefix +".processComponentFunction(): ";
-		ResourceMessageInfo detailErrMsg = null;
-		Iterator<String> iter = null;
 		
+		if(!isCommandSupported(remoteCommand)){
+			// not handled here, maybe in a chained ViewProcessor?
+			debug(dbPrefix+"command '"+remoteCommand+"' is not processed by ScrollBarProcessor.");
+			return;
+		}
 		if(!checkSolo(props)){
 			debug(dbPrefix+"CANNOT get the Solo object.");
 			return;
@@ -58,71 +96,16 @@ public class ScrollBarProcessor extends  TestStepProcessor{
 			return;
 		}
 		try{
-			iter = params.iterator();
-			String param1 = "";
-			int actionTimes = 1;
-			
 			debug(dbPrefix+"Trying to process command '"+remoteCommand+"' on ScrollView/HorizontalScrollView object.");
+			scrollview = null;
+			hScrollview = null;
 			if(compobj instanceof ScrollView){
 				scrollview = (ScrollView) compobj;
 			}else if(compobj instanceof HorizontalScrollView){
 				hScrollview = (HorizontalScrollView) compobj;
 			}
 			
-			//The parameter is optional
-			if(iter.hasNext()){
-				param1 = iter.next();
-				debug(dbPrefix+"The first parameter is '"+param1+"' ");
-				try{
-					actionTimes = Integer.parseInt(param1);
-				}catch(NumberFormatException e){
-					actionTimes = 1;
-				}
-			}
-			
-			if(scrollview!=null &&
-			   (SAFSMessage.cf_scrollbar_onedown.equalsIgnoreCase(remoteCommand)||
-			   SAFSMessage.cf_scrollbar_oneup.equalsIgnoreCase(remoteCommand)  ||
-			   SAFSMessage.cf_scrollbar_pagedown.equalsIgnoreCase(remoteCommand) ||
-			   SAFSMessage.cf_scrollbar_pageup.equalsIgnoreCase(remoteCommand))){
-				
-				if(SAFSMessage.cf_scrollbar_pagedown.equalsIgnoreCase(remoteCommand)){
-					detailErrMsg = _scroll(scrollview, true, false, actionTimes);
-				}else if(SAFSMessage.cf_scrollbar_pageup.equalsIgnoreCase(remoteCommand)){
-					detailErrMsg = _scroll(scrollview, true, true, actionTimes);
-				}else if(SAFSMessage.cf_scrollbar_onedown.equalsIgnoreCase(remoteCommand)){
-					detailErrMsg = _scroll(scrollview, false, false, actionTimes);
-				}else if(SAFSMessage.cf_scrollbar_oneup.equalsIgnoreCase(remoteCommand)){
-					detailErrMsg = _scroll(scrollview, false, true, actionTimes);
-				}
-				
-			}else if(hScrollview!=null &&
-					 (SAFSMessage.cf_scrollbar_oneleft.equalsIgnoreCase(remoteCommand) ||
-					 SAFSMessage.cf_scrollbar_oneright.equalsIgnoreCase(remoteCommand) ||
-					 SAFSMessage.cf_scrollbar_pageleft.equalsIgnoreCase(remoteCommand) ||
-					 SAFSMessage.cf_scrollbar_pageright.equalsIgnoreCase(remoteCommand))){
-				
-				if(SAFSMessage.cf_scrollbar_pageleft.equalsIgnoreCase(remoteCommand)){
-					detailErrMsg = _scroll(hScrollview, true, true, actionTimes);
-				}else if(SAFSMessage.cf_scrollbar_pageright.equalsIgnoreCase(remoteCommand)){
-					detailErrMsg = _scroll(hScrollview, true, false, actionTimes);
-				}else if(SAFSMessage.cf_scrollbar_oneleft.equalsIgnoreCase(remoteCommand)){
-					detailErrMsg = _scroll(hScrollview, false, true, actionTimes);
-				}else if(SAFSMessage.cf_scrollbar_oneright.equalsIgnoreCase(remoteCommand)){
-					detailErrMsg = _scroll(hScrollview, false, false, actionTimes);
-				}				
-			}else{
-				detailErrMsg = new ResourceMessageInfo();
-				detailErrMsg.setKey(FAILKEYS.GENERIC_ERROR);
-				detailErrMsg.addParameter("The command '"+remoteCommand+"' is not supported by "+this.getClass().getSimpleName()+".");
-			}
-			
-			if(detailErrMsg==null){
-				setGeneralSuccessWithBundle(props);
-			}else{
-				debug(dbPrefix+"command '"+remoteCommand+"' failed.");
-				setGeneralError3(props, detailErrMsg);
-			}
+			dispatchCommand(props);
 			
 			// route Results to the controller side CFScrollBarFunctions library
 			if(commandNotExecuted(props)){ /*ignore*/ }
@@ -136,6 +119,45 @@ public class ScrollBarProcessor extends  TestStepProcessor{
 		}
 	}
 
+	/**
+	 * Handle the vertical commands on a ScrollView and the horizontal commands on a HorizontalScrollView.<br>
+	 * The optional first parameter is how many times the action should be repeated, 1 by default.<br>
+	 * 
+	 * @param props			Properties, contains the output results
+	 * @param vertical		boolean, true for the up/down commands; false for the left/right commands.
+	 * @param page			boolean, true scroll pace is page; otherwise it is one arrow.
+	 * @param backward		boolean, true scroll up or left; otherwise scroll down or right.
+	 */
+	void _scrollCommands(Properties props, boolean vertical, boolean page, boolean backward){
+		String dbPrefix = debugPrefix +"._scrollCommands(): ";
+		ResourceMessageInfo detailErrMsg = null;
+		int actionTimes = 1;
+		
+		//The parameter is optional
+		Iterator<String> iter = params.iterator();
+		if(iter.hasNext()){
+			String param1 = iter.next();
+			debug(dbPrefix+"The first parameter is '"+param1+"' ");
+			try{
+				actionTimes = Integer.parseInt(param1);
+			}catch(NumberFormatException e){
+				actionTimes = 1;
+			}
+		}
+		
+		if(vertical && scrollview!=null){
+			detailErrMsg = _scroll(scrollview, page, backward, actionTimes);
+		}else if(!vertical && hScrollview!=null){
+			detailErrMsg = _scroll(hScrollview, page, backward, actionTimes);
+		}else{
+			detailErrMsg = new ResourceMessageInfo();
+			detailErrMsg.setKey(FAILKEYS.GENERIC_ERROR);
+			detailErrMsg.addParameter("The command '"+remoteCommand+"' is not supported by "+this.getClass().getSimpleName()+".");
+		}
+		
+		setCommandResult(props, detailErrMsg);
+	}
+	
 	/**
 	 * Scroll a ScrollView vertically.
 	 * 
@@ -17,7 +17,6 @@
 **/
 package org.safs.android.engine.processor;
 
-import java.util.Iterator;
 import java.util.Properties;
 
 import org.safs.android.engine.DSAFSTestRunner;
@@ -31,6 +30,8 @@ import android.widget.TabHost;
 import android.widget.TabWidget;
 import android.widget.TextView;
 
+import com.jayway.android.robotium.remotecontrol.client.processor.CommandHandler;
+
 /**
  * 
  * @author Lei Wang, SAS Institute, Inc
@@ -45,12 +46,54 @@ public class TabControlProcessor extends  TestStepProcessor{
 		super(testrunner);
 	}
 
+	/**
+	 * Register the handlers of the TabHost commands, they all need one required parameter.
+	 * @see com.jayway.android.robotium.remotecontrol.client.processor.AbstractProcessor#registerCommandHandlers()
+	 */
+	protected void registerCommandHandlers(){
+		super.registerCommandHandlers();
+		
+		registerCommandHandler(new String[]{SAFSMessage.cf_tab_clicktab,
+		                                    SAFSMessage.cf_tab_selecttab,
+		                                    SAFSMessage.cf_tab_makeselection}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{
+				String param1 = getFirstRequiredParameter(props);
+				if(param1==null) return;
+				setCommandResult(props, _selectTabText(param1, false, true, true));
+			}
+		});
+		registerCommandHandler(SAFSMessage.cf_tab_clicktabcontains, new CommandHandler(){
+			public void handle(Properties props) throws Exception{
+				String param1 = getFirstRequiredParameter(props);
+				if(param1==null) return;
+				setCommandResult(props, _selectTabText(param1, true, true, true));
+			}
+		});
+		registerCommandHandler(SAFSMessage.cf_tab_selecttabindex, new CommandHandler(){
+			public void handle(Properties props) throws Exception{
+				String param1 = getFirstRequiredParameter(props);
+				if(param1==null) return;
+				//We should convert the index from 1-based to 0-based.
+				setCommandResult(props, _selectTabIndex(Integer.parseInt(param1)-1));
+			}
+		});
+		registerCommandHandler(SAFSMessage.cf_tab_unverifiedclicktab, new CommandHandler(){
+			public void handle(Properties props) throws Exception{
+				String param1 = getFirstRequiredParameter(props);
+				if(param1==null) return;
+				setCommandResult(props, _selectTabText(param1, false, true, false));
+			}
+		});
+	}
+	
 	public void processComponentFunction(Properties props) {
 		String dbPrefix = debugPrefix +".processComponentFunction(): ";
-		ResourceMessageInfo detailErrMsg = null;
-		Iterator<String> iter = null;
-		
 		
+		if(!isCommandSupported(remoteCommand)){
+			// not handled here, maybe in a chained ViewProcessor?
+			debug(dbPrefix+"command '"+remoteCommand+"' is not processed by TabControlProcessor.");
+			return;
+		}
 		if(!checkSolo(props)){
 			debug(dbPrefix+"CANNOT get the Solo object.");
 			return;
@@ -61,53 +104,12 @@ public class TabControlProcessor extends  TestStepProcessor{
 			return;
 		}
 		try{
-			String param1 = "";
-			iter = params.iterator();
 			tabhost = (TabHost) compobj;
 			tabwidget = tabhost.getTabWidget();
 			
 			debug(dbPrefix+"Trying to process command '"+remoteCommand+"' on TabHost object.");
 			
-			//These keywords need one required parameter
-			if(SAFSMessage.cf_tab_clicktab.equalsIgnoreCase(remoteCommand)||
-			   SAFSMessage.cf_tab_clicktabcontains.equalsIgnoreCase(remoteCommand)  ||
-			   SAFSMessage.cf_tab_selecttab.equalsIgnoreCase(remoteCommand) ||
-			   SAFSMessage.cf_tab_selecttabindex.equalsIgnoreCase(remoteCommand) ||
-			   SAFSMessage.cf_tab_unverifiedclicktab.equalsIgnoreCase(remoteCommand) ||
-			   SAFSMessage.cf_tab_makeselection.equalsIgnoreCase(remoteCommand)){
-
-				if(!checkParameterSize(1, props)){
-					debug(dbPrefix+" the parameters are not enough.");
-					return;
-				}
-				param1 = iter.next();
-				debug(dbPrefix+"The first parameter is '"+param1+"' ");
-				
-				if(SAFSMessage.cf_tab_clicktab.equalsIgnoreCase(remoteCommand) ||
-				   SAFSMessage.cf_tab_selecttab.equalsIgnoreCase(remoteCommand) ||
-				   SAFSMessage.cf_tab_makeselection.equalsIgnoreCase(remoteCommand)){
-					detailErrMsg = _selectTabText(param1, false, true, true);
-				}else if(SAFSMessage.cf_tab_clicktabcontains.equalsIgnoreCase(remoteCommand)){
-					detailErrMsg = _selectTabText(param1, true, true, true);
-				}else if(SAFSMessage.cf_tab_selecttabindex.equalsIgnoreCase(remoteCommand)){
-					//We should convert the index from 1-based to 0-based.
-					detailErrMsg = _selectTabIndex(Integer.parseInt(param1)-1);
-				}else if(SAFSMessage.cf_tab_unverifiedclicktab.equalsIgnoreCase(remoteCommand)){
-					detailErrMsg = _selectTabText(param1, false, true, false);
-				}
-				
-			}else{
-				detailErrMsg = new ResourceMessageInfo();
-				detailErrMsg.setKey(FAILKEYS.GENERIC_ERROR);
-				detailErrMsg.addParameter("The command '"+remoteCommand+"' is not supported by TabControlProcessor.");
-			}
-			
-			if(detailErrMsg==null){
-				setGeneralSuccessWithBundle(props);
-			}else{
-				debug(dbPrefix+"command '"+remoteCommand+"' failed.");
-				setGeneralError3(props, detailErrMsg);
-			}
+			dispatchCommand(props);
 			
 			// route Results to the controller side CFCheckBoxFunctions library
 			if(commandNotExecuted(props)){ /*ignore*/ }
@@ -32,6 +32,7 @@ import org.safs.text.ResourceMessageInfo;
 
 import android.view.View;
 
+import com.jayway.android.robotium.remotecontrol.client.CommandMetrics;
 import com.jayway.android.robotium.remotecontrol.client.SoloMessage;
 import com.jayway.android.robotium.remotecontrol.client.processor.ProcessorException;
 
@@ -79,6 +80,8 @@ import com.jayway.android.robotium.remotecontrol.client.processor.ProcessorExcep
  * 26 APR, 2012 	(LeiWang)	Add some methods to treat the keyword's parameters; 
  *                              get embedded solo, instrumentation object; log general success and failure.
  * 19 APR, 2013 	(LeiWang)	Get testObject from cache by windowName and componentName before looking by search-algorithm.<br>
+ * OCT 18, 2026 	(agent)	Add getFirstRequiredParameter and setCommandResult, used by the registered command handlers.<br>
+ * OCT 18, 2026 	(agent)	Time the window search, the component search and the action in CommandMetrics.<br>
  */
 public abstract class TestStepProcessor extends SAFSProcessor {
 
@@ -108,6 +111,7 @@ public abstract class TestStepProcessor extends SAFSProcessor {
 			if(! extractComponentProperties(props)) return;
 			
 			dgov = new DGuiObjectVector(winrec, comprec, null);
+			setSearchWait(dgov);
 			
 			debug(dbPrefix+"preset default routing command to "+SAFSMessage.target_safs_view);
 			props.setProperty(SAFSMessage.KEY_TARGET, SAFSMessage.target_safs_view);			
@@ -143,7 +147,9 @@ public abstract class TestStepProcessor extends SAFSProcessor {
 				//TODO For guidoesexist and guidoesnotexist, should we get the object from cache?
 				winobj = getTestObject(winname, winname);
 				if(winobj==null){
+					long start = CommandMetrics.start();
 					winobj = dgov.getMatchingParentObject(wintime);
+					CommandMetrics.stop(CommandMetrics.PHASE_WINDOW, start);
 					if(winobj!=null) setTestObject(winname, winname, winobj);
 				}else{
 					debug(dbPrefix + " Got window object from cache.");			
@@ -197,7 +203,9 @@ public abstract class TestStepProcessor extends SAFSProcessor {
 					//TODO For guidoesexist and guidoesnotexist, should we get the object from cache?
 					compobj = getTestObject(winname, compname);
 					if(compobj==null){
+						long start = CommandMetrics.start();
 						compobj = dgov.getMatchingChild(cmptime);
+						CommandMetrics.stop(CommandMetrics.PHASE_COMPONENT, start);
 						if(compobj!=null) setTestObject(winname, compname, compobj);
 					}else{
 						debug(dbPrefix + " Got component object from cache.");			
@@ -251,7 +259,9 @@ public abstract class TestStepProcessor extends SAFSProcessor {
 		//Get the keyword's parameters from Properties if exist
 		retrieveParameters(props);
 		
-		processComponentFunction(props);		
+		long start = CommandMetrics.start();
+		try{ processComponentFunction(props);}
+		finally{ CommandMetrics.stop(CommandMetrics.PHASE_ACTION, start);}
 	}
 	
 	/**
@@ -356,6 +366,21 @@ public abstract class TestStepProcessor extends SAFSProcessor {
 		return true;
 	}
 	
+	/**
+	 * Check that there is at least one parameter and return it.<br>
+	 * Used by the command handlers which need one required parameter.<br>
+	 * 
+	 * @param props Properties, contains the output results
+	 * @return String, the first parameter; or null if there is no parameter, the error has been set.
+	 * @see #checkParameterSize(int, Properties)
+	 */
+	protected String getFirstRequiredParameter(Properties props){
+		if(!checkParameterSize(1, props)) return null;
+		String param1 = params.iterator().next();
+		debug(debugPrefix+".getFirstRequiredParameter(): The first parameter is '"+param1+"' ");
+		return param1;
+	}
+	
 	/**
 	 * To check if the Solo object can be got or not.<br>
 	 * If the Solo object can be got, we set general error with resource message.<br>
@@ -441,6 +466,23 @@ public abstract class TestStepProcessor extends SAFSProcessor {
 		setGeneralErrorWithBundleMessage(props, resourceMsg, detail);
 	}
 	
+	/**
+	 * Set the result of a command whose implementation returns a detail error message.<br>
+	 * Call {@link #setGeneralSuccessWithBundle(Properties)} if detail is null,
+	 * otherwise call {@link #setGeneralError3(Properties, ResourceMessageInfo)}.<br>
+	 * 
+	 * @param props Properties, contains the output results
+	 * @param detail ResourceMessageInfo, null if the command succeeded, otherwise the detail error message.
+	 */
+	protected void setCommandResult(Properties props, ResourceMessageInfo detail){
+		if(detail==null){
+			setGeneralSuccessWithBundle(props);
+		}else{
+			debug(debugPrefix+".setCommandResult(): command '"+remoteCommand+"' failed.");
+			setGeneralError3(props, detail);
+		}
+	}
+	
 	/**
 	 * Set a error result and send back error message as following:<br>
 	 * *** ERROR *** Error Message.<br>
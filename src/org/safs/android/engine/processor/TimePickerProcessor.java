@@ -19,7 +19,6 @@ package org.safs.android.engine.processor;
 
 import java.util.Calendar;
 import java.util.Date;
-import java.util.Iterator;
 import java.util.Properties;
 
 import org.safs.android.engine.DSAFSTestRunner;
@@ -30,6 +29,8 @@ import org.safs.tools.stringutils.StringUtilities;
 
 import android.widget.TimePicker;
 
+import com.jayway.android.robotium.remotecontrol.client.processor.CommandHandler;
+
 /**
  * 
  * @author Lei Wang, SAS Institute, Inc
@@ -43,11 +44,44 @@ public class TimePickerProcessor extends  TestStepProcessor{
 		super(testrunner);
 	}
 
+	/**
+	 * Register the handlers of the TimePicker commands.<br>
+	 * The time parameter is required for settime, the variable parameter is required for gettime.
+	 * @see com.jayway.android.robotium.remotecontrol.client.processor.AbstractProcessor#registerCommandHandlers()
+	 */
+	protected void registerCommandHandlers(){
+		super.registerCommandHandlers();
+		
+		registerCommandHandler(SAFSMessage.cf_timepicker_settime, new CommandHandler(){
+			public void handle(Properties props) throws Exception{
+				String param1 = getFirstRequiredParameter(props);
+				if(param1==null) return;
+				setCommandResult(props, setTime(timepicker, param1));
+			}
+		});
+		registerCommandHandler(SAFSMessage.cf_timepicker_gettime, new CommandHandler(){
+			public void handle(Properties props) throws Exception{
+				if(getFirstRequiredParameter(props)==null) return;
+				Calendar calendar = Calendar.getInstance();
+				ResourceMessageInfo detailErrMsg = getTime(timepicker, calendar);
+				
+				//Use format "HH:mm:ss" to create a time string
+				String calendarStr = StringUtilities.getTimeString(calendar.getTime(), true);
+				
+				props.setProperty(SAFSMessage.PARAM_9, calendarStr);
+				setCommandResult(props, detailErrMsg);
+			}
+		});
+	}
+	
 	public void processComponentFunction(Properties props) {
 		String dbPrefix = debugPrefix +".processComponentFunction(): ";
-		ResourceMessageInfo detailErrMsg = null;
-		Iterator<String> iter = null;
 		
+		if(!isCommandSupported(remoteCommand)){
+			// not handled here, maybe in a chained ViewProcessor?
+			debug(dbPrefix+"command '"+remoteCommand+"' is not processed by TimePickerProcessor.");
+			return;
+		}
 		if(!checkSolo(props)){
 			debug(dbPrefix+"CANNOT get the Solo object.");
 			return;
@@ -60,42 +94,9 @@ public class TimePickerProcessor extends  TestStepProcessor{
 			timepicker = (TimePicker) compobj;
 		}
 		try{
-			iter = params.iterator();
-			String param1 = "";
-			
 			debug(dbPrefix+"Trying to process command '"+remoteCommand+"' on TimePicker object.");
 			
-			//The time parameter is required for settime
-			//The variable parameter is required for gettime
-			if(SAFSMessage.cf_timepicker_settime.equalsIgnoreCase(remoteCommand)||
-			   SAFSMessage.cf_timepicker_gettime.equalsIgnoreCase(remoteCommand)){
-				if(!checkParameterSize(1, props)){
-					debug(dbPrefix+" the parameters are not enough.");
-					return;
-				}
-			}
-			
-			if(SAFSMessage.cf_timepicker_settime.equalsIgnoreCase(remoteCommand)){
-				param1 = iter.next();
-				debug(dbPrefix+"The first parameter is '"+param1+"' ");
-				detailErrMsg = setTime(timepicker, param1);
-				
-			}else if(SAFSMessage.cf_timepicker_gettime.equalsIgnoreCase(remoteCommand)){
-				Calendar calendar = Calendar.getInstance();
-				detailErrMsg = getTime(timepicker, calendar);
-				
-				//Use format "HH:mm:ss" to create a time string
-				String calendarStr = StringUtilities.getTimeString(calendar.getTime(), true);
-					
-				props.setProperty(SAFSMessage.PARAM_9, calendarStr);
-			}
-			
-			if(detailErrMsg==null){
-				setGeneralSuccessWithBundle(props);
-			}else{
-				debug(dbPrefix+"command '"+remoteCommand+"' failed.");
-				setGeneralError3(props, detailErrMsg);
-			}
+			dispatchCommand(props);
 			
 			// route Results to the controller side CFScrollBarFunctions library
 			if(commandNotExecuted(props)){ /*ignore*/ }
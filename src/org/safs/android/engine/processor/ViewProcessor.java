@@ -18,8 +18,10 @@
 package org.safs.android.engine.processor;
 
 import java.io.ByteArrayOutputStream;
-import java.io.CharArrayWriter;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Properties;
 
 import org.safs.android.engine.DGuiObjectRecognition;
@@ -30,26 +32,78 @@ import org.safs.text.GENKEYS;
 import org.safs.text.ResourceMessageInfo;
 
 import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
 import android.graphics.Rect;
-import android.util.Base64;
+import android.os.Environment;
 import android.view.Display;
 import android.view.View;
 import android.view.WindowManager;
 import android.widget.EditText;
 
-import com.jayway.android.robotium.remotecontrol.client.SoloMessage;
+import com.jayway.android.robotium.remotecontrol.client.processor.Base64FileEncoder;
+import com.jayway.android.robotium.remotecontrol.client.processor.CommandHandler;
+import com.jayway.android.robotium.remotecontrol.client.processor.ViewCapture;
 
 
 /**
  * 
  * @author Carl Nagle, SAS Institute, Inc
+ * OCT 18, 2026 	(agent)	Draw only the region of the component for GetGuiImage, with the format and quality asked for.<br>
+ * OCT 18, 2026 	(agent)	Add CompareGuiImage, comparing the component against a baseline image stored on the device.<br>
  */
 public class ViewProcessor extends  TestStepProcessor{
 
+	/** "compareguiimage", compare the component against a baseline image on the device, see {@link #_compareGuiImage(Properties)}. */
+	public static final String cf_view_compareguiimage = "compareguiimage";
+	/** "SAFS-Baselines", the folder of the external storage holding the relative baseline files. */
+	public static final String BASELINE_FOLDER = "SAFS-Baselines";
+	/** "Save", the mode of CompareGuiImage storing the current image as the baseline. */
+	public static final String MODE_SAVE = "save";
+	/** "DiffImage", the option of CompareGuiImage returning the difference image in PARAM_9. */
+	public static final String OPTION_DIFFIMAGE = "diffimage";
+
 	public ViewProcessor(DSAFSTestRunner testrunner) {
 		super(testrunner);
 	}
 
+	/**
+	 * Register the handlers of the View commands.
+	 * @see com.jayway.android.robotium.remotecontrol.client.processor.AbstractProcessor#registerCommandHandlers()
+	 */
+	protected void registerCommandHandlers(){
+		super.registerCommandHandlers();
+		
+		registerCommandHandler(new String[]{SAFSMessage.cf_view_click,
+		                                    SAFSMessage.cf_view_tap,
+		                                    SAFSMessage.cf_view_press}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _clickCommands(props); }
+		});
+		registerCommandHandler(SAFSMessage.cf_view_getguiimage, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _getGuiImage(props); }
+		});
+		registerCommandHandler(cf_view_compareguiimage, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _compareGuiImage(props); }
+		});
+		registerCommandHandler(SAFSMessage.cf_view_guidoesexist, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _guiExists(props, true); }
+		});
+		registerCommandHandler(SAFSMessage.cf_view_guidoesnotexist, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _guiExists(props, false); }
+		});
+		registerCommandHandler(new String[]{SAFSMessage.cf_view_inputcharacters,
+		                                    SAFSMessage.cf_view_typechars}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _inputCharacters(props); }
+		});
+		registerCommandHandler(new String[]{SAFSMessage.cf_view_inputkeys,
+		                                    SAFSMessage.cf_view_typekeys}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _inputKeys(props); }
+		});
+		registerCommandHandler(new String[]{SAFSMessage.cf_view_capturepropertiestofile,
+		                                    SAFSMessage.cf_view_verifypropertiestofile}, new CommandHandler(){
+			public void handle(Properties props) throws Exception{ _captureProperties(props); }
+		});
+	}
+	
 	/**
 	 * If the command is processed here it sets the KEY_TARGET property to {@value SAFSMessage#target_safs_view} 
 	 * in order to route Results processing to the CFViewFunctions on the controller.
@@ -57,6 +111,10 @@ public class ViewProcessor extends  TestStepProcessor{
 	public void processComponentFunction(Properties props) {
 		String dbPrefix = debugPrefix+".processComponentFunction(): ";
 		debug(dbPrefix +"processing... '"+remoteCommand+"'");
+		if(!isCommandSupported(remoteCommand)){
+			debug(dbPrefix+"command '"+remoteCommand+"' is not processed by ViewProcessor.");
+			return;
+		}
 		if(!checkSolo(props)){ // typically already done in RoutingViewProcessor
 			debug(dbPrefix+"CANNOT get the Solo object.");
 			return;
@@ -72,33 +130,7 @@ public class ViewProcessor extends  TestStepProcessor{
 		}
 		
 		try{
-			if(SAFSMessage.cf_view_click.equalsIgnoreCase(remoteCommand)||
-			   SAFSMessage.cf_view_tap.equalsIgnoreCase(remoteCommand)||
-			   SAFSMessage.cf_view_press.equalsIgnoreCase(remoteCommand)){
-				_clickCommands(props);
-			}else
-			if(SAFSMessage.cf_view_getguiimage.equalsIgnoreCase(remoteCommand)){
-				_getGuiImage(props);
-			}else
-			if(SAFSMessage.cf_view_guidoesexist.equalsIgnoreCase(remoteCommand)){
-				_guiExists(props, true);
-			}else
-			if(SAFSMessage.cf_view_guidoesnotexist.equalsIgnoreCase(remoteCommand)){
-				_guiExists(props, false);
-			}else
-			if(SAFSMessage.cf_view_inputcharacters.equalsIgnoreCase(remoteCommand) ||
-			   SAFSMessage.cf_view_typechars.equalsIgnoreCase(remoteCommand)){
-				_inputCharacters(props);
-			}else
-			if(SAFSMessage.cf_view_inputkeys.equalsIgnoreCase(remoteCommand) ||
-			   SAFSMessage.cf_view_typekeys.equalsIgnoreCase(remoteCommand)){
-				_inputKeys(props);
-			}				
-			else
-			if(SAFSMessage.cf_view_capturepropertiestofile.equalsIgnoreCase(remoteCommand)||
-			   SAFSMessage.cf_view_verifypropertiestofile.equalsIgnoreCase(remoteCommand)){
-				_captureProperties(props);
-			}
+			dispatchCommand(props);
 			// route Results to the controller side CFViewFunctions library
 			if(commandNotExecuted(props)){ /*ignore*/ }
 			else props.setProperty(SAFSMessage.KEY_TARGET, SAFSMessage.target_safs_view);
@@ -258,7 +290,10 @@ public class ViewProcessor extends  TestStepProcessor{
 	}
 	
 	/**
-	 * If successful, the resulting image is passed in the resultInfo.
+	 * If successful, the resulting image is passed in the resultInfo.<br>
+	 * Only the visible region of the component is drawn, into a pooled Bitmap of the {@link ViewCapture}.
+	 * The image is PNG unless the optional properties {@link ViewCapture#KEY_CAPTUREFORMAT} ("PNG", "JPEG" or "WEBP") 
+	 * and {@link ViewCapture#KEY_CAPTUREQUALITY} (0 to 100) say otherwise.
 	 * @param props
 	 */
 	void _getGuiImage(Properties props){
@@ -267,18 +302,17 @@ public class ViewProcessor extends  TestStepProcessor{
 	    Rect v = new Rect();
 	    boolean isvisible = cobj.getGlobalVisibleRect(v);
 	    if(isvisible){
-		    View root = cobj.getRootView();		   
-		    root.setDrawingCacheEnabled(true);
-		    Bitmap bitmap = Bitmap.createBitmap(root.getDrawingCache(), v.left, v.top, v.width(), v.height());
-		    root.setDrawingCacheEnabled(false);
-		    ByteArrayOutputStream outputstream = new ByteArrayOutputStream();
-		    boolean success = bitmap.compress(Bitmap.CompressFormat.PNG, 100, outputstream);
-		    if(success){
-			    //props.setProperty(SAFSMessage.PARAM_1, Base64.encodeToString(outputstream.toByteArray(), Base64.DEFAULT));
-			    //setGeneralSuccessWithSpecialInfo(props, null);
-			    setGeneralSuccessWithSpecialInfo(props, Base64.encodeToString(outputstream.toByteArray(), Base64.DEFAULT));
+		    Bitmap.CompressFormat format = ViewCapture.parseFormat(props.getProperty(ViewCapture.KEY_CAPTUREFORMAT), Bitmap.CompressFormat.PNG);
+		    int quality = ViewCapture.parseQuality(props.getProperty(ViewCapture.KEY_CAPTUREQUALITY), 100);
+		    String image = null;
+		    try{ image = ViewCapture.getShared(testrunner).captureBase64(cobj.getRootView(), v, format, quality);}
+		    catch(RuntimeException x){
+			    debug(dbPrefix +x.getClass().getSimpleName()+": "+x.getMessage());
+		    }
+		    if(image != null){
+			    setGeneralSuccessWithSpecialInfo(props, image);
 		    }else{
-			    debug(dbPrefix +"did not successfully compress Bitmap to PNG format.");
+			    debug(dbPrefix +"did not successfully compress Bitmap to "+ format +" format.");
 				resourceMsg.reset();
 				resourceMsg.setResourceBundleName(ResourceMessageInfo.BUNDLENAME_FAILEDTEXT);
 				resourceMsg.setKey(FAILKEYS.FAILURE_2);
@@ -295,6 +329,87 @@ public class ViewProcessor extends  TestStepProcessor{
 	   }
 	}
 	
+	/**
+	 * Compare the visible region of the component against a baseline image stored on the device, 
+	 * so that only the verdict travels back to the remote controller instead of the full image.<br>
+	 * PARAM_1: the baseline file; relative to the {@link #BASELINE_FOLDER} of the external storage unless absolute.<br>
+	 * PARAM_2: optional, the mode of comparison, "Exact" (default), "Tolerance:N,P" or "PHash:D", 
+	 *          see {@link ImageComparison#parse(String)}. Or "Save" to store the current image as the PNG baseline.<br>
+	 * PARAM_3: optional, "DiffImage" or "true" to return the Base64 PNG of the differences in PARAM_9 
+	 *          when the images do not match and have the same size.<br>
+	 * The resultInfo holds the {@link ImageComparison.Result}, like "match=false;score=0.99871;distance=-1;diffpixels=310;boxes=10,40,32,16".
+	 * The score is a fraction between 0 and 1, not a percentage: the matching pixels, or the matching hash bits in PHash mode.
+	 * The command fails if the images do not match.
+	 * @param props
+	 */
+	void _compareGuiImage(Properties props){
+	    String dbPrefix = debugPrefix +"_compareGuiImage(): ";
+	    if(!checkParameterSize(1, props)) return;
+	    View cobj = (View)compobj;
+	    Rect v = new Rect();
+	    if(!cobj.getGlobalVisibleRect(v)){
+		    debug(dbPrefix +"object is not visible on screen.");
+			resourceMsg.reset();
+			resourceMsg.setResourceBundleName(ResourceMessageInfo.BUNDLENAME_FAILEDTEXT);
+			resourceMsg.setKey(FAILKEYS.NOT_FOUND_ON_SCREEN);
+			resourceMsg.addParameter(winname+":"+compname);		
+			setGeneralErrorWithBundleMessage(props, resourceMsg, null);
+			return;
+	    }
+	    String filename = props.getProperty(SAFSMessage.PARAM_1);
+	    File baseline = new File(filename);
+	    if(!baseline.isAbsolute()) baseline = new File(new File(Environment.getExternalStorageDirectory(), BASELINE_FOLDER), filename);
+	    String mode = props.getProperty(SAFSMessage.PARAM_2);
+	    String option = props.getProperty(SAFSMessage.PARAM_3);
+	    boolean wantDiff = option != null && (OPTION_DIFFIMAGE.equalsIgnoreCase(option.trim()) || "true".equalsIgnoreCase(option.trim()));
+	    ViewCapture capture = ViewCapture.getShared(testrunner);
+	    try{
+		    if(mode != null && MODE_SAVE.equalsIgnoreCase(mode.trim())){
+			    File folder = baseline.getParentFile();
+			    if(folder != null && !folder.isDirectory()) folder.mkdirs();
+			    FileOutputStream out = new FileOutputStream(baseline);
+			    try{ capture.captureTo(cobj.getRootView(), v, Bitmap.CompressFormat.PNG, 100, out); }
+			    finally{ out.close(); }
+			    debug(dbPrefix +"saved baseline "+ baseline.getAbsolutePath());
+			    setGeneralSuccessWithSpecialInfo(props, baseline.getAbsolutePath());
+			    return;
+		    }
+		    ImageComparison.Options options = ImageComparison.parse(mode);
+		    Bitmap expected = BitmapFactory.decodeFile(baseline.getAbsolutePath());
+		    if(expected == null) throw new IOException("cannot decode baseline "+ baseline.getAbsolutePath());
+		    int bw = expected.getWidth();
+		    int bh = expected.getHeight();
+		    int[] base = new int[bw * bh];
+		    expected.getPixels(base, 0, bw, 0, 0, bw, bh);
+		    expected.recycle();
+
+		    int[] actual = capture.capturePixels(cobj.getRootView(), v);
+		    ImageComparison.Result result = ImageComparison.compare(actual, v.width(), v.height(), base, bw, bh, options);
+		    debug(dbPrefix + options.mode +" against "+ baseline.getName() +": "+ result);
+		    if(result.match){
+			    setGeneralSuccessWithSpecialInfo(props, result.toString());
+			    return;
+		    }
+		    if(wantDiff && v.width()==bw && v.height()==bh){
+			    int[] diff = ImageComparison.diffImage(actual, base, bw, bh, options.tolerance);
+			    Bitmap image = Bitmap.createBitmap(diff, bw, bh, Bitmap.Config.ARGB_8888);
+			    ByteArrayOutputStream png = new ByteArrayOutputStream();
+			    boolean compressed = image.compress(Bitmap.CompressFormat.PNG, 100, png);
+			    image.recycle();
+			    if(compressed) props.setProperty(SAFSMessage.PARAM_9, Base64FileEncoder.encode(ByteBuffer.wrap(png.toByteArray())));
+		    }
+		    setGeneralErrorWithSpecialInfo(props, result.toString());
+	    }catch(Exception e){
+			String errormsg = "met Exception "+e.getClass().getSimpleName()+":"+e.getMessage();
+			debug(dbPrefix +errormsg);
+			resourceMsg.reset();
+			resourceMsg.setResourceBundleName(ResourceMessageInfo.BUNDLENAME_FAILEDTEXT);
+			resourceMsg.setKey(FAILKEYS.GENERIC_ERROR);
+			resourceMsg.setParams(new String[]{errormsg});		
+			setGeneralErrorWithBundleMessage(props, resourceMsg, null);
+	    }
+	}
+	
 	// ****************************************************************************
 	void _guiExists(Properties props, boolean doesExist){
 	    String dbPrefix = debugPrefix;
@@ -348,8 +463,14 @@ public class ViewProcessor extends  TestStepProcessor{
 	    String dbPrefix = debugPrefix;
 	    dbPrefix += "_captureProperties()";
 	    debug(dbPrefix +"attempting to grab property values...");
-	    String[] names = DGuiObjectRecognition.getObjectPropertyNames(compobj);
-	    if(names == null || names.length == 0){
+	    // all properties are read in one pass on the UI thread, straight into the result
+		StringBuilder buffer = new StringBuilder(4096);
+		int count = 0;
+		try{ count = DGuiObjectRecognition.captureObjectProperties(compobj, null, buffer); }
+		catch(Throwable x){
+		    debug(dbPrefix +"met "+ x.getClass().getSimpleName()+" capturing Properties: "+ x.getMessage());
+		}
+	    if(count == 0){
 		    debug(dbPrefix +"failed to retrieve ANY property values!");
 			resourceMsg.reset();
 			resourceMsg.setResourceBundleName(ResourceMessageInfo.BUNDLENAME_FAILEDTEXT);
@@ -358,26 +479,7 @@ public class ViewProcessor extends  TestStepProcessor{
 			setGeneralErrorWithBundleMessage(props, resourceMsg, null);
 			return;
 	    }
-	    Properties store = new Properties();
-	    String value = null;
-	    for(String name : names){
-	    	value = DGuiObjectRecognition.getObjectProperty(compobj, name);
-	    	if (value == null) value = SoloMessage.NULL_VALUE;
-	    	store.setProperty(name, value);
-	    }
-		StringBuffer buffer = new StringBuffer();
-		CharArrayWriter writer = new CharArrayWriter();
-		try{ store.store(writer, "Properties"); }
-		catch(IOException x){
-		    debug(dbPrefix +"IOException writing Properties for exchange!");
-			resourceMsg.reset();
-			resourceMsg.setResourceBundleName(ResourceMessageInfo.BUNDLENAME_FAILEDTEXT);
-			resourceMsg.setKey(FAILKEYS.FAIL_EXTRACT_KEY);
-			resourceMsg.addParameter("Properties");		
-			setGeneralErrorWithBundleMessage(props, resourceMsg, null);
-			return;
-		}
-		buffer.append(writer.toCharArray());
+	    debug(dbPrefix +"captured "+ count +" properties.");
 	    setGeneralSuccessWithSpecialInfo(props, buffer.toString());
 	}
 
@@ -20,7 +20,6 @@ package org.safs.robot;
 import java.io.InputStream;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Vector;
 
@@ -28,8 +27,6 @@ import org.safs.android.engine.R;
 import org.safs.text.INIFileReader;
 import org.safs.tools.input.CreateUnicodeMap;
 import org.safs.tools.input.InputKeysParser;
-import org.safs.tools.input.RobotClipboardPasteEvent;
-import org.safs.tools.input.RobotKeyEvent;
 
 import android.app.Instrumentation;
 import android.content.Context;
@@ -54,6 +51,7 @@ import android.view.MotionEvent;
  * <br> LeiWang JUL 04, 2011  Add methods to maximize, minimize, restore, close window by key-mnemonic.
  * <br> LeiWang  OCT 30, 2012  Convert for Android's system.
  * <br> LeiWang  NOV 06, 2012  Add methods to handle the Android's Clipboard.
+ * <br> agent  OCT 18, 2026  inputKeys() and inputChars() replay the cached KeystrokePlans of the InputKeysParser, instead of doEvents().
  */
 public class Robot {
 	public String TAG = "Robot";
@@ -137,8 +135,7 @@ public class Robot {
 	   	debug("SAFS Robot processing InputKeys: "+ input);
 	   	InputKeysParser parser = getInputKeysParser();
 	   	try{
-	   		Vector<RobotKeyEvent> keystrokes = parser.parseInput(input);
-	   		doEvents(instrument, keystrokes);
+	   		parser.compileInput(input).replay(instrument);
 	   		return new Boolean(true);
 	   	}catch(Throwable e){
 	   		debug(TAG+" Met Exception "+e.getClass().getSimpleName()+":"+e.getMessage());
@@ -161,8 +158,7 @@ public class Robot {
 		debug("SAFS Robot processing InputKeys: "+ input);
 	   	InputKeysParser parser = getInputKeysParser();
 	   	try{
-	   		Vector<RobotKeyEvent> keystrokes = parser.parseChars(input);
-	   		doEvents(instrument, keystrokes);
+	   		parser.compileChars(input).replay(instrument);
 	   		return new Boolean(true);
 	   	}catch(Throwable e){
 	   		debug(TAG+" Met Exception "+e.getClass().getSimpleName()+":"+e.getMessage());
@@ -170,20 +166,6 @@ public class Robot {
 	   	}
 	}
 	
-	private void doEvents(Instrumentation bot, Vector<RobotKeyEvent> RobotKeys){
-	   	if(bot == null)
-	   		return;
-		Iterator<RobotKeyEvent> events = RobotKeys.iterator();
-	   	Object event;	   	
-	   	while(events.hasNext()){
-   			event = events.next();
-   			if(event instanceof RobotClipboardPasteEvent)
-   				//setting ms_delay=50, for the Paste from Clipboard needs to wait until copying Clipboard finished.
-   				((RobotClipboardPasteEvent)event).doEvent(bot, 50);
-   			else
-   				((RobotKeyEvent)event).doEvent(bot, 0);	   	
-   		}		
-	}
 	/**
 	 * Workhorse Click routine.  
 	 * Allows us to Click--Press & Release--any combination of MotionEvent.BUTTON_XXX 
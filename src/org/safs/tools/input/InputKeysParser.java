@@ -53,6 +53,7 @@ import android.view.KeyEvent;
  * 															 contains mapping of 'a'.
  * <br>	DEC 07, 2010  (LeiWang)	Add method antiParse(), parseKeyCode(), getReverseMap(): Convert a list of RobotKeyEvent to a SAFS's key string
  * <br> OCT 30, 2012  (LeiWang)	Convert for android system.
+ * <br> OCT 18, 2026  (agent)	Add compileInput() and compileChars(): cached, replayable KeystrokePlans of the input strings.
  */
 public class InputKeysParser {
 
@@ -76,6 +77,10 @@ public class InputKeysParser {
 	private Map<String,String>   specialsKeyToChar = null;
 	private Map<String,String>   standardsKeyToChar = null;
 
+	//the compiled plans of parseInput and parseChars, by input string
+	private KeystrokePlan.Cache inputPlans = new KeystrokePlan.Cache();
+	private KeystrokePlan.Cache charPlans = new KeystrokePlan.Cache();
+
 	protected boolean alt_on = false;
 	protected boolean shift_on = false;
 	protected boolean ctrl_on = false;
@@ -559,6 +564,54 @@ public class InputKeysParser {
 	}
 
 	
+	/**
+	 * The cached equivalent of {@link #parseInput(String)}: the keystrokes of each distinct input string 
+	 * are parsed and compiled once, then the same {@link KeystrokePlan} is returned for the same input.<br>
+	 * The plans are cached only when no modifier is left pressed before or after the parsing, 
+	 * since the keystrokes then depend on the previous input.
+	 * @param input String, the InputKeys string.
+	 * @return KeystrokePlan, shared: it must not be modified.
+	 */
+	public KeystrokePlan compileInput(String input){
+		return compile(input, false);
+	}
+
+	/**
+	 * The cached equivalent of {@link #parseChars(String)}.
+	 * @param input String, the characters typed as-is.
+	 * @return KeystrokePlan, shared: it must not be modified.
+	 * @see #compileInput(String)
+	 */
+	public KeystrokePlan compileChars(String input){
+		return compile(input, true);
+	}
+
+	private synchronized KeystrokePlan compile(String input, boolean chars){
+		KeystrokePlan.Cache plans = chars ? charPlans : inputPlans;
+		boolean stateless = !alt_on && !ctrl_on && !shift_on;
+		KeystrokePlan plan = stateless ? plans.get(input) : null;
+		if(plan != null) return plan;
+		plan = KeystrokePlan.compile(chars ? parseChars(input) : parseInput(input));
+		if(stateless && !alt_on && !ctrl_on && !shift_on) plans.put(input, plan);
+		return plan;
+	}
+
+	/** @param size int, the maximum number of input strings of each plan cache, at least 1. */
+	public void setPlanCacheSize(int size){
+		inputPlans.setMaxSize(size);
+		charPlans.setMaxSize(size);
+	}
+
+	public void clearPlanCache(){
+		inputPlans.clear();
+		charPlans.clear();
+	}
+
+	/** @return String, like "inputPlans[size=40,hits=5230,misses=40,hitrate=99.2%];charPlans[...]" */
+	public String getPlanCacheStatistics(){
+		return "inputPlans["+inputPlans.getStatistics()+"];charPlans["+charPlans.getStatistics()+"]";
+	}
+
 	/**
 	 * Retrieve the stored "standard" keycode of the provided character.  
 	 * @param _char -- String of one char.
@@ -0,0 +1,191 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package org.safs.tools.input;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import android.app.Instrumentation;
+import android.view.KeyEvent;
+
+/**
+ * A compiled, replayable keystroke sequence: the result of {@link InputKeysParser#parseInput(String)} 
+ * flattened into a primitive int array of (action, keycode) pairs.<br>
+ * The action is {@link RobotKeyEvent#KEY_PRESS}, {@link RobotKeyEvent#KEY_RELEASE}, {@link RobotKeyEvent#KEY_TYPE}, 
+ * or {@link #ACTION_PASTE} whose keycode is then the index of the {@link RobotClipboardPasteEvent} to run.<br>
+ * A plan holds no parser state and is never modified once compiled, so the same plan is replayed 
+ * each time the same InputKeys string is sent again, see {@link Cache}.<br>
+ *
+ * @see InputKeysParser#compileInput(String)
+ * @see org.safs.robot.Robot#inputKeys(String)
+ * @since  OCT 18, 2026 (agent)
+ */
+public class KeystrokePlan {
+
+	/** 0, the action pasting a 'non-standard' string through the Clipboard. */
+	public static final int ACTION_PASTE = 0;
+	/** 50 milliseconds, the delay of the paste keystrokes, waiting until the Clipboard has been set. */
+	public static final int PASTE_DELAY = 50;
+
+	private final int[] steps;
+	private final RobotClipboardPasteEvent[] pastes;
+
+	private KeystrokePlan(int[] steps, RobotClipboardPasteEvent[] pastes){
+		this.steps = steps;
+		this.pastes = pastes;
+	}
+
+	/**
+	 * @param keys List, the RobotKeyEvents as returned by the InputKeysParser.
+	 * @return KeystrokePlan, the keystrokes compiled into (action, keycode) pairs.
+	 */
+	public static KeystrokePlan compile(List<RobotKeyEvent> keys){
+		int[] steps = new int[keys.size() * 2];
+		int count = 0;
+		for(int i=0;i<keys.size();i++){
+			if(keys.get(i) instanceof RobotClipboardPasteEvent) count++;
+		}
+		RobotClipboardPasteEvent[] pastes = new RobotClipboardPasteEvent[count];
+		count = 0;
+		for(int i=0;i<keys.size();i++){
+			RobotKeyEvent event = keys.get(i);
+			if(event instanceof RobotClipboardPasteEvent){
+				steps[i*2] = ACTION_PASTE;
+				steps[i*2+1] = count;
+				pastes[count++] = (RobotClipboardPasteEvent) event;
+			}else{
+				steps[i*2] = event.get_event();
+				steps[i*2+1] = event.get_keycode();
+			}
+		}
+		return new KeystrokePlan(steps, pastes);
+	}
+
+	/** @return int, the number of keystroke events in the plan. */
+	public int size(){
+		return steps.length / 2;
+	}
+
+	/** @return int, the action of the event at index, see {@link #ACTION_PASTE}. */
+	public int getAction(int index){
+		return steps[index*2];
+	}
+
+	/** @return int, the keycode of the event at index; the paste index for {@link #ACTION_PASTE}. */
+	public int getKeyCode(int index){
+		return steps[index*2+1];
+	}
+
+	/**
+	 * Send the keystrokes, as {@link RobotKeyEvent#doEvent(Instrumentation, int)} would for each event, 
+	 * but without rebuilding the events or logging each of them.<br>
+	 * The pastes are run with the {@link #PASTE_DELAY}.
+	 * @param robot Instrumentation, to send the keys. Nothing is sent if it is null.
+	 * @return int, the number of key events sent.
+	 */
+	public int replay(Instrumentation robot){
+		if(robot == null) return 0;
+		int sent = 0;
+		for(int i=0;i<steps.length;i+=2){
+			int action = steps[i];
+			int keycode = steps[i+1];
+			if(action == ACTION_PASTE){
+				pastes[keycode].doEvent(robot, PASTE_DELAY);
+				continue;
+			}
+			if((action & RobotKeyEvent.KEY_PRESS) == RobotKeyEvent.KEY_PRESS){
+				robot.sendKeySync(new KeyEvent(KeyEvent.ACTION_DOWN, keycode));
+				sent++;
+			}
+			if((action & RobotKeyEvent.KEY_RELEASE) == RobotKeyEvent.KEY_RELEASE){
+				robot.sendKeySync(new KeyEvent(KeyEvent.ACTION_UP, keycode));
+				sent++;
+			}
+		}
+		return sent;
+	}
+
+	/** @return String, like "KeystrokePlan[1:59,3:29,2:59]", the (action:keycode) pairs. */
+	public String toString(){
+		StringBuffer text = new StringBuffer("KeystrokePlan[");
+		for(int i=0;i<steps.length;i+=2){
+			if(i>0) text.append(',');
+			text.append(steps[i]).append(':').append(steps[i+1]);
+		}
+		return text.append(']').toString();
+	}
+
+	/**
+	 * A bounded LRU cache of the compiled plans, by input string.<br>
+	 * Data-driven suites send the same InputKeys strings many times: each distinct string is parsed once.
+	 * A plan depends on the key map of its parser, so each InputKeysParser has its own caches.
+	 */
+	public static class Cache {
+
+		/** 256 input strings */
+		public static final int DEFAULT_MAX_SIZE = 256;
+
+		private int maxSize = DEFAULT_MAX_SIZE;
+		private long hits = 0;
+		private long misses = 0;
+
+		private final LinkedHashMap<String, KeystrokePlan> plans = 
+			new LinkedHashMap<String, KeystrokePlan>(64, 0.75f, true){
+				private static final long serialVersionUID = 1L;
+				protected boolean removeEldestEntry(Map.Entry<String, KeystrokePlan> eldest){
+					return size() > maxSize;
+				}
+			};
+
+		/** @return KeystrokePlan, the cached plan of the input; or null if it has not been compiled yet. */
+		public synchronized KeystrokePlan get(String input){
+			KeystrokePlan plan = plans.get(input);
+			if(plan != null) hits++;
+			else misses++;
+			return plan;
+		}
+
+		public synchronized void put(String input, KeystrokePlan plan){
+			plans.put(input, plan);
+		}
+
+		/** @param size int, the maximum number of input strings kept, at least 1. */
+		public synchronized void setMaxSize(int size){
+			maxSize = size < 1 ? 1 : size;
+			while(plans.size() > maxSize) plans.remove(plans.keySet().iterator().next());
+		}
+
+		public synchronized int getMaxSize(){
+			return maxSize;
+		}
+
+		public synchronized void clear(){
+			plans.clear();
+		}
+
+		/**
+		 * @return String, like "size=40,hits=5230,misses=40,hitrate=99.2%"
+		 */
+		public synchronized String getStatistics(){
+			long total = hits + misses;
+			long permille = total == 0 ? 0 : (hits * 1000) / total;
+			return "size="+plans.size()+",hits="+hits+",misses="+misses+",hitrate="+(permille/10)+"."+(permille%10)+"%";
+		}
+	}
+}
@@ -0,0 +1,55 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package com.jayway.android.robotium.remotecontrol.client;
+
+/**
+ * Micro-benchmark comparing the key generation throughput of {@link SequentialKeyGenerator} 
+ * and {@link UUIDKeyGenerator}, with 1 and 4 threads.<br>
+ * Not part of the engine, run it on a desktop JVM with the engine classes on the classpath.
+ *
+ * @since  OCT 18, 2026 (agent)
+ */
+public class CacheKeyGeneratorBenchmark {
+
+	public static void main(String[] args) throws InterruptedException{
+		CacheKeyGenerator[] generators = {new UUIDKeyGenerator(), new SequentialKeyGenerator()};
+		int[] threadCounts = {1, 4};
+		final int keysPerThread = 200000;
+		
+		for(int g=0;g<generators.length;g++){
+			final CacheKeyGenerator generator = generators[g];
+			for(int t=0;t<threadCounts.length;t++){
+				Thread[] threads = new Thread[threadCounts[t]];
+				for(int i=0;i<threads.length;i++){
+					threads[i] = new Thread(){
+						public void run(){
+							for(int k=0;k<keysPerThread;k++) generator.makeKey(null);
+						}
+					};
+				}
+				long start = System.nanoTime();
+				for(int i=0;i<threads.length;i++) threads[i].start();
+				for(int i=0;i<threads.length;i++) threads[i].join();
+				long elapsed = System.nanoTime()-start;
+				long keys = (long) keysPerThread*threads.length;
+				System.out.println(generator.getClass().getSimpleName()+", "+threads.length+" thread(s): "+
+				                   (elapsed/keys)+" ns per key, "+(keys*1000000000L/elapsed)+" keys per second");
+			}
+		}
+	}
+}
@@ -0,0 +1,59 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package com.jayway.android.robotium.remotecontrol.client;
+
+/**
+ * Micro-benchmark of the cost seen by the logging thread of a {@link DebugChannel}, for a search visiting 2,000 nodes
+ * with 6 trace messages per node, against a sink simulating a remote round trip of 200 microseconds.<br>
+ * Compares sending every message synchronously, the asynchronous batched channel, and production mode.<br>
+ * Kept in tools/src, outside of the APK.
+ *
+ * @since  OCT 18, 2026 (agent)
+ */
+public class DebugChannelBenchmark {
+
+	public static void main(String[] args){
+		final int nodes = 2000;
+		final int messagesPerNode = 6;
+		final long roundTripNanos = 200000;
+		DebugChannel.Sink remote = new DebugChannel.Sink(){
+			public void send(String batch){
+				long end = System.nanoTime()+roundTripNanos;
+				while(System.nanoTime()<end);
+			}
+		};
+		String[] modes = {"synchronous", "asynchronous", "production"};
+		for(int m=0;m<modes.length;m++){
+			DebugChannel channel = new DebugChannel(remote, nodes*messagesPerNode);
+			channel.setLevel(DebugChannel.LEVEL_TRACE);
+			channel.setAsynchronous(m!=0);
+			channel.setProductionMode(m==2);
+			long start = System.nanoTime();
+			for(int n=0;n<nodes;n++){
+				for(int i=0;i<messagesPerNode;i++){
+					if(channel.isTraceEnabled()) channel.log(DebugChannel.LEVEL_TRACE, ".searchChildren processing child class: android.widget.TextView, node ", n, ", line ", i);
+				}
+			}
+			long elapsed = System.nanoTime()-start;
+			channel.flush(0);
+			long total = System.nanoTime()-start;
+			System.out.println(modes[m]+": search thread "+(elapsed/1000000)+" ms, until flushed "+(total/1000000)+" ms, "+
+			                   channel.getStatistics());
+		}
+	}
+}
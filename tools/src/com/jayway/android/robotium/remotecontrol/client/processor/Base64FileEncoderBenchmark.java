@@ -0,0 +1,114 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package com.jayway.android.robotium.remotecontrol.client.processor;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * Benchmark of {@link Base64FileEncoder#encodeFile(File)} on screenshot-sized files: bytes per second and peak heap
+ * growth for one screenshot, the former byte by byte way against the mapped and chunked encoding.<br>
+ * args[0], optional, the size of the file in KB, 1500 by default, about a 1080p JPG screenshot.<br>
+ * The file is random bytes, written to the temporary folder. The peak heap is sampled, so it is approximate.<br>
+ * Not part of the engine; it is run on a desktop JVM only.
+ *
+ * @since  OCT 18, 2026 (agent)
+ */
+public class Base64FileEncoderBenchmark {
+
+	/**
+	 * The former way: read the file byte by byte into a ByteArrayOutputStream, copy it to a byte array, 
+	 * and encode the whole array. The reference for the comparison of {@link #main(String[])}.
+	 */
+	static String encodeFileLegacy(File file) throws IOException{
+		BufferedInputStream inputstream = new BufferedInputStream(new FileInputStream(file));
+		ByteArrayOutputStream outputstream = new ByteArrayOutputStream();
+		try{
+			int byt = 0;
+			while(inputstream.available() > 0 && byt != -1){
+				byt = inputstream.read();
+				if(byt != -1) outputstream.write(byt);
+			}
+			byte[] bytes = outputstream.toByteArray();
+			// Base64.encodeToString encodes to a byte array, then decodes it to a String
+			char[] chars = Base64FileEncoder.encode(ByteBuffer.wrap(bytes)).toCharArray();
+			byte[] encoded = new byte[chars.length];
+			for(int i=0;i<chars.length;i++) encoded[i] = (byte) chars[i];
+			return new String(encoded, "US-ASCII");
+		}finally{
+			try{ inputstream.close();}catch(Exception ignore){}
+		}
+	}
+
+	/** Samples the used heap, to find its peak while a screenshot is encoded. */
+	private static final class HeapSampler extends Thread{
+		volatile boolean running = true;
+		volatile long peak = 0;
+		HeapSampler(){ setDaemon(true); }
+		public void run(){
+			Runtime runtime = Runtime.getRuntime();
+			while(running){
+				long used = runtime.totalMemory() - runtime.freeMemory();
+				if(used > peak) peak = used;
+				try{ Thread.sleep(0, 200000);}catch(InterruptedException x){ return; }
+			}
+		}
+	}
+
+	public static void main(String[] args) throws Exception{
+		int kb = args.length > 0 ? Integer.parseInt(args[0]) : 1500;
+		final int rounds = 6;
+		File file = File.createTempFile("screenshot", ".jpg");
+		file.deleteOnExit();
+		byte[] data = new byte[kb * 1024];
+		new Random(20261018L).nextBytes(data);
+		FileOutputStream out = new FileOutputStream(file);
+		try{ out.write(data);}finally{ out.close();}
+		data = null;
+
+		String expected = encodeFileLegacy(file);
+		if(!expected.equals(Base64FileEncoder.encodeFile(file))) throw new IllegalStateException("the encodings differ!");
+		expected = null;
+
+		for(int round=1;round<=rounds;round++){
+			for(int mode=0;mode<2;mode++){
+				System.gc();
+				Thread.sleep(50);
+				Runtime runtime = Runtime.getRuntime();
+				long base = runtime.totalMemory() - runtime.freeMemory();
+				HeapSampler sampler = new HeapSampler();
+				sampler.start();
+				long start = System.nanoTime();
+				String encoded = mode == 0 ? encodeFileLegacy(file) : Base64FileEncoder.encodeFile(file);
+				long nanos = System.nanoTime() - start;
+				sampler.running = false;
+				sampler.join();
+				long peak = Math.max(sampler.peak, runtime.totalMemory() - runtime.freeMemory()) - base;
+				System.out.println("round "+round+(mode == 0 ? " legacy ":" mapped ")+file.length()+" bytes: "+
+				                   (nanos/1000000)+" ms, "+(file.length()*1000000000L/Math.max(1, nanos)/1024)+" KB/s, "+
+				                   "peak heap +"+(peak/1024)+" KB, "+encoded.length()+" chars");
+			}
+		}
+	}
+}
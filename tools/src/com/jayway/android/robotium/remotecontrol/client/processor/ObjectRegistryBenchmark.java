@@ -0,0 +1,51 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package com.jayway.android.robotium.remotecontrol.client.processor;
+
+/**
+ * Benchmark of the reverse lookup of {@link ObjectRegistry#getKey(Object)}, used by convertToKey().<br>
+ * The per-lookup cost should stay flat from 100 to 100,000 cached objects.<br>
+ * A development tool, kept out of the engine sources.
+ *
+ * @since  OCT 18, 2026 (agent)
+ */
+public class ObjectRegistryBenchmark {
+
+	public static void main(String[] args){
+		int[] sizes = {100, 1000, 10000, 100000};
+		int lookups = 1000000;
+
+		for(int s=0;s<sizes.length;s++){
+			ObjectRegistry registry = new ObjectRegistry(sizes[s]);
+			Object[] objects = new Object[sizes[s]];
+			for(int i=0;i<objects.length;i++){
+				objects[i] = new Object();
+				registry.put("key"+i, objects[i]);
+			}
+
+			long start = System.nanoTime();
+			int found = 0;
+			for(int i=0;i<lookups;i++){
+				if(registry.getKey(objects[i % objects.length])!=null) found++;
+			}
+			long elapsed = System.nanoTime()-start;
+
+			System.out.println(sizes[s]+" cached objects: "+(elapsed/lookups)+" ns per lookup ("+found+" found)");
+		}
+	}
+}
@@ -0,0 +1,366 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package org.safs.android.engine;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import javax.xml.parsers.SAXParserFactory;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Regression check of {@link DGuiObjectIndices} against the Hashtable implementation it replaced.<br>
+ * This is a development tool: it lives outside of the src folder and is not packaged in the engine.
+ * <p>
+ * {@link #main(String[])} loads the view trees recorded with "adb shell uiautomator dump" from a folder of fixtures,
+ * and walks each of them the way {@link DGuiObjectVector#searchChildren(Object, DGuiObjectDefinition)} does: 
+ * it counts each node like {@link DGuiObjectVector#captureTestObjectIndex(Object, int)}, saves and restores the
+ * class indices around each descent, takes the copies kept by a match, and stops without restoring when the 
+ * sought node is found in a branch. Each tree is walked once without a sought node, then once for each of its 
+ * nodes as the sought node. After every step, all the indices of both implementations are compared.
+ * Then both are timed on the same walks, with a copy of all the indices for each node as the search used to do.<br>
+ * The type of a node is mapped from its class name with the engine's object_types_map.dat; unmapped classes 
+ * have no type. The id is the resource-id of the node, and the name is its entry name.
+ * <p>
+ * Usage, from the project folder with the engine classes and this class on the classpath:<br>
+ * java org.safs.android.engine.DGuiObjectIndicesCheck [fixtures folder] [object types map]<br>
+ * The defaults are tools/fixtures/viewtrees and res/raw/object_types_map.dat.
+ *
+ * @since  OCT 18, 2026 (agent)
+ */
+public class DGuiObjectIndicesCheck {
+
+	public static final String DEFAULT_FIXTURES = "tools/fixtures/viewtrees";
+	public static final String DEFAULT_TYPES_MAP = "res/raw/object_types_map.dat";
+
+	/** A node of a recorded tree, with the values read by captureTestObjectIndex. */
+	static final class Node{
+		String classname;
+		String type;
+		String id;
+		String name;
+		List<Node> children = new ArrayList<Node>();
+	}
+
+	/** The Hashtable implementation replaced by the primitive maps. */
+	static final class Legacy{
+		Hashtable<String,Integer> classindex = new Hashtable<String,Integer>();
+		Hashtable<String,Integer> subclassindex = new Hashtable<String,Integer>();
+		Hashtable<String,Integer> typeindex = new Hashtable<String,Integer>();
+		int objectindex = 0;
+		Hashtable<String,Integer> absoluteclassindex = new Hashtable<String,Integer>();
+		Hashtable<String,Integer> absolutetypeindex = new Hashtable<String,Integer>();
+		int absoluteobjectindex = 0;
+		Hashtable<String,Integer> absolutesubclassindex = new Hashtable<String,Integer>();
+		Hashtable<String,Integer> idindex = new Hashtable<String,Integer>();
+		Hashtable<String,Integer> nameindex = new Hashtable<String,Integer>();
+
+		Legacy copyAllIndices(){
+			Legacy copy = new Legacy();
+			copy.classindex = new Hashtable<String,Integer>(classindex);
+			copy.subclassindex = new Hashtable<String,Integer>(subclassindex);
+			copy.typeindex = new Hashtable<String,Integer>(typeindex);
+			copy.objectindex = objectindex;
+			copy.absoluteclassindex = new Hashtable<String,Integer>(absoluteclassindex);
+			copy.absolutesubclassindex = new Hashtable<String,Integer>(absolutesubclassindex);
+			copy.absolutetypeindex = new Hashtable<String,Integer>(absolutetypeindex);
+			copy.absoluteobjectindex = absoluteobjectindex;
+			copy.idindex = new Hashtable<String,Integer>(idindex);
+			copy.nameindex = new Hashtable<String,Integer>(nameindex);
+			return copy;
+		}
+		Legacy saveClassIndices(){
+			Legacy saved = new Legacy();
+			saved.classindex = new Hashtable<String,Integer>(classindex);
+			saved.subclassindex = new Hashtable<String,Integer>(subclassindex);
+			return saved;
+		}
+		void restoreClassIndices(Legacy saved){
+			classindex = new Hashtable<String,Integer>(saved.classindex);
+			subclassindex = new Hashtable<String,Integer>(saved.subclassindex);
+		}
+		private int incrementIndex(Hashtable<String,Integer> table, String key){
+			Integer oint = table.get(key);
+			int val = oint == null? 1: oint.intValue()+1;
+			table.put(key, Integer.valueOf(val));
+			return val;
+		}
+		private int getIndex(Hashtable<String,Integer> table, String key){
+			Integer cint = table.get(key);
+			return cint == null ? 0 : cint.intValue();
+		}
+		int incrementClassIndex(String aclass){
+			incrementIndex(absoluteclassindex, aclass);
+			return incrementIndex(classindex, aclass);
+		}
+		int incrementTypeIndex(String atype){
+			incrementIndex(absolutetypeindex, atype);
+			return incrementIndex(typeindex, atype);
+		}
+		int incrementIdIndex(String anid){ return incrementIndex(idindex, anid); }
+		int incrementNameIndex(String aname){ return incrementIndex(nameindex, aname); }
+		int incrementObjectIndex(){
+			++absoluteobjectindex;
+			return ++ objectindex;
+		}
+	}
+
+	/** @return HashMap, the types by simple class name, read from an object types map like "EditText=EditText". */
+	static HashMap<String,String> loadTypes(File file) throws Exception{
+		HashMap<String,String> types = new HashMap<String,String>();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+		try{
+			String line;
+			while((line = reader.readLine()) != null){
+				int sep = line.indexOf('=');
+				if(line.startsWith(";") || sep < 1) continue;
+				types.put(line.substring(0, sep).trim(), line.substring(sep+1).trim());
+			}
+		}finally{
+			reader.close();
+		}
+		return types;
+	}
+
+	/** @return Node, the root of the tree recorded by "uiautomator dump" in the file. */
+	static Node load(File file, final HashMap<String,String> types) throws Exception{
+		final Node root = new Node();
+		root.classname = "hierarchy";
+		final ArrayList<Node> parents = new ArrayList<Node>();
+		parents.add(root);
+		SAXParserFactory.newInstance().newSAXParser().parse(file, new DefaultHandler(){
+			public void startElement(String uri, String localName, String qName, Attributes attributes){
+				if(!"node".equals(qName)) return;
+				Node node = new Node();
+				node.classname = attributes.getValue("class");
+				String simplename = node.classname.substring(node.classname.lastIndexOf('.')+1);
+				node.type = types.get(simplename);
+				String resourceid = attributes.getValue("resource-id");
+				if(resourceid != null && resourceid.length() > 0){
+					node.id = resourceid;
+					node.name = resourceid.substring(resourceid.lastIndexOf('/')+1);
+				}
+				parents.get(parents.size()-1).children.add(node);
+				parents.add(node);
+			}
+			public void endElement(String uri, String localName, String qName){
+				if("node".equals(qName)) parents.remove(parents.size()-1);
+			}
+		});
+		return root;
+	}
+
+	static void capture(DGuiObjectIndices indices, Node node){
+		try{ indices.incrementClassIndex(node.classname); }catch(NullPointerException x){}
+		try{ indices.incrementTypeIndex(node.type); }catch(NullPointerException x){}
+		if(node.id != null) indices.incrementIdIndex(node.id);
+		if(node.name != null) indices.incrementNameIndex(node.name);
+		indices.incrementObjectIndex();
+	}
+
+	static void capture(Legacy indices, Node node){
+		try{ indices.incrementClassIndex(node.classname); }catch(NullPointerException x){}
+		try{ indices.incrementTypeIndex(node.type); }catch(NullPointerException x){}
+		if(node.id != null) indices.incrementIdIndex(node.id);
+		if(node.name != null) indices.incrementNameIndex(node.name);
+		indices.incrementObjectIndex();
+	}
+
+	/** The keys of a tree, to compare all the indices. */
+	static final class Keys{
+		LinkedHashSet<String> classes = new LinkedHashSet<String>();
+		LinkedHashSet<String> types = new LinkedHashSet<String>();
+		LinkedHashSet<String> ids = new LinkedHashSet<String>();
+		LinkedHashSet<String> names = new LinkedHashSet<String>();
+
+		Keys(List<Node> nodes){
+			classes.add("java.lang.Object");
+			for(int i=0;i<nodes.size();i++){
+				Node node = nodes.get(i);
+				classes.add(node.classname);
+				if(node.type != null) types.add(node.type);
+				if(node.id != null) ids.add(node.id);
+				if(node.name != null) names.add(node.name);
+			}
+		}
+	}
+
+	/** @return String, the first difference, or null if they are the same for all the keys. */
+	static String compare(DGuiObjectIndices indices, Legacy legacy, Keys keys){
+		if(indices.getObjectIndex() != legacy.objectindex) return "objectindex";
+		if(indices.getAbsObjectIndex() != legacy.absoluteobjectindex) return "absoluteobjectindex";
+		for(String key: keys.classes){
+			if(indices.getClassIndex(key) != legacy.getIndex(legacy.classindex, key)) return "classindex "+key;
+			if(indices.getAbsClassIndex(key) != legacy.getIndex(legacy.absoluteclassindex, key)) return "absoluteclassindex "+key;
+			if(indices.getSubClassIndex(key) != legacy.getIndex(legacy.subclassindex, key)) return "subclassindex "+key;
+			if(indices.getAbsSubClassIndex(key) != legacy.getIndex(legacy.absolutesubclassindex, key)) return "absolutesubclassindex "+key;
+		}
+		for(String key: keys.types){
+			if(indices.getTypeIndex(key) != legacy.getIndex(legacy.typeindex, key)) return "typeindex "+key;
+			if(indices.getAbsTypeIndex(key) != legacy.getIndex(legacy.absolutetypeindex, key)) return "absolutetypeindex "+key;
+		}
+		for(String key: keys.ids){
+			if(indices.getIdIndex(key) != legacy.getIndex(legacy.idindex, key)) return "idindex "+key;
+		}
+		for(String key: keys.names){
+			if(indices.getNameIndex(key) != legacy.getIndex(legacy.nameindex, key)) return "nameindex "+key;
+		}
+		return null;
+	}
+
+	/** The state of one checked walk. */
+	static final class Walk{
+		DGuiObjectIndices indices = new DGuiObjectIndices();
+		Legacy legacy = new Legacy();
+		Keys keys;
+		Node sought;
+		ArrayList<DGuiObjectIndices> copies = new ArrayList<DGuiObjectIndices>();
+		ArrayList<Legacy> legacyCopies = new ArrayList<Legacy>();
+		int steps = 0;
+
+		Walk(Keys keys, Node sought){
+			this.keys = keys;
+			this.sought = sought;
+		}
+
+		void check(){
+			steps++;
+			String difference = compare(indices, legacy, keys);
+			if(difference != null) throw new IllegalStateException("step "+steps+": "+difference);
+		}
+
+		/** Walk the children like searchChildren. @return true if the sought node was found. */
+		boolean search(Node parent){
+			for(int i=0;i<parent.children.size();i++){
+				Node child = parent.children.get(i);
+				capture(indices, child);
+				capture(legacy, child);
+				check();
+				if(child == sought) return true;
+				if(steps % 7 == 0){
+					// a partial match keeps a copy of all the indices
+					copies.add(indices.copyAllIndices());
+					legacyCopies.add(legacy.copyAllIndices());
+				}
+				if(child.children.size() > 0){
+					int mark = indices.checkpointClassIndices();
+					Legacy saved = legacy.saveClassIndices();
+					if(search(child)) return true;
+					indices.rollbackClassIndices(mark);
+					legacy.restoreClassIndices(saved);
+					check();
+				}
+			}
+			return false;
+		}
+	}
+
+	static void collect(Node node, ArrayList<Node> nodes){
+		nodes.add(node);
+		for(int i=0;i<node.children.size();i++) collect(node.children.get(i), nodes);
+	}
+
+	/** The walk of searchChildren for timing, without a sought node. */
+	static void timeNew(DGuiObjectIndices indices, Node parent, boolean copyPerNode){
+		for(int i=0;i<parent.children.size();i++){
+			Node child = parent.children.get(i);
+			capture(indices, child);
+			if(copyPerNode) indices.copyAllIndices();
+			if(child.children.size() > 0){
+				int mark = indices.checkpointClassIndices();
+				timeNew(indices, child, copyPerNode);
+				indices.rollbackClassIndices(mark);
+			}
+		}
+	}
+
+	static void timeLegacy(Legacy legacy, Node parent){
+		for(int i=0;i<parent.children.size();i++){
+			Node child = parent.children.get(i);
+			capture(legacy, child);
+			legacy.copyAllIndices();
+			if(child.children.size() > 0){
+				Legacy saved = legacy.saveClassIndices();
+				timeLegacy(legacy, child);
+				legacy.restoreClassIndices(saved);
+			}
+		}
+	}
+
+	/**
+	 * @param args optional, the folder of the recorded trees, and the object types map.
+	 */
+	public static void main(String[] args) throws Exception{
+		File folder = new File(args.length > 0 ? args[0] : DEFAULT_FIXTURES);
+		HashMap<String,String> types = loadTypes(new File(args.length > 1 ? args[1] : DEFAULT_TYPES_MAP));
+		File[] files = folder.listFiles();
+		if(files == null) throw new IllegalArgumentException("No fixtures folder "+ folder.getAbsolutePath());
+		Arrays.sort(files);
+		int trees = 0;
+		for(int f=0;f<files.length;f++){
+			if(!files[f].getName().endsWith(".xml")) continue;
+			trees++;
+			Node root = load(files[f], types);
+			ArrayList<Node> nodes = new ArrayList<Node>();
+			collect(root, nodes);
+			Keys keys = new Keys(nodes);
+			int steps = 0;
+			int copies = 0;
+			// the root is never a sought node: the first walk finds nothing and restores everything
+			for(int s=0;s<nodes.size();s++){
+				Walk walk = new Walk(keys, s == 0 ? null : nodes.get(s));
+				walk.search(root);
+				for(int c=0;c<walk.copies.size();c++){
+					String difference = compare(walk.copies.get(c), walk.legacyCopies.get(c), keys);
+					if(difference != null) throw new IllegalStateException(files[f].getName()+" sought "+s+" copy "+c+": "+difference);
+				}
+				steps += walk.steps;
+				copies += walk.copies.size();
+			}
+			System.out.println(files[f].getName()+": "+(nodes.size()-1)+" nodes, "+nodes.size()+" walks, "+
+			                   steps+" steps and "+copies+" copies compared: identical.");
+
+			int rounds = 2000;
+			long legacy = 0, copying = 0, current = 0;
+			for(int round=1;round<=5;round++){
+				long start = System.nanoTime();
+				for(int r=0;r<rounds;r++) timeLegacy(new Legacy(), root);
+				legacy = (System.nanoTime()-start)/rounds;
+				start = System.nanoTime();
+				for(int r=0;r<rounds;r++) timeNew(new DGuiObjectIndices(), root, true);
+				copying = (System.nanoTime()-start)/rounds;
+				start = System.nanoTime();
+				for(int r=0;r<rounds;r++) timeNew(new DGuiObjectIndices(), root, false);
+				current = (System.nanoTime()-start)/rounds;
+			}
+			System.out.println("    walk after warm-up: Hashtables with a copy per node "+(legacy/1000)+" us, "+
+			                   "primitive maps with a copy per node "+(copying/1000)+" us, primitive maps with checkpoints only "+(current/1000)+" us");
+		}
+		if(trees == 0) throw new IllegalArgumentException("No recorded trees in "+ folder.getAbsolutePath());
+	}
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package org.safs.android.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Micro-benchmark of repeated property reads on the same class, as VerifyProperty and CapturePropertiesToFile do:
+ * the uncached lookup of getPropertyByReflection against the cached {@link PropertyAccessor}s. Half of the properties do not
+ * exist, so each uncached read of them throws and catches 5 exceptions.<br>
+ * Each mode is run several times, the first rounds warm up the JIT. A development tool, not packaged in the engine.
+ *
+ * @since  OCT 18, 2026 (agent)
+ */
+public class PropertyAccessorBenchmark {
+
+	public static void main(String[] args){
+		final String[] properties = {"text", "enabled", "visibility", "hint", "layout", "scrollX", "alpha", "focused"};
+		final int reads = 200000;
+		final int rounds = 5;
+		Object target = new Object(){
+			@SuppressWarnings("unused") public String getText(){ return "OK"; }
+			@SuppressWarnings("unused") public boolean isEnabled(){ return true; }
+			@SuppressWarnings("unused") public int getVisibility(){ return 0; }
+			@SuppressWarnings("unused") public String getHint(){ return null; }
+		};
+		Class<?> clazz = target.getClass();
+		List<List<String>> names = new ArrayList<List<String>>();
+		for(int p=0;p<properties.length;p++){
+			String up = Character.toUpperCase(properties[p].charAt(0))+properties[p].substring(1);
+			List<String> candidates = new ArrayList<String>();
+			candidates.add(properties[p]);
+			candidates.add("get"+up);
+			candidates.add("is"+up);
+			candidates.add("has"+up);
+			names.add(candidates);
+		}
+
+		for(int round=1;round<=rounds;round++){
+			long found = 0;
+			long start = System.nanoTime();
+			for(int i=0;i<reads;i++){
+				int p = i % properties.length;
+				Object value = null;
+				try{ value = clazz.getField(properties[p]).get(target); }
+				catch(Exception x){
+					List<String> candidates = names.get(p);
+					for(int m=0;m<candidates.size();m++){
+						try{ value = clazz.getMethod(candidates.get(m), new Class<?>[0]).invoke(target, new Object[0]); break;}
+						catch(Exception ignore){}
+					}
+				}
+				if(value!=null) found++;
+			}
+			long uncached = System.nanoTime()-start;
+
+			PropertyAccessor.clearCache();
+			long cachedFound = 0;
+			start = System.nanoTime();
+			for(int i=0;i<reads;i++){
+				int p = i % properties.length;
+				PropertyAccessor accessor = PropertyAccessor.getCached(clazz, properties[p], true);
+				if(accessor==null) accessor = PropertyAccessor.resolve(clazz, properties[p], true, names.get(p));
+				if(!accessor.exists()) continue;
+				try{ if(accessor.read(target)!=null) cachedFound++; }catch(Exception ignore){}
+			}
+			long cached = System.nanoTime()-start;
+
+			System.out.println("round "+round+": "+reads+" reads, uncached "+(uncached/reads)+" ns/read, cached "+
+			                   (cached/reads)+" ns/read, speedup x"+(cached==0 ? 0:uncached/cached)+
+			                   ", values "+found+"/"+cachedFound);
+		}
+		System.out.println(PropertyAccessor.getStatistics());
+	}
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package org.safs.tools.input;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.Vector;
+
+import org.safs.text.INIFileReader;
+
+import android.app.Instrumentation;
+import android.view.KeyEvent;
+
+/**
+ * Benchmark of the parse-plus-inject throughput of Robot.inputKeys() for a data-driven set of InputKeys strings: 
+ * parseInput() and RobotKeyEvent.doEvent() for each call, against the cached compileInput() and {@link KeystrokePlan#replay(Instrumentation)}.<br>
+ * The keys are sent to an Instrumentation that only counts them and sums a checksum of the (action, keycode) 
+ * sequence, which must be the same for both. The strings have no 'non-standard' characters, since the 
+ * Clipboard pastes wait {@link KeystrokePlan#PASTE_DELAY} anyway. Each mode is run several times, the first rounds warm up the JIT.<br>
+ * Run on a device or emulator, the parser needs the Android classes. It is a development tool and is not built into the engine.
+ *
+ * @since  OCT 18, 2026 (agent)
+ */
+public class KeystrokePlanBenchmark {
+
+	/**
+	 * @param args optional, the path of the {@link CreateUnicodeMap#DEFAULT_FILE} key map; else it is read from the class path.
+	 */
+	public static void main(String[] args) throws Exception{
+		final String[] inputs = {"john.doe@example.com{TAB}Secret123~", "+(hello) World{ENTER}", "{DEL 10}Smith, John",
+		                         "^a{BACKSPACE}42~", "%{F4}", "{LEFT 5}{RIGHT 5}+{END}{DEL}", "Order #1234 (rush)~",
+		                         "The quick brown fox jumps over the lazy dog.~"};
+		final int calls = 20000;
+		final int rounds = 5;
+		InputStream stream = args.length > 0 ? new FileInputStream(args[0]) :
+			ClassLoader.getSystemResourceAsStream(CreateUnicodeMap.DEFAULT_FILE + CreateUnicodeMap.DEFAULT_FILE_EXT);
+		InputKeysParser parser = new InputKeysParser(new INIFileReader(stream, 0, false));
+		final long[] sums = new long[2];
+		Instrumentation robot = new Instrumentation(){
+			public void sendKeySync(KeyEvent event){
+				sums[0]++;
+				sums[1] = sums[1] * 31 + event.getAction() * 1000 + event.getKeyCode();
+			}
+		};
+
+		for(int round=1;round<=rounds;round++){
+			sums[0] = 0; sums[1] = 0;
+			long start = System.nanoTime();
+			for(int i=0;i<calls;i++){
+				Vector<RobotKeyEvent> keys = parser.parseInput(inputs[i % inputs.length]);
+				for(int k=0;k<keys.size();k++){
+					RobotKeyEvent event = keys.get(k);
+					if(event instanceof RobotClipboardPasteEvent) event.doEvent(robot, KeystrokePlan.PASTE_DELAY);
+					else event.doEvent(robot, 0);
+				}
+			}
+			long parsed = System.nanoTime()-start;
+			long parsedKeys = sums[0];
+			long parsedSum = sums[1];
+
+			parser.clearPlanCache();
+			sums[0] = 0; sums[1] = 0;
+			start = System.nanoTime();
+			for(int i=0;i<calls;i++){
+				parser.compileInput(inputs[i % inputs.length]).replay(robot);
+			}
+			long replayed = System.nanoTime()-start;
+
+			System.out.println("round "+round+": "+calls+" calls, "+parsedKeys+" key events, parse+inject "+
+			                   (parsed/calls)+" ns/call, cached plan "+(replayed/calls)+" ns/call, speedup x"+
+			                   (replayed==0 ? 0:parsed/replayed)+", same keys "+(parsedKeys==sums[0] && parsedSum==sums[1]));
+		}
+		System.out.println(parser.getPlanCacheStatistics());
+	}
+}